@@ -0,0 +1,92 @@
+package com.behamotten.events;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.SimulatedServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the participant list operations behind the event commands. Every change saves the list, so adding and
+ * removing include a save. Each churn invocation adds a batch of newcomers and removes them again, which keeps the
+ * list at its configured size without resetting it between invocations. The stub configuration does not write YAML,
+ * so {@link #save()} measures everything up to the file write itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventParticipationDataBenchmark {
+    private static final int BATCH = 64;
+
+    @Param({"100", "10000"})
+    public int participants;
+
+    private EventParticipationData data;
+    private List<Player> newcomers;
+
+    @Setup
+    public void createData() throws IOException {
+        final File dataFolder = Files.createTempDirectory("behamotten-jmh-participants").toFile();
+        final SimulatedServer server = new SimulatedServer(SimulatedServer.Settings.defaults().withAdvancements(0)
+                .withPlayers(participants + BATCH));
+        data = EventParticipationData.load(new JavaPlugin(server) {
+            @Override
+            public File getDataFolder() {
+                return dataFolder;
+            }
+        });
+        final List<Player> players = new ArrayList<>(server.getOnlinePlayers());
+        newcomers = new ArrayList<>(players.subList(participants, players.size()));
+        for (final Player player : players.subList(0, participants)) {
+            data.addParticipant(player);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2 * BATCH)
+    public int addAndRemoveParticipants() {
+        int changes = 0;
+        for (final Player newcomer : newcomers) {
+            if (data.addParticipant(newcomer).wasChanged()) {
+                changes++;
+            }
+        }
+        for (final Player newcomer : newcomers) {
+            if (data.removeParticipant(newcomer.getUniqueId()).wasChanged()) {
+                changes++;
+            }
+        }
+        return changes;
+    }
+
+    @Benchmark
+    public Optional<String> randomDraw() {
+        return data.getRandomParticipantName();
+    }
+
+    @Benchmark
+    public boolean save() {
+        return data.save();
+    }
+}
@@ -0,0 +1,72 @@
+package com.behamotten.events.advancements;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.SimulatedServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures forced, read-only exports of simulated modpacks: capturing the advancements, rendering the index from
+ * the warm text cache and writing the export file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdvancementExportBenchmark {
+    @Param({"1000", "20000"})
+    public int advancements;
+
+    @Param({"3", "12"})
+    public int depth;
+
+    @Param({"JSON", "CSV"})
+    public ExportFormat format;
+
+    /**
+     * Time each call into the simulated server takes; raise it with {@code -p callLatencyNanos=...} to model a busy
+     * server thread.
+     */
+    @Param({"0"})
+    public long callLatencyNanos;
+
+    private AdvancementExporter exporter;
+    private ExportOptions options;
+
+    @Setup
+    public void createExporter() throws IOException {
+        final File dataFolder = Files.createTempDirectory("behamotten-jmh-export").toFile();
+        final SimulatedServer server = new SimulatedServer(SimulatedServer.Settings.defaults()
+                .withAdvancements(advancements).withDepth(depth).withNamespaces(40)
+                .withCallLatency(Duration.ofNanos(callLatencyNanos)));
+        exporter = new AdvancementExporter(new JavaPlugin(server) {
+            @Override
+            public File getDataFolder() {
+                return dataFolder;
+            }
+        });
+        options = ExportOptions.defaults().withForce(true).withFormat(format);
+    }
+
+    @Benchmark
+    public int export() throws AdvancementExportException {
+        return exporter.export(options).advancementCount();
+    }
+}
@@ -0,0 +1,103 @@
+package com.behamotten.events.advancements;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how fast {@link JsonReader} tokenizes a pretty-printed synthetic export, from a file channel and from an
+ * in-memory reader.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonReaderBenchmark {
+    @Param({"1000", "50000"})
+    public int entries;
+
+    private String json;
+    private Path file;
+
+    @Setup
+    public void writeExport() throws IOException {
+        json = JsonWriter.stringify(JsonWriterBenchmark.syntheticExport(entries), true);
+        file = Files.createTempFile("behamotten-jmh-reader", ".json");
+        Files.writeString(file, json, StandardCharsets.UTF_8);
+    }
+
+    @TearDown
+    public void deleteExport() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void skipFile() throws IOException {
+        try (JsonReader reader = JsonReader.open(file)) {
+            reader.skipValue();
+        }
+    }
+
+    @Benchmark
+    public long readEntriesFromFile() throws IOException {
+        try (JsonReader reader = JsonReader.open(file)) {
+            return readEntries(reader);
+        }
+    }
+
+    @Benchmark
+    public long readEntriesFromString() throws IOException {
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            return readEntries(reader);
+        }
+    }
+
+    /**
+     * Reads every entry field by field, the way an incremental export or diff would.
+     */
+    private long readEntries(final JsonReader reader) throws IOException {
+        long checksum = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!"advancaments".equals(reader.nextName())) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginArray();
+            while (reader.hasNext()) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    final String name = reader.nextName();
+                    if (reader.peek() == JsonReader.Token.STRING) {
+                        checksum += reader.nextString().length();
+                    } else {
+                        reader.skipValue();
+                    }
+                    checksum += name.length();
+                }
+                reader.endObject();
+            }
+            reader.endArray();
+        }
+        reader.endObject();
+        return checksum;
+    }
+}
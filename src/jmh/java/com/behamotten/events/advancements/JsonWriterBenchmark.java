@@ -0,0 +1,92 @@
+package com.behamotten.events.advancements;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link JsonWriter} on export-shaped documents with non-ASCII text and escaped quotes: building a string,
+ * as used for the HTTP endpoint's responses, and encoding through {@link Utf8Writer}, as used for export files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonWriterBenchmark {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Param({"1000", "50000"})
+    public int entries;
+
+    @Param({"true", "false"})
+    public boolean pretty;
+
+    private Map<String, Object> document;
+    private ByteArrayOutputStream sink;
+
+    @Setup
+    public void createDocument() {
+        document = syntheticExport(entries);
+        sink = new ByteArrayOutputStream(JsonWriter.stringify(document, pretty).length() * 2);
+    }
+
+    @Benchmark
+    public String stringify() {
+        return JsonWriter.stringify(document, pretty);
+    }
+
+    @Benchmark
+    public int writeUtf8() throws IOException {
+        sink.reset();
+        try (Writer writer = new Utf8Writer(sink, BUFFER_SIZE)) {
+            JsonWriter.writeValue(writer, document, 0, pretty);
+        }
+        return sink.size();
+    }
+
+    /**
+     * Builds a document shaped like an advancement export with the given number of entries in 40 groups.
+     */
+    static Map<String, Object> syntheticExport(final int entries) {
+        final List<Object> advancements = new ArrayList<>(entries);
+        for (int i = 0; i < entries; i++) {
+            final String group = "bench" + i % 40;
+            final Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("advancaments_id", group + ":path/to/advancement_" + i);
+            entry.put("advancaments_title", "Advancement Nummer " + i + " – Größe");
+            entry.put("advancaments_description", "Complete the \"benchmark\" task number " + i + " of " + entries);
+            entry.put("source_file", "data/" + group + "/advancements/path/to/advancement_" + i + ".json");
+            entry.put("dependencies", i < 40 ? List.of() : List.of(group + ":path/to/advancement_" + (i - 40)));
+            entry.put("group_id", group);
+            entry.put("depth", i / 40);
+            entry.put("completion_percent", i % 10_000 / 100.0);
+            advancements.add(entry);
+        }
+        final Map<String, Object> meta = new LinkedHashMap<>();
+        meta.put("generated_at", "2024-01-01T00:00:00Z");
+        meta.put("advancaments_found", entries);
+        final Map<String, Object> document = new LinkedHashMap<>();
+        document.put("meta", meta);
+        document.put("advancaments", advancements);
+        return document;
+    }
+}
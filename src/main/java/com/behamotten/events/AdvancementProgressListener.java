@@ -0,0 +1,66 @@
+package com.behamotten.events;
+
+import java.util.Locale;
+import java.util.Objects;
+
+import org.bukkit.advancement.AdvancementDisplay;
+import org.bukkit.advancement.AdvancementFrameType;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerAdvancementDoneEvent;
+
+import com.behamotten.events.advancements.AdvancementExporter;
+
+/**
+ * Counts completed advancements of event participants as they happen. Players who are not registered for events are
+ * skipped with a single lookup, as are advancements without a display such as recipe unlocks. Advancements an export
+ * grants while {@link AdvancementExporter#isAwarding(java.util.UUID) awarding criteria} are not counted either.
+ */
+public final class AdvancementProgressListener implements Listener {
+    static final String POINTS_PATH = "advancement-progress.points.";
+
+    private final EventParticipationData participationData;
+    private final EventProgressData progressData;
+    private final int[] pointsByFrame;
+
+    public AdvancementProgressListener(final EventParticipationData participationData,
+            final EventProgressData progressData, final FileConfiguration config) {
+        this.participationData = Objects.requireNonNull(participationData, "participationData");
+        this.progressData = Objects.requireNonNull(progressData, "progressData");
+        final AdvancementFrameType[] frames = AdvancementFrameType.values();
+        this.pointsByFrame = new int[frames.length];
+        for (final AdvancementFrameType frame : frames) {
+            pointsByFrame[frame.ordinal()] = config.getInt(POINTS_PATH + frame.name().toLowerCase(Locale.ROOT),
+                    defaultPoints(frame));
+        }
+    }
+
+    @EventHandler
+    public void onAdvancementDone(final PlayerAdvancementDoneEvent event) {
+        final Player player = event.getPlayer();
+        if (!participationData.isParticipant(player.getUniqueId())
+                || AdvancementExporter.isAwarding(player.getUniqueId())) {
+            return;
+        }
+        final AdvancementDisplay display = event.getAdvancement().getDisplay();
+        if (display == null) {
+            return;
+        }
+        final AdvancementFrameType frame = display.frame();
+        progressData.record(player.getUniqueId(), player.getName(), frame,
+                frame != null ? pointsByFrame[frame.ordinal()] : 0);
+    }
+
+    private static int defaultPoints(final AdvancementFrameType frame) {
+        switch (frame) {
+            case GOAL:
+                return 3;
+            case CHALLENGE:
+                return 5;
+            default:
+                return 1;
+        }
+    }
+}
@@ -1,33 +1,203 @@
 package com.behamotten.events;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.PluginCommand;
+import org.bukkit.command.TabCompleter;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
 
 import com.behamotten.events.advancements.AdvancementExportCommand;
+import com.behamotten.events.advancements.AdvancementExportException;
+import com.behamotten.events.advancements.AdvancementExporter;
+import com.behamotten.events.advancements.AdvancementIndexService;
+import com.behamotten.events.advancements.AdvancementScanCommand;
+import com.behamotten.events.advancements.AdvancementSearchCommand;
+import com.behamotten.events.advancements.ExportCoordinator;
+import com.behamotten.events.advancements.ExportOptions;
+import com.behamotten.events.advancements.RenderedTextCache;
+import com.behamotten.events.advancements.ScheduledExport;
+import com.behamotten.events.http.HttpEndpoint;
+import com.behamotten.events.metrics.AdaptiveThrottle;
+import com.behamotten.events.metrics.CommandEvent;
+import com.behamotten.events.metrics.LoadMonitor;
+import com.behamotten.events.metrics.PluginMetrics;
+import com.behamotten.events.metrics.PrometheusFormat;
+import com.behamotten.events.metrics.PrometheusTextFile;
 
 /**
  * Main plugin entry point for managing event participation commands and persistence.
  */
 public final class BehamottenEventsPlugin extends JavaPlugin {
+    private static final long TICKS_PER_SECOND = 20L;
+    private static final int MAX_DEFERRED_FLUSHES = 5;
+
     private EventParticipationData participationData;
+    private EventProgressData progressData;
+    private BukkitTask progressFlushTask;
+    private AdvancementIndexService advancementIndex;
+    private final PluginMetrics metrics = new PluginMetrics();
+    private ScheduledExport scheduledExport;
+    private LoadMonitor loadMonitor;
+    private AdaptiveThrottle throttle;
+    private int deferredFlushes;
+    private HttpEndpoint httpEndpoint;
+    private PrometheusTextFile metricsFile;
+
     @Override
     public void onEnable() {
-        participationData = EventParticipationData.load(this);
+        saveDefaultConfig();
+        startLoadMonitoring();
+        participationData = EventParticipationData.load(this, metrics);
         new EventCommandRegistrar(this, participationData).registerCommands();
+        startProgressTracking();
+        startAdvancementIndex();
         registerAdvancementCommand();
+        startHttpEndpoint();
+        metricsFile = PrometheusTextFile.fromConfig(this, metrics);
+        if (metricsFile != null) {
+            metricsFile.start();
+        }
         getLogger().info(() -> "Loaded " + participationData.getParticipantCount() + " event participants.");
     }
 
     @Override
     public void onDisable() {
+        if (httpEndpoint != null) {
+            httpEndpoint.stop();
+        }
+        if (metricsFile != null) {
+            metricsFile.stop();
+        }
         if (participationData != null) {
             participationData.save();
         }
+        if (progressFlushTask != null) {
+            progressFlushTask.cancel();
+        }
+        if (progressData != null) {
+            progressData.save();
+        }
+        if (scheduledExport != null) {
+            scheduledExport.stop();
+        }
+        if (loadMonitor != null) {
+            loadMonitor.stop();
+        }
+    }
+
+    private void startLoadMonitoring() {
+        loadMonitor = new LoadMonitor(this, metrics);
+        try {
+            throttle = AdaptiveThrottle.fromConfig(getConfig(), loadMonitor, metrics);
+        } catch (final IllegalArgumentException exception) {
+            getLogger().severe(() -> "Load settings are not configured correctly, background work will not be"
+                    + " throttled: " + exception.getMessage());
+            throttle = AdaptiveThrottle.unlimited();
+        }
+        loadMonitor.start();
+    }
+
+    private void startProgressTracking() {
+        progressData = EventProgressData.load(this);
+        progressData.retain(participationData::isParticipant);
+        participationData.onRemoved(progressData::remove);
+        getServer().getPluginManager().registerEvents(
+                new AdvancementProgressListener(participationData, progressData, getConfig()), this);
+        final long period = Math.max(1L, getConfig().getLong("advancement-progress.flush-interval-seconds", 30L))
+                * TICKS_PER_SECOND;
+        final BukkitScheduler scheduler = getServer().getScheduler();
+        progressFlushTask = scheduler.runTaskTimer(this, () -> flushProgress(scheduler), period, period);
+        final EventLeaderboardCommand leaderboardCommand = new EventLeaderboardCommand(progressData.getLeaderboard());
+        registerCommand("eventtop", leaderboardCommand);
+        registerCommand("eventrank", leaderboardCommand);
+    }
+
+    /**
+     * Writes changed progress asynchronously, skipping up to {@value #MAX_DEFERRED_FLUSHES} intervals in a row while
+     * the server is overloaded.
+     */
+    private void flushProgress(final BukkitScheduler scheduler) {
+        if (progressData.isDirty() && throttle.isOverloaded() && deferredFlushes < MAX_DEFERRED_FLUSHES) {
+            deferredFlushes++;
+            return;
+        }
+        deferredFlushes = 0;
+        progressData.flush(task -> scheduler.runTaskAsynchronously(this, task));
+    }
+
+    private void startAdvancementIndex() {
+        advancementIndex = new AdvancementIndexService(this);
+        RenderedTextCache.shared().registerMetrics(metrics);
+        getServer().getPluginManager().registerEvents(advancementIndex, this);
+        try {
+            advancementIndex.rebuild();
+        } catch (final AdvancementExportException exception) {
+            getLogger().warning(() -> "Advancement index will be built on first use: " + exception.getMessage());
+        }
     }
 
     private void registerAdvancementCommand() {
-        registerCommand("exportadvancements", new AdvancementExportCommand(this));
+        final ExportCoordinator exportCoordinator = new ExportCoordinator(this, advancementIndex, throttle, metrics);
+        registerCommand("exportadvancements", new AdvancementExportCommand(this, exportCoordinator));
+        try {
+            scheduledExport = ScheduledExport.fromConfig(this, exportCoordinator, metrics, throttle);
+        } catch (final IllegalArgumentException exception) {
+            getLogger().severe(() -> "Scheduled advancement export is not configured correctly: "
+                    + exception.getMessage());
+        }
+        if (scheduledExport != null) {
+            scheduledExport.start();
+        }
+        registerCommand("advancements", new AdvancementSearchCommand(this, advancementIndex));
+        registerCommand("scanadvancements",
+                new AdvancementScanCommand(this, advancementIndex, participationData::getParticipants, throttle));
+    }
+
+    /**
+     * Serves the participant list, the latest JSON advancement export and the metrics on localhost if enabled in the
+     * config.
+     */
+    private void startHttpEndpoint() {
+        try {
+            httpEndpoint = HttpEndpoint.fromConfig(this);
+        } catch (final IOException | IllegalArgumentException exception) {
+            getLogger().severe(() -> "HTTP endpoint could not be started: " + exception.getMessage());
+            return;
+        }
+        if (httpEndpoint == null) {
+            return;
+        }
+        httpEndpoint.serveJson("/participants", participationData::snapshot,
+                EventParticipationData.Snapshot::getVersion, BehamottenEventsPlugin::participantDocument);
+        final AdvancementExporter exporter = new AdvancementExporter(this, null, advancementIndex);
+        final ExportOptions json = ExportOptions.defaults();
+        httpEndpoint.serveFile("/advancements", "application/json; charset=utf-8",
+                List.of(exporter.outputFile(json), exporter.outputFile(json.withGzip(true))));
+        httpEndpoint.serveText("/metrics", PrometheusFormat.CONTENT_TYPE, () -> PrometheusFormat.format(metrics));
+        httpEndpoint.start();
+    }
+
+    private static Map<String, Object> participantDocument(final EventParticipationData.Snapshot snapshot) {
+        final List<Map<String, Object>> participants = new ArrayList<>(snapshot.getParticipants().size());
+        for (final Map.Entry<UUID, String> participant : snapshot.getParticipants().entrySet()) {
+            final Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("uuid", participant.getKey().toString());
+            entry.put("name", participant.getValue());
+            participants.add(entry);
+        }
+        final Map<String, Object> document = new LinkedHashMap<>();
+        document.put("version", snapshot.getVersion());
+        document.put("participants_found", participants.size());
+        document.put("participants", participants);
+        return document;
     }
 
     private void registerCommand(final String name, final CommandExecutor executor) {
@@ -36,6 +206,9 @@ public final class BehamottenEventsPlugin extends JavaPlugin {
             getLogger().severe(() -> "Command '" + name + "' is not defined in plugin.yml.");
             return;
         }
-        command.setExecutor(executor);
+        command.setExecutor(CommandEvent.record(executor));
+        if (executor instanceof TabCompleter) {
+            command.setTabCompleter((TabCompleter) executor);
+        }
     }
 }
@@ -15,6 +15,8 @@ import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import com.behamotten.events.metrics.CommandEvent;
+
 /**
  * Registers and implements the commands that manage event participation.
  */
@@ -40,7 +42,7 @@ public final class EventCommandRegistrar implements CommandExecutor, TabComplete
             plugin.getLogger().severe("Command '" + commandName + "' is not defined in plugin.yml.");
             return;
         }
-        command.setExecutor(this);
+        command.setExecutor(CommandEvent.record(this));
         command.setTabCompleter(this);
     }
 
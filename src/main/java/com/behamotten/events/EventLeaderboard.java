@@ -0,0 +1,302 @@
+package com.behamotten.events;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Live event ranking of participants by score. Entries are kept in an order-statistic treap ordered by score
+ * (highest first) and UUID, so a score change, a rank lookup and reading the top {@code n} entries all take
+ * {@code O(log n)} (plus {@code n} for the entries read) instead of sorting all participants.
+ *
+ * <p>Updates usually happen on the server thread, but all methods are guarded by a read/write lock so that
+ * asynchronous readers always see a consistent ranking.</p>
+ */
+public final class EventLeaderboard {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Node> nodes = new HashMap<>();
+    private final Map<String, UUID> uuidsByName = new HashMap<>();
+    private final SplittableRandom priorities = new SplittableRandom();
+    private Node root;
+
+    /**
+     * Sets the score of a participant, adding the participant if necessary.
+     */
+    public void update(final UUID uuid, final String name, final long score) {
+        lock.writeLock().lock();
+        try {
+            final Node existing = nodes.get(uuid);
+            if (existing != null) {
+                if (existing.name != null) {
+                    uuidsByName.remove(existing.name.toLowerCase(Locale.ROOT), uuid);
+                }
+                if (existing.score == score) {
+                    existing.name = name;
+                    indexName(uuid, name);
+                    return;
+                }
+                root = remove(root, existing.score, uuid);
+            }
+            final Node node = new Node(uuid, name, score, priorities.nextInt());
+            nodes.put(uuid, node);
+            indexName(uuid, name);
+            final Node[] parts = split(root, score, uuid);
+            root = merge(merge(parts[0], node), parts[1]);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a participant from the ranking.
+     */
+    public boolean remove(final UUID uuid) {
+        lock.writeLock().lock();
+        try {
+            final Node existing = nodes.remove(uuid);
+            if (existing == null) {
+                return false;
+            }
+            if (existing.name != null) {
+                uuidsByName.remove(existing.name.toLowerCase(Locale.ROOT), uuid);
+            }
+            root = remove(root, existing.score, uuid);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the best {@code limit} entries, highest score first.
+     */
+    public List<Entry> top(final int limit) {
+        lock.readLock().lock();
+        try {
+            final List<Entry> entries = new ArrayList<>(Math.max(0, Math.min(limit, size(root))));
+            collect(root, limit, entries);
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the entry of a participant with its rank. Participants with equal scores share a rank.
+     */
+    public Optional<Entry> find(final UUID uuid) {
+        lock.readLock().lock();
+        try {
+            final Node node = nodes.get(uuid);
+            return node != null ? Optional.of(toEntry(node)) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Looks up a participant by name, ignoring case.
+     */
+    public Optional<Entry> findByName(final String name) {
+        lock.readLock().lock();
+        try {
+            final UUID uuid = uuidsByName.get(name.toLowerCase(Locale.ROOT));
+            final Node node = uuid != null ? nodes.get(uuid) : null;
+            return node != null ? Optional.of(toEntry(node)) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void indexName(final UUID uuid, final String name) {
+        if (name != null) {
+            uuidsByName.put(name.toLowerCase(Locale.ROOT), uuid);
+        }
+    }
+
+    private Entry toEntry(final Node node) {
+        // Counting the nodes ordered before (score, no UUID) counts every strictly higher score.
+        return new Entry(node.uuid, node.name, node.score, countBefore(root, node.score, null) + 1);
+    }
+
+    private void collect(final Node node, final int limit, final List<Entry> entries) {
+        if (node == null || entries.size() >= limit) {
+            return;
+        }
+        collect(node.left, limit, entries);
+        if (entries.size() < limit) {
+            final int rank = entries.isEmpty() || entries.get(entries.size() - 1).score != node.score
+                    ? entries.size() + 1
+                    : entries.get(entries.size() - 1).rank;
+            entries.add(new Entry(node.uuid, node.name, node.score, rank));
+        }
+        collect(node.right, limit, entries);
+    }
+
+    /**
+     * Orders by descending score, then ascending UUID. A {@code null} UUID sorts before every real UUID of the same
+     * score.
+     */
+    private static int compare(final long score, final UUID uuid, final Node node) {
+        if (score != node.score) {
+            return score > node.score ? -1 : 1;
+        }
+        if (uuid == null) {
+            return -1;
+        }
+        return uuid.compareTo(node.uuid);
+    }
+
+    private static int countBefore(final Node node, final long score, final UUID uuid) {
+        int count = 0;
+        Node current = node;
+        while (current != null) {
+            if (compare(score, uuid, current) <= 0) {
+                current = current.left;
+            } else {
+                count += size(current.left) + 1;
+                current = current.right;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Splits into the nodes ordered before the key and the rest.
+     */
+    private static Node[] split(final Node node, final long score, final UUID uuid) {
+        if (node == null) {
+            return new Node[] {null, null};
+        }
+        if (compare(score, uuid, node) <= 0) {
+            final Node[] parts = split(node.left, score, uuid);
+            node.left = parts[1];
+            node.update();
+            return new Node[] {parts[0], node};
+        }
+        final Node[] parts = split(node.right, score, uuid);
+        node.right = parts[0];
+        node.update();
+        return new Node[] {node, parts[1]};
+    }
+
+    private static Node merge(final Node left, final Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static Node remove(final Node node, final long score, final UUID uuid) {
+        if (node == null) {
+            return null;
+        }
+        final int comparison = compare(score, uuid, node);
+        if (comparison == 0) {
+            return merge(node.left, node.right);
+        }
+        if (comparison < 0) {
+            node.left = remove(node.left, score, uuid);
+        } else {
+            node.right = remove(node.right, score, uuid);
+        }
+        node.update();
+        return node;
+    }
+
+    private static int size(final Node node) {
+        return node != null ? node.size : 0;
+    }
+
+    private static final class Node {
+        private final UUID uuid;
+        private final long score;
+        private final int priority;
+        private String name;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(final UUID uuid, final String name, final long score, final int priority) {
+            this.uuid = uuid;
+            this.name = name;
+            this.score = score;
+            this.priority = priority;
+        }
+
+        private void update() {
+            size = 1 + size(left) + size(right);
+        }
+    }
+
+    /**
+     * Immutable leaderboard position of a participant.
+     */
+    public static final class Entry {
+        private final UUID uuid;
+        private final String name;
+        private final long score;
+        private final int rank;
+
+        Entry(final UUID uuid, final String name, final long score, final int rank) {
+            this.uuid = uuid;
+            this.name = name;
+            this.score = score;
+            this.rank = rank;
+        }
+
+        public UUID getUuid() {
+            return uuid;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getScore() {
+            return score;
+        }
+
+        /**
+         * Returns the 1-based rank; participants with equal scores share a rank.
+         */
+        public int getRank() {
+            return rank;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{" +
+                    "name='" + name + '\'' +
+                    ", score=" + score +
+                    ", rank=" + rank +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.behamotten.events;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+import org.bukkit.entity.Player;
+
+/**
+ * Implements {@code /eventtop [n]} and {@code /eventrank [spieler]} on top of the live {@link EventLeaderboard}.
+ */
+public final class EventLeaderboardCommand implements CommandExecutor, TabCompleter {
+    static final int DEFAULT_TOP = 10;
+    static final int MAX_TOP = 50;
+
+    private final EventLeaderboard leaderboard;
+
+    public EventLeaderboardCommand(final EventLeaderboard leaderboard) {
+        this.leaderboard = Objects.requireNonNull(leaderboard, "leaderboard");
+    }
+
+    @Override
+    public boolean onCommand(final CommandSender sender, final Command command, final String label,
+            final String[] args) {
+        switch (command.getName().toLowerCase(Locale.ROOT)) {
+            case "eventtop":
+                return handleTop(sender, args);
+            case "eventrank":
+                return handleRank(sender, args);
+            default:
+                return false;
+        }
+    }
+
+    private boolean handleTop(final CommandSender sender, final String[] args) {
+        int limit = DEFAULT_TOP;
+        if (args.length > 0) {
+            try {
+                limit = Integer.parseInt(args[0]);
+            } catch (final NumberFormatException exception) {
+                limit = 0;
+            }
+            if (limit < 1 || limit > MAX_TOP) {
+                sender.sendMessage(ChatColor.RED + "Bitte gib eine Anzahl zwischen 1 und " + MAX_TOP + " an.");
+                return true;
+            }
+        }
+        final List<EventLeaderboard.Entry> top = leaderboard.top(limit);
+        if (top.isEmpty()) {
+            sender.sendMessage(ChatColor.RED + "Es wurden noch keine Advancements von Event-Teilnehmern erreicht.");
+            return true;
+        }
+        sender.sendMessage(ChatColor.GOLD + "Bestenliste (Top " + top.size() + " von " + leaderboard.size() + "):");
+        for (final EventLeaderboard.Entry entry : top) {
+            sender.sendMessage(ChatColor.YELLOW + "#" + entry.getRank() + " " + entry.getName() + ChatColor.GREEN
+                    + " – " + entry.getScore() + " Punkte");
+        }
+        return true;
+    }
+
+    private boolean handleRank(final CommandSender sender, final String[] args) {
+        final Optional<EventLeaderboard.Entry> entry;
+        if (args.length > 0) {
+            entry = leaderboard.findByName(args[0]);
+        } else if (sender instanceof Player) {
+            entry = leaderboard.find(((Player) sender).getUniqueId());
+        } else {
+            sender.sendMessage(ChatColor.RED + "Bitte gib einen Spielernamen an.");
+            return true;
+        }
+        if (entry.isEmpty()) {
+            sender.sendMessage(ChatColor.YELLOW + (args.length > 0
+                    ? args[0] + " ist noch nicht in der Bestenliste."
+                    : "Du bist noch nicht in der Bestenliste."));
+            return true;
+        }
+        final EventLeaderboard.Entry found = entry.get();
+        sender.sendMessage(ChatColor.GOLD + found.getName() + ": Platz " + found.getRank() + " von "
+                + leaderboard.size() + ChatColor.GREEN + " (" + found.getScore() + " Punkte)");
+        return true;
+    }
+
+    @Override
+    public List<String> onTabComplete(final CommandSender sender, final Command command, final String alias,
+            final String[] args) {
+        if ("eventrank".equalsIgnoreCase(command.getName()) && args.length == 1) {
+            final String prefix = args[0].toLowerCase(Locale.ROOT);
+            final List<String> names = new ArrayList<>();
+            for (final EventLeaderboard.Entry entry : leaderboard.top(MAX_TOP)) {
+                if (entry.getName() != null && entry.getName().toLowerCase(Locale.ROOT).startsWith(prefix)) {
+                    names.add(entry.getName());
+                }
+            }
+            return names;
+        }
+        return Collections.emptyList();
+    }
+}
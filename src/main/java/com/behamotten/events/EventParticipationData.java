@@ -4,12 +4,16 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 
 import org.bukkit.configuration.ConfigurationSection;
@@ -18,8 +22,12 @@ import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import com.behamotten.events.metrics.ParticipantFileEvent;
+import com.behamotten.events.metrics.PluginMetrics;
+
 /**
- * Persistent storage for all event participants.
+ * Persistent storage for all event participants. Changes are made on the server thread; every change also publishes
+ * an immutable, versioned {@link Snapshot} that other threads can read without synchronization.
  */
 public final class EventParticipationData {
     private static final String FILE_NAME = "event_participants.yml";
@@ -29,15 +37,40 @@ public final class EventParticipationData {
     private final Path dataFile;
     private final Map<UUID, String> participants = new LinkedHashMap<>();
     private boolean dirty;
+    private volatile Snapshot snapshot = new Snapshot(0L, Map.of());
+    private final List<Consumer<UUID>> removalListeners = new CopyOnWriteArrayList<>();
+    private final PluginMetrics.Counter mutations;
+    private final PluginMetrics.Counter saves;
+    private final PluginMetrics.Counter saveMicros;
+    private final PluginMetrics.Counter saveFailures;
+    private final PluginMetrics.Counter unpersistedUpdates;
 
-    private EventParticipationData(final JavaPlugin plugin) {
+    private EventParticipationData(final JavaPlugin plugin, final PluginMetrics metrics) {
         this.plugin = plugin;
         this.dataFile = plugin.getDataFolder().toPath().resolve(FILE_NAME);
+        this.mutations = metrics.counter("event_participant_mutations_total",
+                "Participants added, renamed or removed.");
+        this.saves = metrics.counter("event_participant_saves_total", "Participant files written.");
+        this.saveMicros = metrics.counter("event_participant_save_duration_microseconds_total",
+                "Time spent writing the participant file.");
+        this.saveFailures = metrics.counter("event_participant_save_failures_total",
+                "Attempts to write the participant file that failed.");
+        this.unpersistedUpdates = metrics.counter("event_participant_unpersisted_updates_total",
+                "Participant changes that could not be saved right away.");
+        metrics.gauge("event_participants", "Registered event participants.",
+                () -> snapshot.getParticipants().size());
         load();
     }
 
     public static EventParticipationData load(final JavaPlugin plugin) {
-        return new EventParticipationData(plugin);
+        return load(plugin, new PluginMetrics());
+    }
+
+    /**
+     * Loads the participants and records changes and saves in the given metrics.
+     */
+    public static EventParticipationData load(final JavaPlugin plugin, final PluginMetrics metrics) {
+        return new EventParticipationData(plugin, metrics);
     }
 
     public int getParticipantCount() {
@@ -49,15 +82,27 @@ public final class EventParticipationData {
         final String name = player.getName();
         final String previous = participants.put(uuid, name);
         if (previous == null || !previous.equals(name)) {
+            publishSnapshot();
             final boolean persisted = markDirty();
             return new ParticipationUpdate(previous == null, persisted);
         }
         return new ParticipationUpdate(false, true);
     }
 
+    /**
+     * Registers a listener that is called on the server thread with the UUID of every participant that is removed.
+     */
+    public void onRemoved(final Consumer<UUID> listener) {
+        removalListeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
     public ParticipationUpdate removeParticipant(final UUID uuid) {
         final String removed = participants.remove(uuid);
         if (removed != null) {
+            publishSnapshot();
+            for (final Consumer<UUID> listener : removalListeners) {
+                listener.accept(uuid);
+            }
             final boolean persisted = markDirty();
             return new ParticipationUpdate(true, persisted);
         }
@@ -68,6 +113,20 @@ public final class EventParticipationData {
         return participants.containsKey(uuid);
     }
 
+    /**
+     * Returns a copy of all participants, mapping their UUID to the last known player name.
+     */
+    public Map<UUID, String> getParticipants() {
+        return new LinkedHashMap<>(participants);
+    }
+
+    /**
+     * Returns the participants as of the last change. Safe to call from any thread.
+     */
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
     public List<String> getParticipantNames() {
         return List.copyOf(participants.values());
     }
@@ -86,6 +145,21 @@ public final class EventParticipationData {
             return true;
         }
 
+        final ParticipantFileEvent event = new ParticipantFileEvent(ParticipantFileEvent.SAVE);
+        event.begin();
+        final boolean saved = write();
+        event.end();
+        if (event.shouldCommit()) {
+            event.setParticipants(participants.size());
+            event.setBytes(fileSize());
+            event.setSucceeded(saved);
+            event.commit();
+        }
+        return saved;
+    }
+
+    private boolean write() {
+        final long started = System.nanoTime();
         try {
             final Path parent = dataFile.getParent();
             if (parent != null) {
@@ -93,20 +167,37 @@ public final class EventParticipationData {
             }
             final YamlConfiguration configuration = new YamlConfiguration();
             if (!populatePlayersSection(configuration)) {
+                saveFailures.increment();
                 return false;
             }
             configuration.save(dataFile.toFile());
             dirty = false;
+            saves.increment();
+            saveMicros.add((System.nanoTime() - started) / 1_000L);
             return true;
         } catch (final IOException exception) {
             plugin.getLogger().log(Level.SEVERE, "Konnte Event-Teilnehmer nicht speichern.", exception);
         } catch (final RuntimeException exception) {
             plugin.getLogger().log(Level.SEVERE, "Unerwarteter Fehler beim Speichern der Event-Teilnehmer.", exception);
         }
+        saveFailures.increment();
         return false;
     }
 
     private void load() {
+        final ParticipantFileEvent event = new ParticipantFileEvent(ParticipantFileEvent.LOAD);
+        event.begin();
+        read();
+        event.end();
+        if (event.shouldCommit()) {
+            event.setParticipants(participants.size());
+            event.setBytes(fileSize());
+            event.setSucceeded(true);
+            event.commit();
+        }
+    }
+
+    private void read() {
         participants.clear();
         if (!Files.exists(dataFile)) {
             dirty = false;
@@ -130,11 +221,32 @@ public final class EventParticipationData {
             }
         }
         dirty = false;
+        publishSnapshot();
+    }
+
+    /**
+     * Returns the size of the data file in bytes, or 0 if it does not exist or cannot be read.
+     */
+    private long fileSize() {
+        try {
+            return Files.exists(dataFile) ? Files.size(dataFile) : 0L;
+        } catch (final IOException exception) {
+            return 0L;
+        }
+    }
+
+    private void publishSnapshot() {
+        snapshot = new Snapshot(snapshot.version + 1, Collections.unmodifiableMap(new LinkedHashMap<>(participants)));
     }
 
     private boolean markDirty() {
+        mutations.increment();
         dirty = true;
-        return save();
+        final boolean persisted = save();
+        if (!persisted) {
+            unpersistedUpdates.increment();
+        }
+        return persisted;
     }
 
     private boolean populatePlayersSection(final YamlConfiguration configuration) {
@@ -218,6 +330,31 @@ public final class EventParticipationData {
         }
     }
 
+    /**
+     * Immutable view of all participants. The version increases with every change, so equal versions of the same
+     * data instance always hold the same participants.
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final Map<UUID, String> participants;
+
+        Snapshot(final long version, final Map<UUID, String> participants) {
+            this.version = version;
+            this.participants = participants;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * Returns the participants in insertion order, mapping their UUID to the last known player name.
+         */
+        public Map<UUID, String> getParticipants() {
+            return participants;
+        }
+    }
+
     /**
      * Result of a participation update operation.
      */
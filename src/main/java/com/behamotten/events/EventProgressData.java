@@ -0,0 +1,301 @@
+package com.behamotten.events;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+
+import org.bukkit.advancement.AdvancementFrameType;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+
+/**
+ * Live advancement counters of all event participants. Counters are updated in memory on every completed
+ * advancement, ranked in an {@link EventLeaderboard} and written to disk by a periodic {@link #flush(Executor) flush}
+ * instead of once per change.
+ */
+public final class EventProgressData {
+    private static final String FILE_NAME = "event_progress.yml";
+    private static final String SECTION_PLAYERS = "players";
+    private static final AdvancementFrameType[] FRAMES = AdvancementFrameType.values();
+
+    private final JavaPlugin plugin;
+    private final Path dataFile;
+    private final Map<UUID, Counters> counters = new LinkedHashMap<>();
+    private final EventLeaderboard leaderboard = new EventLeaderboard();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    private final Object writeLock = new Object();
+    private long version;
+    private long writtenVersion;
+
+    private EventProgressData(final JavaPlugin plugin) {
+        this.plugin = plugin;
+        this.dataFile = plugin.getDataFolder().toPath().resolve(FILE_NAME);
+        load();
+    }
+
+    public static EventProgressData load(final JavaPlugin plugin) {
+        return new EventProgressData(plugin);
+    }
+
+    /**
+     * Counts one completed advancement for the participant. Must be called on the server thread.
+     *
+     * @param frame frame type of the advancement, or {@code null} if unknown
+     * @param points points awarded for the advancement
+     */
+    public void record(final UUID uuid, final String name, final AdvancementFrameType frame, final int points) {
+        final Counters entry = counters.computeIfAbsent(uuid, key -> new Counters());
+        entry.name = name;
+        entry.completions++;
+        entry.points += points;
+        if (frame != null) {
+            entry.frames[frame.ordinal()]++;
+        }
+        version++;
+        dirty.set(true);
+        leaderboard.update(uuid, name, entry.points);
+    }
+
+    /**
+     * Drops the counters of a player who left the event and removes them from the leaderboard. Must be called on the
+     * server thread.
+     *
+     * @return whether the player had counters
+     */
+    public boolean remove(final UUID uuid) {
+        leaderboard.remove(uuid);
+        if (counters.remove(uuid) == null) {
+            return false;
+        }
+        version++;
+        dirty.set(true);
+        return true;
+    }
+
+    /**
+     * Drops the counters of every tracked player the predicate rejects, for example players who left the event while
+     * the plugin was not running. Must be called on the server thread.
+     *
+     * @return the number of players removed
+     */
+    public int retain(final Predicate<UUID> participant) {
+        int removed = 0;
+        for (final UUID uuid : List.copyOf(counters.keySet())) {
+            if (!participant.test(uuid) && remove(uuid)) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the live ranking of all tracked participants by points.
+     */
+    public EventLeaderboard getLeaderboard() {
+        return leaderboard;
+    }
+
+    public Optional<ParticipantProgress> getProgress(final UUID uuid) {
+        final Counters entry = counters.get(uuid);
+        return entry != null ? Optional.of(entry.toProgress()) : Optional.empty();
+    }
+
+    public int getTrackedCount() {
+        return counters.size();
+    }
+
+    public boolean isDirty() {
+        return dirty.get();
+    }
+
+    /**
+     * Writes the counters on the given executor if they changed since the last flush. The counters are copied on the
+     * calling thread, which must be the server thread. Returns {@code false} without doing anything when nothing
+     * changed or the previous flush is still being written.
+     */
+    public boolean flush(final Executor writer) {
+        if (!dirty.get() || !flushing.compareAndSet(false, true)) {
+            return false;
+        }
+        dirty.set(false);
+        final long snapshotVersion = version;
+        final Map<String, Object> serialized = serialize();
+        try {
+            writer.execute(() -> {
+                try {
+                    if (!write(serialized, snapshotVersion)) {
+                        dirty.set(true);
+                    }
+                } finally {
+                    flushing.set(false);
+                }
+            });
+        } catch (final RuntimeException exception) {
+            flushing.set(false);
+            dirty.set(true);
+            plugin.getLogger().log(Level.SEVERE, "Konnte Speichern des Event-Fortschritts nicht einplanen.", exception);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Writes pending changes synchronously, for example while the plugin is disabled.
+     */
+    public boolean save() {
+        if (!dirty.get() && Files.exists(dataFile)) {
+            return true;
+        }
+        dirty.set(false);
+        if (write(serialize(), version)) {
+            return true;
+        }
+        dirty.set(true);
+        return false;
+    }
+
+    private boolean write(final Map<String, Object> serialized, final long snapshotVersion) {
+        synchronized (writeLock) {
+            // A synchronous save may already have written newer counters than a late asynchronous flush.
+            if (snapshotVersion < writtenVersion) {
+                return true;
+            }
+            try {
+                final Path parent = dataFile.getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                final YamlConfiguration configuration = new YamlConfiguration();
+                configuration.createSection(SECTION_PLAYERS, serialized);
+                configuration.save(dataFile.toFile());
+                writtenVersion = snapshotVersion;
+                return true;
+            } catch (final IOException exception) {
+                plugin.getLogger().log(Level.SEVERE, "Konnte Event-Fortschritt nicht speichern.", exception);
+            } catch (final RuntimeException exception) {
+                plugin.getLogger().log(Level.SEVERE, "Unerwarteter Fehler beim Speichern des Event-Fortschritts.",
+                        exception);
+            }
+            return false;
+        }
+    }
+
+    private Map<String, Object> serialize() {
+        final Map<String, Object> serialized = new LinkedHashMap<>();
+        for (final Map.Entry<UUID, Counters> entry : counters.entrySet()) {
+            final Counters value = entry.getValue();
+            final Map<String, Object> frames = new LinkedHashMap<>();
+            for (final AdvancementFrameType frame : FRAMES) {
+                frames.put(frame.name().toLowerCase(Locale.ROOT), value.frames[frame.ordinal()]);
+            }
+            final Map<String, Object> player = new LinkedHashMap<>();
+            player.put("name", value.name);
+            player.put("completions", value.completions);
+            player.put("points", value.points);
+            player.put("frames", frames);
+            serialized.put(entry.getKey().toString(), player);
+        }
+        return serialized;
+    }
+
+    private void load() {
+        counters.clear();
+        if (!Files.exists(dataFile)) {
+            return;
+        }
+        final FileConfiguration configuration = YamlConfiguration.loadConfiguration(dataFile.toFile());
+        final ConfigurationSection section = configuration.getConfigurationSection(SECTION_PLAYERS);
+        if (section == null) {
+            return;
+        }
+        for (final String key : section.getKeys(false)) {
+            final ConfigurationSection player = section.getConfigurationSection(key);
+            if (player == null) {
+                continue;
+            }
+            try {
+                final Counters entry = new Counters();
+                entry.name = player.getString("name");
+                entry.completions = player.getLong("completions");
+                entry.points = player.getLong("points");
+                final ConfigurationSection frames = player.getConfigurationSection("frames");
+                if (frames != null) {
+                    for (final AdvancementFrameType frame : FRAMES) {
+                        entry.frames[frame.ordinal()] = frames.getLong(frame.name().toLowerCase(Locale.ROOT));
+                    }
+                }
+                final UUID uuid = UUID.fromString(key);
+                counters.put(uuid, entry);
+                leaderboard.update(uuid, entry.name, entry.points);
+            } catch (final IllegalArgumentException exception) {
+                plugin.getLogger().log(Level.WARNING, "Ungültige UUID in der Fortschrittsdatei: " + key, exception);
+            }
+        }
+    }
+
+    private static final class Counters {
+        private String name;
+        private long completions;
+        private long points;
+        private final long[] frames = new long[FRAMES.length];
+
+        private ParticipantProgress toProgress() {
+            return new ParticipantProgress(name, completions, points, frames.clone());
+        }
+    }
+
+    /**
+     * Immutable copy of a participant's counters.
+     */
+    public static final class ParticipantProgress {
+        private final String name;
+        private final long completions;
+        private final long points;
+        private final long[] frames;
+
+        ParticipantProgress(final String name, final long completions, final long points, final long[] frames) {
+            this.name = name;
+            this.completions = completions;
+            this.points = points;
+            this.frames = frames;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCompletions() {
+            return completions;
+        }
+
+        public long getPoints() {
+            return points;
+        }
+
+        public long getCompletions(final AdvancementFrameType frame) {
+            return frames[frame.ordinal()];
+        }
+
+        @Override
+        public String toString() {
+            return "ParticipantProgress{" +
+                    "name='" + name + '\'' +
+                    ", completions=" + completions +
+                    ", points=" + points +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.behamotten.events.advancements;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+import org.bukkit.advancement.AdvancementDisplay;
+
+/**
+ * Reflection based adapter that resolves advancement display components across API versions. The accessors are
+ * looked up once and bound to functional interfaces, so resolving a component costs a plain interface call.
+ */
+final class AdvancementDisplayAdapter {
+    private final Accessor titleAccessor;
+    private final Accessor descriptionAccessor;
+
+    AdvancementDisplayAdapter(final Logger logger, final Class<?> componentClass) {
+        this.titleAccessor = new Accessor(logger, componentClass, "title", "title", "getTitle");
+        this.descriptionAccessor = new Accessor(logger, componentClass, "description", "description",
+                "getDescription");
+    }
+
+    Object resolveTitle(final AdvancementDisplay display) {
+        return titleAccessor.resolve(display);
+    }
+
+    Object resolveDescription(final AdvancementDisplay display) {
+        return descriptionAccessor.resolve(display);
+    }
+
+    private static final class Accessor {
+        private final Logger logger;
+        private final String label;
+        private final Class<?> componentClass;
+        private final Function<Object, Object> function;
+        private String methodName;
+        private boolean missingLogged;
+        private boolean invocationLogged;
+        private boolean typeLogged;
+        private boolean lookupFailureLogged;
+
+        Accessor(final Logger logger, final Class<?> componentClass, final String label,
+                final String... candidateNames) {
+            this.logger = Objects.requireNonNull(logger, "logger");
+            this.label = Objects.requireNonNull(label, "label");
+            this.componentClass = componentClass;
+            this.function = resolveAccessor(candidateNames);
+        }
+
+        private Function<Object, Object> resolveAccessor(final String... candidateNames) {
+            final Class<AdvancementDisplay> displayClass = AdvancementDisplay.class;
+            for (final String name : candidateNames) {
+                try {
+                    final Method method = displayClass.getMethod(name);
+                    if (componentClass == null || componentClass.isAssignableFrom(method.getReturnType())) {
+                        method.setAccessible(true);
+                        final Function<Object, Object> bound = MethodBindings.bindAccessor(method);
+                        methodName = name;
+                        return bound;
+                    }
+                } catch (final NoSuchMethodException exception) {
+                    // Continue searching the next candidate.
+                } catch (final IllegalAccessException | SecurityException exception) {
+                    if (!lookupFailureLogged) {
+                        lookupFailureLogged = true;
+                        logger.fine(() -> "Could not access advancement display method '" + name + "': "
+                                + exception.getMessage());
+                    }
+                } catch (final NoClassDefFoundError error) {
+                    if (!lookupFailureLogged) {
+                        lookupFailureLogged = true;
+                        logger.fine(() -> "Advancement display depends on unavailable Adventure classes: "
+                                + error.getMessage());
+                    }
+                    return null;
+                }
+            }
+            return null;
+        }
+
+        Object resolve(final AdvancementDisplay display) {
+            if (display == null) {
+                return null;
+            }
+            if (function == null) {
+                if (!missingLogged) {
+                    missingLogged = true;
+                    logger.warning(() -> "Advancement display does not expose a '" + label
+                            + "' accessor. Exported data may be missing text.");
+                }
+                return null;
+            }
+            try {
+                final Object value = function.apply(display);
+                if (value == null || componentClass == null || componentClass.isInstance(value)) {
+                    return value;
+                }
+                if (!typeLogged) {
+                    typeLogged = true;
+                    logger.warning(() -> "Unexpected return type from advancement display '" + methodName + "': "
+                            + value.getClass().getName());
+                }
+            } catch (final RuntimeException exception) {
+                if (!invocationLogged) {
+                    invocationLogged = true;
+                    logger.warning(() -> "Failed to invoke advancement display '" + methodName + "': "
+                            + exception.getMessage());
+                }
+            }
+            return null;
+        }
+    }
+}
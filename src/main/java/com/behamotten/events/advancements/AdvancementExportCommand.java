@@ -1,5 +1,11 @@
 package com.behamotten.events.advancements;
 
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.logging.Level;
 
 import org.bukkit.ChatColor;
@@ -9,33 +15,126 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import com.behamotten.events.metrics.AdaptiveThrottle;
+
 /**
- * Command that exports all known advancements to a consolidated JSON document.
+ * Command that exports all known advancements to a consolidated JSON, NDJSON or CSV file. Players may pass
+ * {@code --readonly} to keep their own progress untouched; console exports are always read-only. Exports go through an
+ * {@link ExportCoordinator}, so files are written off the server thread and identical concurrent requests share one
+ * export.
  */
 public final class AdvancementExportCommand implements CommandExecutor {
+    private static final String FORMAT_PREFIX = "--format=";
+    private static final String SHARD_PREFIX = "--shard=";
+    private static final String LOCALES_PREFIX = "--locales=";
+    private static final String USAGE = "/exportadvancements [--force] [--readonly]"
+            + " [--format=json|compact|ndjson|csv] [--gzip] [--shard=none|namespace|group] [--graph]"
+            + " [--locales=de,en_us,...] [--raw-keys]";
+
     private final JavaPlugin plugin;
+    private final ExportCoordinator coordinator;
 
     public AdvancementExportCommand(final JavaPlugin plugin) {
+        this(plugin, new ExportCoordinator(plugin, new AdvancementIndexService(plugin),
+                AdaptiveThrottle.unlimited()));
+    }
+
+    /**
+     * Creates a command that exports through the given shared coordinator.
+     */
+    public AdvancementExportCommand(final JavaPlugin plugin, final ExportCoordinator coordinator) {
         this.plugin = plugin;
+        this.coordinator = coordinator;
     }
 
     @Override
     public boolean onCommand(final CommandSender sender, final Command command, final String label,
             final String[] args) {
-        if (!(sender instanceof Player)) {
-            sender.sendMessage(ChatColor.RED + "Only players can run this command.");
+        final ExportOptions options;
+        try {
+            options = parseOptions(args);
+        } catch (final IllegalArgumentException exception) {
+            sender.sendMessage(ChatColor.RED + exception.getMessage());
             return true;
         }
-        final Player player = (Player) sender;
-        final AdvancementExporter exporter = new AdvancementExporter(plugin, player);
+        // Without a player there is nobody to award criteria to, so console exports are always read-only.
+        final Player player = sender instanceof Player ? (Player) sender : null;
+        final CompletableFuture<AdvancementExporter.ExportResult> export = coordinator.submit(player, options);
+        if (export.isDone()) {
+            report(sender, export);
+        } else {
+            export.whenComplete((result, failure) -> plugin.getServer().getScheduler().runTask(plugin,
+                    () -> report(sender, export)));
+        }
+        return true;
+    }
+
+    private void report(final CommandSender sender,
+            final CompletableFuture<AdvancementExporter.ExportResult> export) {
         try {
-            final AdvancementExporter.ExportResult result = exporter.export();
-            sender.sendMessage(ChatColor.GREEN + "Exported " + result.advancementCount() + " advancements ("
-                    + result.groupCount() + " groups). Output: " + result.outputFile());
-        } catch (final AdvancementExportException exception) {
-            plugin.getLogger().log(Level.SEVERE, "Could not export advancements.", exception);
+            final AdvancementExporter.ExportResult result = export.join();
+            if (result.wasUpToDate()) {
+                sender.sendMessage(ChatColor.YELLOW + "Advancements unchanged since the last export ("
+                        + result.advancementCount() + " advancements, " + result.groupCount()
+                        + " groups). Use --force to export anyway. Output: " + result.outputFile());
+            } else if (result.shardCount() > 0) {
+                sender.sendMessage(ChatColor.GREEN + "Exported " + result.advancementCount() + " advancements ("
+                        + result.groupCount() + " groups) into " + result.shardCount() + " shards. Index: "
+                        + result.outputFile());
+            } else {
+                sender.sendMessage(ChatColor.GREEN + "Exported " + result.advancementCount() + " advancements ("
+                        + result.groupCount() + " groups). Output: " + result.outputFile());
+            }
+        } catch (final CompletionException exception) {
+            plugin.getLogger().log(Level.SEVERE, "Could not export advancements.", exception.getCause());
             sender.sendMessage(ChatColor.RED + "Failed to export advancements. Check the server log for details.");
         }
-        return true;
+    }
+
+    /**
+     * Parses command-line style export options.
+     *
+     * @throws IllegalArgumentException if an option is unknown or has an invalid value
+     */
+    static ExportOptions parseOptions(final String[] args) {
+        ExportOptions options = ExportOptions.defaults();
+        for (final String argument : args) {
+            if ("--force".equalsIgnoreCase(argument)) {
+                options = options.withForce(true);
+            } else if ("--readonly".equalsIgnoreCase(argument)) {
+                options = options.withReadOnly(true);
+            } else if ("--gzip".equalsIgnoreCase(argument)) {
+                options = options.withGzip(true);
+            } else if ("--graph".equalsIgnoreCase(argument)) {
+                options = options.withGraph(true);
+            } else if ("--raw-keys".equalsIgnoreCase(argument)) {
+                options = options.withRawKeys(true);
+            } else if (argument.toLowerCase(Locale.ROOT).startsWith(LOCALES_PREFIX)) {
+                options = options.withLocales(parseLocales(argument.substring(LOCALES_PREFIX.length())));
+            } else if (argument.toLowerCase(Locale.ROOT).startsWith(FORMAT_PREFIX)) {
+                options = options.withFormat(ExportFormat.fromOptionName(argument.substring(FORMAT_PREFIX.length())));
+            } else if (argument.toLowerCase(Locale.ROOT).startsWith(SHARD_PREFIX)) {
+                options = options.withSharding(ExportSharding.fromOptionName(
+                        argument.substring(SHARD_PREFIX.length())));
+            } else {
+                throw new IllegalArgumentException("Unknown option '" + argument + "'. Usage: " + USAGE);
+            }
+        }
+        if (options.rawKeys() && !options.locales().isEmpty()) {
+            throw new IllegalArgumentException("--raw-keys skips translation and cannot be combined with --locales.");
+        }
+        return options;
+    }
+
+    private static List<Locale> parseLocales(final String value) {
+        final Set<Locale> locales = new LinkedHashSet<>();
+        for (final String tag : value.split(",")) {
+            final Locale locale = Locale.forLanguageTag(tag.trim().replace('_', '-'));
+            if (locale.getLanguage().isEmpty()) {
+                throw new IllegalArgumentException("Unknown locale '" + tag.trim() + "'. Usage: " + USAGE);
+            }
+            locales.add(locale);
+        }
+        return List.copyOf(locales);
     }
 }
@@ -1,112 +1,547 @@
 package com.behamotten.events.advancements;
 
 import java.io.IOException;
-import java.lang.reflect.Method;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 
 import org.bukkit.NamespacedKey;
 import org.bukkit.advancement.Advancement;
-import org.bukkit.advancement.AdvancementDisplay;
 import org.bukkit.advancement.AdvancementProgress;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import com.behamotten.events.metrics.AdaptiveThrottle;
+import com.behamotten.events.metrics.ExportPhaseEvent;
+
 /**
- * Collects data about all registered advancements and stores them in a single JSON file.
+ * Writes the advancements of an {@link AdvancementIndex} to a JSON, NDJSON or CSV file, optionally split into shards.
  */
 public final class AdvancementExporter {
     private static final DateTimeFormatter ISO_INSTANT = DateTimeFormatter.ISO_INSTANT;
+    private static final String OUTPUT_BASE_NAME = "advancements_export";
+    private static final String SHARD_INDEX_FILE = "index.json";
+    /**
+     * Names of the shard files this exporter writes: a sanitized partition name, an optional collision suffix and
+     * the extension of any export format, optionally gzip-compressed.
+     */
+    private static final Pattern SHARD_FILE_NAME = shardFileNamePattern();
+    private static final int ENTRIES_PER_WORK_UNIT = 32;
+    private static final Set<UUID> AWARDING = ConcurrentHashMap.newKeySet();
+    private static final List<String> ENTRY_COLUMNS = List.of("advancaments_id", "advancaments_title",
+            "advancaments_description", "source_file", "dependencies", "group_id");
+    private static final List<String> GRAPH_COLUMNS = List.of("advancaments_id", "advancaments_title",
+            "advancaments_description", "source_file", "dependencies", "group_id", "children", "depth",
+            "subtree_size", "topological_index", "criteria", "frame", "hidden", "shows_toast", "announces_to_chat",
+            "icon");
+    private static final List<String> SCAN_COLUMNS = List.of("completed_by", "completion_percent");
 
     private final JavaPlugin plugin;
     private final Player player;
     private final Logger logger;
-    private final Path outputFile;
-    private final Class<?> adventureComponentClass;
-    private final PlainTextRenderer plainSerializer;
-    private final AdvancementDisplayAdapter displayAdapter;
+    private final AdvancementIndexService indexService;
+    private final ForkJoinPool renderPool;
+    private final AdaptiveThrottle throttle;
+
+    /**
+     * Creates a read-only exporter that never touches any player's advancement progress. It can run without a
+     * player, for example from the console.
+     */
+    public AdvancementExporter(final JavaPlugin plugin) {
+        this(plugin, null);
+    }
 
+    /**
+     * Creates an exporter that awards all remaining criteria to the given player unless the export is
+     * {@link ExportOptions#readOnly() read-only}. A {@code null} player always exports read-only. The exporter
+     * keeps its own index and therefore scans the server on its first export.
+     */
     public AdvancementExporter(final JavaPlugin plugin, final Player player) {
+        this(plugin, player, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an exporter that shares the plugin's advancement index. Every export rescans the server to detect
+     * changes, but only renders text again when the advancements changed.
+     */
+    public AdvancementExporter(final JavaPlugin plugin, final Player player, final AdvancementIndexService index) {
+        this(plugin, player, index, AdaptiveThrottle.unlimited());
+    }
+
+    /**
+     * Creates an exporter that reads from the shared advancement index and paces writing to the throttle's budget,
+     * one work unit per 32 entries. Its exports must not be written on the server thread.
+     */
+    AdvancementExporter(final JavaPlugin plugin, final Player player, final AdvancementIndexService index,
+            final AdaptiveThrottle throttle) {
+        this(plugin, player, index, ForkJoinPool.commonPool(), throttle);
+    }
+
+    /**
+     * Creates an exporter with its own index that renders text and writes shards on the given pool, or serially on
+     * the calling thread when the pool is {@code null}.
+     */
+    AdvancementExporter(final JavaPlugin plugin, final Player player, final ForkJoinPool renderPool) {
+        this(plugin, player, new AdvancementIndexService(plugin, renderPool), renderPool,
+                AdaptiveThrottle.unlimited());
+    }
+
+    private AdvancementExporter(final JavaPlugin plugin, final Player player,
+            final AdvancementIndexService indexService, final ForkJoinPool renderPool,
+            final AdaptiveThrottle throttle) {
         this.plugin = plugin;
         this.player = player;
         this.logger = plugin.getLogger();
-        this.outputFile = plugin.getDataFolder().toPath().resolve("advancements_export.json");
-        this.adventureComponentClass = resolveAdventureComponentClass(this.logger);
-        this.plainSerializer = PlainTextRenderer.create(this.logger, this.adventureComponentClass);
-        this.displayAdapter = new AdvancementDisplayAdapter(this.logger, this.adventureComponentClass);
+        this.indexService = Objects.requireNonNull(indexService, "indexService");
+        this.renderPool = renderPool;
+        this.throttle = Objects.requireNonNull(throttle, "throttle");
     }
 
     /**
-     * Exports all advancements and returns a summary of the operation.
+     * Exports all advancements with the default options and returns a summary of the operation.
      */
     public ExportResult export() throws AdvancementExportException {
+        return export(ExportOptions.defaults());
+    }
+
+    /**
+     * Exports all advancements and returns a summary of the operation. Advancement data and rendered text come from
+     * the advancement index, which is built on first use; criteria are awarded on the calling thread. Read-only
+     * exports read metadata straight from the advancement and display API and award nothing. Unless
+     * {@link ExportOptions#force()} is set, nothing is awarded, rendered or written when the advancement set matches
+     * the fingerprint stored with the previous export. When an offline scan of the same advancement set has been
+     * published to the index service, every entry also carries how many scanned players completed it.
+     */
+    public ExportResult export(final ExportOptions options) throws AdvancementExportException {
+        final PreparedExport prepared = prepare(options);
+        final ExportResult result = prepared.write();
+        if (!options.readOnly() && !result.wasUpToDate()) {
+            award(prepared.snapshot());
+        }
+        return result;
+    }
+
+    /**
+     * Runs the part of an export that needs the server thread: refreshing the index and capturing the offline scan
+     * that goes with it. The returned export checks the fingerprint of the previous export and writes the files; it
+     * may be completed on any thread, but writes to the same output must not overlap. Criteria are not awarded.
+     */
+    PreparedExport prepare(final ExportOptions options) throws AdvancementExportException {
+        Objects.requireNonNull(options, "options");
         ensureDataFolder();
-        final PlainTextRenderer plainSerializer = this.plainSerializer;
-        final List<Map<String, Object>> advancementEntries = new ArrayList<>();
-        final Map<String, GroupInfo> groupIndex = new LinkedHashMap<>();
         final Instant generationTime = Instant.now();
-        int processedAdvancements = 0;
 
-        final var iterator = plugin.getServer().advancementIterator();
-        if (iterator == null) {
-            throw new AdvancementExportException("Server returned no advancements to export.");
+        // Always rescan so the fingerprint reflects the live server, also after datapack-only reloads. The index
+        // reuses its rendered text when nothing changed.
+        final AdvancementIndex index = indexService.refresh();
+        final AdvancementSnapshot snapshot = index.snapshot();
+        final OfflineScanResult scan = indexService.latestScan(index);
+        final String variant = options.format().optionName() + (options.gzip() ? "+gzip" : "")
+                + (options.graph() ? "+graph" : "") + (scan != null ? "+scan@" + scan.scannedAt() : "")
+                + textVariant(options);
+        return new PreparedExport(options, generationTime, index, scan, variant, outputFile(options));
+    }
+
+    /**
+     * Returns whether an export is awarding criteria to the player right now. Advancements the player completes while
+     * this is {@code true} were granted by the export rather than earned.
+     */
+    public static boolean isAwarding(final UUID uuid) {
+        return AWARDING.contains(uuid);
+    }
+
+    /**
+     * Awards all remaining criteria of the snapshot's advancements to the exporter's player, if any. Must be called
+     * on the server thread; {@link #isAwarding(UUID)} reports the player until all criteria have been awarded.
+     */
+    void award(final AdvancementSnapshot snapshot) {
+        if (player == null) {
+            return;
+        }
+        final ExportPhaseEvent awardEvent = new ExportPhaseEvent(ExportPhaseEvent.AWARD);
+        awardEvent.begin();
+        final UUID uuid = player.getUniqueId();
+        AWARDING.add(uuid);
+        try {
+            for (final AdvancementSnapshot.Entry entry : snapshot.entries()) {
+                awardAllCriteria(entry.advancement());
+            }
+        } finally {
+            AWARDING.remove(uuid);
         }
+        awardEvent.end();
+        if (awardEvent.shouldCommit()) {
+            awardEvent.setAdvancements(snapshot.size());
+            awardEvent.commit();
+        }
+    }
 
-        while (iterator.hasNext()) {
-            final Advancement advancement = iterator.next();
-            if (advancement == null) {
-                logger.severe("Encountered a null advancement while exporting. Skipping entry.");
-                continue;
+    private ExportResult write(final ExportOptions options, final Instant generationTime,
+            final AdvancementIndex index, final OfflineScanResult scan, final String variant,
+            final Path outputFile) throws AdvancementExportException {
+        final AdvancementSnapshot snapshot = index.snapshot();
+        final LocalizedExportText text = new LocalizedExportText(index, indexService.textRenderer(), options);
+        // Checked here rather than while preparing, so that an earlier export to the same file has been written.
+        final String fingerprint = AdvancementFingerprint.compute(snapshot, variant + "+text=" + text.fingerprint());
+        if (!options.force() && isUpToDate(outputFile, fingerprint)) {
+            return new ExportResult(outputFile, snapshot.size(), snapshot.roots().size(), 0, true);
+        }
+        final Map<String, GroupInfo> groupIndex = new LinkedHashMap<>();
+        for (int group = 0; group < index.groupCount(); group++) {
+            if (!groupIndex.containsKey(index.groupId(group))) {
+                groupIndex.put(index.groupId(group), new GroupInfo(index.groupId(group), text.groupTitle(group),
+                        text.localizedGroupTitles(group)));
+            }
+        }
+
+        int shardCount = 0;
+        try {
+            if (options.sharding() == ExportSharding.NONE) {
+                final int[] allEntries = IntStream.range(0, index.size()).toArray();
+                final Map<String, Object> meta = new LinkedHashMap<>();
+                meta.put("generated_at", ISO_INSTANT.format(generationTime));
+                meta.put("advancaments_found", snapshot.size());
+                meta.put("group_titles_found", groupIndex.size());
+                if (options.graph()) {
+                    meta.put("max_depth", snapshot.graph().maxDepth());
+                }
+                putTextMeta(meta, options);
+                putScanMeta(meta, scan);
+                ExportFiles.writeAtomically(outputFile, options.gzip(), writer -> writeDocument(writer, options,
+                        meta, index, text, scan, groupIndex, allEntries));
+            } else {
+                shardCount = writeShards(outputFile, options, generationTime, index, text, scan, groupIndex);
+            }
+        } catch (final IOException exception) {
+            throw new AdvancementExportException("Failed to write advancement export file.", exception);
+        }
+        try {
+            AdvancementFingerprint.write(fingerprintFile(outputFile), fingerprint);
+        } catch (final IOException exception) {
+            logger.warning(() -> "Could not store advancement export fingerprint, the next export will run in full: "
+                    + exception.getMessage());
+        }
+
+        return new ExportResult(outputFile, index.size(), groupIndex.size(), shardCount, false);
+    }
+
+    private void writeDocument(final Writer writer, final ExportOptions options, final Map<String, Object> meta,
+            final AdvancementIndex index, final LocalizedExportText text, final OfflineScanResult scan,
+            final Map<String, GroupInfo> groupIndex, final int[] entryIndices) throws IOException {
+        final Map<String, GroupInfo> groups = new LinkedHashMap<>();
+        for (final int entry : entryIndices) {
+            final String groupId = index.groupId(index.group(entry));
+            groups.computeIfAbsent(groupId, groupIndex::get);
+        }
+        final ExportDocumentWriter documentWriter = ExportDocumentWriter.create(options.format(), writer);
+        final List<String> columns = new ArrayList<>(options.graph() ? GRAPH_COLUMNS : ENTRY_COLUMNS);
+        columns.addAll(text.columns());
+        if (scan != null) {
+            columns.addAll(SCAN_COLUMNS);
+        }
+        documentWriter.begin(meta, buildGroupArray(groups), columns);
+        for (int i = 0; i < entryIndices.length; i++) {
+            if (i % ENTRIES_PER_WORK_UNIT == 0) {
+                pace();
             }
-            processedAdvancements++;
-            awardAllCriteria(advancement);
-            final String advancementId = advancement.getKey().toString();
-            final AdvancementDisplay display = advancement.getDisplay();
-            final Object titleComponent = displayAdapter.resolveTitle(display);
-            final String title = resolveDisplayText(titleComponent, advancementId, plainSerializer);
-            final Object descriptionComponent = displayAdapter.resolveDescription(display);
-            final String description = resolveDisplayText(descriptionComponent, "", plainSerializer);
-            final GroupInfo groupInfo = resolveGroupInfo(advancement, title, groupIndex, plainSerializer);
-
-            final Map<String, Object> entry = new LinkedHashMap<>();
-            entry.put("advancaments_id", advancementId);
-            entry.put("advancaments_title", title);
-            if (!description.isBlank()) {
-                entry.put("advancaments_description", description);
+            final int entry = entryIndices[i];
+            final Map<String, Object> values = buildEntry(index, text, entry, options.graph());
+            text.putLocalized(values, entry);
+            if (scan != null) {
+                values.put("completed_by", scan.completions(entry));
+                values.put("completion_percent", scan.completionPercent(entry));
             }
-            entry.put("source_file", buildSourcePath(advancement.getKey()));
-            entry.put("dependencies", buildDependencies(advancement));
-            entry.put("group_id", groupInfo.id);
-            advancementEntries.add(entry);
+            documentWriter.writeEntry(values);
         }
+        documentWriter.finish();
+    }
 
-        final Map<String, Object> document = new LinkedHashMap<>();
+    private void pace() throws InterruptedIOException {
+        try {
+            throttle.acquire(1);
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing the advancement export.");
+        }
+    }
+
+    /**
+     * Writes one document per partition into the directory of the index file, concurrently when a render pool is
+     * available, followed by an index manifest listing every shard with its entry count and SHA-256 checksum. Shard
+     * files left over from earlier exports into the same directory are removed; other files are left alone.
+     */
+    private int writeShards(final Path indexFile, final ExportOptions options, final Instant generationTime,
+            final AdvancementIndex index, final LocalizedExportText text, final OfflineScanResult scan,
+            final Map<String, GroupInfo> groupIndex) throws IOException {
+        final Path directory = indexFile.getParent();
+        Files.createDirectories(directory);
+        final List<Shard> shards = partition(index, options);
+        final String generatedAt = ISO_INSTANT.format(generationTime);
+
+        final List<Callable<String>> tasks = new ArrayList<>(shards.size());
+        for (final Shard shard : shards) {
+            final Map<String, Object> meta = new LinkedHashMap<>();
+            meta.put("generated_at", generatedAt);
+            meta.put("shard", shard.id);
+            meta.put("advancaments_found", shard.entryIndices.length);
+            tasks.add(() -> ExportFiles.writeAtomically(directory.resolve(shard.fileName), options.gzip(),
+                    writer -> writeDocument(writer, options, meta, index, text, scan, groupIndex,
+                            shard.entryIndices)));
+        }
+        final List<String> checksums = runAll(tasks);
+
+        final List<Map<String, Object>> shardEntries = new ArrayList<>(shards.size());
+        final Set<String> keep = new HashSet<>();
+        keep.add(indexFile.getFileName().toString());
+        keep.add(fingerprintFile(indexFile).getFileName().toString());
+        for (int i = 0; i < shards.size(); i++) {
+            final Shard shard = shards.get(i);
+            final Map<String, Object> shardEntry = new LinkedHashMap<>();
+            shardEntry.put("id", shard.id);
+            shardEntry.put("file", shard.fileName);
+            shardEntry.put("advancaments", shard.entryIndices.length);
+            shardEntry.put("sha256", checksums.get(i));
+            shardEntries.add(shardEntry);
+            keep.add(shard.fileName);
+        }
         final Map<String, Object> meta = new LinkedHashMap<>();
-        meta.put("generated_at", ISO_INSTANT.format(generationTime));
-        meta.put("advancaments_found", processedAdvancements);
+        meta.put("generated_at", generatedAt);
+        meta.put("format", options.format().optionName());
+        meta.put("compressed", options.gzip());
+        meta.put("shard_by", options.sharding().optionName());
+        meta.put("advancaments_found", index.size());
         meta.put("group_titles_found", groupIndex.size());
-        document.put("meta", meta);
-        document.put("groups", buildGroupArray(groupIndex));
-        document.put("advancaments", advancementEntries);
+        meta.put("shards_found", shards.size());
+        if (options.graph()) {
+            meta.put("max_depth", index.snapshot().graph().maxDepth());
+        }
+        putTextMeta(meta, options);
+        putScanMeta(meta, scan);
+        final Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("meta", meta);
+        manifest.put("shards", shardEntries);
+        ExportFiles.writeAtomically(indexFile, false, writer -> {
+            JsonWriter.writeValue(writer, manifest, 0, true);
+            writer.write(System.lineSeparator());
+        });
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (final Path file : files) {
+                final String fileName = file.getFileName().toString();
+                if (!keep.contains(fileName) && SHARD_FILE_NAME.matcher(fileName).matches()
+                        && Files.isRegularFile(file)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        return shards.size();
+    }
+
+    /**
+     * Records raw exports and the additional locales, if any, in the document metadata.
+     */
+    private void putTextMeta(final Map<String, Object> meta, final ExportOptions options) {
+        if (options.rawKeys()) {
+            meta.put("raw_translation_keys", true);
+        } else if (!options.locales().isEmpty()) {
+            final List<String> locales = new ArrayList<>(options.locales().size());
+            for (final Locale locale : options.locales()) {
+                locales.add(LocalizedExportText.columnSuffix(locale));
+            }
+            meta.put("locales", locales);
+        }
+    }
+
+    /**
+     * Returns the fingerprint variant for raw or additionally localized text, empty for regular exports.
+     */
+    private String textVariant(final ExportOptions options) {
+        if (options.rawKeys()) {
+            return "+raw";
+        }
+        final StringBuilder variant = new StringBuilder();
+        for (final Locale locale : options.locales()) {
+            variant.append(variant.length() == 0 ? "+locales=" : ",").append(locale.toLanguageTag());
+        }
+        return variant.toString();
+    }
 
+    private void putScanMeta(final Map<String, Object> meta, final OfflineScanResult scan) {
+        if (scan != null) {
+            meta.put("players_scanned", scan.playersScanned());
+            meta.put("scanned_at", ISO_INSTANT.format(scan.scannedAt()));
+        }
+    }
+
+    private List<Shard> partition(final AdvancementIndex index, final ExportOptions options) {
+        final Map<String, List<Integer>> partitions = new LinkedHashMap<>();
+        for (int i = 0; i < index.size(); i++) {
+            final String shardId = options.sharding() == ExportSharding.NAMESPACE
+                    ? normalizeSegment(index.key(i).getNamespace())
+                    : index.groupId(index.group(i));
+            partitions.computeIfAbsent(shardId, key -> new ArrayList<>()).add(i);
+        }
+        final String extension = options.format().fileExtension() + (options.gzip() ? ".gz" : "");
+        final Set<String> usedNames = new HashSet<>();
+        usedNames.add(SHARD_INDEX_FILE);
+        final List<Shard> shards = new ArrayList<>(partitions.size());
+        for (final Map.Entry<String, List<Integer>> partition : partitions.entrySet()) {
+            final String baseName = partition.getKey().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9._-]", "_");
+            String fileName = baseName + extension;
+            for (int suffix = 2; !usedNames.add(fileName); suffix++) {
+                fileName = baseName + "-" + suffix + extension;
+            }
+            shards.add(new Shard(partition.getKey(), fileName,
+                    partition.getValue().stream().mapToInt(Integer::intValue).toArray()));
+        }
+        return shards;
+    }
+
+    private List<String> runAll(final List<Callable<String>> tasks) throws IOException {
+        final List<String> results = new ArrayList<>(tasks.size());
+        if (renderPool == null || tasks.size() < 2) {
+            for (final Callable<String> task : tasks) {
+                results.add(call(task));
+            }
+            return results;
+        }
         try {
-            final String json = JsonWriter.stringify(document) + System.lineSeparator();
-            Files.writeString(outputFile, json);
+            for (final Future<String> future : renderPool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing export shards.");
+        } catch (final ExecutionException exception) {
+            final Throwable cause = exception.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Failed to write export shard.", cause);
+        }
+    }
+
+    private static Pattern shardFileNamePattern() {
+        final StringJoiner extensions = new StringJoiner("|", "(?:", ")");
+        for (final ExportFormat format : ExportFormat.values()) {
+            extensions.add(Pattern.quote(format.fileExtension()));
+        }
+        return Pattern.compile("[a-z0-9._-]+" + extensions + "(?:\\.gz)?");
+    }
+
+    private String call(final Callable<String> task) throws IOException {
+        try {
+            return task.call();
+        } catch (final IOException | RuntimeException exception) {
+            throw exception;
+        } catch (final Exception exception) {
+            throw new IOException("Failed to write export shard.", exception);
+        }
+    }
+
+    private Map<String, Object> buildEntry(final AdvancementIndex index, final LocalizedExportText text,
+            final int entryIndex, final boolean graph) {
+        final AdvancementSnapshot.Entry entry = index.snapshot().entries().get(entryIndex);
+        final Map<String, Object> values = new LinkedHashMap<>();
+        values.put("advancaments_id", entry.id());
+        values.put("advancaments_title", text.title(entryIndex));
+        final String description = text.description(entryIndex);
+        if (!description.isBlank()) {
+            values.put("advancaments_description", description);
+        }
+        values.put("source_file", buildSourcePath(entry.key()));
+        values.put("dependencies", buildDependencies(entry));
+        values.put("group_id", index.groupId(index.group(entryIndex)));
+        if (graph) {
+            appendGraphFields(values, index.snapshot(), entryIndex);
+        }
+        return values;
+    }
+
+    /**
+     * Adds the dependency graph analytics and the display metadata of an entry. All values come from the
+     * precomputed {@link AdvancementGraph}, so this is constant work per field apart from the child list.
+     */
+    private void appendGraphFields(final Map<String, Object> values, final AdvancementSnapshot snapshot,
+            final int index) {
+        final List<AdvancementSnapshot.Entry> entries = snapshot.entries();
+        final AdvancementGraph graph = snapshot.graph();
+        final AdvancementSnapshot.Entry entry = entries.get(index);
+        final List<String> children = new ArrayList<>(graph.childCount(index));
+        for (int i = 0; i < graph.childCount(index); i++) {
+            children.add(entries.get(graph.child(index, i)).id());
+        }
+        values.put("children", children);
+        values.put("depth", graph.depth(index));
+        values.put("subtree_size", graph.subtreeSize(index));
+        values.put("topological_index", graph.topologicalPosition(index));
+        values.put("criteria", entry.criteria());
+        final AdvancementSnapshot.DisplayInfo display = entry.displayInfo();
+        if (display != null) {
+            if (display.frame() != null) {
+                values.put("frame", display.frame());
+            }
+            values.put("hidden", display.hidden());
+            values.put("shows_toast", display.showsToast());
+            values.put("announces_to_chat", display.announcesToChat());
+            if (display.icon() != null) {
+                values.put("icon", display.icon());
+            }
+        }
+    }
+
+    /**
+     * Returns the file an export with the given options writes to inside the plugin data folder. For sharded exports
+     * this is the index manifest inside the shard directory.
+     */
+    public Path outputFile(final ExportOptions options) {
+        final Path dataFolder = plugin.getDataFolder().toPath();
+        if (options.sharding() != ExportSharding.NONE) {
+            return dataFolder.resolve(OUTPUT_BASE_NAME + "_" + options.sharding().optionName())
+                    .resolve(SHARD_INDEX_FILE);
+        }
+        return dataFolder.resolve(OUTPUT_BASE_NAME + options.format().fileExtension() + (options.gzip() ? ".gz" : ""));
+    }
+
+    private boolean isUpToDate(final Path outputFile, final String fingerprint) {
+        if (!Files.isRegularFile(outputFile)) {
+            return false;
+        }
+        final Path fingerprintFile = fingerprintFile(outputFile);
+        try {
+            return AdvancementFingerprint.read(fingerprintFile).map(fingerprint::equals).orElse(false);
         } catch (final IOException exception) {
-            throw new AdvancementExportException("Failed to write advancement export file.", exception);
+            logger.warning(() -> "Could not read advancement export fingerprint: " + exception.getMessage());
+            return false;
         }
+    }
 
-        return new ExportResult(outputFile, advancementEntries.size(), groupIndex.size());
+    private Path fingerprintFile(final Path outputFile) {
+        return outputFile.resolveSibling(outputFile.getFileName() + ".fingerprint");
     }
 
     private void ensureDataFolder() throws AdvancementExportException {
@@ -149,87 +584,10 @@ public final class AdvancementExporter {
         }
     }
 
-    private GroupInfo resolveGroupInfo(final Advancement advancement, final String fallbackTitle,
-            final Map<String, GroupInfo> groupIndex, final PlainTextRenderer plainSerializer) {
-        final Advancement root = findRoot(advancement);
-        final NamespacedKey groupKey = root != null ? root.getKey() : advancement.getKey();
-        final AdvancementDisplay display = root != null ? root.getDisplay() : advancement.getDisplay();
-        final String groupId = groupKey.toString();
-        final Object groupTitleComponent = displayAdapter.resolveTitle(display);
-        final String groupTitle = resolveDisplayText(groupTitleComponent, fallbackTitle, plainSerializer);
-        return groupIndex.compute(groupId, (key, existing) -> {
-            if (existing == null) {
-                return new GroupInfo(groupId, groupTitle);
-            }
-            if (existing.title.isBlank() && !groupTitle.isBlank()) {
-                return new GroupInfo(groupId, groupTitle);
-            }
-            return existing;
-        });
-    }
-
-    private Advancement findRoot(final Advancement advancement) {
-        Advancement current = advancement;
-        int depthGuard = 0;
-        while (current != null && current.getParent() != null) {
-            current = current.getParent();
-            depthGuard++;
-            if (depthGuard > 512) {
-                logger.severe(() -> "Detected a potential advancement parent cycle involving "
-                        + advancement.getKey());
-                break;
-            }
-        }
-        return current;
-    }
-
-    private String resolveDisplayText(final Object component, final String fallback,
-            final PlainTextRenderer serializer) {
-        Object resolvedComponent = component;
-        if (component != null) {
-            resolvedComponent = translate(component);
-        }
-        final String serialized = serializer.serialize(resolvedComponent);
-        final String normalized = serialized != null ? serialized.replace("\r\n", "\n").replace('\r', '\n').trim()
-                : "";
-        if (!normalized.isEmpty()) {
-            return normalized;
-        }
-        return fallback != null ? fallback : "";
-    }
-
-    private Object translate(final Object component) {
-        final Class<?> componentClass = this.adventureComponentClass;
-        if (componentClass == null || !componentClass.isInstance(component)) {
-            return component;
-        }
-        try {
-            final Class<?> translatorClass = Class.forName("net.kyori.adventure.translation.GlobalTranslator");
-            final var renderMethod = translatorClass.getMethod("render", componentClass, Locale.class);
-            final Object translated = renderMethod.invoke(null, component, Locale.ENGLISH);
-            if (componentClass.isInstance(translated)) {
-                return translated;
-            }
-        } catch (final ReflectiveOperationException | RuntimeException exception) {
-            logger.fine(() -> "Could not translate component to English: " + exception.getMessage());
-        }
-        return component;
-    }
-
-    private Class<?> resolveAdventureComponentClass(final Logger logger) {
-        try {
-            return Class.forName("net.kyori.adventure.text.Component");
-        } catch (final ClassNotFoundException exception) {
-            logger.fine(() -> "Adventure component classes are unavailable: " + exception.getMessage());
-            return null;
-        }
-    }
-
-    private List<String> buildDependencies(final Advancement advancement) {
+    private List<String> buildDependencies(final AdvancementSnapshot.Entry entry) {
         final List<String> dependencies = new ArrayList<>(1);
-        final Advancement parent = advancement.getParent();
-        if (parent != null) {
-            dependencies.add(parent.getKey().toString());
+        if (entry.parentId() != null) {
+            dependencies.add(entry.parentId());
         }
         return dependencies;
     }
@@ -253,207 +611,122 @@ public final class AdvancementExporter {
             final Map<String, Object> groupEntry = new LinkedHashMap<>();
             groupEntry.put("id", info.id);
             groupEntry.put("title", info.title.isBlank() ? info.id : info.title);
+            for (final Map.Entry<String, String> title : info.localizedTitles.entrySet()) {
+                groupEntry.put(title.getKey(), title.getValue().isBlank() ? info.id : title.getValue());
+            }
             groups.add(groupEntry);
         }
         return groups;
     }
 
     /**
-     * Reflection based adapter that resolves advancement display components across API versions.
+     * Result summary returned after exporting advancements.
      */
-    private static final class AdvancementDisplayAdapter {
-        private final Accessor titleAccessor;
-        private final Accessor descriptionAccessor;
+    public static final class ExportResult {
+        private final Path outputFile;
+        private final int advancementCount;
+        private final int groupCount;
+        private final int shardCount;
+        private final boolean upToDate;
 
-        AdvancementDisplayAdapter(final Logger logger, final Class<?> componentClass) {
-            this.titleAccessor = new Accessor(logger, componentClass, "title", "title", "getTitle");
-            this.descriptionAccessor = new Accessor(logger, componentClass, "description", "description",
-                    "getDescription");
+        ExportResult(final Path outputFile, final int advancementCount, final int groupCount, final int shardCount,
+                final boolean upToDate) {
+            this.outputFile = Objects.requireNonNull(outputFile, "outputFile");
+            this.advancementCount = advancementCount;
+            this.groupCount = groupCount;
+            this.shardCount = shardCount;
+            this.upToDate = upToDate;
         }
 
-        Object resolveTitle(final AdvancementDisplay display) {
-            return titleAccessor.resolve(display);
+        public Path outputFile() {
+            return outputFile;
         }
 
-        Object resolveDescription(final AdvancementDisplay display) {
-            return descriptionAccessor.resolve(display);
+        public int advancementCount() {
+            return advancementCount;
         }
 
-        private static final class Accessor {
-            private final Logger logger;
-            private final String label;
-            private final Method method;
-            private boolean missingLogged;
-            private boolean invocationLogged;
-            private boolean typeLogged;
-            private boolean lookupFailureLogged;
-            private final Class<?> componentClass;
-
-            Accessor(final Logger logger, final Class<?> componentClass, final String label,
-                    final String... candidateNames) {
-                this.logger = Objects.requireNonNull(logger, "logger");
-                this.label = Objects.requireNonNull(label, "label");
-                this.componentClass = componentClass;
-                this.method = resolveAccessor(candidateNames);
-            }
-
-            private Method resolveAccessor(final String... candidateNames) {
-                final Class<AdvancementDisplay> displayClass = AdvancementDisplay.class;
-                for (final String name : candidateNames) {
-                    try {
-                        final Method method = displayClass.getMethod(name);
-                        if (componentClass == null || componentClass.isAssignableFrom(method.getReturnType())) {
-                            method.setAccessible(true);
-                            return method;
-                        }
-                    } catch (final NoSuchMethodException exception) {
-                        // Continue searching the next candidate.
-                    } catch (final SecurityException exception) {
-                        if (!lookupFailureLogged) {
-                            lookupFailureLogged = true;
-                            logger.fine(() -> "Could not access advancement display method '" + name + "': "
-                                    + exception.getMessage());
-                        }
-                    } catch (final NoClassDefFoundError error) {
-                        if (!lookupFailureLogged) {
-                            lookupFailureLogged = true;
-                            logger.fine(() -> "Advancement display depends on unavailable Adventure classes: "
-                                    + error.getMessage());
-                        }
-                        return null;
-                    }
-                }
-                return null;
-            }
-
-            Object resolve(final AdvancementDisplay display) {
-                if (display == null) {
-                    return null;
-                }
-                if (method == null) {
-                    if (!missingLogged) {
-                        missingLogged = true;
-                        logger.warning(() -> "Advancement display does not expose a '" + label
-                                + "' accessor. Exported data may be missing text.");
-                    }
-                    return null;
-                }
-                try {
-                    final Object value = method.invoke(display);
-                    if (componentClass == null || componentClass.isInstance(value)) {
-                        return value;
-                    }
-                    if (!typeLogged) {
-                        typeLogged = true;
-                        logger.warning(() -> "Unexpected return type from advancement display '" + method.getName()
-                                + "': " + (value != null ? value.getClass().getName() : "null"));
-                    }
-                } catch (final ReflectiveOperationException | RuntimeException exception) {
-                    if (!invocationLogged) {
-                        invocationLogged = true;
-                        logger.warning(() -> "Failed to invoke advancement display '" + method.getName() + "': "
-                                + exception.getMessage());
-                    }
-                }
-                return null;
-            }
+        public int groupCount() {
+            return groupCount;
         }
-    }
 
-    /**
-     * Helper that attempts to serialize Adventure components to plain text while gracefully
-     * handling environments where the Adventure plain text serializer is not available.
-     */
-    private static final class PlainTextRenderer {
-        private final Logger logger;
-        private final Object serializerInstance;
-        private final java.lang.reflect.Method serializeMethod;
-        private final Class<?> componentClass;
-
-        private PlainTextRenderer(final Logger logger, final Object serializerInstance,
-                final java.lang.reflect.Method serializeMethod, final Class<?> componentClass) {
-            this.logger = logger;
-            this.serializerInstance = serializerInstance;
-            this.serializeMethod = serializeMethod;
-            this.componentClass = componentClass;
-        }
-
-        static PlainTextRenderer create(final Logger logger, final Class<?> componentClass) {
-            Objects.requireNonNull(logger, "logger");
-            if (componentClass == null) {
-                logger.warning(() -> "Adventure component classes are unavailable. Falling back to"
-                        + " Component#toString().");
-                return new PlainTextRenderer(logger, null, null, null);
-            }
-            try {
-                final Class<?> serializerClass = Class
-                        .forName("net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer");
-                final var plainTextMethod = serializerClass.getMethod("plainText");
-                final Object instance = plainTextMethod.invoke(null);
-                final var serializeMethod = serializerClass.getMethod("serialize", componentClass);
-                return new PlainTextRenderer(logger, instance, serializeMethod, componentClass);
-            } catch (final ReflectiveOperationException | RuntimeException exception) {
-                logger.warning(() -> "Plain text serializer from Adventure is unavailable. Falling back to"
-                        + " Component#toString(): " + exception.getMessage());
-                return new PlainTextRenderer(logger, null, null, componentClass);
-            }
+        /**
+         * Returns the number of shard files written, or {@code 0} for single-file and skipped exports.
+         */
+        public int shardCount() {
+            return shardCount;
         }
 
-        String serialize(final Object component) {
-            if (component == null) {
-                return "";
-            }
-            if (serializerInstance != null && serializeMethod != null && componentClass != null
-                    && componentClass.isInstance(component)) {
-                try {
-                    final Object result = serializeMethod.invoke(serializerInstance, component);
-                    if (result instanceof String) {
-                        return (String) result;
-                    }
-                } catch (final ReflectiveOperationException | RuntimeException exception) {
-                    logger.fine(() -> "Failed to serialize component using Adventure serializer: "
-                            + exception.getMessage());
-                }
-            }
-            final String fallback = component.toString();
-            return fallback != null ? fallback : "";
+        /**
+         * Returns {@code true} when the advancement set was unchanged and the existing output was kept as is.
+         */
+        public boolean wasUpToDate() {
+            return upToDate;
         }
     }
 
     /**
-     * Result summary returned after exporting advancements.
+     * An export whose server-thread work is done and whose files are yet to be written.
      */
-    public static final class ExportResult {
+    final class PreparedExport {
+        private final ExportOptions options;
+        private final Instant generationTime;
+        private final AdvancementIndex index;
+        private final OfflineScanResult scan;
+        private final String variant;
         private final Path outputFile;
-        private final int advancementCount;
-        private final int groupCount;
 
-        ExportResult(final Path outputFile, final int advancementCount, final int groupCount) {
-            this.outputFile = Objects.requireNonNull(outputFile, "outputFile");
-            this.advancementCount = advancementCount;
-            this.groupCount = groupCount;
+        private PreparedExport(final ExportOptions options, final Instant generationTime,
+                final AdvancementIndex index, final OfflineScanResult scan, final String variant,
+                final Path outputFile) {
+            this.options = options;
+            this.generationTime = generationTime;
+            this.index = index;
+            this.scan = scan;
+            this.variant = variant;
+            this.outputFile = outputFile;
         }
 
-        public Path outputFile() {
-            return outputFile;
+        /**
+         * Returns the advancements the export will write.
+         */
+        AdvancementSnapshot snapshot() {
+            return index.snapshot();
         }
 
-        public int advancementCount() {
-            return advancementCount;
+        /**
+         * Writes the export files unless the previous export is up to date. Does not touch the server and may run
+         * off the server thread.
+         */
+        ExportResult write() throws AdvancementExportException {
+            return AdvancementExporter.this.write(options, generationTime, index, scan, variant, outputFile);
         }
+    }
 
-        public int groupCount() {
-            return groupCount;
+    /**
+     * Entries written to one shard file.
+     */
+    private static final class Shard {
+        private final String id;
+        private final String fileName;
+        private final int[] entryIndices;
+
+        Shard(final String id, final String fileName, final int[] entryIndices) {
+            this.id = id;
+            this.fileName = fileName;
+            this.entryIndices = entryIndices;
         }
     }
 
     private static final class GroupInfo {
         private final String id;
         private final String title;
+        private final Map<String, String> localizedTitles;
 
-        GroupInfo(final String id, final String title) {
+        GroupInfo(final String id, final String title, final Map<String, String> localizedTitles) {
             this.id = id;
             this.title = title != null ? title : "";
+            this.localizedTitles = localizedTitles;
         }
     }
 }
@@ -0,0 +1,99 @@
+package com.behamotten.events.advancements;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * SHA-256 fingerprint of a captured advancement set. It covers keys, parents, criteria, display metadata and the raw
+ * display components, so it can be computed without awarding criteria or rendering any text. Translatable components
+ * only contribute their keys, so exports add the fingerprint of their rendered text with {@link #ofText(List)}.
+ */
+final class AdvancementFingerprint {
+    /**
+     * Bumped whenever the export layout changes so that older exports are rewritten once.
+     */
+    private static final String LAYOUT_VERSION = "1";
+
+    private AdvancementFingerprint() {
+    }
+
+    /**
+     * Computes the fingerprint of a snapshot for one output variant, such as a format and compression combination,
+     * so that exports written with different settings into the same place are never mistaken for each other.
+     */
+    static String compute(final AdvancementSnapshot snapshot, final String variant) {
+        final MessageDigest digest = newDigest();
+        update(digest, LAYOUT_VERSION);
+        update(digest, variant);
+        for (final AdvancementSnapshot.Entry entry : snapshot.entries()) {
+            update(digest, entry.id());
+            update(digest, entry.parentId());
+            update(digest, componentText(entry.titleComponent()));
+            update(digest, componentText(entry.descriptionComponent()));
+            update(digest, String.join("\n", entry.criteria()));
+            final AdvancementSnapshot.DisplayInfo display = entry.displayInfo();
+            update(digest, display != null ? display.frame() + '|' + display.hidden() + '|' + display.showsToast()
+                    + '|' + display.announcesToChat() + '|' + display.icon() : null);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Computes the fingerprint of rendered text, in the given order.
+     */
+    static String ofText(final List<String> text) {
+        final MessageDigest digest = newDigest();
+        for (final String value : text) {
+            update(digest, value);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Reads the fingerprint stored next to an export, if any.
+     */
+    static Optional<String> read(final Path fingerprintFile) throws IOException {
+        if (!Files.isRegularFile(fingerprintFile)) {
+            return Optional.empty();
+        }
+        final String stored = Files.readString(fingerprintFile, StandardCharsets.UTF_8).trim();
+        return stored.isEmpty() ? Optional.empty() : Optional.of(stored);
+    }
+
+    static void write(final Path fingerprintFile, final String fingerprint) throws IOException {
+        Files.writeString(fingerprintFile, fingerprint + System.lineSeparator(), StandardCharsets.UTF_8);
+    }
+
+    private static String componentText(final Object component) {
+        // Adventure components render their full content and style in toString(), unlike hashCode() which mixes
+        // in identity hashes of enum constants and would change on every restart.
+        return component != null ? String.valueOf(component) : null;
+    }
+
+    private static void update(final MessageDigest digest, final String value) {
+        final byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+        final int length = bytes != null ? bytes.length : -1;
+        digest.update((byte) (length >>> 24));
+        digest.update((byte) (length >>> 16));
+        digest.update((byte) (length >>> 8));
+        digest.update((byte) length);
+        if (bytes != null) {
+            digest.update(bytes);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not available", exception);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.behamotten.events.advancements;
+
+import java.util.Arrays;
+
+/**
+ * Parent/child structure of a captured advancement set with per-node analytics. Everything is derived from a parent
+ * index array in a single linear pass: children adjacency (compressed into one array), a topological order, depths,
+ * roots and subtree sizes.
+ *
+ * <p>Parent links always form a forest unless a data pack defines a parent cycle. Nodes on such a cycle cannot be
+ * reached from any root; one node of each cycle is then treated as an additional root so that every node still
+ * receives a depth, a root and a topological position.</p>
+ */
+final class AdvancementGraph {
+    private final int[] parents;
+    private final int[] childOffsets;
+    private final int[] childNodes;
+    private final int[] order;
+    private final int[] positions;
+    private final int[] depths;
+    private final int[] roots;
+    private final int[] subtreeSizes;
+    private final int maxDepth;
+    private final int brokenCycles;
+
+    private AdvancementGraph(final int[] parents, final int[] childOffsets, final int[] childNodes, final int[] order,
+            final int[] positions, final int[] depths, final int[] roots, final int[] subtreeSizes,
+            final int maxDepth, final int brokenCycles) {
+        this.parents = parents;
+        this.childOffsets = childOffsets;
+        this.childNodes = childNodes;
+        this.order = order;
+        this.positions = positions;
+        this.depths = depths;
+        this.roots = roots;
+        this.subtreeSizes = subtreeSizes;
+        this.maxDepth = maxDepth;
+        this.brokenCycles = brokenCycles;
+    }
+
+    /**
+     * Builds the graph from parent indices, where {@code -1} marks a node without a known parent.
+     */
+    static AdvancementGraph build(final int[] parentIndices) {
+        final int size = parentIndices.length;
+        final int[] parents = parentIndices.clone();
+        final int[] childOffsets = new int[size + 1];
+        for (final int parent : parents) {
+            if (parent >= 0) {
+                childOffsets[parent + 1]++;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            childOffsets[i + 1] += childOffsets[i];
+        }
+        final int[] childNodes = new int[childOffsets[size]];
+        final int[] fill = Arrays.copyOf(childOffsets, size);
+        for (int node = 0; node < size; node++) {
+            final int parent = parents[node];
+            if (parent >= 0) {
+                childNodes[fill[parent]++] = node;
+            }
+        }
+
+        final int[] order = new int[size];
+        final int[] positions = new int[size];
+        final int[] depths = new int[size];
+        final int[] roots = new int[size];
+        final int[] treeParents = new int[size];
+        Arrays.fill(positions, -1);
+        int head = 0;
+        int tail = 0;
+        int maxDepth = 0;
+        int brokenCycles = 0;
+        final int[] walkMarks = new int[size];
+        Arrays.fill(walkMarks, -1);
+        // The first pass seeds the queue with real roots. The second pass handles nodes that are only reachable
+        // through a parent cycle: it follows parent links up to the cycle and seeds a node on it.
+        for (int pass = 0; pass < 2; pass++) {
+            for (int start = 0; start < size; start++) {
+                if (positions[start] >= 0 || pass == 0 && parents[start] >= 0) {
+                    continue;
+                }
+                int seed = start;
+                if (pass == 1) {
+                    while (walkMarks[seed] != start) {
+                        walkMarks[seed] = start;
+                        seed = parents[seed];
+                    }
+                    brokenCycles++;
+                }
+                positions[seed] = tail;
+                order[tail++] = seed;
+                depths[seed] = 0;
+                roots[seed] = seed;
+                treeParents[seed] = -1;
+                while (head < tail) {
+                    final int node = order[head++];
+                    for (int c = childOffsets[node]; c < childOffsets[node + 1]; c++) {
+                        final int child = childNodes[c];
+                        if (positions[child] >= 0) {
+                            continue;
+                        }
+                        positions[child] = tail;
+                        order[tail++] = child;
+                        depths[child] = depths[node] + 1;
+                        roots[child] = roots[node];
+                        treeParents[child] = node;
+                        maxDepth = Math.max(maxDepth, depths[child]);
+                    }
+                }
+            }
+        }
+
+        final int[] subtreeSizes = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            final int node = order[i];
+            subtreeSizes[node]++;
+            if (treeParents[node] >= 0) {
+                subtreeSizes[treeParents[node]] += subtreeSizes[node];
+            }
+        }
+        return new AdvancementGraph(parents, childOffsets, childNodes, order, positions, depths, roots,
+                subtreeSizes, maxDepth, brokenCycles);
+    }
+
+    int size() {
+        return parents.length;
+    }
+
+    /**
+     * Returns the parent index, or {@code -1} when the node has no parent in this graph.
+     */
+    int parent(final int node) {
+        return parents[node];
+    }
+
+    int childCount(final int node) {
+        return childOffsets[node + 1] - childOffsets[node];
+    }
+
+    /**
+     * Returns the {@code i}-th child of the node, in capture order.
+     */
+    int child(final int node, final int i) {
+        return childNodes[childOffsets[node] + i];
+    }
+
+    int depth(final int node) {
+        return depths[node];
+    }
+
+    /**
+     * Returns the root of the tree containing the node.
+     */
+    int root(final int node) {
+        return roots[node];
+    }
+
+    /**
+     * Returns the number of nodes in the subtree rooted at the node, including the node itself.
+     */
+    int subtreeSize(final int node) {
+        return subtreeSizes[node];
+    }
+
+    /**
+     * Returns the position of the node in a topological order in which every parent precedes its children.
+     */
+    int topologicalPosition(final int node) {
+        return positions[node];
+    }
+
+    /**
+     * Returns the node at the given position of the topological order.
+     */
+    int topologicalNode(final int position) {
+        return order[position];
+    }
+
+    int maxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Returns the number of parent cycles that had to be broken to order the graph.
+     */
+    int brokenCycles() {
+        return brokenCycles;
+    }
+}
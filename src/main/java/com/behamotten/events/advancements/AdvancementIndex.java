@@ -0,0 +1,247 @@
+package com.behamotten.events.advancements;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import org.bukkit.NamespacedKey;
+
+import com.behamotten.events.metrics.ExportPhaseEvent;
+
+/**
+ * Immutable, fully rendered view of the server's advancements. Entries are addressed by their capture index; keys,
+ * parent and child links, groups and rendered English text are held in flat arrays, and lookups by key, namespace
+ * and group are precomputed, as is a full-text search index. An index can be read from any thread.
+ *
+ * <p>Indices are built and kept current by {@link AdvancementIndexService}.</p>
+ */
+public final class AdvancementIndex {
+    private static final int PARALLEL_RENDER_THRESHOLD = 64;
+
+    private final AdvancementSnapshot snapshot;
+    private final String fingerprint;
+    private final String[] titles;
+    private final String[] descriptions;
+    private final String[] groupTitles;
+    private final Map<String, Integer> indexById;
+    private final Map<String, int[]> entriesByNamespace;
+    private final int[][] entriesByGroup;
+    private final AdvancementSearchIndex searchIndex;
+
+    private AdvancementIndex(final AdvancementSnapshot snapshot, final String fingerprint, final String[] titles,
+            final String[] descriptions, final String[] groupTitles, final Map<String, Integer> indexById,
+            final Map<String, int[]> entriesByNamespace, final int[][] entriesByGroup,
+            final AdvancementSearchIndex searchIndex) {
+        this.snapshot = snapshot;
+        this.fingerprint = fingerprint;
+        this.titles = titles;
+        this.descriptions = descriptions;
+        this.groupTitles = groupTitles;
+        this.indexById = indexById;
+        this.entriesByNamespace = entriesByNamespace;
+        this.entriesByGroup = entriesByGroup;
+        this.searchIndex = searchIndex;
+    }
+
+    /**
+     * Renders all text of the snapshot and builds the lookup tables. Rendering runs as a parallel stream when
+     * {@code parallel} is set, on the fork/join pool of the calling thread.
+     */
+    static AdvancementIndex build(final AdvancementSnapshot snapshot, final String fingerprint,
+            final ComponentTextRenderer textRenderer, final boolean parallel) {
+        final List<AdvancementSnapshot.Entry> entries = snapshot.entries();
+        final List<AdvancementSnapshot.Root> roots = snapshot.roots();
+        final String[] titles = new String[entries.size()];
+        final String[] descriptions = new String[entries.size()];
+        final String[] rootTitles = new String[roots.size()];
+        final IntConsumer renderEntry = index -> {
+            final AdvancementSnapshot.Entry entry = entries.get(index);
+            titles[index] = textRenderer.render(entry.titleComponent(), entry.id());
+            descriptions[index] = textRenderer.render(entry.descriptionComponent(), "");
+        };
+        final IntConsumer renderRoot = index -> rootTitles[index] = textRenderer
+                .render(roots.get(index).titleComponent(), "");
+        final ExportPhaseEvent renderEvent = new ExportPhaseEvent(ExportPhaseEvent.RENDER);
+        renderEvent.begin();
+        if (parallel && entries.size() >= PARALLEL_RENDER_THRESHOLD) {
+            IntStream.range(0, entries.size()).parallel().forEach(renderEntry);
+            IntStream.range(0, roots.size()).parallel().forEach(renderRoot);
+        } else {
+            IntStream.range(0, entries.size()).forEach(renderEntry);
+            IntStream.range(0, roots.size()).forEach(renderRoot);
+        }
+        renderEvent.end();
+        if (renderEvent.shouldCommit()) {
+            renderEvent.setAdvancements(entries.size());
+            renderEvent.commit();
+        }
+
+        final Map<String, Integer> indexById = new HashMap<>(entries.size() * 2);
+        final Map<String, List<Integer>> namespaces = new LinkedHashMap<>();
+        final int[] groupSizes = new int[roots.size()];
+        final String[] groupTitles = new String[roots.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            final AdvancementSnapshot.Entry entry = entries.get(i);
+            indexById.putIfAbsent(entry.id(), i);
+            namespaces.computeIfAbsent(entry.key().getNamespace(), key -> new ArrayList<>()).add(i);
+            final int group = snapshot.rootIndex(i);
+            if (groupSizes[group]++ == 0) {
+                // Groups whose root has no title are named after their first entry.
+                groupTitles[group] = rootTitles[group].isEmpty() ? titles[i] : rootTitles[group];
+            }
+        }
+        final Map<String, int[]> entriesByNamespace = new LinkedHashMap<>();
+        for (final Map.Entry<String, List<Integer>> namespace : namespaces.entrySet()) {
+            entriesByNamespace.put(namespace.getKey(),
+                    namespace.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+        final int[][] entriesByGroup = new int[roots.size()][];
+        for (int group = 0; group < roots.size(); group++) {
+            entriesByGroup[group] = new int[groupSizes[group]];
+            groupSizes[group] = 0;
+        }
+        final String[] ids = new String[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            final int group = snapshot.rootIndex(i);
+            entriesByGroup[group][groupSizes[group]++] = i;
+            ids[i] = entries.get(i).id();
+        }
+        return new AdvancementIndex(snapshot, fingerprint, titles, descriptions, groupTitles, indexById,
+                entriesByNamespace, entriesByGroup, AdvancementSearchIndex.build(ids, titles, descriptions));
+    }
+
+    /**
+     * Returns a copy that keeps the rendered text and lookups but refers to the live advancements of a newer
+     * snapshot with the same fingerprint.
+     */
+    AdvancementIndex withSnapshot(final AdvancementSnapshot newer) {
+        return new AdvancementIndex(newer, fingerprint, titles, descriptions, groupTitles, indexById,
+                entriesByNamespace, entriesByGroup, searchIndex);
+    }
+
+    AdvancementSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Fingerprint of the captured advancement set, independent of any export options.
+     */
+    String fingerprint() {
+        return fingerprint;
+    }
+
+    public int size() {
+        return titles.length;
+    }
+
+    /**
+     * Returns the index of the advancement with the given key, or {@code -1} if it is unknown.
+     */
+    public int indexOf(final NamespacedKey key) {
+        return indexOf(key.toString());
+    }
+
+    /**
+     * Returns the index of the advancement with the given id such as {@code minecraft:story/root}, or {@code -1}.
+     */
+    public int indexOf(final String id) {
+        final Integer index = indexById.get(id);
+        return index != null ? index : -1;
+    }
+
+    public String id(final int index) {
+        return snapshot.entries().get(index).id();
+    }
+
+    public NamespacedKey key(final int index) {
+        return snapshot.entries().get(index).key();
+    }
+
+    /**
+     * Returns the English title, falling back to the advancement id when there is none.
+     */
+    public String title(final int index) {
+        return titles[index];
+    }
+
+    /**
+     * Returns the English description, or an empty string when there is none.
+     */
+    public String description(final int index) {
+        return descriptions[index];
+    }
+
+    /**
+     * Returns the index of the parent advancement, or {@code -1} for roots.
+     */
+    public int parent(final int index) {
+        return snapshot.graph().parent(index);
+    }
+
+    public int childCount(final int index) {
+        return snapshot.graph().childCount(index);
+    }
+
+    public int child(final int index, final int i) {
+        return snapshot.graph().child(index, i);
+    }
+
+    /**
+     * Returns the group, that is the index of the root advancement's tree, the entry belongs to.
+     */
+    public int group(final int index) {
+        return snapshot.rootIndex(index);
+    }
+
+    public int groupCount() {
+        return groupTitles.length;
+    }
+
+    /**
+     * Returns the id of the root advancement of a group.
+     */
+    public String groupId(final int group) {
+        return snapshot.roots().get(group).id();
+    }
+
+    /**
+     * Returns the English title of a group: the root's title, or the title of its first entry when the root has
+     * none.
+     */
+    public String groupTitle(final int group) {
+        return groupTitles[group];
+    }
+
+    public Set<String> namespaces() {
+        return Collections.unmodifiableSet(entriesByNamespace.keySet());
+    }
+
+    /**
+     * Returns the entries of a namespace in capture order, or an empty array for unknown namespaces.
+     */
+    public int[] entriesInNamespace(final String namespace) {
+        final int[] entries = entriesByNamespace.get(namespace);
+        return entries != null ? entries.clone() : new int[0];
+    }
+
+    /**
+     * Returns the entries of a group in capture order.
+     */
+    public int[] groupEntries(final int group) {
+        return entriesByGroup[group].clone();
+    }
+
+    /**
+     * Returns the entries whose id, title or description contain every term of the query, best match first. Terms
+     * are case-insensitive and also match words they are a prefix of.
+     */
+    public int[] search(final String query) {
+        return searchIndex.search(query);
+    }
+}
@@ -0,0 +1,181 @@
+package com.behamotten.events.advancements;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.ServerLoadEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import com.behamotten.events.metrics.ExportPhaseEvent;
+
+/**
+ * Plugin-wide owner of the current {@link AdvancementIndex}. The advancements are captured on the server thread and
+ * rendered off-thread on the render pool. The index is rebuilt when the server finishes loading or reloading; if the
+ * advancement set is unchanged, the previous rendering is reused and only the live advancement references are
+ * refreshed. Rendered text is shared with other indices through a {@link RenderedTextCache}. A reload clears the
+ * cache and renders the index again, since translations may have changed even if the advancements did not.
+ */
+public final class AdvancementIndexService implements Listener {
+    private final JavaPlugin plugin;
+    private final Logger logger;
+    private final RenderedTextCache textCache;
+    private final ComponentTextRenderer textRenderer;
+    private final AdvancementDisplayAdapter displayAdapter;
+    private final ForkJoinPool renderPool;
+    private final AtomicReference<CompletableFuture<AdvancementIndex>> pending = new AtomicReference<>();
+    private volatile AdvancementIndex current;
+    private volatile OfflineScanResult latestScan;
+
+    public AdvancementIndexService(final JavaPlugin plugin) {
+        this(plugin, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a service that renders on the given pool, or serially on the calling thread when the pool is
+     * {@code null}.
+     */
+    AdvancementIndexService(final JavaPlugin plugin, final ForkJoinPool renderPool) {
+        this(plugin, renderPool, RenderedTextCache.shared());
+    }
+
+    /**
+     * Creates a service that renders on the given pool, or serially when the pool is {@code null}, and reuses text
+     * from the given cache instead of the shared one.
+     */
+    AdvancementIndexService(final JavaPlugin plugin, final ForkJoinPool renderPool, final RenderedTextCache textCache) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.textCache = textCache;
+        this.textRenderer = ComponentTextRenderer.create(this.logger, textCache);
+        this.displayAdapter = new AdvancementDisplayAdapter(this.logger, this.textRenderer.componentClass());
+        this.renderPool = renderPool;
+    }
+
+    /**
+     * Returns the most recently completed index without blocking, or {@code null} if none has been built yet.
+     */
+    public AdvancementIndex current() {
+        return current;
+    }
+
+    /**
+     * Returns the current index, building it first if there is none and waiting for a rebuild in progress. Must be
+     * called on the server thread.
+     */
+    public AdvancementIndex acquire() throws AdvancementExportException {
+        final CompletableFuture<AdvancementIndex> build = pending.get();
+        return await(build != null ? build : rebuild());
+    }
+
+    /**
+     * Rescans the server and returns an index that matches the live advancements. Must be called on the server
+     * thread.
+     */
+    public AdvancementIndex refresh() throws AdvancementExportException {
+        return await(rebuild());
+    }
+
+    /**
+     * Captures the advancements on the calling thread, which must be the server thread, and renders them on the
+     * render pool. Completes immediately when the advancement set has not changed since the last build.
+     */
+    public CompletableFuture<AdvancementIndex> rebuild() throws AdvancementExportException {
+        return rebuild(false);
+    }
+
+    /**
+     * Captures and renders the advancements like {@link #rebuild()}, but renders them again even when the advancement
+     * set is unchanged if {@code rerender} is set.
+     */
+    private CompletableFuture<AdvancementIndex> rebuild(final boolean rerender) throws AdvancementExportException {
+        final var iterator = plugin.getServer().advancementIterator();
+        if (iterator == null) {
+            throw new AdvancementExportException("Server returned no advancements to export.");
+        }
+        final ExportPhaseEvent captureEvent = new ExportPhaseEvent(ExportPhaseEvent.ITERATE);
+        captureEvent.begin();
+        final AdvancementSnapshot snapshot = AdvancementSnapshot.capture(iterator, displayAdapter, logger);
+        captureEvent.end();
+        if (captureEvent.shouldCommit()) {
+            captureEvent.setAdvancements(snapshot.size());
+            captureEvent.commit();
+        }
+        final String fingerprint = AdvancementFingerprint.compute(snapshot, "");
+        final AdvancementIndex previous = current;
+        final CompletableFuture<AdvancementIndex> build;
+        if (!rerender && previous != null && previous.fingerprint().equals(fingerprint)) {
+            build = CompletableFuture.completedFuture(previous.withSnapshot(snapshot));
+        } else if (renderPool == null) {
+            build = CompletableFuture.supplyAsync(
+                    () -> AdvancementIndex.build(snapshot, fingerprint, textRenderer, false), Runnable::run);
+        } else {
+            build = CompletableFuture.supplyAsync(
+                    () -> AdvancementIndex.build(snapshot, fingerprint, textRenderer, true), renderPool);
+        }
+        pending.set(build);
+        build.whenComplete((index, failure) -> {
+            if (failure != null) {
+                // Let the next caller retry instead of failing forever.
+                pending.compareAndSet(build, null);
+                logger.log(Level.SEVERE, "Could not build the advancement index.", failure);
+            } else if (pending.get() == build) {
+                current = index;
+            }
+        });
+        return build;
+    }
+
+    ComponentTextRenderer textRenderer() {
+        return textRenderer;
+    }
+
+    /**
+     * Stores the result of an offline advancement scan so that later exports can include its statistics.
+     */
+    public void publishScan(final OfflineScanResult scan) {
+        latestScan = scan;
+    }
+
+    /**
+     * Returns the latest offline scan if it was taken against the same advancement set as the given index, or
+     * {@code null} otherwise.
+     */
+    OfflineScanResult latestScan(final AdvancementIndex index) {
+        final OfflineScanResult scan = latestScan;
+        return scan != null && scan.indexFingerprint().equals(index.fingerprint()) ? scan : null;
+    }
+
+    @EventHandler
+    public void onServerLoad(final ServerLoadEvent event) {
+        final boolean reload = event.getType() == ServerLoadEvent.LoadType.RELOAD;
+        if (reload) {
+            // Datapacks and translations may have changed; rendered text must not outlive them, neither in the
+            // cache nor in the index, whose fingerprint only covers the untranslated components.
+            textCache.invalidate();
+        }
+        try {
+            rebuild(reload);
+        } catch (final AdvancementExportException exception) {
+            logger.log(Level.WARNING, "Could not rebuild the advancement index after " + event.getType() + ".",
+                    exception);
+        }
+    }
+
+    private AdvancementIndex await(final CompletableFuture<AdvancementIndex> build)
+            throws AdvancementExportException {
+        try {
+            return build.get();
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new AdvancementExportException("Interrupted while rendering advancement text.", exception);
+        } catch (final ExecutionException exception) {
+            throw new AdvancementExportException("Failed to render advancement text.", exception.getCause());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.behamotten.events.advancements;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import com.behamotten.events.metrics.AdaptiveThrottle;
+
+/**
+ * Command that scans the stored advancement progress of all players, including offline ones, computes how rare every
+ * advancement is and records what each event participant has completed. The index and the participant list are read
+ * on the server thread; the files are scanned on an async task and the result is reported back on the server thread.
+ * Only one scan runs at a time.
+ */
+public final class AdvancementScanCommand implements CommandExecutor {
+    private static final String OUTPUT_FILE = "advancements_scan.json";
+
+    private final JavaPlugin plugin;
+    private final AdvancementIndexService index;
+    private final Supplier<Map<UUID, String>> participants;
+    private final AdaptiveThrottle throttle;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * @param participants supplies a copy of the event participants; called on the server thread
+     * @param throttle paces reading the files to the server load
+     */
+    public AdvancementScanCommand(final JavaPlugin plugin, final AdvancementIndexService index,
+            final Supplier<Map<UUID, String>> participants, final AdaptiveThrottle throttle) {
+        this.plugin = plugin;
+        this.index = index;
+        this.participants = participants;
+        this.throttle = throttle;
+    }
+
+    @Override
+    public boolean onCommand(final CommandSender sender, final Command command, final String label,
+            final String[] args) {
+        final Path directory = plugin.getServer().getWorldContainer().toPath()
+                .resolve(plugin.getConfig().getString("advancement-scan.world", "world"))
+                .resolve("advancements");
+        if (!Files.isDirectory(directory)) {
+            sender.sendMessage(ChatColor.RED + "No advancement data found in " + directory + ".");
+            return true;
+        }
+        if (!running.compareAndSet(false, true)) {
+            sender.sendMessage(ChatColor.YELLOW + "An advancement scan is already running.");
+            return true;
+        }
+        final AdvancementIndex advancements;
+        try {
+            advancements = index.acquire();
+        } catch (final AdvancementExportException exception) {
+            running.set(false);
+            plugin.getLogger().log(Level.SEVERE, "Could not build the advancement index.", exception);
+            sender.sendMessage(ChatColor.RED + "Advancements are not available. Check the server log for details.");
+            return true;
+        }
+        final Map<UUID, String> scannedParticipants = participants.get();
+        final int configuredThreads = plugin.getConfig().getInt("advancement-scan.threads", 0);
+        final int threads = configuredThreads > 0 ? configuredThreads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        final Path outputFile = plugin.getDataFolder().toPath().resolve(OUTPUT_FILE);
+        sender.sendMessage(ChatColor.GRAY + "Scanning advancement files in " + directory + "...");
+
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                final OfflineScanResult result = new OfflineAdvancementScanner(plugin.getLogger(), threads, throttle)
+                        .scan(directory, advancements, scannedParticipants);
+                Files.createDirectories(outputFile.getParent());
+                OfflineAdvancementScanner.writeReport(outputFile, advancements, result);
+                index.publishScan(result);
+                plugin.getServer().getScheduler().runTask(plugin, () -> reportSuccess(sender, result, outputFile));
+            } catch (final IOException | RuntimeException exception) {
+                plugin.getLogger().log(Level.SEVERE, "Advancement scan failed.", exception);
+                plugin.getServer().getScheduler().runTask(plugin, () -> sender.sendMessage(
+                        ChatColor.RED + "Advancement scan failed. Check the server log for details."));
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    private void reportSuccess(final CommandSender sender, final OfflineScanResult result, final Path outputFile) {
+        sender.sendMessage(ChatColor.GREEN + "Scanned " + result.playersScanned() + " players ("
+                + result.participants().size() + " event participants). Output: " + outputFile);
+        if (result.filesFailed() > 0) {
+            sender.sendMessage(ChatColor.YELLOW + "" + result.filesFailed()
+                    + " files could not be read, see the server log.");
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.behamotten.events.advancements;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Level;
+
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+import org.bukkit.plugin.java.JavaPlugin;
+
+/**
+ * Command that searches the ids, titles and descriptions of all advancements through the shared
+ * {@link AdvancementIndex} and lists the ranked results page by page.
+ */
+public final class AdvancementSearchCommand implements CommandExecutor, TabCompleter {
+    static final int PAGE_SIZE = 8;
+    private static final String PAGE_PREFIX = "--page=";
+    private static final String USAGE = "/advancements search <terms> [--page=<n>]";
+
+    private final JavaPlugin plugin;
+    private final AdvancementIndexService index;
+
+    public AdvancementSearchCommand(final JavaPlugin plugin, final AdvancementIndexService index) {
+        this.plugin = plugin;
+        this.index = index;
+    }
+
+    @Override
+    public boolean onCommand(final CommandSender sender, final Command command, final String label,
+            final String[] args) {
+        if (args.length < 2 || !"search".equalsIgnoreCase(args[0])) {
+            sender.sendMessage(ChatColor.RED + "Usage: " + USAGE);
+            return true;
+        }
+        final StringBuilder query = new StringBuilder();
+        int page = 1;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].toLowerCase(Locale.ROOT).startsWith(PAGE_PREFIX)) {
+                try {
+                    page = Integer.parseInt(args[i].substring(PAGE_PREFIX.length()));
+                } catch (final NumberFormatException exception) {
+                    page = 0;
+                }
+                if (page < 1) {
+                    sender.sendMessage(ChatColor.RED + "Invalid page '" + args[i] + "'. Usage: " + USAGE);
+                    return true;
+                }
+            } else {
+                query.append(query.length() > 0 ? " " : "").append(args[i]);
+            }
+        }
+        if (AdvancementSearchIndex.tokenize(query.toString()).isEmpty()) {
+            sender.sendMessage(ChatColor.RED + "Please enter at least one search term. Usage: " + USAGE);
+            return true;
+        }
+
+        final AdvancementIndex advancements;
+        try {
+            final AdvancementIndex current = index.current();
+            advancements = current != null ? current : index.acquire();
+        } catch (final AdvancementExportException exception) {
+            plugin.getLogger().log(Level.SEVERE, "Could not build the advancement index.", exception);
+            sender.sendMessage(ChatColor.RED + "Advancements are not available. Check the server log for details.");
+            return true;
+        }
+        final int[] results = advancements.search(query.toString());
+        if (results.length == 0) {
+            sender.sendMessage(ChatColor.YELLOW + "No advancements match '" + query + "'.");
+            return true;
+        }
+        final int pages = (results.length + PAGE_SIZE - 1) / PAGE_SIZE;
+        if (page > pages) {
+            sender.sendMessage(ChatColor.RED + "Page " + page + " does not exist, there "
+                    + (pages == 1 ? "is 1 page." : "are " + pages + " pages."));
+            return true;
+        }
+        sender.sendMessage(ChatColor.GOLD + "Advancements matching '" + query + "' (" + results.length
+                + " results, page " + page + "/" + pages + "):");
+        final int end = Math.min(results.length, page * PAGE_SIZE);
+        for (int i = (page - 1) * PAGE_SIZE; i < end; i++) {
+            final int entry = results[i];
+            sender.sendMessage(ChatColor.GREEN + advancements.title(entry) + ChatColor.YELLOW + " ("
+                    + advancements.id(entry) + ")");
+        }
+        if (page < pages) {
+            sender.sendMessage(ChatColor.YELLOW + "More results: /advancements search " + query + " "
+                    + PAGE_PREFIX + (page + 1));
+        }
+        return true;
+    }
+
+    @Override
+    public List<String> onTabComplete(final CommandSender sender, final Command command, final String alias,
+            final String[] args) {
+        if (args.length == 1 && "search".startsWith(args[0].toLowerCase(Locale.ROOT))) {
+            return List.of("search");
+        }
+        return Collections.emptyList();
+    }
+}
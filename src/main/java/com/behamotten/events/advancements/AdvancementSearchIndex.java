@@ -0,0 +1,163 @@
+package com.behamotten.events.advancements;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index over the tokenized ids, titles and descriptions of an {@link AdvancementIndex}. Tokens are kept in a
+ * sorted array so that a query term matches every token it is a prefix of with one binary search. Each posting
+ * records in which fields the token occurs, which drives the ranking.
+ */
+final class AdvancementSearchIndex {
+    private static final byte IN_DESCRIPTION = 1;
+    private static final byte IN_ID = 2;
+    private static final byte IN_TITLE = 4;
+
+    private final int size;
+    private final String[] tokens;
+    private final int[][] postings;
+    private final byte[][] fields;
+
+    private AdvancementSearchIndex(final int size, final String[] tokens, final int[][] postings,
+            final byte[][] fields) {
+        this.size = size;
+        this.tokens = tokens;
+        this.postings = postings;
+        this.fields = fields;
+    }
+
+    static AdvancementSearchIndex build(final String[] ids, final String[] titles, final String[] descriptions) {
+        final Map<String, List<int[]>> postingLists = new HashMap<>();
+        final Map<String, Integer> entryFields = new LinkedHashMap<>();
+        for (int entry = 0; entry < ids.length; entry++) {
+            entryFields.clear();
+            collect(ids[entry], IN_ID, entryFields);
+            collect(titles[entry], IN_TITLE, entryFields);
+            collect(descriptions[entry], IN_DESCRIPTION, entryFields);
+            for (final Map.Entry<String, Integer> token : entryFields.entrySet()) {
+                postingLists.computeIfAbsent(token.getKey(), key -> new ArrayList<>())
+                        .add(new int[] {entry, token.getValue()});
+            }
+        }
+        final String[] tokens = postingLists.keySet().toArray(new String[0]);
+        Arrays.sort(tokens);
+        final int[][] postings = new int[tokens.length][];
+        final byte[][] fields = new byte[tokens.length][];
+        for (int i = 0; i < tokens.length; i++) {
+            final List<int[]> list = postingLists.get(tokens[i]);
+            postings[i] = new int[list.size()];
+            fields[i] = new byte[list.size()];
+            for (int p = 0; p < list.size(); p++) {
+                postings[i][p] = list.get(p)[0];
+                fields[i][p] = (byte) list.get(p)[1];
+            }
+        }
+        return new AdvancementSearchIndex(ids.length, tokens, postings, fields);
+    }
+
+    /**
+     * Returns all entries that match every term of the query, best match first. A term matches a token it equals or
+     * is a prefix of. Matches in the title rank above matches in the id, which rank above matches in the
+     * description, and whole-token matches count twice as much as prefix matches. Each term contributes the score of
+     * its best matching token. Ties keep capture order.
+     */
+    int[] search(final String query) {
+        final Set<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return new int[0];
+        }
+        final int[] scores = new int[size];
+        // Number of terms matched so far; an entry stays a candidate only while it has matched every earlier term.
+        final int[] matched = new int[size];
+        // Best score of the current term per entry, as several tokens may share the term as prefix.
+        final int[] termScores = new int[size];
+        int term = 0;
+        for (final String value : terms) {
+            int position = Arrays.binarySearch(tokens, value);
+            if (position < 0) {
+                position = -position - 1;
+            }
+            for (; position < tokens.length && tokens[position].startsWith(value); position++) {
+                final int multiplier = tokens[position].length() == value.length() ? 2 : 1;
+                final int[] entries = postings[position];
+                final byte[] entryFields = fields[position];
+                for (int p = 0; p < entries.length; p++) {
+                    final int entry = entries[p];
+                    final int score = weight(entryFields[p]) * multiplier;
+                    if (matched[entry] == term) {
+                        matched[entry] = term + 1;
+                        termScores[entry] = score;
+                        scores[entry] += score;
+                    } else if (matched[entry] == term + 1 && score > termScores[entry]) {
+                        scores[entry] += score - termScores[entry];
+                        termScores[entry] = score;
+                    }
+                }
+            }
+            term++;
+        }
+
+        int count = 0;
+        final long[] ranked = new long[size];
+        for (int entry = 0; entry < size; entry++) {
+            if (matched[entry] == terms.size()) {
+                ranked[count++] = (long) (Integer.MAX_VALUE - scores[entry]) << 32 | entry;
+            }
+        }
+        Arrays.sort(ranked, 0, count);
+        final int[] result = new int[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = (int) ranked[i];
+        }
+        return result;
+    }
+
+    /**
+     * Splits text into lower-case runs of letters and digits, so {@code minecraft:story/mine_stone} yields
+     * {@code minecraft}, {@code story}, {@code mine} and {@code stone}.
+     */
+    static Set<String> tokenize(final String text) {
+        final Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            final boolean tokenChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static void collect(final String text, final byte field, final Map<String, Integer> entryFields) {
+        for (final String token : tokenize(text)) {
+            entryFields.merge(token, (int) field, (existing, added) -> existing | added);
+        }
+    }
+
+    private static int weight(final byte fieldMask) {
+        int weight = 0;
+        if ((fieldMask & IN_TITLE) != 0) {
+            weight += 4;
+        }
+        if ((fieldMask & IN_ID) != 0) {
+            weight += 2;
+        }
+        if ((fieldMask & IN_DESCRIPTION) != 0) {
+            weight += 1;
+        }
+        return weight;
+    }
+}
@@ -0,0 +1,278 @@
+package com.behamotten.events.advancements;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Logger;
+
+import org.bukkit.NamespacedKey;
+import org.bukkit.advancement.Advancement;
+import org.bukkit.advancement.AdvancementDisplay;
+import org.bukkit.advancement.AdvancementFrameType;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * Main-thread capture of everything the export needs from the live advancement objects: keys, parents, criteria,
+ * display metadata and the raw display components. Once captured, the snapshot can be rendered on any thread; only
+ * {@link Entry#advancement()} must still be used from the server thread.
+ *
+ * <p>Parents are resolved into an {@link AdvancementGraph} in one linear pass, which also yields the root group of
+ * every entry. An advancement whose parent is not part of the captured set is treated as a root.</p>
+ */
+final class AdvancementSnapshot {
+    private final List<Entry> entries;
+    private final AdvancementGraph graph;
+    private final List<Root> roots;
+    private final int[] rootIndices;
+
+    private AdvancementSnapshot(final List<Entry> entries, final AdvancementGraph graph, final List<Root> roots,
+            final int[] rootIndices) {
+        this.entries = Collections.unmodifiableList(entries);
+        this.graph = graph;
+        this.roots = Collections.unmodifiableList(roots);
+        this.rootIndices = rootIndices;
+    }
+
+    /**
+     * Captures all advancements returned by the iterator. Every advancement is visited exactly once; parent chains
+     * are never walked.
+     */
+    static AdvancementSnapshot capture(final Iterator<Advancement> iterator,
+            final AdvancementDisplayAdapter displayAdapter, final Logger logger) {
+        Objects.requireNonNull(iterator, "iterator");
+        final List<Entry> entries = new ArrayList<>();
+        final Map<String, Integer> indexById = new HashMap<>();
+        while (iterator.hasNext()) {
+            final Advancement advancement = iterator.next();
+            if (advancement == null) {
+                logger.severe("Encountered a null advancement while exporting. Skipping entry.");
+                continue;
+            }
+            final Advancement parent = advancement.getParent();
+            final AdvancementDisplay display = advancement.getDisplay();
+            final Entry entry = new Entry(advancement, advancement.getKey(),
+                    parent != null ? parent.getKey().toString() : null, displayAdapter.resolveTitle(display),
+                    displayAdapter.resolveDescription(display), copyCriteria(advancement.getCriteria()),
+                    DisplayInfo.of(display));
+            if (indexById.putIfAbsent(entry.id(), entries.size()) != null) {
+                logger.warning(() -> "Advancement " + entry.id() + " was returned twice. Later parents refer to the"
+                        + " first occurrence.");
+            }
+            entries.add(entry);
+        }
+
+        final int[] parentIndices = new int[entries.size()];
+        for (int i = 0; i < parentIndices.length; i++) {
+            final String parentId = entries.get(i).parentId();
+            final Integer parentIndex = parentId != null ? indexById.get(parentId) : null;
+            parentIndices[i] = parentIndex != null ? parentIndex : -1;
+        }
+        final AdvancementGraph graph = AdvancementGraph.build(parentIndices);
+        if (graph.brokenCycles() > 0) {
+            logger.severe(() -> "Detected " + graph.brokenCycles() + " advancement parent cycle(s). One entry of"
+                    + " each cycle is exported as a root.");
+        }
+
+        final List<Root> roots = new ArrayList<>();
+        final int[] rootIndices = new int[entries.size()];
+        final int[] rootIndexByNode = new int[entries.size()];
+        Arrays.fill(rootIndexByNode, -1);
+        for (int i = 0; i < entries.size(); i++) {
+            final int rootNode = graph.root(i);
+            if (rootIndexByNode[rootNode] < 0) {
+                final Entry root = entries.get(rootNode);
+                rootIndexByNode[rootNode] = roots.size();
+                roots.add(new Root(root.id(), root.titleComponent()));
+            }
+            rootIndices[i] = rootIndexByNode[rootNode];
+        }
+        return new AdvancementSnapshot(entries, graph, roots, rootIndices);
+    }
+
+    private static List<String> copyCriteria(final Collection<String> criteria) {
+        if (criteria == null || criteria.isEmpty()) {
+            return List.of();
+        }
+        final List<String> copy = new ArrayList<>(criteria.size());
+        for (final String criterion : criteria) {
+            if (criterion != null) {
+                copy.add(criterion);
+            }
+        }
+        return Collections.unmodifiableList(copy);
+    }
+
+    List<Entry> entries() {
+        return entries;
+    }
+
+    AdvancementGraph graph() {
+        return graph;
+    }
+
+    List<Root> roots() {
+        return roots;
+    }
+
+    /**
+     * Returns the index into {@link #roots()} of the group the entry at the given index belongs to.
+     */
+    int rootIndex(final int entryIndex) {
+        return rootIndices[entryIndex];
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Captured state of a single advancement.
+     */
+    static final class Entry {
+        private final Advancement advancement;
+        private final NamespacedKey key;
+        private final String id;
+        private final String parentId;
+        private final Object titleComponent;
+        private final Object descriptionComponent;
+        private final List<String> criteria;
+        private final DisplayInfo displayInfo;
+
+        Entry(final Advancement advancement, final NamespacedKey key, final String parentId,
+                final Object titleComponent, final Object descriptionComponent, final List<String> criteria,
+                final DisplayInfo displayInfo) {
+            this.advancement = advancement;
+            this.key = key;
+            this.id = key.toString();
+            this.parentId = parentId;
+            this.titleComponent = titleComponent;
+            this.descriptionComponent = descriptionComponent;
+            this.criteria = criteria;
+            this.displayInfo = displayInfo;
+        }
+
+        /**
+         * Live advancement this entry was captured from. Only safe to use on the server thread.
+         */
+        Advancement advancement() {
+            return advancement;
+        }
+
+        NamespacedKey key() {
+            return key;
+        }
+
+        String id() {
+            return id;
+        }
+
+        String parentId() {
+            return parentId;
+        }
+
+        Object titleComponent() {
+            return titleComponent;
+        }
+
+        Object descriptionComponent() {
+            return descriptionComponent;
+        }
+
+        List<String> criteria() {
+            return criteria;
+        }
+
+        /**
+         * Display metadata, or {@code null} for advancements without a display such as recipe unlocks.
+         */
+        DisplayInfo displayInfo() {
+            return displayInfo;
+        }
+    }
+
+    /**
+     * Non-text display metadata of an advancement.
+     */
+    static final class DisplayInfo {
+        private final String frame;
+        private final boolean hidden;
+        private final boolean showsToast;
+        private final boolean announcesToChat;
+        private final String icon;
+
+        private DisplayInfo(final String frame, final boolean hidden, final boolean showsToast,
+                final boolean announcesToChat, final String icon) {
+            this.frame = frame;
+            this.hidden = hidden;
+            this.showsToast = showsToast;
+            this.announcesToChat = announcesToChat;
+            this.icon = icon;
+        }
+
+        static DisplayInfo of(final AdvancementDisplay display) {
+            if (display == null) {
+                return null;
+            }
+            final AdvancementFrameType frame = display.frame();
+            final ItemStack icon = display.icon();
+            final Object iconType = icon != null ? icon.getType() : null;
+            return new DisplayInfo(frame != null ? frame.name().toLowerCase(Locale.ROOT) : null, display.isHidden(),
+                    display.doesShowToast(), display.doesAnnounceToChat(),
+                    iconType != null ? iconType.toString().toLowerCase(Locale.ROOT) : null);
+        }
+
+        /**
+         * Frame type in lower case, for example {@code challenge}, or {@code null} if unknown.
+         */
+        String frame() {
+            return frame;
+        }
+
+        boolean hidden() {
+            return hidden;
+        }
+
+        boolean showsToast() {
+            return showsToast;
+        }
+
+        boolean announcesToChat() {
+            return announcesToChat;
+        }
+
+        /**
+         * Icon material in lower case, or {@code null} if the display has no icon.
+         */
+        String icon() {
+            return icon;
+        }
+    }
+
+    /**
+     * Root advancement of a group, in order of first appearance.
+     */
+    static final class Root {
+        private final String id;
+        private final Object titleComponent;
+
+        Root(final String id, final Object titleComponent) {
+            this.id = id;
+            this.titleComponent = titleComponent;
+        }
+
+        String id() {
+            return id;
+        }
+
+        Object titleComponent() {
+            return titleComponent;
+        }
+    }
+}
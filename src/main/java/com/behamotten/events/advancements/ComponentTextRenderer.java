@@ -0,0 +1,164 @@
+package com.behamotten.events.advancements;
+
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Renders Adventure components to plain text while gracefully handling environments where Adventure, its plain
+ * text serializer or the global translator are not available. All reflective lookups happen once in
+ * {@link #create(Logger, RenderedTextCache)}; rendering itself is thread-safe. Rendered text is looked up in and
+ * stored to the given {@link RenderedTextCache}.
+ */
+final class ComponentTextRenderer {
+    private static final String COMPONENT_CLASS = "net.kyori.adventure.text.Component";
+    private static final String SERIALIZER_CLASS =
+            "net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer";
+    private static final String TRANSLATOR_CLASS = "net.kyori.adventure.translation.GlobalTranslator";
+
+    private final Logger logger;
+    private final RenderedTextCache cache;
+    private final Class<?> componentClass;
+    private final Function<Object, Object> serializer;
+    private final BiFunction<Object, Object, Object> translator;
+
+    private ComponentTextRenderer(final Logger logger, final RenderedTextCache cache, final Class<?> componentClass,
+            final Function<Object, Object> serializer, final BiFunction<Object, Object, Object> translator) {
+        this.logger = logger;
+        this.cache = cache;
+        this.componentClass = componentClass;
+        this.serializer = serializer;
+        this.translator = translator;
+    }
+
+    static ComponentTextRenderer create(final Logger logger, final RenderedTextCache cache) {
+        return create(logger, cache, COMPONENT_CLASS, SERIALIZER_CLASS, TRANSLATOR_CLASS);
+    }
+
+    /**
+     * Creates a renderer that looks up Adventure under the given class names, so tests can simulate servers where
+     * parts of it are missing.
+     */
+    static ComponentTextRenderer create(final Logger logger, final RenderedTextCache cache,
+            final String componentClassName, final String serializerClassName, final String translatorClassName) {
+        Objects.requireNonNull(logger, "logger");
+        Objects.requireNonNull(cache, "cache");
+        final Class<?> componentClass = resolveComponentClass(logger, componentClassName);
+        if (componentClass == null) {
+            logger.warning(() -> "Adventure component classes are unavailable. Falling back to"
+                    + " Component#toString().");
+            return new ComponentTextRenderer(logger, cache, null, null, null);
+        }
+        return new ComponentTextRenderer(logger, cache, componentClass,
+                resolveSerializer(logger, componentClass, serializerClassName),
+                resolveTranslator(logger, componentClass, translatorClassName));
+    }
+
+    /**
+     * Returns the Adventure component class, or {@code null} when Adventure is not on the class path.
+     */
+    Class<?> componentClass() {
+        return componentClass;
+    }
+
+    /**
+     * Translates the component to English, serializes it to plain text and normalizes line breaks. Returns the
+     * fallback when the result is empty.
+     */
+    String render(final Object component, final String fallback) {
+        return render(component, Locale.ENGLISH, fallback);
+    }
+
+    /**
+     * Translates the component to the given locale, serializes it to plain text and normalizes line breaks. A
+     * {@code null} locale skips the translator, so translatable components keep their translation keys. Returns the
+     * fallback when the result is empty.
+     */
+    String render(final Object component, final Locale locale, final String fallback) {
+        final String normalized = component != null
+                ? cache.get(component, locale, () -> renderUncached(component, locale))
+                : "";
+        if (!normalized.isEmpty()) {
+            return normalized;
+        }
+        return fallback != null ? fallback : "";
+    }
+
+    private String renderUncached(final Object component, final Locale locale) {
+        final Object translated = locale != null ? translate(component, locale) : component;
+        return serialize(translated).replace("\r\n", "\n").replace('\r', '\n').trim();
+    }
+
+    private Object translate(final Object component, final Locale locale) {
+        if (translator == null || !componentClass.isInstance(component)) {
+            return component;
+        }
+        try {
+            final Object translated = translator.apply(component, locale);
+            if (componentClass.isInstance(translated)) {
+                return translated;
+            }
+        } catch (final RuntimeException exception) {
+            logger.fine(() -> "Could not translate component to " + locale.toLanguageTag() + ": "
+                    + exception.getMessage());
+        }
+        return component;
+    }
+
+    private String serialize(final Object component) {
+        if (component == null) {
+            return "";
+        }
+        if (serializer != null && componentClass.isInstance(component)) {
+            try {
+                final Object result = serializer.apply(component);
+                if (result instanceof String) {
+                    return (String) result;
+                }
+            } catch (final RuntimeException exception) {
+                logger.fine(() -> "Failed to serialize component using Adventure serializer: "
+                        + exception.getMessage());
+            }
+        }
+        final String fallback = component.toString();
+        return fallback != null ? fallback : "";
+    }
+
+    private static Class<?> resolveComponentClass(final Logger logger, final String className) {
+        try {
+            return Class.forName(className);
+        } catch (final ClassNotFoundException | LinkageError exception) {
+            logger.fine(() -> "Adventure component classes are unavailable: " + exception.getMessage());
+            return null;
+        }
+    }
+
+    private static Function<Object, Object> resolveSerializer(final Logger logger, final Class<?> componentClass,
+            final String className) {
+        try {
+            final Class<?> serializerClass = Class.forName(className);
+            final Object instance = serializerClass.getMethod("plainText").invoke(null);
+            final Method serializeMethod = serializerClass.getMethod("serialize", componentClass);
+            return MethodBindings.bindInstance(instance, serializeMethod);
+        } catch (final ReflectiveOperationException | RuntimeException | LinkageError exception) {
+            logger.warning(() -> "Plain text serializer from Adventure is unavailable. Falling back to"
+                    + " Component#toString(): " + exception.getMessage());
+            return null;
+        }
+    }
+
+    private static BiFunction<Object, Object, Object> resolveTranslator(final Logger logger,
+            final Class<?> componentClass, final String className) {
+        try {
+            final Class<?> translatorClass = Class.forName(className);
+            return MethodBindings.bindStatic(translatorClass.getMethod("render", componentClass, Locale.class));
+        } catch (final ReflectiveOperationException | RuntimeException | LinkageError exception) {
+            logger.fine(() -> "Adventure global translator is unavailable. Components are not translated: "
+                    + exception.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.behamotten.events.advancements;
+
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+/**
+ * Five-field cron expression ({@code minute hour day-of-month month day-of-week}) as known from crontab. Each field
+ * accepts {@code *}, single values, ranges ({@code 1-5}), steps ({@code *}{@code /15}, {@code 8-18/2}) and
+ * comma-separated lists of those. Day of week runs from 0 (Sunday) to 7 (Sunday again). As in crontab, a time
+ * matches when either day field matches if both are restricted.
+ */
+final class CronSchedule {
+    private static final int SEARCH_YEARS = 5;
+
+    private final String expression;
+    private final long minutes;
+    private final long hours;
+    private final long daysOfMonth;
+    private final long months;
+    private final long daysOfWeek;
+    private final boolean daysOfMonthRestricted;
+    private final boolean daysOfWeekRestricted;
+
+    private CronSchedule(final String expression, final String[] fields) {
+        this.expression = expression;
+        this.minutes = parseField(fields[0], 0, 59, "minute");
+        this.hours = parseField(fields[1], 0, 23, "hour");
+        this.daysOfMonth = parseField(fields[2], 1, 31, "day of month");
+        this.months = parseField(fields[3], 1, 12, "month");
+        final long weekdays = parseField(fields[4], 0, 7, "day of week");
+        // Sunday may be written as 0 or 7.
+        this.daysOfWeek = (weekdays & 1L << 7) != 0 ? weekdays | 1L : weekdays;
+        this.daysOfMonthRestricted = !fields[2].equals("*");
+        this.daysOfWeekRestricted = !fields[4].equals("*");
+    }
+
+    /**
+     * Parses a cron expression.
+     *
+     * @throws IllegalArgumentException if the expression is malformed
+     */
+    static CronSchedule parse(final String expression) {
+        final String trimmed = expression == null ? "" : expression.trim();
+        final String[] fields = trimmed.split("\\s+");
+        if (fields.length != 5) {
+            throw new IllegalArgumentException("Cron expression '" + trimmed
+                    + "' must have five fields: minute hour day-of-month month day-of-week.");
+        }
+        return new CronSchedule(trimmed, fields);
+    }
+
+    /**
+     * Returns the first matching minute strictly after the given time, or nothing if the expression never matches
+     * (for example {@code 0 0 30 2 *}).
+     */
+    Optional<ZonedDateTime> next(final ZonedDateTime after) {
+        ZonedDateTime time = after.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+        final ZonedDateTime limit = time.plusYears(SEARCH_YEARS);
+        while (time.isBefore(limit)) {
+            if (!matches(months, time.getMonthValue())) {
+                time = time.withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS).plusMonths(1);
+            } else if (!matchesDay(time)) {
+                time = time.truncatedTo(ChronoUnit.DAYS).plusDays(1);
+            } else if (!matches(hours, time.getHour())) {
+                time = time.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+            } else if (!matches(minutes, time.getMinute())) {
+                time = time.plusMinutes(1);
+            } else {
+                return Optional.of(time);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    private boolean matchesDay(final ZonedDateTime time) {
+        final boolean dayOfMonth = matches(daysOfMonth, time.getDayOfMonth());
+        final boolean dayOfWeek = matches(daysOfWeek, time.getDayOfWeek().getValue() % 7);
+        if (daysOfMonthRestricted && daysOfWeekRestricted) {
+            return dayOfMonth || dayOfWeek;
+        }
+        return dayOfMonth && dayOfWeek;
+    }
+
+    private static boolean matches(final long field, final int value) {
+        return (field & 1L << value) != 0;
+    }
+
+    private static long parseField(final String field, final int min, final int max, final String name) {
+        long bits = 0;
+        for (final String part : field.split(",", -1)) {
+            final int slash = part.indexOf('/');
+            final String range = slash < 0 ? part : part.substring(0, slash);
+            final int step = slash < 0 ? 1 : parseNumber(part.substring(slash + 1), 1, max, name, field);
+            final int from;
+            final int to;
+            if (range.equals("*")) {
+                from = min;
+                to = max;
+            } else if (range.indexOf('-') > 0) {
+                final int dash = range.indexOf('-');
+                from = parseNumber(range.substring(0, dash), min, max, name, field);
+                to = parseNumber(range.substring(dash + 1), min, max, name, field);
+                if (to < from) {
+                    throw new IllegalArgumentException("Invalid " + name + " range '" + part + "' in '" + field
+                            + "'.");
+                }
+            } else {
+                from = parseNumber(range, min, max, name, field);
+                to = slash < 0 ? from : max;
+            }
+            for (int value = from; value <= to; value += step) {
+                bits |= 1L << value;
+            }
+        }
+        return bits;
+    }
+
+    private static int parseNumber(final String value, final int min, final int max, final String name,
+            final String field) {
+        try {
+            final int number = Integer.parseInt(value);
+            if (number >= min && number <= max) {
+                return number;
+            }
+        } catch (final NumberFormatException exception) {
+            // Reported below.
+        }
+        throw new IllegalArgumentException("Invalid " + name + " '" + value + "' in '" + field + "', expected "
+                + min + "-" + max + ".");
+    }
+}
@@ -0,0 +1,182 @@
+package com.behamotten.events.advancements;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import com.behamotten.events.metrics.AdaptiveThrottle;
+import com.behamotten.events.metrics.PluginMetrics;
+
+/**
+ * Serializes advancement exports and coalesces duplicate requests. A request for the same export as one that is
+ * still running attaches to it and receives the same {@link AdvancementExporter.ExportResult}; a request arriving
+ * within the freshness window after such an export finished receives the cached result without any new work unless
+ * it is {@link ExportOptions#force() forced}. Requests share an export regardless of the requesting player, so each
+ * file is rendered and written once; criteria are awarded to each requesting player afterwards.
+ *
+ * <p>The server-thread part of an export runs in {@link #submit(Player, ExportOptions)}; the check whether the
+ * previous export is still up to date and the file writes run on the writer executor, one export at a time. Criteria
+ * are awarded on the server thread once the shared export has completed, unless it found nothing changed.</p>
+ */
+public final class ExportCoordinator {
+    private static final long NOT_COMPLETED = Long.MIN_VALUE;
+
+    private final JavaPlugin plugin;
+    private final AdvancementIndexService index;
+    private final Executor writer;
+    private final Executor serverThread;
+    private final AdaptiveThrottle throttle;
+    private final long freshnessNanos;
+    private final LongSupplier clock;
+    private final PluginMetrics.Counter runs;
+    private final PluginMetrics.Counter failures;
+    private final PluginMetrics.Counter durationMillis;
+    private final PluginMetrics.Gauge lastDurationMillis;
+    private final PluginMetrics.Counter advancementsWritten;
+    private final Map<ExportOptions, Flight> flights = new HashMap<>();
+    private CompletableFuture<?> tail = CompletableFuture.completedFuture(null);
+
+    /**
+     * Creates a coordinator that writes exports on async scheduler tasks, paced by the throttle, and reuses finished
+     * exports for the number of seconds configured under {@code advancement-export.freshness-seconds}.
+     */
+    public ExportCoordinator(final JavaPlugin plugin, final AdvancementIndexService index,
+            final AdaptiveThrottle throttle) {
+        this(plugin, index, throttle, new PluginMetrics());
+    }
+
+    /**
+     * Creates a coordinator like {@link #ExportCoordinator(JavaPlugin, AdvancementIndexService, AdaptiveThrottle)}
+     * that records the number, duration and size of the exports it writes in the given metrics.
+     */
+    public ExportCoordinator(final JavaPlugin plugin, final AdvancementIndexService index,
+            final AdaptiveThrottle throttle, final PluginMetrics metrics) {
+        this(plugin, index, task -> plugin.getServer().getScheduler().runTaskAsynchronously(plugin, task),
+                task -> plugin.getServer().getScheduler().runTask(plugin, task), throttle,
+                TimeUnit.SECONDS.toNanos(Math.max(0L,
+                        plugin.getConfig().getLong("advancement-export.freshness-seconds", 5L))),
+                System::nanoTime, metrics);
+    }
+
+    ExportCoordinator(final JavaPlugin plugin, final AdvancementIndexService index, final Executor writer,
+            final Executor serverThread, final AdaptiveThrottle throttle, final long freshnessNanos,
+            final LongSupplier clock, final PluginMetrics metrics) {
+        this.plugin = plugin;
+        this.index = Objects.requireNonNull(index, "index");
+        this.writer = writer;
+        this.serverThread = serverThread;
+        this.throttle = throttle;
+        this.freshnessNanos = freshnessNanos;
+        this.clock = clock;
+        this.runs = metrics.counter("export_runs_total", "Advancement exports written.");
+        this.failures = metrics.counter("export_failures_total", "Advancement exports that failed.");
+        this.durationMillis = metrics.counter("export_duration_milliseconds_total",
+                "Time spent preparing and writing advancement exports.");
+        this.lastDurationMillis = metrics.gauge("export_last_duration_milliseconds",
+                "Time spent preparing and writing the last advancement export.");
+        this.advancementsWritten = metrics.counter("export_advancements_written_total",
+                "Advancements written by all exports.");
+    }
+
+    /**
+     * Requests an export on behalf of the player, or of the console when the player is {@code null}. Must be called
+     * on the server thread. The returned future fails with a {@link CompletionException} wrapping an
+     * {@link AdvancementExportException} when the export fails.
+     */
+    public CompletableFuture<AdvancementExporter.ExportResult> submit(final Player player,
+            final ExportOptions options) {
+        final Player awarded = options.readOnly() ? null : player;
+        final ExportOptions key = options.withForce(false).withReadOnly(true);
+        synchronized (flights) {
+            final Flight flight = flights.get(key);
+            if (flight != null && (!flight.future.isDone() || !options.force() && isFresh(flight))) {
+                return award(awarded, flight);
+            }
+        }
+
+        final long prepareStarted = System.nanoTime();
+        final AdvancementExporter.PreparedExport prepared;
+        try {
+            prepared = new AdvancementExporter(plugin, null, index, throttle).prepare(key.withForce(options.force()));
+        } catch (final AdvancementExportException exception) {
+            failures.increment();
+            return CompletableFuture.failedFuture(new CompletionException(exception));
+        }
+        final long prepareNanos = System.nanoTime() - prepareStarted;
+        final CompletableFuture<AdvancementExporter.ExportResult> future;
+        synchronized (flights) {
+            // The up-to-date check runs in the write stage as well, so it sees the files of every earlier export.
+            future = tail.handle((ignored, failure) -> null).thenApplyAsync(ignored -> {
+                final long writeStarted = System.nanoTime();
+                try {
+                    final AdvancementExporter.ExportResult result = prepared.write();
+                    if (!result.wasUpToDate()) {
+                        record(prepareNanos + System.nanoTime() - writeStarted, result);
+                    }
+                    return result;
+                } catch (final AdvancementExportException exception) {
+                    failures.increment();
+                    throw new CompletionException(exception);
+                }
+            }, writer);
+            tail = future;
+        }
+        final Flight flight = new Flight(future, prepared.snapshot());
+        synchronized (flights) {
+            flights.put(key, flight);
+        }
+        future.whenComplete((result, failure) -> flight.completedAt = clock.getAsLong());
+        return award(awarded, flight);
+    }
+
+    /**
+     * Returns the flight's result after awarding the player, if any, all criteria of the exported advancements on
+     * the server thread. Nothing is awarded when the export found nothing changed.
+     */
+    private CompletableFuture<AdvancementExporter.ExportResult> award(final Player player, final Flight flight) {
+        if (player == null) {
+            return flight.future;
+        }
+        return flight.future.thenApplyAsync(result -> {
+            if (!result.wasUpToDate()) {
+                new AdvancementExporter(plugin, player, index, throttle).award(flight.snapshot);
+            }
+            return result;
+        }, serverThread);
+    }
+
+    private void record(final long nanos, final AdvancementExporter.ExportResult result) {
+        final long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        runs.increment();
+        durationMillis.add(millis);
+        lastDurationMillis.set(millis);
+        advancementsWritten.add(result.advancementCount());
+    }
+
+    private boolean isFresh(final Flight flight) {
+        if (flight.future.isCompletedExceptionally()) {
+            return false;
+        }
+        final long completedAt = flight.completedAt;
+        return completedAt == NOT_COMPLETED || clock.getAsLong() - completedAt <= freshnessNanos;
+    }
+
+    private static final class Flight {
+        private final CompletableFuture<AdvancementExporter.ExportResult> future;
+        private final AdvancementSnapshot snapshot;
+        private volatile long completedAt = NOT_COMPLETED;
+
+        Flight(final CompletableFuture<AdvancementExporter.ExportResult> future, final AdvancementSnapshot snapshot) {
+            this.future = future;
+            this.snapshot = snapshot;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.behamotten.events.advancements;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Streams an advancement export to a {@link Writer} one entry at a time, so that no format needs the whole document
+ * in memory as a string.
+ */
+abstract class ExportDocumentWriter {
+    protected final Writer out;
+
+    private ExportDocumentWriter(final Writer out) {
+        this.out = Objects.requireNonNull(out, "out");
+    }
+
+    static ExportDocumentWriter create(final ExportFormat format, final Writer out) {
+        switch (format) {
+            case JSON:
+                return new JsonDocumentWriter(out, true);
+            case COMPACT:
+                return new JsonDocumentWriter(out, false);
+            case NDJSON:
+                return new NdjsonDocumentWriter(out);
+            case CSV:
+                return new CsvDocumentWriter(out);
+            default:
+                throw new IllegalArgumentException("Unsupported export format " + format);
+        }
+    }
+
+    /**
+     * Writes everything that precedes the first entry.
+     *
+     * @param columns entry keys in output order, used by tabular formats
+     */
+    abstract void begin(Map<String, Object> meta, List<Map<String, Object>> groups, List<String> columns)
+            throws IOException;
+
+    abstract void writeEntry(Map<String, Object> entry) throws IOException;
+
+    /**
+     * Writes everything that follows the last entry. Does not close the underlying writer.
+     */
+    abstract void finish() throws IOException;
+
+    /**
+     * Writes a single document with meta data, groups and the advancement array.
+     */
+    private static final class JsonDocumentWriter extends ExportDocumentWriter {
+        private final boolean pretty;
+        private boolean firstEntry = true;
+
+        JsonDocumentWriter(final Writer out, final boolean pretty) {
+            super(out);
+            this.pretty = pretty;
+        }
+
+        @Override
+        void begin(final Map<String, Object> meta, final List<Map<String, Object>> groups,
+                final List<String> columns) throws IOException {
+            out.write('{');
+            JsonWriter.newLine(out, 1, pretty);
+            JsonWriter.writeKey(out, "meta", pretty);
+            JsonWriter.writeValue(out, meta, 1, pretty);
+            out.write(',');
+            JsonWriter.newLine(out, 1, pretty);
+            JsonWriter.writeKey(out, "groups", pretty);
+            JsonWriter.writeValue(out, groups, 1, pretty);
+            out.write(',');
+            JsonWriter.newLine(out, 1, pretty);
+            JsonWriter.writeKey(out, "advancaments", pretty);
+            out.write('[');
+        }
+
+        @Override
+        void writeEntry(final Map<String, Object> entry) throws IOException {
+            if (!firstEntry) {
+                out.write(',');
+            }
+            JsonWriter.newLine(out, 2, pretty);
+            JsonWriter.writeValue(out, entry, 2, pretty);
+            firstEntry = false;
+        }
+
+        @Override
+        void finish() throws IOException {
+            if (!firstEntry) {
+                JsonWriter.newLine(out, 1, pretty);
+            }
+            out.write(']');
+            JsonWriter.newLine(out, 0, pretty);
+            out.write('}');
+            out.write(System.lineSeparator());
+        }
+    }
+
+    /**
+     * Writes one compact advancement object per line. Meta data and groups are omitted so that every line has the
+     * same shape; each entry carries its {@code group_id}.
+     */
+    private static final class NdjsonDocumentWriter extends ExportDocumentWriter {
+        NdjsonDocumentWriter(final Writer out) {
+            super(out);
+        }
+
+        @Override
+        void begin(final Map<String, Object> meta, final List<Map<String, Object>> groups,
+                final List<String> columns) {
+            // Line-oriented output has no header.
+        }
+
+        @Override
+        void writeEntry(final Map<String, Object> entry) throws IOException {
+            JsonWriter.writeValue(out, entry, 0, false);
+            out.write('\n');
+        }
+
+        @Override
+        void finish() {
+            // Nothing follows the last line.
+        }
+    }
+
+    /**
+     * Writes RFC 4180 CSV with a header row. List values are joined with {@code |}.
+     */
+    private static final class CsvDocumentWriter extends ExportDocumentWriter {
+        private static final String LINE_END = "\r\n";
+
+        private List<String> columns;
+
+        CsvDocumentWriter(final Writer out) {
+            super(out);
+        }
+
+        @Override
+        void begin(final Map<String, Object> meta, final List<Map<String, Object>> groups,
+                final List<String> columns) throws IOException {
+            this.columns = List.copyOf(columns);
+            for (int i = 0; i < this.columns.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                writeField(this.columns.get(i));
+            }
+            out.write(LINE_END);
+        }
+
+        @Override
+        void writeEntry(final Map<String, Object> entry) throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                writeField(format(entry.get(columns.get(i))));
+            }
+            out.write(LINE_END);
+        }
+
+        @Override
+        void finish() {
+            // Every row is already terminated.
+        }
+
+        private String format(final Object value) {
+            if (value == null) {
+                return "";
+            }
+            if (value instanceof List<?>) {
+                final StringBuilder joined = new StringBuilder();
+                for (final Object element : (List<?>) value) {
+                    if (joined.length() > 0) {
+                        joined.append('|');
+                    }
+                    joined.append(element);
+                }
+                return joined.toString();
+            }
+            return value.toString();
+        }
+
+        private void writeField(final String value) throws IOException {
+            boolean needsQuotes = false;
+            for (int i = 0; i < value.length() && !needsQuotes; i++) {
+                final char ch = value.charAt(i);
+                needsQuotes = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+            }
+            if (!needsQuotes) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                final char ch = value.charAt(i);
+                if (ch == '"') {
+                    out.write('"');
+                }
+                out.write(ch);
+            }
+            out.write('"');
+        }
+    }
+}
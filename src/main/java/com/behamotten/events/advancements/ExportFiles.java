@@ -0,0 +1,80 @@
+package com.behamotten.events.advancements;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+import com.behamotten.events.metrics.ExportPhaseEvent;
+
+/**
+ * File helpers for export output. Files are written to a temporary sibling first and moved into place once
+ * complete, so readers never observe a partially written export.
+ */
+final class ExportFiles {
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private ExportFiles() {
+    }
+
+    /**
+     * Content streamed into an export file.
+     */
+    @FunctionalInterface
+    interface Content {
+        void writeTo(Writer writer) throws IOException;
+    }
+
+    /**
+     * Streams the content as UTF-8 into the target, optionally gzip-compressed, and returns the SHA-256 checksum of
+     * the bytes stored on disk.
+     */
+    static String writeAtomically(final Path target, final boolean gzip, final Content content) throws IOException {
+        final Path temporaryFile = target.resolveSibling(target.getFileName() + ".tmp");
+        final MessageDigest digest = newDigest();
+        final ExportPhaseEvent event = new ExportPhaseEvent(ExportPhaseEvent.WRITE);
+        event.begin();
+        try {
+            try (OutputStream fileStream = new DigestOutputStream(Files.newOutputStream(temporaryFile), digest);
+                    OutputStream stream = gzip ? new GZIPOutputStream(fileStream, WRITE_BUFFER_SIZE) : fileStream;
+                    Writer writer = new Utf8Writer(stream, WRITE_BUFFER_SIZE)) {
+                content.writeTo(writer);
+            }
+            moveIntoPlace(temporaryFile, target);
+        } catch (final IOException | RuntimeException exception) {
+            Files.deleteIfExists(temporaryFile);
+            throw exception;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.setFile(target.getFileName().toString());
+            event.setBytes(Files.size(target));
+            event.commit();
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void moveIntoPlace(final Path source, final Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final AtomicMoveNotSupportedException exception) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not available", exception);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.behamotten.events.advancements;
+
+import java.util.Locale;
+
+/**
+ * Output formats supported by the advancement export.
+ */
+public enum ExportFormat {
+    /**
+     * Single pretty-printed JSON document.
+     */
+    JSON("json", ".json"),
+    /**
+     * Single JSON document without any whitespace.
+     */
+    COMPACT("compact", ".min.json"),
+    /**
+     * Newline-delimited JSON with one advancement object per line.
+     */
+    NDJSON("ndjson", ".ndjson"),
+    /**
+     * Comma separated values with a header row and one advancement per row.
+     */
+    CSV("csv", ".csv");
+
+    private final String optionName;
+    private final String fileExtension;
+
+    ExportFormat(final String optionName, final String fileExtension) {
+        this.optionName = optionName;
+        this.fileExtension = fileExtension;
+    }
+
+    /**
+     * Name used on the command line, for example {@code --format=ndjson}.
+     */
+    public String optionName() {
+        return optionName;
+    }
+
+    public String fileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * Resolves a format from its command line name.
+     *
+     * @throws IllegalArgumentException if no format has the given name
+     */
+    public static ExportFormat fromOptionName(final String name) {
+        final String normalized = name.toLowerCase(Locale.ROOT);
+        for (final ExportFormat format : values()) {
+            if (format.optionName.equals(normalized)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown export format '" + name + "'. Supported formats: json, compact,"
+                + " ndjson, csv");
+    }
+}
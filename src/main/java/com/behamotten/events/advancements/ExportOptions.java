@@ -0,0 +1,168 @@
+package com.behamotten.events.advancements;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Immutable options controlling a single advancement export.
+ */
+public final class ExportOptions {
+    private static final ExportOptions DEFAULTS = new ExportOptions(false, false, ExportFormat.JSON, false,
+            ExportSharding.NONE, false, List.of(), false);
+
+    private final boolean force;
+    private final boolean readOnly;
+    private final ExportFormat format;
+    private final boolean gzip;
+    private final ExportSharding sharding;
+    private final boolean graph;
+    private final List<Locale> locales;
+    private final boolean rawKeys;
+
+    private ExportOptions(final boolean force, final boolean readOnly, final ExportFormat format,
+            final boolean gzip, final ExportSharding sharding, final boolean graph, final List<Locale> locales,
+            final boolean rawKeys) {
+        this.force = force;
+        this.readOnly = readOnly;
+        this.format = Objects.requireNonNull(format, "format");
+        this.gzip = gzip;
+        this.sharding = Objects.requireNonNull(sharding, "sharding");
+        this.graph = graph;
+        this.locales = List.copyOf(locales);
+        this.rawKeys = rawKeys;
+    }
+
+    public static ExportOptions defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Returns a copy that rewrites the export even when the advancement set is unchanged.
+     */
+    public ExportOptions withForce(final boolean force) {
+        return new ExportOptions(force, readOnly, format, gzip, sharding, graph, locales, rawKeys);
+    }
+
+    /**
+     * Returns a copy that only reads advancement metadata and never awards criteria to the exporting player.
+     */
+    public ExportOptions withReadOnly(final boolean readOnly) {
+        return new ExportOptions(force, readOnly, format, gzip, sharding, graph, locales, rawKeys);
+    }
+
+    public ExportOptions withFormat(final ExportFormat format) {
+        return new ExportOptions(force, readOnly, format, gzip, sharding, graph, locales, rawKeys);
+    }
+
+    /**
+     * Returns a copy that gzip-compresses the output file and appends {@code .gz} to its name.
+     */
+    public ExportOptions withGzip(final boolean gzip) {
+        return new ExportOptions(force, readOnly, format, gzip, sharding, graph, locales, rawKeys);
+    }
+
+    /**
+     * Returns a copy that splits the export into one file per partition plus an index manifest.
+     */
+    public ExportOptions withSharding(final ExportSharding sharding) {
+        return new ExportOptions(force, readOnly, format, gzip, sharding, graph, locales, rawKeys);
+    }
+
+    /**
+     * Returns a copy that adds children, depth, subtree size, topological position, criteria and display metadata
+     * to every entry.
+     */
+    public ExportOptions withGraph(final boolean graph) {
+        return new ExportOptions(force, readOnly, format, gzip, sharding, graph, locales, rawKeys);
+    }
+
+    /**
+     * Returns a copy that adds the title and description of every entry, and the title of every group, rendered for
+     * each of the given locales. The English text stays in the regular fields.
+     */
+    public ExportOptions withLocales(final List<Locale> locales) {
+        return new ExportOptions(force, readOnly, format, gzip, sharding, graph, locales, rawKeys);
+    }
+
+    /**
+     * Returns a copy that writes titles and descriptions without passing them through the global translator, so
+     * translatable text keeps its translation keys. Raw exports ignore {@link #locales()}.
+     */
+    public ExportOptions withRawKeys(final boolean rawKeys) {
+        return new ExportOptions(force, readOnly, format, gzip, sharding, graph, locales, rawKeys);
+    }
+
+    public boolean force() {
+        return force;
+    }
+
+    public boolean readOnly() {
+        return readOnly;
+    }
+
+    public ExportFormat format() {
+        return format;
+    }
+
+    public boolean gzip() {
+        return gzip;
+    }
+
+    public ExportSharding sharding() {
+        return sharding;
+    }
+
+    public boolean graph() {
+        return graph;
+    }
+
+    public List<Locale> locales() {
+        return locales;
+    }
+
+    public boolean rawKeys() {
+        return rawKeys;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ExportOptions)) {
+            return false;
+        }
+        final ExportOptions that = (ExportOptions) other;
+        return force == that.force && readOnly == that.readOnly && format == that.format && gzip == that.gzip
+                && sharding == that.sharding && graph == that.graph && locales.equals(that.locales)
+                && rawKeys == that.rawKeys;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = force ? 1 : 0;
+        result = 31 * result + (readOnly ? 1 : 0);
+        result = 31 * result + format.hashCode();
+        result = 31 * result + (gzip ? 1 : 0);
+        result = 31 * result + sharding.hashCode();
+        result = 31 * result + (graph ? 1 : 0);
+        result = 31 * result + locales.hashCode();
+        result = 31 * result + (rawKeys ? 1 : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ExportOptions{" +
+                "force=" + force +
+                ", readOnly=" + readOnly +
+                ", format=" + format +
+                ", gzip=" + gzip +
+                ", sharding=" + sharding +
+                ", graph=" + graph +
+                ", locales=" + locales +
+                ", rawKeys=" + rawKeys +
+                '}';
+    }
+}
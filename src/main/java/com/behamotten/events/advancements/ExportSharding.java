@@ -0,0 +1,50 @@
+package com.behamotten.events.advancements;
+
+import java.util.Locale;
+
+/**
+ * Strategies for splitting an export into one file per partition.
+ */
+public enum ExportSharding {
+    /**
+     * Write a single file.
+     */
+    NONE("none"),
+    /**
+     * One file per advancement namespace, for example {@code minecraft}.
+     */
+    NAMESPACE("namespace"),
+    /**
+     * One file per root group, for example {@code minecraft:story/root}.
+     */
+    GROUP("group");
+
+    private final String optionName;
+
+    ExportSharding(final String optionName) {
+        this.optionName = optionName;
+    }
+
+    /**
+     * Name used on the command line, for example {@code --shard=namespace}.
+     */
+    public String optionName() {
+        return optionName;
+    }
+
+    /**
+     * Resolves a strategy from its command line name.
+     *
+     * @throws IllegalArgumentException if no strategy has the given name
+     */
+    public static ExportSharding fromOptionName(final String name) {
+        final String normalized = name.toLowerCase(Locale.ROOT);
+        for (final ExportSharding sharding : values()) {
+            if (sharding.optionName.equals(normalized)) {
+                return sharding;
+            }
+        }
+        throw new IllegalArgumentException("Unknown shard strategy '" + name + "'. Supported strategies: none,"
+                + " namespace, group");
+    }
+}
@@ -0,0 +1,575 @@
+package com.behamotten.events.advancements;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Minimal pull-style JSON reader, the counterpart of {@link JsonWriter}. Documents are read token by token through a
+ * fixed-size buffer, so memory use does not depend on the document size; values the caller is not interested in are
+ * skipped without being materialized. Channel input is decoded from UTF-8 straight into the token buffer without an
+ * intermediate stream or reader.
+ */
+final class JsonReader implements Closeable {
+    /**
+     * Kinds of token returned by {@link #peek()}.
+     */
+    enum Token {
+        BEGIN_OBJECT,
+        END_OBJECT,
+        BEGIN_ARRAY,
+        END_ARRAY,
+        NAME,
+        STRING,
+        NUMBER,
+        BOOLEAN,
+        NULL,
+        END_DOCUMENT
+    }
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int DANGLING_NAME = 3;
+    private static final int NONEMPTY_OBJECT = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+
+    private final Reader in;
+    private final ReadableByteChannel channel;
+    private final ByteBuffer bytes;
+    private final CharsetDecoder decoder;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder scratch = new StringBuilder();
+    private int position;
+    private int limit;
+    private int[] scopes = new int[16];
+    private int depth = 1;
+    private Token peeked;
+    private boolean peekedBoolean;
+    private String peekedNumber;
+    private boolean endOfInput;
+    private boolean exhausted;
+
+    JsonReader(final Reader in) {
+        this.in = in;
+        this.channel = null;
+        this.bytes = null;
+        this.decoder = null;
+        scopes[0] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * Creates a reader that decodes UTF-8 from the channel. Malformed input fails with an {@link IOException}.
+     */
+    JsonReader(final ReadableByteChannel channel) {
+        this.in = null;
+        this.channel = channel;
+        this.bytes = ByteBuffer.allocateDirect(BUFFER_SIZE).flip();
+        this.decoder = StandardCharsets.UTF_8.newDecoder();
+        scopes[0] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * Opens a reader over a file. Files ending in {@code .gz}, as written by gzip exports, are decompressed on the
+     * fly.
+     */
+    static JsonReader open(final Path file) throws IOException {
+        final FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ);
+        if (!file.getFileName().toString().endsWith(".gz")) {
+            return new JsonReader(fileChannel);
+        }
+        try {
+            return new JsonReader(Channels.newChannel(
+                    new GZIPInputStream(Channels.newInputStream(fileChannel), BUFFER_SIZE)));
+        } catch (final IOException exception) {
+            fileChannel.close();
+            throw exception;
+        }
+    }
+
+    Token peek() throws IOException {
+        if (peeked == null) {
+            peeked = doPeek();
+        }
+        return peeked;
+    }
+
+    void beginObject() throws IOException {
+        expect(Token.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+    }
+
+    void endObject() throws IOException {
+        expect(Token.END_OBJECT);
+        depth--;
+    }
+
+    void beginArray() throws IOException {
+        expect(Token.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+    }
+
+    void endArray() throws IOException {
+        expect(Token.END_ARRAY);
+        depth--;
+    }
+
+    /**
+     * Returns whether the current object or array has another element.
+     */
+    boolean hasNext() throws IOException {
+        final Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    String nextName() throws IOException {
+        expect(Token.NAME);
+        return readString();
+    }
+
+    /**
+     * Returns the next string value. Numbers are returned in their literal form.
+     */
+    String nextString() throws IOException {
+        final Token token = peek();
+        if (token == Token.NUMBER) {
+            peeked = null;
+            return peekedNumber;
+        }
+        expect(Token.STRING);
+        return readString();
+    }
+
+    boolean nextBoolean() throws IOException {
+        expect(Token.BOOLEAN);
+        return peekedBoolean;
+    }
+
+    void nextNull() throws IOException {
+        expect(Token.NULL);
+    }
+
+    long nextLong() throws IOException {
+        expect(Token.NUMBER);
+        try {
+            return Long.parseLong(peekedNumber);
+        } catch (final NumberFormatException exception) {
+            throw syntaxError("Expected an integer but was " + peekedNumber);
+        }
+    }
+
+    double nextDouble() throws IOException {
+        expect(Token.NUMBER);
+        try {
+            return Double.parseDouble(peekedNumber);
+        } catch (final NumberFormatException exception) {
+            throw syntaxError("Expected a number but was " + peekedNumber);
+        }
+    }
+
+    /**
+     * Reads the next value into plain Java objects: objects become insertion-ordered maps, arrays lists, integral
+     * numbers {@link Long} and other numbers {@link Double}. Meant for small values such as an export's
+     * {@code meta} block; large documents should be consumed token by token instead.
+     */
+    Object readValue() throws IOException {
+        switch (peek()) {
+            case BEGIN_OBJECT: {
+                final Map<String, Object> values = new LinkedHashMap<>();
+                beginObject();
+                while (hasNext()) {
+                    final String name = nextName();
+                    values.put(name, readValue());
+                }
+                endObject();
+                return values;
+            }
+            case BEGIN_ARRAY: {
+                final List<Object> values = new ArrayList<>();
+                beginArray();
+                while (hasNext()) {
+                    values.add(readValue());
+                }
+                endArray();
+                return values;
+            }
+            case STRING:
+                return nextString();
+            case NUMBER: {
+                final String literal = nextString();
+                if (literal.indexOf('.') < 0 && literal.indexOf('e') < 0 && literal.indexOf('E') < 0) {
+                    try {
+                        return Long.parseLong(literal);
+                    } catch (final NumberFormatException exception) {
+                        // Too large for a long, fall back to a double.
+                    }
+                }
+                try {
+                    return Double.parseDouble(literal);
+                } catch (final NumberFormatException exception) {
+                    throw syntaxError("Invalid number " + literal);
+                }
+            }
+            case BOOLEAN:
+                return nextBoolean();
+            case NULL:
+                nextNull();
+                return null;
+            default:
+                throw syntaxError("Expected a value but was " + peek());
+        }
+    }
+
+    /**
+     * Skips the next value, including all nested values of an object or array.
+     */
+    void skipValue() throws IOException {
+        int nesting = 0;
+        do {
+            switch (peek()) {
+                case BEGIN_OBJECT:
+                    beginObject();
+                    nesting++;
+                    break;
+                case BEGIN_ARRAY:
+                    beginArray();
+                    nesting++;
+                    break;
+                case END_OBJECT:
+                    endObject();
+                    nesting--;
+                    break;
+                case END_ARRAY:
+                    endArray();
+                    nesting--;
+                    break;
+                case NAME:
+                case STRING:
+                    peeked = null;
+                    skipString();
+                    break;
+                case END_DOCUMENT:
+                    throw syntaxError("Unexpected end of document");
+                default:
+                    peeked = null;
+                    break;
+            }
+        } while (nesting > 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        } else {
+            in.close();
+        }
+    }
+
+    private void expect(final Token expected) throws IOException {
+        final Token token = peek();
+        if (token != expected) {
+            throw syntaxError("Expected " + expected + " but was " + token);
+        }
+        peeked = null;
+    }
+
+    private void push(final int scope) {
+        if (depth == scopes.length) {
+            scopes = Arrays.copyOf(scopes, depth * 2);
+        }
+        scopes[depth++] = scope;
+    }
+
+    private Token doPeek() throws IOException {
+        final int scope = scopes[depth - 1];
+        switch (scope) {
+            case EMPTY_ARRAY:
+                scopes[depth - 1] = NONEMPTY_ARRAY;
+                if (peekChar() == ']') {
+                    position++;
+                    return Token.END_ARRAY;
+                }
+                break;
+            case NONEMPTY_ARRAY: {
+                final int c = nextNonWhitespace();
+                if (c == ']') {
+                    return Token.END_ARRAY;
+                }
+                if (c != ',') {
+                    throw syntaxError("Expected ',' or ']' in array");
+                }
+                break;
+            }
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT: {
+                scopes[depth - 1] = DANGLING_NAME;
+                int c = nextNonWhitespace();
+                if (scope == NONEMPTY_OBJECT) {
+                    if (c == '}') {
+                        return Token.END_OBJECT;
+                    }
+                    if (c != ',') {
+                        throw syntaxError("Expected ',' or '}' in object");
+                    }
+                    c = nextNonWhitespace();
+                } else if (c == '}') {
+                    return Token.END_OBJECT;
+                }
+                if (c != '"') {
+                    throw syntaxError("Expected a quoted name");
+                }
+                return Token.NAME;
+            }
+            case DANGLING_NAME:
+                scopes[depth - 1] = NONEMPTY_OBJECT;
+                if (nextNonWhitespace() != ':') {
+                    throw syntaxError("Expected ':' after name");
+                }
+                break;
+            case EMPTY_DOCUMENT:
+                scopes[depth - 1] = NONEMPTY_DOCUMENT;
+                break;
+            default:
+                if (peekChar() == -1) {
+                    return Token.END_DOCUMENT;
+                }
+                throw syntaxError("Expected a single top-level value");
+        }
+        return readValueToken();
+    }
+
+    private Token readValueToken() throws IOException {
+        final int c = nextNonWhitespace();
+        switch (c) {
+            case '{':
+                return Token.BEGIN_OBJECT;
+            case '[':
+                return Token.BEGIN_ARRAY;
+            case '"':
+                return Token.STRING;
+            case 't':
+                readLiteral("rue");
+                peekedBoolean = true;
+                return Token.BOOLEAN;
+            case 'f':
+                readLiteral("alse");
+                peekedBoolean = false;
+                return Token.BOOLEAN;
+            case 'n':
+                readLiteral("ull");
+                return Token.NULL;
+            case -1:
+                throw syntaxError("Unexpected end of document");
+            default:
+                if (c == '-' || c >= '0' && c <= '9') {
+                    peekedNumber = readNumber((char) c);
+                    return Token.NUMBER;
+                }
+                throw syntaxError("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    private void readLiteral(final String rest) throws IOException {
+        for (int i = 0; i < rest.length(); i++) {
+            if (!fill() || buffer[position++] != rest.charAt(i)) {
+                throw syntaxError("Invalid literal");
+            }
+        }
+    }
+
+    private String readNumber(final char first) throws IOException {
+        scratch.setLength(0);
+        scratch.append(first);
+        while (fill()) {
+            final char c = buffer[position];
+            if (c >= '0' && c <= '9' || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                scratch.append(c);
+                position++;
+            } else {
+                break;
+            }
+        }
+        return scratch.toString();
+    }
+
+    /**
+     * Reads the rest of a string whose opening quote was consumed by {@link #peek()}.
+     */
+    private String readString() throws IOException {
+        scratch.setLength(0);
+        while (true) {
+            if (!fill()) {
+                throw syntaxError("Unterminated string");
+            }
+            int start = position;
+            while (position < limit) {
+                final char c = buffer[position];
+                if (c == '"') {
+                    scratch.append(buffer, start, position - start);
+                    position++;
+                    return scratch.toString();
+                }
+                if (c == '\\') {
+                    scratch.append(buffer, start, position - start);
+                    position++;
+                    scratch.append(readEscape());
+                    start = position;
+                    continue;
+                }
+                position++;
+            }
+            scratch.append(buffer, start, position - start);
+        }
+    }
+
+    private void skipString() throws IOException {
+        while (true) {
+            if (!fill()) {
+                throw syntaxError("Unterminated string");
+            }
+            final char c = buffer[position++];
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                readEscape();
+            }
+        }
+    }
+
+    private char readEscape() throws IOException {
+        if (!fill()) {
+            throw syntaxError("Unterminated escape sequence");
+        }
+        final char c = buffer[position++];
+        switch (c) {
+            case 'n':
+                return '\n';
+            case 't':
+                return '\t';
+            case 'r':
+                return '\r';
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'u': {
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    if (!fill()) {
+                        throw syntaxError("Unterminated escape sequence");
+                    }
+                    final int digit = Character.digit(buffer[position++], 16);
+                    if (digit < 0) {
+                        throw syntaxError("Invalid unicode escape");
+                    }
+                    value = value << 4 | digit;
+                }
+                return (char) value;
+            }
+            case '"':
+            case '\\':
+            case '/':
+                return c;
+            default:
+                throw syntaxError("Invalid escape sequence '\\" + c + "'");
+        }
+    }
+
+    private int peekChar() throws IOException {
+        final int c = nextNonWhitespace();
+        if (c != -1) {
+            position--;
+        }
+        return c;
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        while (fill()) {
+            final char c = buffer[position++];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Ensures at least one unread character is buffered. Returns {@code false} at the end of the input.
+     */
+    private boolean fill() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        position = 0;
+        limit = 0;
+        if (channel != null) {
+            return decode();
+        }
+        int read;
+        do {
+            read = in.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        if (read < 0) {
+            return false;
+        }
+        limit = read;
+        return true;
+    }
+
+    /**
+     * Decodes the next chunk of the channel into the character buffer, reading more bytes whenever the pending ones
+     * end in the middle of a character.
+     */
+    private boolean decode() throws IOException {
+        if (exhausted) {
+            return false;
+        }
+        final CharBuffer chars = CharBuffer.wrap(buffer);
+        while (true) {
+            final CoderResult result = decoder.decode(bytes, chars, endOfInput);
+            if (result.isError()) {
+                result.throwException();
+            }
+            if (chars.position() > 0) {
+                break;
+            }
+            if (endOfInput) {
+                decoder.flush(chars);
+                exhausted = true;
+                break;
+            }
+            bytes.compact();
+            final int read = channel.read(bytes);
+            bytes.flip();
+            if (read < 0) {
+                endOfInput = true;
+            }
+        }
+        limit = chars.position();
+        return limit > 0;
+    }
+
+    private IOException syntaxError(final String message) {
+        return new IOException("Malformed JSON: " + message);
+    }
+}
@@ -1,130 +1,192 @@
 package com.behamotten.events.advancements;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
 /**
- * Minimal JSON writer tailored for the advancement export.
+ * Minimal JSON writer tailored for the advancement export. Values can be written pretty-printed or compact, either
+ * into a string or streamed into any {@link Appendable}. Maps, lists, strings, numbers, booleans and {@code null} are
+ * written as such; any other value is written as the string of its {@code toString()}.
  */
-final class JsonWriter {
+public final class JsonWriter {
     private static final String INDENT = "  ";
+    private static final int PRECOMPUTED_DEPTHS = 16;
+    /**
+     * Escape sequence per character, {@code null} for characters written as they are. Characters beyond the table
+     * never need escaping.
+     */
+    private static final String[] ESCAPES = buildEscapes();
+    /**
+     * A line break followed by the indentation of the depth used as index.
+     */
+    private static final String[] LINE_BREAKS = buildLineBreaks();
 
     private JsonWriter() {
     }
 
     static String stringify(final Object value) {
+        return stringify(value, true);
+    }
+
+    public static String stringify(final Object value, final boolean pretty) {
         final StringBuilder builder = new StringBuilder();
-        writeValue(builder, value, 0);
+        try {
+            writeValue(builder, value, 0, pretty);
+        } catch (final IOException exception) {
+            throw new IllegalStateException("StringBuilder does not throw IOException", exception);
+        }
         return builder.toString();
     }
 
-    private static void writeValue(final StringBuilder builder, final Object value, final int depth) {
+    /**
+     * Writes a value nested at the given depth. Pretty output indents nested lines relative to that depth.
+     */
+    static void writeValue(final Appendable out, final Object value, final int depth, final boolean pretty)
+            throws IOException {
         if (value == null) {
-            builder.append("null");
+            out.append("null");
             return;
         }
         if (value instanceof String) {
-            builder.append('"').append(escape((String) value)).append('"');
+            writeString(out, (String) value);
             return;
         }
         if (value instanceof Number || value instanceof Boolean) {
-            builder.append(value);
+            out.append(value.toString());
             return;
         }
         if (value instanceof Map<?, ?>) {
-            writeObject(builder, (Map<?, ?>) value, depth);
+            writeObject(out, (Map<?, ?>) value, depth, pretty);
             return;
         }
         if (value instanceof List<?>) {
-            writeArray(builder, (List<?>) value, depth);
+            writeArray(out, (List<?>) value, depth, pretty);
+            return;
+        }
+        writeString(out, value.toString());
+    }
+
+    /**
+     * Writes an object key including the separator that precedes its value.
+     */
+    static void writeKey(final Appendable out, final String key, final boolean pretty) throws IOException {
+        writeString(out, key);
+        out.append(':');
+        if (pretty) {
+            out.append(' ');
+        }
+    }
+
+    /**
+     * Starts a new line indented to the given depth. Does nothing in compact mode.
+     */
+    static void newLine(final Appendable out, final int depth, final boolean pretty) throws IOException {
+        if (!pretty) {
+            return;
+        }
+        if (depth < PRECOMPUTED_DEPTHS) {
+            out.append(LINE_BREAKS[depth]);
             return;
         }
-        builder.append('"').append(escape(value.toString())).append('"');
+        out.append(LINE_BREAKS[PRECOMPUTED_DEPTHS - 1]);
+        for (int i = PRECOMPUTED_DEPTHS - 1; i < depth; i++) {
+            out.append(INDENT);
+        }
+    }
+
+    static void writeString(final Appendable out, final String value) throws IOException {
+        out.append('"');
+        writeEscaped(out, value);
+        out.append('"');
     }
 
-    private static void writeObject(final StringBuilder builder, final Map<?, ?> map, final int depth) {
-        builder.append('{');
+    private static void writeObject(final Appendable out, final Map<?, ?> map, final int depth, final boolean pretty)
+            throws IOException {
+        out.append('{');
         if (!map.isEmpty()) {
-            builder.append('\n');
             boolean first = true;
             for (final Map.Entry<?, ?> entry : map.entrySet()) {
                 if (entry.getKey() == null) {
                     continue;
                 }
                 if (!first) {
-                    builder.append(',').append('\n');
+                    out.append(',');
                 }
-                indent(builder, depth + 1);
-                builder.append('"').append(escape(entry.getKey().toString())).append('"').append(':').append(' ');
-                writeValue(builder, entry.getValue(), depth + 1);
+                newLine(out, depth + 1, pretty);
+                writeKey(out, entry.getKey().toString(), pretty);
+                writeValue(out, entry.getValue(), depth + 1, pretty);
                 first = false;
             }
-            builder.append('\n');
-            indent(builder, depth);
+            newLine(out, depth, pretty);
         }
-        builder.append('}');
+        out.append('}');
     }
 
-    private static void writeArray(final StringBuilder builder, final List<?> list, final int depth) {
-        builder.append('[');
+    private static void writeArray(final Appendable out, final List<?> list, final int depth, final boolean pretty)
+            throws IOException {
+        out.append('[');
         if (!list.isEmpty()) {
-            builder.append('\n');
             boolean first = true;
             for (final Object element : list) {
                 if (!first) {
-                    builder.append(',').append('\n');
+                    out.append(',');
                 }
-                indent(builder, depth + 1);
-                writeValue(builder, element, depth + 1);
+                newLine(out, depth + 1, pretty);
+                writeValue(out, element, depth + 1, pretty);
                 first = false;
             }
-            builder.append('\n');
-            indent(builder, depth);
+            newLine(out, depth, pretty);
+        }
+        out.append(']');
+    }
+
+    /**
+     * Appends the escaped characters of a string. Runs of characters that need no escaping are copied in one call.
+     */
+    private static void writeEscaped(final Appendable out, final String value) throws IOException {
+        int runStart = 0;
+        final int length = value.length();
+        for (int i = 0; i < length; i++) {
+            final char ch = value.charAt(i);
+            if (ch >= ESCAPES.length || ESCAPES[ch] == null) {
+                continue;
+            }
+            if (i > runStart) {
+                out.append(value, runStart, i);
+            }
+            out.append(ESCAPES[ch]);
+            runStart = i + 1;
+        }
+        if (runStart == 0) {
+            out.append(value);
+        } else if (runStart < length) {
+            out.append(value, runStart, length);
         }
-        builder.append(']');
     }
 
-    private static void indent(final StringBuilder builder, final int depth) {
-        for (int i = 0; i < depth; i++) {
-            builder.append(INDENT);
+    private static String[] buildEscapes() {
+        final String[] escapes = new String['\\' + 1];
+        for (char ch = 0; ch < 0x20; ch++) {
+            escapes[ch] = String.format("\\u%04x", (int) ch);
         }
+        escapes['"'] = "\\\"";
+        escapes['\\'] = "\\\\";
+        escapes['\b'] = "\\b";
+        escapes['\f'] = "\\f";
+        escapes['\n'] = "\\n";
+        escapes['\r'] = "\\r";
+        escapes['\t'] = "\\t";
+        return escapes;
     }
 
-    private static String escape(final String value) {
-        final StringBuilder escaped = new StringBuilder(value.length() + 16);
-        for (int i = 0; i < value.length(); i++) {
-            final char ch = value.charAt(i);
-            switch (ch) {
-                case '"':
-                    escaped.append("\\\"");
-                    break;
-                case '\\':
-                    escaped.append("\\\\");
-                    break;
-                case '\b':
-                    escaped.append("\\b");
-                    break;
-                case '\f':
-                    escaped.append("\\f");
-                    break;
-                case '\n':
-                    escaped.append("\\n");
-                    break;
-                case '\r':
-                    escaped.append("\\r");
-                    break;
-                case '\t':
-                    escaped.append("\\t");
-                    break;
-                default:
-                    if (ch < 0x20) {
-                        escaped.append(String.format("\\u%04x", (int) ch));
-                    } else {
-                        escaped.append(ch);
-                    }
-                    break;
-            }
+    private static String[] buildLineBreaks() {
+        final String[] lineBreaks = new String[PRECOMPUTED_DEPTHS];
+        final StringBuilder lineBreak = new StringBuilder("\n");
+        for (int depth = 0; depth < PRECOMPUTED_DEPTHS; depth++) {
+            lineBreaks[depth] = lineBreak.toString();
+            lineBreak.append(INDENT);
         }
-        return escaped.toString();
+        return lineBreaks;
     }
 }
@@ -0,0 +1,134 @@
+package com.behamotten.events.advancements;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Titles and descriptions of one export. Regular exports take the English text already rendered by the
+ * {@link AdvancementIndex} and render every additional locale while the entry is written, so an export walks the
+ * advancements once however many locales it asks for. Raw exports render without the translator instead. All
+ * rendering goes through the {@link RenderedTextCache}, and the text can be read from any thread.
+ */
+final class LocalizedExportText {
+    private final AdvancementIndex index;
+    private final ComponentTextRenderer renderer;
+    private final boolean rawKeys;
+    private final List<Locale> locales;
+    private final List<String> suffixes;
+
+    LocalizedExportText(final AdvancementIndex index, final ComponentTextRenderer renderer,
+            final ExportOptions options) {
+        this.index = index;
+        this.renderer = renderer;
+        this.rawKeys = options.rawKeys();
+        this.locales = rawKeys ? List.of() : options.locales();
+        this.suffixes = new ArrayList<>(locales.size());
+        for (final Locale locale : locales) {
+            suffixes.add(columnSuffix(locale));
+        }
+    }
+
+    /**
+     * Returns the suffix of the per-locale fields, the lower-case language tag with underscores, such as
+     * {@code de} or {@code en_us}.
+     */
+    static String columnSuffix(final Locale locale) {
+        return locale.toLanguageTag().toLowerCase(Locale.ROOT).replace('-', '_');
+    }
+
+    /**
+     * Returns the per-locale entry fields in the order they are written.
+     */
+    List<String> columns() {
+        final List<String> columns = new ArrayList<>(suffixes.size() * 2);
+        for (final String suffix : suffixes) {
+            columns.add("advancaments_title_" + suffix);
+            columns.add("advancaments_description_" + suffix);
+        }
+        return columns;
+    }
+
+    String title(final int entry) {
+        return rawKeys ? renderTitle(entry, null) : index.title(entry);
+    }
+
+    String description(final int entry) {
+        return rawKeys ? renderDescription(entry, null) : index.description(entry);
+    }
+
+    /**
+     * Adds the title and, if not blank, the description of the entry in every requested locale.
+     */
+    void putLocalized(final Map<String, Object> values, final int entry) {
+        for (int i = 0; i < locales.size(); i++) {
+            values.put("advancaments_title_" + suffixes.get(i), renderTitle(entry, locales.get(i)));
+            final String description = renderDescription(entry, locales.get(i));
+            if (!description.isBlank()) {
+                values.put("advancaments_description_" + suffixes.get(i), description);
+            }
+        }
+    }
+
+    String groupTitle(final int group) {
+        return rawKeys ? renderGroupTitle(group, null) : index.groupTitle(group);
+    }
+
+    /**
+     * Returns the title of the group in every requested locale, keyed by field name.
+     */
+    Map<String, String> localizedGroupTitles(final int group) {
+        final Map<String, String> titles = new LinkedHashMap<>();
+        for (int i = 0; i < locales.size(); i++) {
+            titles.put("title_" + suffixes.get(i), renderGroupTitle(group, locales.get(i)));
+        }
+        return titles;
+    }
+
+    /**
+     * Returns the fingerprint of all text the export writes. Unlike the fingerprint of the advancement set, it
+     * changes when only translations changed. Additional locales are rendered through the cache, so the export reads
+     * them back without rendering them again.
+     */
+    String fingerprint() {
+        final List<String> text = new ArrayList<>((index.size() * 2 + index.groupCount()) * (locales.size() + 1));
+        for (int entry = 0; entry < index.size(); entry++) {
+            text.add(title(entry));
+            text.add(description(entry));
+            for (final Locale locale : locales) {
+                text.add(renderTitle(entry, locale));
+                text.add(renderDescription(entry, locale));
+            }
+        }
+        for (int group = 0; group < index.groupCount(); group++) {
+            text.add(groupTitle(group));
+            for (final Locale locale : locales) {
+                text.add(renderGroupTitle(group, locale));
+            }
+        }
+        return AdvancementFingerprint.ofText(text);
+    }
+
+    private String renderTitle(final int entry, final Locale locale) {
+        final AdvancementSnapshot.Entry snapshotEntry = index.snapshot().entries().get(entry);
+        return renderer.render(snapshotEntry.titleComponent(), locale, snapshotEntry.id());
+    }
+
+    private String renderDescription(final int entry, final Locale locale) {
+        return renderer.render(index.snapshot().entries().get(entry).descriptionComponent(), locale, "");
+    }
+
+    /**
+     * Renders the root title, or the title of the group's first entry when the root has none, as the index does.
+     */
+    private String renderGroupTitle(final int group, final Locale locale) {
+        final String rootTitle = renderer.render(index.snapshot().roots().get(group).titleComponent(), locale, "");
+        if (!rootTitle.isEmpty()) {
+            return rootTitle;
+        }
+        final int[] entries = index.groupEntries(group);
+        return entries.length > 0 ? renderTitle(entries[0], locale) : "";
+    }
+}
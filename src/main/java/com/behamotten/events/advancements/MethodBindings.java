@@ -0,0 +1,137 @@
+package com.behamotten.events.advancements;
+
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Binds reflectively discovered methods to functional interfaces once, so that hot paths can call them without
+ * per-invocation {@link Method#invoke} overhead. Bindings are generated through {@link LambdaMetafactory} so the JIT
+ * can inline them; a plain {@link MethodHandle} is used when the metafactory rejects a target.
+ */
+final class MethodBindings {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private MethodBindings() {
+    }
+
+    /**
+     * Binds a no-argument instance method as a function of its receiver.
+     */
+    @SuppressWarnings("unchecked")
+    static Function<Object, Object> bindAccessor(final Method method) throws IllegalAccessException {
+        final MethodHandle handle = LOOKUP.unreflect(method);
+        try {
+            final MethodHandle factory = LambdaMetafactory.metafactory(LOOKUP, "apply",
+                    MethodType.methodType(Function.class), MethodType.methodType(Object.class, Object.class), handle,
+                    handle.type()).getTarget();
+            return (Function<Object, Object>) instantiate(factory, List.of());
+        } catch (final LambdaConversionException | LinkageError exception) {
+            return handleAccessor(handle);
+        }
+    }
+
+    /**
+     * Binds a single-argument instance method to a fixed receiver.
+     */
+    @SuppressWarnings("unchecked")
+    static Function<Object, Object> bindInstance(final Object receiver, final Method method)
+            throws IllegalAccessException {
+        final MethodHandle handle = LOOKUP.unreflect(method);
+        try {
+            final MethodHandle factory = LambdaMetafactory.metafactory(LOOKUP, "apply",
+                    MethodType.methodType(Function.class, method.getDeclaringClass()),
+                    MethodType.methodType(Object.class, Object.class), handle, handle.type().dropParameterTypes(0, 1))
+                    .getTarget();
+            return (Function<Object, Object>) instantiate(factory, List.of(receiver));
+        } catch (final LambdaConversionException | LinkageError exception) {
+            return handleInstance(receiver, handle);
+        }
+    }
+
+    /**
+     * Binds a static two-argument method.
+     */
+    @SuppressWarnings("unchecked")
+    static BiFunction<Object, Object, Object> bindStatic(final Method method) throws IllegalAccessException {
+        final MethodHandle handle = LOOKUP.unreflect(method);
+        try {
+            final MethodHandle factory = LambdaMetafactory.metafactory(LOOKUP, "apply",
+                    MethodType.methodType(BiFunction.class),
+                    MethodType.methodType(Object.class, Object.class, Object.class), handle, handle.type())
+                    .getTarget();
+            return (BiFunction<Object, Object, Object>) instantiate(factory, List.of());
+        } catch (final LambdaConversionException | LinkageError exception) {
+            return handleStatic(handle);
+        }
+    }
+
+    /**
+     * Calls a no-argument instance method through its handle. Used when the metafactory rejects the method.
+     */
+    static Function<Object, Object> handleAccessor(final MethodHandle handle) {
+        final MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+        return receiver -> {
+            try {
+                return (Object) generic.invokeExact(receiver);
+            } catch (final RuntimeException | Error exception) {
+                throw exception;
+            } catch (final Throwable throwable) {
+                throw new IllegalStateException(throwable);
+            }
+        };
+    }
+
+    /**
+     * Calls a single-argument instance method on a fixed receiver through its handle. Used when the metafactory
+     * rejects the method.
+     */
+    static Function<Object, Object> handleInstance(final Object receiver, final MethodHandle handle) {
+        final MethodHandle generic = handle.bindTo(receiver).asType(MethodType.methodType(Object.class, Object.class));
+        return argument -> {
+            try {
+                return (Object) generic.invokeExact(argument);
+            } catch (final RuntimeException | Error exception) {
+                throw exception;
+            } catch (final Throwable throwable) {
+                throw new IllegalStateException(throwable);
+            }
+        };
+    }
+
+    /**
+     * Calls a static two-argument method through its handle. Used when the metafactory rejects the method.
+     */
+    static BiFunction<Object, Object, Object> handleStatic(final MethodHandle handle) {
+        final MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class, Object.class));
+        return (first, second) -> {
+            try {
+                return (Object) generic.invokeExact(first, second);
+            } catch (final RuntimeException | Error exception) {
+                throw exception;
+            } catch (final Throwable throwable) {
+                throw new IllegalStateException(throwable);
+            }
+        };
+    }
+
+    /**
+     * Creates the functional interface instance from the metafactory's factory handle. The factory only allocates
+     * the lambda, so anything it throws besides a runtime exception or error is unexpected.
+     */
+    private static Object instantiate(final MethodHandle factory, final List<Object> capturedArguments) {
+        try {
+            return factory.invokeWithArguments(capturedArguments);
+        } catch (final RuntimeException | Error exception) {
+            throw exception;
+        } catch (final Throwable throwable) {
+            throw new IllegalStateException(throwable);
+        }
+    }
+}
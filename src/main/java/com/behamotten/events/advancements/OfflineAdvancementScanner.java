@@ -0,0 +1,223 @@
+package com.behamotten.events.advancements;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.behamotten.events.metrics.AdaptiveThrottle;
+
+/**
+ * Reads the advancement progress files of all players ({@code <world>/advancements/<uuid>.json}) without the
+ * players being online. Files are parsed in parallel with a streaming {@link JsonReader}; only per-advancement
+ * completion counters and the completed entries of event participants are kept, and at most a few files per worker
+ * are in flight at once, so memory stays bounded regardless of the number of player files. Each file is one unit of
+ * the throttle's work budget, so scans slow down while the server is under load.
+ *
+ * <p>Scans block the calling thread and must never run on the server thread.</p>
+ */
+final class OfflineAdvancementScanner {
+    private static final int IN_FLIGHT_PER_THREAD = 4;
+    private static final String DATA_VERSION = "DataVersion";
+
+    private final Logger logger;
+    private final int threads;
+    private final AdaptiveThrottle throttle;
+
+    OfflineAdvancementScanner(final Logger logger, final int threads, final AdaptiveThrottle throttle) {
+        this.logger = logger;
+        this.threads = Math.max(1, threads);
+        this.throttle = throttle;
+    }
+
+    /**
+     * Scans every {@code *.json} file in the directory against the given index.
+     *
+     * @param participants UUIDs and names of the players whose completed advancements are recorded individually
+     */
+    OfflineScanResult scan(final Path directory, final AdvancementIndex index, final Map<UUID, String> participants)
+            throws IOException {
+        final AtomicIntegerArray completions = new AtomicIntegerArray(index.size());
+        final AtomicInteger playersScanned = new AtomicInteger();
+        final AtomicInteger filesFailed = new AtomicInteger();
+        final List<OfflineScanResult.ParticipantSnapshot> snapshots = new ArrayList<>();
+        final Semaphore inFlight = new Semaphore(threads * IN_FLIGHT_PER_THREAD);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, "behamotten-advancement-scan");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.json")) {
+            for (final Path file : files) {
+                final UUID uuid = parseUuid(file);
+                if (uuid == null) {
+                    continue;
+                }
+                throttle.acquire(1);
+                inFlight.acquire();
+                executor.execute(() -> {
+                    try {
+                        final int[] completed = scanFile(file, index, completions, participants.containsKey(uuid));
+                        playersScanned.incrementAndGet();
+                        if (completed != null) {
+                            synchronized (snapshots) {
+                                snapshots.add(new OfflineScanResult.ParticipantSnapshot(uuid, participants.get(uuid),
+                                        completed));
+                            }
+                        }
+                    } catch (final IOException | RuntimeException exception) {
+                        filesFailed.incrementAndGet();
+                        logger.log(Level.FINE, "Could not read advancement file " + file, exception);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            executor.shutdown();
+            if (!executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS)) {
+                throw new IOException("Advancement scan did not finish.");
+            }
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while scanning advancement files.");
+        } finally {
+            executor.shutdownNow();
+        }
+        if (filesFailed.get() > 0) {
+            logger.warning(() -> filesFailed.get() + " advancement file(s) in " + directory
+                    + " could not be read and were skipped.");
+        }
+
+        final int[] counts = new int[index.size()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = completions.get(i);
+        }
+        snapshots.sort((left, right) -> Integer.compare(right.completedCount(), left.completedCount()));
+        return new OfflineScanResult(index.fingerprint(), Instant.now(), playersScanned.get(), filesFailed.get(),
+                counts, snapshots);
+    }
+
+    /**
+     * Writes the rarity of every advancement, rarest first, and the completed advancements of every scanned
+     * participant as a JSON report.
+     */
+    static void writeReport(final Path file, final AdvancementIndex index, final OfflineScanResult result)
+            throws IOException {
+        final Integer[] order = new Integer[index.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (left, right) -> Integer.compare(result.completions(left), result.completions(right)));
+        final List<Map<String, Object>> advancements = new ArrayList<>(order.length);
+        for (final int entry : order) {
+            final Map<String, Object> values = new LinkedHashMap<>();
+            values.put("id", index.id(entry));
+            values.put("title", index.title(entry));
+            values.put("completed_by", result.completions(entry));
+            values.put("completion_percent", result.completionPercent(entry));
+            advancements.add(values);
+        }
+        final List<Map<String, Object>> participants = new ArrayList<>(result.participants().size());
+        for (final OfflineScanResult.ParticipantSnapshot participant : result.participants()) {
+            final List<String> completed = new ArrayList<>(participant.completedCount());
+            for (final int entry : participant.completed()) {
+                completed.add(index.id(entry));
+            }
+            final Map<String, Object> values = new LinkedHashMap<>();
+            values.put("uuid", participant.uuid().toString());
+            values.put("name", participant.name());
+            values.put("completed", completed.size());
+            values.put("advancements", completed);
+            participants.add(values);
+        }
+        final Map<String, Object> meta = new LinkedHashMap<>();
+        meta.put("scanned_at", DateTimeFormatter.ISO_INSTANT.format(result.scannedAt()));
+        meta.put("players_scanned", result.playersScanned());
+        meta.put("files_failed", result.filesFailed());
+        meta.put("advancaments_found", index.size());
+        meta.put("participants_found", participants.size());
+        final Map<String, Object> document = new LinkedHashMap<>();
+        document.put("meta", meta);
+        document.put("advancements", advancements);
+        document.put("participants", participants);
+        ExportFiles.writeAtomically(file, false, writer -> {
+            JsonWriter.writeValue(writer, document, 0, true);
+            writer.write(System.lineSeparator());
+        });
+    }
+
+    /**
+     * Counts the completed advancements of one file. Returns the completed entries when {@code record} is set and
+     * {@code null} otherwise. Advancements that are not part of the index, such as those of removed data packs, are
+     * ignored.
+     */
+    private int[] scanFile(final Path file, final AdvancementIndex index, final AtomicIntegerArray completions,
+            final boolean record) throws IOException {
+        int[] completed = record ? new int[16] : null;
+        int completedCount = 0;
+        try (JsonReader reader = JsonReader.open(file)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                final String name = reader.nextName();
+                if (DATA_VERSION.equals(name) || reader.peek() != JsonReader.Token.BEGIN_OBJECT) {
+                    reader.skipValue();
+                    continue;
+                }
+                final boolean done = readDone(reader);
+                final int entry = index.indexOf(name);
+                if (!done || entry < 0) {
+                    continue;
+                }
+                completions.incrementAndGet(entry);
+                if (record) {
+                    if (completedCount == completed.length) {
+                        completed = Arrays.copyOf(completed, completedCount * 2);
+                    }
+                    completed[completedCount++] = entry;
+                }
+            }
+            reader.endObject();
+        }
+        return record ? Arrays.copyOf(completed, completedCount) : null;
+    }
+
+    private boolean readDone(final JsonReader reader) throws IOException {
+        boolean done = false;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("done".equals(reader.nextName()) && reader.peek() == JsonReader.Token.BOOLEAN) {
+                done = reader.nextBoolean();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return done;
+    }
+
+    private UUID parseUuid(final Path file) {
+        final String fileName = file.getFileName().toString();
+        try {
+            return UUID.fromString(fileName.substring(0, fileName.length() - ".json".length()));
+        } catch (final IllegalArgumentException exception) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.behamotten.events.advancements;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of an {@link OfflineAdvancementScanner} run: how many scanned players completed each advancement of an
+ * {@link AdvancementIndex}, plus the completed advancements of every event participant.
+ */
+public final class OfflineScanResult {
+    private final String indexFingerprint;
+    private final Instant scannedAt;
+    private final int playersScanned;
+    private final int filesFailed;
+    private final int[] completions;
+    private final List<ParticipantSnapshot> participants;
+
+    OfflineScanResult(final String indexFingerprint, final Instant scannedAt, final int playersScanned,
+            final int filesFailed, final int[] completions, final List<ParticipantSnapshot> participants) {
+        this.indexFingerprint = indexFingerprint;
+        this.scannedAt = scannedAt;
+        this.playersScanned = playersScanned;
+        this.filesFailed = filesFailed;
+        this.completions = completions;
+        this.participants = Collections.unmodifiableList(participants);
+    }
+
+    /**
+     * Fingerprint of the index the counts refer to; counts are only meaningful for an index with the same
+     * fingerprint.
+     */
+    String indexFingerprint() {
+        return indexFingerprint;
+    }
+
+    public Instant scannedAt() {
+        return scannedAt;
+    }
+
+    public int playersScanned() {
+        return playersScanned;
+    }
+
+    /**
+     * Returns the number of player files that could not be read or parsed.
+     */
+    public int filesFailed() {
+        return filesFailed;
+    }
+
+    /**
+     * Returns how many scanned players completed the advancement at the given index entry.
+     */
+    public int completions(final int entry) {
+        return completions[entry];
+    }
+
+    /**
+     * Returns the share of scanned players who completed the advancement, in percent with two decimals.
+     */
+    public double completionPercent(final int entry) {
+        if (playersScanned == 0) {
+            return 0.0;
+        }
+        return Math.round(completions[entry] * 10_000.0 / playersScanned) / 100.0;
+    }
+
+    public List<ParticipantSnapshot> participants() {
+        return participants;
+    }
+
+    /**
+     * Completed advancements of one event participant at the time of the scan.
+     */
+    public static final class ParticipantSnapshot {
+        private final UUID uuid;
+        private final String name;
+        private final int[] completed;
+
+        ParticipantSnapshot(final UUID uuid, final String name, final int[] completed) {
+            this.uuid = uuid;
+            this.name = name;
+            this.completed = completed;
+        }
+
+        public UUID uuid() {
+            return uuid;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        /**
+         * Returns the index entries of all completed advancements in file order.
+         */
+        public int[] completed() {
+            return completed.clone();
+        }
+
+        public int completedCount() {
+            return completed.length;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.behamotten.events.advancements;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.behamotten.events.metrics.PluginMetrics;
+
+/**
+ * Bounded cache of rendered plain text, keyed by component (by equality) and locale, that evicts the least recently
+ * used entry when full. Advancement titles and descriptions rarely change, so text rendered for one index is reused
+ * by the next one and by every exporter that builds its own index. The cache is cleared when datapacks or
+ * translations are reloaded.
+ *
+ * <p>All methods are thread-safe. Rendering happens outside the lock, so two threads that miss on the same key at
+ * the same time may both render it.</p>
+ */
+public final class RenderedTextCache {
+    static final int DEFAULT_CAPACITY = 8192;
+
+    private static final RenderedTextCache SHARED = new RenderedTextCache(DEFAULT_CAPACITY);
+
+    private final int capacity;
+    private final Map<Key, String> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    RenderedTextCache(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Cache capacity must be positive, was " + capacity + ".");
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, String> eldest) {
+                return size() > RenderedTextCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the cache shared by all advancement indices of this server.
+     */
+    public static RenderedTextCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the cached text for the component in the given locale, rendering and storing it on a miss. A
+     * {@code null} locale stands for untranslated text.
+     */
+    String get(final Object component, final Locale locale, final Supplier<String> renderer) {
+        final Key key = new Key(component, locale);
+        String text;
+        synchronized (entries) {
+            text = entries.get(key);
+        }
+        if (text != null) {
+            hits.increment();
+            return text;
+        }
+        misses.increment();
+        text = Objects.requireNonNull(renderer.get(), "rendered text");
+        synchronized (entries) {
+            entries.put(key, text);
+        }
+        return text;
+    }
+
+    /**
+     * Drops all cached text, for example after datapacks or translations were reloaded. Hit and miss counts are
+     * kept.
+     */
+    public void invalidate() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Share of lookups answered from the cache, in per mille, or 0 before the first lookup.
+     */
+    long hitRatioPerMille() {
+        final long hitCount = hits.sum();
+        final long lookups = hitCount + misses.sum();
+        return lookups == 0 ? 0 : hitCount * 1000 / lookups;
+    }
+
+    /**
+     * Publishes the cache's size and hit ratio as gauges and its hit and miss counts as counters.
+     */
+    public void registerMetrics(final PluginMetrics metrics) {
+        metrics.gauge("advancement_text_cache_entries", "Rendered advancement texts currently cached.",
+                this::size);
+        metrics.counter("advancement_text_cache_hits_total", "Advancement text lookups answered from the cache.",
+                this::hits);
+        metrics.counter("advancement_text_cache_misses_total",
+                "Advancement text lookups that had to render the text.", this::misses);
+        metrics.gauge("advancement_text_cache_hit_ratio_permille",
+                "Share of advancement text lookups answered from the cache, in per mille.", this::hitRatioPerMille);
+    }
+
+    private static final class Key {
+        private final Object component;
+        private final Locale locale;
+        private final int hash;
+
+        Key(final Object component, final Locale locale) {
+            this.component = Objects.requireNonNull(component, "component");
+            this.locale = locale;
+            this.hash = component.hashCode() * 31 + Objects.hashCode(locale);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) other;
+            return hash == key.hash && Objects.equals(locale, key.locale) && component.equals(key.component);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
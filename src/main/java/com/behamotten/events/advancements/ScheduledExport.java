@@ -0,0 +1,161 @@
+package com.behamotten.events.advancements;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import com.behamotten.events.metrics.AdaptiveThrottle;
+import com.behamotten.events.metrics.PluginMetrics;
+
+/**
+ * Runs a read-only console export whenever a {@link CronSchedule} fires. A due run is deferred while the server is
+ * busy and starts as soon as it is not, or once it has waited for the maximum deferral. Each run goes through the
+ * shared {@link ExportCoordinator}, logs a summary and updates the {@code export_scheduled_*} metrics.
+ */
+public final class ScheduledExport {
+    private static final long CHECK_PERIOD_TICKS = 20L;
+
+    private final JavaPlugin plugin;
+    private final Logger logger;
+    private final ExportCoordinator coordinator;
+    private final CronSchedule schedule;
+    private final ExportOptions options;
+    private final BooleanSupplier busy;
+    private final Duration maxDeferral;
+    private final Clock clock;
+    private final PluginMetrics.Counter runs;
+    private final PluginMetrics.Counter deferrals;
+    private final PluginMetrics.Counter failures;
+    private final PluginMetrics.Gauge lastDuration;
+    private final PluginMetrics.Gauge lastAdvancements;
+    private final PluginMetrics.Gauge lastSuccess;
+    private ZonedDateTime nextRun;
+    private boolean deferred;
+    private volatile boolean running;
+    private BukkitTask task;
+
+    ScheduledExport(final JavaPlugin plugin, final ExportCoordinator coordinator, final PluginMetrics metrics,
+            final CronSchedule schedule, final ExportOptions options, final BooleanSupplier busy,
+            final Duration maxDeferral, final Clock clock) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.coordinator = coordinator;
+        this.schedule = schedule;
+        this.options = options;
+        this.busy = busy;
+        this.maxDeferral = maxDeferral;
+        this.clock = clock;
+        this.runs = metrics.counter("export_scheduled_runs_total", "Scheduled advancement exports started.");
+        this.deferrals = metrics.counter("export_scheduled_deferrals_total",
+                "Scheduled advancement exports postponed because the server was busy.");
+        this.failures = metrics.counter("export_scheduled_failures_total",
+                "Scheduled advancement exports that failed.");
+        this.lastDuration = metrics.gauge("export_scheduled_last_duration_milliseconds",
+                "Duration of the last scheduled advancement export.");
+        this.lastAdvancements = metrics.gauge("export_scheduled_last_advancements",
+                "Advancements written by the last scheduled export.");
+        this.lastSuccess = metrics.gauge("export_scheduled_last_success_timestamp_seconds",
+                "Unix time at which the last scheduled export succeeded.");
+    }
+
+    /**
+     * Creates the scheduled export configured under {@code advancement-export.schedule}, or returns {@code null} when
+     * no cron expression is configured. The server counts as busy while at least {@code busy-players} players are
+     * online or the throttle reports an overloaded server.
+     *
+     * @throws IllegalArgumentException if the cron expression or the export options are invalid
+     */
+    public static ScheduledExport fromConfig(final JavaPlugin plugin, final ExportCoordinator coordinator,
+            final PluginMetrics metrics, final AdaptiveThrottle throttle) {
+        final String cron = plugin.getConfig().getString("advancement-export.schedule.cron", "");
+        if (cron == null || cron.isBlank()) {
+            return null;
+        }
+        final String arguments = plugin.getConfig().getString("advancement-export.schedule.options", "");
+        final ExportOptions options = AdvancementExportCommand.parseOptions(
+                arguments == null || arguments.isBlank() ? new String[0] : arguments.trim().split("\\s+"));
+        final int busyPlayers = plugin.getConfig().getInt("advancement-export.schedule.busy-players", 5);
+        final BooleanSupplier busy = () -> throttle.isOverloaded()
+                || busyPlayers > 0 && plugin.getServer().getOnlinePlayers().size() >= busyPlayers;
+        final long maxDeferralMinutes = Math.max(0L,
+                plugin.getConfig().getLong("advancement-export.schedule.max-defer-minutes", 180L));
+        return new ScheduledExport(plugin, coordinator, metrics, CronSchedule.parse(cron),
+                options.withReadOnly(true), busy, Duration.ofMinutes(maxDeferralMinutes), Clock.systemDefaultZone());
+    }
+
+    /**
+     * Starts checking the schedule once per second on the server thread.
+     */
+    public void start() {
+        nextRun = schedule.next(ZonedDateTime.now(clock)).orElse(null);
+        if (nextRun == null) {
+            logger.warning(() -> "Scheduled export '" + schedule + "' never fires and was not started.");
+            return;
+        }
+        logger.info(() -> "Scheduled advancement export '" + schedule + "', next run at " + nextRun + ".");
+        task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::check, CHECK_PERIOD_TICKS,
+                CHECK_PERIOD_TICKS);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Starts the due run unless the server is busy or the previous run is still writing.
+     */
+    void check() {
+        final ZonedDateTime now = ZonedDateTime.now(clock);
+        if (running || nextRun == null || now.isBefore(nextRun)) {
+            return;
+        }
+        final boolean overdue = !now.isBefore(nextRun.plus(maxDeferral));
+        if (busy.getAsBoolean() && !overdue) {
+            if (!deferred) {
+                deferred = true;
+                deferrals.increment();
+                logger.info("Server is busy, postponing the scheduled advancement export.");
+            }
+            return;
+        }
+        deferred = false;
+        nextRun = schedule.next(now).orElse(null);
+        run();
+    }
+
+    private void run() {
+        running = true;
+        runs.increment();
+        final long started = System.nanoTime();
+        coordinator.submit(null, options).whenComplete((result, failure) -> {
+            final long millis = (System.nanoTime() - started) / 1_000_000L;
+            lastDuration.set(millis);
+            if (failure != null) {
+                failures.increment();
+                logger.log(Level.SEVERE, "Scheduled advancement export failed after " + millis + " ms.",
+                        failure.getCause() != null ? failure.getCause() : failure);
+            } else {
+                lastAdvancements.set(result.advancementCount());
+                lastSuccess.set(clock.millis() / 1000L);
+                logger.info(() -> "Scheduled advancement export " + (result.wasUpToDate() ? "found no changes"
+                        : "wrote " + result.advancementCount() + " advancements (" + result.groupCount()
+                                + " groups)") + " in " + millis + " ms: " + result.outputFile()
+                        + (nextRun != null ? ". Next run at " + nextRun + "." : "."));
+            }
+            running = false;
+        });
+    }
+
+    ZonedDateTime nextRun() {
+        return nextRun;
+    }
+}
@@ -0,0 +1,175 @@
+package com.behamotten.events.advancements;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * Writer that encodes UTF-8 straight into a reusable byte buffer and hands full buffers to the underlying stream. It
+ * replaces the {@code BufferedWriter} and {@code OutputStreamWriter} pair: characters are neither buffered twice nor
+ * passed through a {@code CharsetEncoder}. The output is byte-identical to an {@code OutputStreamWriter} for UTF-8,
+ * including the {@code ?} written for unpaired surrogates.
+ */
+final class Utf8Writer extends Writer {
+    private static final byte REPLACEMENT = '?';
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int count;
+    private char pendingHighSurrogate;
+
+    Utf8Writer(final OutputStream out, final int bufferSize) {
+        this.out = out;
+        this.buffer = new byte[Math.max(16, bufferSize)];
+    }
+
+    @Override
+    public void write(final int c) throws IOException {
+        encode((char) c);
+    }
+
+    @Override
+    public void write(final char[] chars, final int offset, final int length) throws IOException {
+        final int end = offset + length;
+        int i = offset;
+        while (i < end) {
+            if (pendingHighSurrogate == 0) {
+                // Fast path for runs of ASCII, the bulk of any export.
+                int room = buffer.length - count;
+                while (i < end && room > 0 && chars[i] < 0x80) {
+                    buffer[count++] = (byte) chars[i++];
+                    room--;
+                }
+                if (i == end) {
+                    return;
+                }
+                if (room == 0) {
+                    flushBuffer();
+                    continue;
+                }
+            }
+            encode(chars[i++]);
+        }
+    }
+
+    @Override
+    public void write(final String text, final int offset, final int length) throws IOException {
+        final int end = offset + length;
+        int i = offset;
+        while (i < end) {
+            if (pendingHighSurrogate == 0) {
+                int room = buffer.length - count;
+                char c;
+                while (i < end && room > 0 && (c = text.charAt(i)) < 0x80) {
+                    buffer[count++] = (byte) c;
+                    i++;
+                    room--;
+                }
+                if (i == end) {
+                    return;
+                }
+                if (room == 0) {
+                    flushBuffer();
+                    continue;
+                }
+            }
+            encode(text.charAt(i++));
+        }
+    }
+
+    @Override
+    public Writer append(final CharSequence text) throws IOException {
+        final String value = String.valueOf(text);
+        write(value, 0, value.length());
+        return this;
+    }
+
+    @Override
+    public Writer append(final CharSequence text, final int start, final int end) throws IOException {
+        if (text instanceof String) {
+            write((String) text, start, end - start);
+        } else {
+            final String value = String.valueOf(text);
+            write(value, start, end - start);
+        }
+        return this;
+    }
+
+    @Override
+    public Writer append(final char c) throws IOException {
+        encode(c);
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    /**
+     * Writes a dangling high surrogate as {@code ?}, flushes and closes the underlying stream.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (pendingHighSurrogate != 0) {
+                pendingHighSurrogate = 0;
+                ensureRoom(1);
+                buffer[count++] = REPLACEMENT;
+            }
+            flushBuffer();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void encode(final char c) throws IOException {
+        if (pendingHighSurrogate != 0) {
+            final char high = pendingHighSurrogate;
+            pendingHighSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                final int codePoint = Character.toCodePoint(high, c);
+                ensureRoom(4);
+                buffer[count++] = (byte) (0xF0 | codePoint >> 18);
+                buffer[count++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                buffer[count++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                buffer[count++] = (byte) (0x80 | codePoint & 0x3F);
+                return;
+            }
+            ensureRoom(1);
+            buffer[count++] = REPLACEMENT;
+        }
+        if (c < 0x80) {
+            ensureRoom(1);
+            buffer[count++] = (byte) c;
+        } else if (c < 0x800) {
+            ensureRoom(2);
+            buffer[count++] = (byte) (0xC0 | c >> 6);
+            buffer[count++] = (byte) (0x80 | c & 0x3F);
+        } else if (Character.isHighSurrogate(c)) {
+            pendingHighSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            ensureRoom(1);
+            buffer[count++] = REPLACEMENT;
+        } else {
+            ensureRoom(3);
+            buffer[count++] = (byte) (0xE0 | c >> 12);
+            buffer[count++] = (byte) (0x80 | c >> 6 & 0x3F);
+            buffer[count++] = (byte) (0x80 | c & 0x3F);
+        }
+    }
+
+    private void ensureRoom(final int bytes) throws IOException {
+        if (buffer.length - count < bytes) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,434 @@
+package com.behamotten.events.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import org.bukkit.plugin.java.JavaPlugin;
+
+import com.behamotten.events.advancements.JsonWriter;
+
+/**
+ * Optional read-only HTTP server on the loopback interface, built on the JDK {@link HttpServer} with one virtual
+ * thread per request. Resources are JSON documents rendered from versioned snapshots, files on disk, or text produced
+ * per request. Snapshots and files carry an {@code ETag} derived from the SHA-256 hash of the rendered document or
+ * the file and answer matching {@code If-None-Match} requests with {@code 304 Not Modified}. Every response is
+ * gzip-compressed when the client accepts it.
+ *
+ * <p>Handlers only read snapshots that are published by their owners and files on disk; they never call into the
+ * server or wait for the server thread.</p>
+ */
+public final class HttpEndpoint {
+    private static final String JSON_TYPE = "application/json; charset=utf-8";
+    private static final int NO_BODY = -1;
+    private static final int CHUNKED = 0;
+
+    private final Logger logger;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Binds a server to the given port on the loopback interface, or to a free port when the port is 0. The server
+     * does not accept requests until {@link #start()} is called.
+     */
+    HttpEndpoint(final Logger logger, final int port) throws IOException {
+        this.logger = Objects.requireNonNull(logger, "logger");
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Creates the endpoint configured under {@code http}, or returns {@code null} when it is disabled.
+     *
+     * @throws IOException if the configured port cannot be bound
+     */
+    public static HttpEndpoint fromConfig(final JavaPlugin plugin) throws IOException {
+        if (!plugin.getConfig().getBoolean("http.enabled", false)) {
+            return null;
+        }
+        final int port = plugin.getConfig().getInt("http.port", 8765);
+        if (port < 1 || port > 65535) {
+            throw new IllegalArgumentException("HTTP port must be between 1 and 65535, was " + port + ".");
+        }
+        return new HttpEndpoint(plugin.getLogger(), port);
+    }
+
+    /**
+     * Serves the latest snapshot as JSON. The document is rendered, hashed for its entity tag and compressed at most
+     * once per snapshot version. Versions only decide when to render again; they may restart with the plugin.
+     */
+    public <T> void serveJson(final String path, final Supplier<T> snapshots, final ToLongFunction<T> version,
+            final Function<T, Object> document) {
+        server.createContext(path, new ReadOnlyHandler(path, new JsonResource<>(snapshots, version, document)));
+    }
+
+    /**
+     * Serves text produced anew for every request, such as metrics. Such responses carry no entity tag.
+     */
+    public void serveText(final String path, final String contentType, final Supplier<String> text) {
+        server.createContext(path, new ReadOnlyHandler(path, new TextResource(contentType, text)));
+    }
+
+    /**
+     * Serves the most recently modified of the given files, or answers {@code 404} while none of them exists. Files
+     * ending in {@code .gz} are stored compressed and are sent unchanged to clients that accept gzip.
+     */
+    public void serveFile(final String path, final String contentType, final List<Path> candidates) {
+        server.createContext(path, new ReadOnlyHandler(path, new FileResource(contentType, List.copyOf(candidates))));
+    }
+
+    public void start() {
+        server.start();
+        logger.info(() -> "HTTP endpoint listening on http://" + server.getAddress().getHostString() + ":" + port()
+                + "/.");
+    }
+
+    /**
+     * Stops accepting requests and closes open connections without waiting for running requests.
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * One servable resource.
+     */
+    private interface Resource {
+        /**
+         * Answers a GET or HEAD request; returns {@code false} if the resource does not exist.
+         */
+        boolean respond(HttpExchange exchange, boolean gzip, boolean head) throws IOException;
+    }
+
+    /**
+     * Accepts only GET and HEAD on the exact path and handles errors for the resource.
+     */
+    private final class ReadOnlyHandler implements HttpHandler {
+        private final String path;
+        private final Resource resource;
+
+        ReadOnlyHandler(final String path, final Resource resource) {
+            this.path = path;
+            this.resource = resource;
+        }
+
+        @Override
+        public void handle(final HttpExchange exchange) {
+            try {
+                final String method = exchange.getRequestMethod();
+                if (!exchange.getRequestURI().getPath().equals(path)) {
+                    exchange.sendResponseHeaders(404, NO_BODY);
+                    return;
+                }
+                if (!"GET".equals(method) && !"HEAD".equals(method)) {
+                    exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                    exchange.sendResponseHeaders(405, NO_BODY);
+                    return;
+                }
+                exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+                exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+                if (!resource.respond(exchange, acceptsGzip(exchange.getRequestHeaders()), "HEAD".equals(method))) {
+                    exchange.sendResponseHeaders(404, NO_BODY);
+                }
+            } catch (final IOException exception) {
+                // Mostly clients that went away mid-response; the exchange is closed either way.
+                logger.log(Level.FINE, "HTTP request to " + path + " failed.", exception);
+            } catch (final RuntimeException exception) {
+                logger.log(Level.WARNING, "HTTP request to " + path + " failed.", exception);
+                if (exchange.getResponseCode() == -1) {
+                    try {
+                        exchange.sendResponseHeaders(500, NO_BODY);
+                    } catch (final IOException ignored) {
+                        // The client is gone.
+                    }
+                }
+            } finally {
+                exchange.close();
+            }
+        }
+    }
+
+    /**
+     * JSON rendered from the latest snapshot, cached per version.
+     */
+    private static final class JsonResource<T> implements Resource {
+        private final Supplier<T> snapshots;
+        private final ToLongFunction<T> version;
+        private final Function<T, Object> document;
+        private volatile Rendered cached;
+
+        JsonResource(final Supplier<T> snapshots, final ToLongFunction<T> version,
+                final Function<T, Object> document) {
+            this.snapshots = snapshots;
+            this.version = version;
+            this.document = document;
+        }
+
+        @Override
+        public boolean respond(final HttpExchange exchange, final boolean gzip, final boolean head)
+                throws IOException {
+            final T snapshot = snapshots.get();
+            final long currentVersion = version.applyAsLong(snapshot);
+            Rendered rendered = cached;
+            if (rendered == null || rendered.version != currentVersion) {
+                rendered = new Rendered(currentVersion,
+                        JsonWriter.stringify(document.apply(snapshot), true).getBytes(StandardCharsets.UTF_8));
+                cached = rendered;
+            }
+            if (notModified(exchange, rendered.tag, gzip)) {
+                return true;
+            }
+            final byte[] body = gzip ? rendered.gzipped() : rendered.plain;
+            exchange.getResponseHeaders().set("Content-Type", JSON_TYPE);
+            exchange.sendResponseHeaders(200, head ? NO_BODY : body.length);
+            if (!head) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class TextResource implements Resource {
+        private final String contentType;
+        private final Supplier<String> text;
+
+        TextResource(final String contentType, final Supplier<String> text) {
+            this.contentType = contentType;
+            this.text = text;
+        }
+
+        @Override
+        public boolean respond(final HttpExchange exchange, final boolean gzip, final boolean head)
+                throws IOException {
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            if (head) {
+                exchange.sendResponseHeaders(200, NO_BODY);
+                return true;
+            }
+            final byte[] body = text.get().getBytes(StandardCharsets.UTF_8);
+            if (gzip) {
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+                exchange.sendResponseHeaders(200, CHUNKED);
+                try (OutputStream out = new GZIPOutputStream(exchange.getResponseBody())) {
+                    out.write(body);
+                }
+            } else {
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class Rendered {
+        private final long version;
+        private final byte[] plain;
+        private final String tag;
+        private volatile byte[] gzipped;
+
+        Rendered(final long version, final byte[] plain) {
+            this.version = version;
+            this.plain = plain;
+            final MessageDigest digest = sha256();
+            digest.update(plain);
+            this.tag = HexFormat.of().formatHex(digest.digest(), 0, 16);
+        }
+
+        byte[] gzipped() throws IOException {
+            byte[] compressed = gzipped;
+            if (compressed == null) {
+                final ByteArrayOutputStream bytes = new ByteArrayOutputStream(plain.length / 4 + 64);
+                try (OutputStream out = new GZIPOutputStream(bytes)) {
+                    out.write(plain);
+                }
+                compressed = bytes.toByteArray();
+                gzipped = compressed;
+            }
+            return compressed;
+        }
+    }
+
+    /**
+     * The newest existing file among the candidates, streamed from disk. The SHA-256 hash used as entity tag is
+     * computed once per file version, identified by size and modification time.
+     */
+    private static final class FileResource implements Resource {
+        private final String contentType;
+        private final List<Path> candidates;
+        private volatile FileHash lastHash;
+
+        FileResource(final String contentType, final List<Path> candidates) {
+            this.contentType = contentType;
+            this.candidates = candidates;
+        }
+
+        @Override
+        public boolean respond(final HttpExchange exchange, final boolean gzip, final boolean head)
+                throws IOException {
+            Path file = null;
+            BasicFileAttributes attributes = null;
+            for (final Path candidate : candidates) {
+                try {
+                    final BasicFileAttributes candidateAttributes = Files.readAttributes(candidate,
+                            BasicFileAttributes.class);
+                    if (candidateAttributes.isRegularFile() && (attributes == null || candidateAttributes
+                            .lastModifiedTime().compareTo(attributes.lastModifiedTime()) > 0)) {
+                        file = candidate;
+                        attributes = candidateAttributes;
+                    }
+                } catch (final NoSuchFileException exception) {
+                    // Not exported in this variant.
+                }
+            }
+            if (file == null) {
+                return false;
+            }
+            final boolean compressed = file.getFileName().toString().endsWith(".gz");
+            if (notModified(exchange, hash(file, attributes), gzip)) {
+                return true;
+            }
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            if (compressed == gzip) {
+                // Stored as requested: stream the file with a known length instead of chunking.
+                exchange.sendResponseHeaders(200, head ? NO_BODY : attributes.size());
+                if (!head) {
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        Files.copy(file, out);
+                    }
+                }
+                return true;
+            }
+            exchange.sendResponseHeaders(200, head ? NO_BODY : CHUNKED);
+            if (!head) {
+                try (InputStream in = compressed ? new GZIPInputStream(Files.newInputStream(file))
+                        : Files.newInputStream(file);
+                        OutputStream out = gzip ? new GZIPOutputStream(exchange.getResponseBody())
+                                : exchange.getResponseBody()) {
+                    in.transferTo(out);
+                }
+            }
+            return true;
+        }
+
+        private String hash(final Path file, final BasicFileAttributes attributes) throws IOException {
+            final FileHash known = lastHash;
+            if (known != null && known.file.equals(file) && known.size == attributes.size()
+                    && known.modified == attributes.lastModifiedTime().toMillis()) {
+                return known.hash;
+            }
+            final MessageDigest digest = sha256();
+            try (InputStream in = Files.newInputStream(file)) {
+                final byte[] buffer = new byte[64 * 1024];
+                for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+            final String hash = HexFormat.of().formatHex(digest.digest(), 0, 16);
+            lastHash = new FileHash(file, attributes.size(), attributes.lastModifiedTime().toMillis(), hash);
+            return hash;
+        }
+    }
+
+    private static final class FileHash {
+        private final Path file;
+        private final long size;
+        private final long modified;
+        private final String hash;
+
+        FileHash(final Path file, final long size, final long modified, final String hash) {
+            this.file = file;
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+        }
+    }
+
+    /**
+     * Sets the entity tag of the representation, whose encoding is part of the tag, and answers {@code 304} if the
+     * client already has it.
+     */
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not available.", exception);
+        }
+    }
+
+    private static boolean notModified(final HttpExchange exchange, final String tag, final boolean gzip)
+            throws IOException {
+        final String etag = "\"" + tag + (gzip ? "-gzip" : "") + "\"";
+        exchange.getResponseHeaders().set("ETag", etag);
+        if (gzip) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        final String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (final String candidate : ifNoneMatch.split(",")) {
+            final String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.equals(etag) || trimmed.equals("W/" + etag)) {
+                exchange.getResponseHeaders().remove("Content-Encoding");
+                exchange.sendResponseHeaders(304, NO_BODY);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(final Headers headers) {
+        final List<String> values = headers.get("Accept-Encoding");
+        if (values == null) {
+            return false;
+        }
+        for (final String value : values) {
+            for (final String coding : value.split(",")) {
+                final String[] parts = coding.trim().toLowerCase(Locale.ROOT).split(";");
+                if (parts[0].trim().equals("gzip")
+                        && (parts.length < 2 || !parts[1].replace(" ", "").equals("q=0"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,122 @@
+package com.behamotten.events.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.bukkit.configuration.file.FileConfiguration;
+
+/**
+ * Work budget for heavy background jobs that adapts to the server load. The budget is a number of work units per
+ * tick; jobs call {@link #acquire(int)} before each unit of work and are paced to the budget. Once per second the
+ * budget is halved while the MSPT is at or above the busy threshold and grows by a sixteenth of the maximum while it
+ * is at or below the idle threshold, always staying within the configured bounds.
+ *
+ * <p>{@link #acquire(int)} blocks and must only be called off the server thread.</p>
+ */
+public final class AdaptiveThrottle {
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final int minBudget;
+    private final int maxBudget;
+    private final double idleMspt;
+    private final double busyMspt;
+    private final LongSupplier nanoTime;
+    private volatile int budget;
+    private volatile double mspt;
+    private double tokens;
+    private long lastRefill;
+
+    AdaptiveThrottle(final int minBudget, final int maxBudget, final double idleMspt, final double busyMspt,
+            final LongSupplier nanoTime) {
+        if (minBudget < 1 || maxBudget < minBudget) {
+            throw new IllegalArgumentException("Throttle budget bounds must satisfy 1 <= min <= max, got "
+                    + minBudget + " and " + maxBudget + ".");
+        }
+        if (busyMspt <= idleMspt) {
+            throw new IllegalArgumentException("Busy MSPT (" + busyMspt + ") must be above idle MSPT ("
+                    + idleMspt + ").");
+        }
+        this.minBudget = minBudget;
+        this.maxBudget = maxBudget;
+        this.idleMspt = idleMspt;
+        this.busyMspt = busyMspt;
+        this.nanoTime = nanoTime;
+        this.budget = maxBudget;
+        this.tokens = maxBudget;
+        this.lastRefill = nanoTime.getAsLong();
+    }
+
+    /**
+     * Returns a throttle that never limits anything, for jobs that run without a load monitor.
+     */
+    public static AdaptiveThrottle unlimited() {
+        return new AdaptiveThrottle(Integer.MAX_VALUE, Integer.MAX_VALUE, Double.MAX_VALUE / 2, Double.MAX_VALUE,
+                System::nanoTime);
+    }
+
+    /**
+     * Creates a throttle from the {@code load} section of the plugin configuration, follows the load monitor and
+     * publishes its budget as a metric.
+     *
+     * @throws IllegalArgumentException if the configured bounds or thresholds are inconsistent
+     */
+    public static AdaptiveThrottle fromConfig(final FileConfiguration config, final LoadMonitor monitor,
+            final PluginMetrics metrics) {
+        final AdaptiveThrottle throttle = new AdaptiveThrottle(config.getInt("load.min-budget", 2),
+                config.getInt("load.max-budget", 200), config.getInt("load.idle-mspt", 30),
+                config.getInt("load.busy-mspt", 45), System::nanoTime);
+        monitor.addListener(source -> throttle.adjust(source.mspt()));
+        metrics.gauge("throttle_budget_units_per_tick", "Current work budget of background jobs.",
+                throttle::budget);
+        return throttle;
+    }
+
+    public int budget() {
+        return budget;
+    }
+
+    /**
+     * Returns whether the server is at or above the busy threshold, so that optional work should be postponed.
+     */
+    public boolean isOverloaded() {
+        return mspt >= busyMspt;
+    }
+
+    /**
+     * Adapts the budget to the given load. Called once per second.
+     */
+    void adjust(final double currentMspt) {
+        mspt = currentMspt;
+        if (currentMspt >= busyMspt) {
+            budget = Math.max(minBudget, budget / 2);
+        } else if (currentMspt <= idleMspt && budget < maxBudget) {
+            budget = (int) Math.min(maxBudget, (long) budget + Math.max(1, maxBudget / 16));
+        }
+    }
+
+    /**
+     * Waits until the budget allows the given number of work units. Requests larger than one tick's budget are
+     * granted once a full tick's budget is available.
+     */
+    public void acquire(final int units) throws InterruptedException {
+        if (maxBudget == Integer.MAX_VALUE) {
+            return;
+        }
+        while (true) {
+            final long waitNanos;
+            synchronized (this) {
+                final int currentBudget = budget;
+                final long now = nanoTime.getAsLong();
+                tokens = Math.min(currentBudget, tokens + (now - lastRefill) * (double) currentBudget / TICK_NANOS);
+                lastRefill = now;
+                final double needed = Math.min(units, currentBudget);
+                if (tokens >= needed) {
+                    tokens -= needed;
+                    return;
+                }
+                waitNanos = (long) Math.ceil((needed - tokens) * TICK_NANOS / currentBudget);
+            }
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.behamotten.events.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.entity.Player;
+
+/**
+ * Flight recorder event for handling one plugin command on the server thread. Work a command hands off to other
+ * threads is not included.
+ */
+@Name("com.behamotten.Command")
+@Label("Command")
+@Category({"Behamotten", "Commands"})
+@Description("Handling of a plugin command.")
+@StackTrace(false)
+public final class CommandEvent extends Event {
+    @Label("Command")
+    private String command;
+
+    @Label("Arguments")
+    private int arguments;
+
+    @Label("Player Sender")
+    private boolean player;
+
+    @Label("Handled")
+    private boolean handled;
+
+    /**
+     * Returns an executor that records every invocation of the given executor as a command event.
+     */
+    public static CommandExecutor record(final CommandExecutor executor) {
+        return (sender, command, label, args) -> {
+            final CommandEvent event = new CommandEvent();
+            event.begin();
+            boolean handled = false;
+            try {
+                handled = executor.onCommand(sender, command, label, args);
+                return handled;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.command = command.getName();
+                    event.arguments = args.length;
+                    event.player = sender instanceof Player;
+                    event.handled = handled;
+                    event.commit();
+                }
+            }
+        };
+    }
+}
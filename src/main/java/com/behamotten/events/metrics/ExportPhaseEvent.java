@@ -0,0 +1,66 @@
+package com.behamotten.events.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for one phase of an advancement export. Entries are serialized straight into the output
+ * file, so serializing and writing a file are recorded together as the {@link #WRITE} phase.
+ */
+@Name("com.behamotten.ExportPhase")
+@Label("Export Phase")
+@Category({"Behamotten", "Advancement Export"})
+@Description("One phase of building or writing an advancement export.")
+@StackTrace(false)
+public final class ExportPhaseEvent extends Event {
+    /**
+     * Capturing the server's advancements on the server thread.
+     */
+    public static final String ITERATE = "iterate";
+    /**
+     * Awarding all criteria to the exporting player on the server thread.
+     */
+    public static final String AWARD = "award";
+    /**
+     * Rendering titles and descriptions for the advancement index.
+     */
+    public static final String RENDER = "render";
+    /**
+     * Serializing entries into one output file and moving it into place.
+     */
+    public static final String WRITE = "write";
+
+    @Label("Phase")
+    private final String phase;
+
+    @Label("Advancements")
+    private int advancements;
+
+    @Label("File")
+    private String file;
+
+    @Label("File Size")
+    @DataAmount
+    private long bytes;
+
+    public ExportPhaseEvent(final String phase) {
+        this.phase = phase;
+    }
+
+    public void setAdvancements(final int advancements) {
+        this.advancements = advancements;
+    }
+
+    public void setFile(final String file) {
+        this.file = file;
+    }
+
+    public void setBytes(final long bytes) {
+        this.bytes = bytes;
+    }
+}
@@ -0,0 +1,118 @@
+package com.behamotten.events.metrics;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import org.bukkit.Server;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Estimates how long the server needs per tick (MSPT). A task runs every tick and feeds an exponential moving
+ * average. On servers that report their own average tick time (Paper's {@code Server#getAverageTickTime()}) that
+ * value is used. Otherwise the time between two ticks is measured, which only reveals load once ticks take longer
+ * than the regular 50 ms: ticks arriving on schedule are sampled as idle, late ticks with their full interval.
+ * Listeners are notified once per second with the current estimate.
+ */
+public final class LoadMonitor {
+    private static final double TICK_MILLIS = 50.0;
+    private static final int TICKS_PER_SECOND = 20;
+    private static final double SMOOTHING = 0.1;
+    private static final double ON_SCHEDULE_MILLIS = TICK_MILLIS * 1.1;
+
+    private final JavaPlugin plugin;
+    private final LongSupplier nanoTime;
+    private final MethodHandle averageTickTime;
+    private final List<Consumer<LoadMonitor>> listeners = new ArrayList<>();
+    private volatile double mspt;
+    private long lastTick;
+    private int ticks;
+    private BukkitTask task;
+
+    public LoadMonitor(final JavaPlugin plugin, final PluginMetrics metrics) {
+        this(plugin, metrics, System::nanoTime);
+    }
+
+    LoadMonitor(final JavaPlugin plugin, final PluginMetrics metrics, final LongSupplier nanoTime) {
+        this.plugin = plugin;
+        this.nanoTime = nanoTime;
+        this.averageTickTime = findAverageTickTime(plugin.getServer());
+        metrics.gauge("server_tick_duration_microseconds", "Smoothed duration of a server tick.",
+                () -> Math.round(mspt * 1000.0));
+    }
+
+    /**
+     * Registers a listener that is called on the server thread once per second.
+     */
+    public void addListener(final Consumer<LoadMonitor> listener) {
+        listeners.add(listener);
+    }
+
+    public void start() {
+        lastTick = nanoTime.getAsLong();
+        task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Returns the smoothed milliseconds per tick. May be called from any thread.
+     */
+    public double mspt() {
+        return mspt;
+    }
+
+    /**
+     * Returns the ticks per second the current MSPT allows, at most 20.
+     */
+    public double tps() {
+        return 1000.0 / Math.max(TICK_MILLIS, mspt);
+    }
+
+    /**
+     * Takes one sample. Called by the tick task on the server thread.
+     */
+    void tick() {
+        final long now = nanoTime.getAsLong();
+        final double interval = (now - lastTick) / 1_000_000.0;
+        final double sample = reportedTickTime().orElse(interval <= ON_SCHEDULE_MILLIS ? 0.0 : interval);
+        lastTick = now;
+        mspt += (sample - mspt) * SMOOTHING;
+        if (++ticks % TICKS_PER_SECOND == 0) {
+            for (final Consumer<LoadMonitor> listener : listeners) {
+                listener.accept(this);
+            }
+        }
+    }
+
+    private OptionalDouble reportedTickTime() {
+        if (averageTickTime == null) {
+            return OptionalDouble.empty();
+        }
+        try {
+            return OptionalDouble.of((double) averageTickTime.invoke(plugin.getServer()));
+        } catch (final Throwable throwable) {
+            return OptionalDouble.empty();
+        }
+    }
+
+    private static MethodHandle findAverageTickTime(final Server server) {
+        try {
+            return MethodHandles.publicLookup().findVirtual(server.getClass(), "getAverageTickTime",
+                    MethodType.methodType(double.class));
+        } catch (final NoSuchMethodException | IllegalAccessException exception) {
+            return null;
+        }
+    }
+}
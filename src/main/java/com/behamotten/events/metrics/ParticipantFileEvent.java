@@ -0,0 +1,51 @@
+package com.behamotten.events.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for reading or writing the event participant file.
+ */
+@Name("com.behamotten.ParticipantFile")
+@Label("Participant File")
+@Category({"Behamotten", "Participants"})
+@Description("Loading or saving the event participant file.")
+@StackTrace(false)
+public final class ParticipantFileEvent extends Event {
+    public static final String LOAD = "load";
+    public static final String SAVE = "save";
+
+    @Label("Operation")
+    private final String operation;
+
+    @Label("Participants")
+    private int participants;
+
+    @Label("File Size")
+    @DataAmount
+    private long bytes;
+
+    @Label("Succeeded")
+    private boolean succeeded;
+
+    public ParticipantFileEvent(final String operation) {
+        this.operation = operation;
+    }
+
+    public void setParticipants(final int participants) {
+        this.participants = participants;
+    }
+
+    public void setBytes(final long bytes) {
+        this.bytes = bytes;
+    }
+
+    public void setSucceeded(final boolean succeeded) {
+        this.succeeded = succeeded;
+    }
+}
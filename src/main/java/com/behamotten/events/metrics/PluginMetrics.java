@@ -0,0 +1,167 @@
+package com.behamotten.events.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Plugin-wide registry of named counters and gauges. Counters are {@link LongAdder}s, so hot paths can increment
+ * them from any thread without contention; counters and gauges may also read their value from a supplier when
+ * sampled. Metrics are created on first use and looked up by name afterwards.
+ */
+public final class PluginMetrics {
+    private final Map<String, Metric> metrics = new ConcurrentSkipListMap<>();
+
+    /**
+     * Returns the counter with the given name, creating it if necessary.
+     *
+     * @throws IllegalArgumentException if a gauge or a supplied counter with that name exists
+     */
+    public Counter counter(final String name, final String help) {
+        final Metric metric = metrics.computeIfAbsent(name, key -> new Counter(key, help, null));
+        if (!(metric instanceof Counter) || ((Counter) metric).supplier != null) {
+            throw new IllegalArgumentException("Metric '" + name + "' is not a counter.");
+        }
+        return (Counter) metric;
+    }
+
+    /**
+     * Registers a counter whose value is read from the supplier whenever it is sampled, replacing any earlier metric
+     * with that name. The supplier must never decrease, for example because it sums a {@link LongAdder}.
+     */
+    public void counter(final String name, final String help, final LongSupplier supplier) {
+        Objects.requireNonNull(supplier, "supplier");
+        metrics.put(name, new Counter(name, help, supplier));
+    }
+
+    /**
+     * Returns the settable gauge with the given name, creating it if necessary.
+     *
+     * @throws IllegalArgumentException if a metric of another kind has that name
+     */
+    public Gauge gauge(final String name, final String help) {
+        final Metric metric = metrics.computeIfAbsent(name, key -> new Gauge(key, help, null));
+        if (!(metric instanceof Gauge) || ((Gauge) metric).supplier != null) {
+            throw new IllegalArgumentException("Metric '" + name + "' is not a settable gauge.");
+        }
+        return (Gauge) metric;
+    }
+
+    /**
+     * Registers a gauge whose value is read from the supplier whenever it is sampled, replacing any earlier gauge
+     * with that name.
+     */
+    public void gauge(final String name, final String help, final LongSupplier supplier) {
+        Objects.requireNonNull(supplier, "supplier");
+        metrics.put(name, new Gauge(name, help, supplier));
+    }
+
+    /**
+     * Returns the current value of every metric, ordered by name.
+     */
+    public List<Sample> samples() {
+        final List<Sample> samples = new ArrayList<>(metrics.size());
+        for (final Metric metric : metrics.values()) {
+            samples.add(new Sample(metric.name, metric.help, metric instanceof Counter, metric.get()));
+        }
+        return samples;
+    }
+
+    private abstract static class Metric {
+        private final String name;
+        private final String help;
+
+        Metric(final String name, final String help) {
+            this.name = name;
+            this.help = help;
+        }
+
+        public abstract long get();
+    }
+
+    /**
+     * Monotonically increasing count of events.
+     */
+    public static final class Counter extends Metric {
+        private final LongAdder value = new LongAdder();
+        private final LongSupplier supplier;
+
+        Counter(final String name, final String help, final LongSupplier supplier) {
+            super(name, help);
+            this.supplier = supplier;
+        }
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(final long amount) {
+            value.add(amount);
+        }
+
+        @Override
+        public long get() {
+            return supplier != null ? supplier.getAsLong() : value.sum();
+        }
+    }
+
+    /**
+     * Value that can go up and down, such as the duration of the last run.
+     */
+    public static final class Gauge extends Metric {
+        private final AtomicLong value = new AtomicLong();
+        private final LongSupplier supplier;
+
+        Gauge(final String name, final String help, final LongSupplier supplier) {
+            super(name, help);
+            this.supplier = supplier;
+        }
+
+        public void set(final long newValue) {
+            value.set(newValue);
+        }
+
+        @Override
+        public long get() {
+            return supplier != null ? supplier.getAsLong() : value.get();
+        }
+    }
+
+    /**
+     * Value of one metric at the time it was sampled.
+     */
+    public static final class Sample {
+        private final String name;
+        private final String help;
+        private final boolean counter;
+        private final long value;
+
+        Sample(final String name, final String help, final boolean counter, final long value) {
+            this.name = name;
+            this.help = help;
+            this.counter = counter;
+            this.value = value;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getHelp() {
+            return help;
+        }
+
+        public boolean isCounter() {
+            return counter;
+        }
+
+        public long getValue() {
+            return value;
+        }
+    }
+}
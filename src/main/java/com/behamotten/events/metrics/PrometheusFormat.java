@@ -0,0 +1,47 @@
+package com.behamotten.events.metrics;
+
+import java.util.List;
+
+/**
+ * Renders {@link PluginMetrics} in the Prometheus text exposition format. Every metric gets the
+ * {@value #PREFIX} prefix, its help text and its type. Metrics are only sampled when rendered, so nothing is
+ * collected while no scraper asks for them.
+ */
+public final class PrometheusFormat {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    static final String PREFIX = "behamotten_";
+
+    private PrometheusFormat() {
+    }
+
+    public static String format(final PluginMetrics metrics) {
+        final List<PluginMetrics.Sample> samples = metrics.samples();
+        final StringBuilder text = new StringBuilder(samples.size() * 128);
+        for (final PluginMetrics.Sample sample : samples) {
+            final String name = PREFIX + sample.getName();
+            text.append("# HELP ").append(name).append(' ');
+            appendEscapedHelp(text, sample.getHelp());
+            text.append('\n');
+            text.append("# TYPE ").append(name).append(' ').append(sample.isCounter() ? "counter" : "gauge")
+                    .append('\n');
+            text.append(name).append(' ').append(sample.getValue()).append('\n');
+        }
+        return text.toString();
+    }
+
+    private static void appendEscapedHelp(final StringBuilder text, final String help) {
+        if (help == null) {
+            return;
+        }
+        for (int i = 0; i < help.length(); i++) {
+            final char ch = help.charAt(i);
+            if (ch == '\\') {
+                text.append("\\\\");
+            } else if (ch == '\n') {
+                text.append("\\n");
+            } else {
+                text.append(ch);
+            }
+        }
+    }
+}
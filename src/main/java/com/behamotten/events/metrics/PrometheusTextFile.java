@@ -0,0 +1,90 @@
+package com.behamotten.events.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.logging.Logger;
+
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Periodically writes {@link PluginMetrics} in Prometheus text format to a file, for example for the textfile
+ * collector of the node exporter. The file is written on an async task and replaced atomically, so readers never see
+ * a partial file.
+ */
+public final class PrometheusTextFile {
+    private static final long TICKS_PER_SECOND = 20L;
+
+    private final JavaPlugin plugin;
+    private final Logger logger;
+    private final PluginMetrics metrics;
+    private final Path file;
+    private final long periodTicks;
+    private BukkitTask task;
+    private boolean failureLogged;
+
+    PrometheusTextFile(final JavaPlugin plugin, final PluginMetrics metrics, final Path file,
+            final long periodTicks) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.metrics = metrics;
+        this.file = file;
+        this.periodTicks = periodTicks;
+    }
+
+    /**
+     * Creates the writer configured under {@code metrics}, or returns {@code null} when no file is configured.
+     * Relative paths are resolved against the plugin data folder.
+     */
+    public static PrometheusTextFile fromConfig(final JavaPlugin plugin, final PluginMetrics metrics) {
+        final String path = plugin.getConfig().getString("metrics.file", "");
+        if (path == null || path.isBlank()) {
+            return null;
+        }
+        final long seconds = Math.max(1L, plugin.getConfig().getLong("metrics.file-interval-seconds", 15L));
+        return new PrometheusTextFile(plugin, metrics, plugin.getDataFolder().toPath().resolve(path.trim()),
+                seconds * TICKS_PER_SECOND);
+    }
+
+    public void start() {
+        task = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::write, periodTicks,
+                periodTicks);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    void write() {
+        try {
+            final Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            final Path temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try {
+                Files.writeString(temporary, PrometheusFormat.format(metrics), StandardCharsets.UTF_8);
+                try {
+                    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.ATOMIC_MOVE);
+                } catch (final AtomicMoveNotSupportedException exception) {
+                    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+            failureLogged = false;
+        } catch (final IOException exception) {
+            // Log once per failure streak instead of every interval.
+            if (!failureLogged) {
+                failureLogged = true;
+                logger.warning(() -> "Could not write metrics to " + file + ": " + exception.getMessage());
+            }
+        }
+    }
+}
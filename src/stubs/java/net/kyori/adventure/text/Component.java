@@ -4,4 +4,17 @@ package net.kyori.adventure.text;
  * Minimal Adventure component stub.
  */
 public interface Component {
+    /**
+     * Creates a component with literal text, like datapack advancements usually use.
+     */
+    static TextComponent text(final String content) {
+        return new TextComponent(content);
+    }
+
+    /**
+     * Creates a component that is translated by key, falling back to the given text, like vanilla advancements use.
+     */
+    static TranslatableComponent translatable(final String key, final String fallback) {
+        return new TranslatableComponent(key, fallback);
+    }
 }
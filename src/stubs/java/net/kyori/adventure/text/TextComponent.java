@@ -0,0 +1,34 @@
+package net.kyori.adventure.text;
+
+import java.util.Objects;
+
+/**
+ * Minimal text component stub. Adventure models this as an interface; the stub only needs a value class whose plain
+ * text is its content.
+ */
+public final class TextComponent implements Component {
+    private final String content;
+
+    TextComponent(final String content) {
+        this.content = Objects.requireNonNull(content, "content");
+    }
+
+    public String content() {
+        return content;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return obj instanceof TextComponent && content.equals(((TextComponent) obj).content);
+    }
+
+    @Override
+    public int hashCode() {
+        return content.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return content;
+    }
+}
@@ -0,0 +1,44 @@
+package net.kyori.adventure.text;
+
+import java.util.Objects;
+
+/**
+ * Minimal translatable component stub. Its plain text is the fallback, or the key when there is none, which matches
+ * what Adventure's plain serializer prints for an untranslated component.
+ */
+public final class TranslatableComponent implements Component {
+    private final String key;
+    private final String fallback;
+
+    TranslatableComponent(final String key, final String fallback) {
+        this.key = Objects.requireNonNull(key, "key");
+        this.fallback = fallback;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public String fallback() {
+        return fallback;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!(obj instanceof TranslatableComponent)) {
+            return false;
+        }
+        final TranslatableComponent other = (TranslatableComponent) obj;
+        return key.equals(other.key) && Objects.equals(fallback, other.fallback);
+    }
+
+    @Override
+    public int hashCode() {
+        return key.hashCode() * 31 + Objects.hashCode(fallback);
+    }
+
+    @Override
+    public String toString() {
+        return fallback != null ? fallback : key;
+    }
+}
@@ -0,0 +1,42 @@
+package net.kyori.adventure.translation;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import net.kyori.adventure.text.Component;
+
+/**
+ * Minimal global translator stub mirroring the Adventure accessors. Sources are asked in registration order; a
+ * component no source translates is returned unchanged.
+ */
+public final class GlobalTranslator {
+    private static final GlobalTranslator INSTANCE = new GlobalTranslator();
+
+    private final Set<Translator> sources = new CopyOnWriteArraySet<>();
+
+    private GlobalTranslator() {
+    }
+
+    public static GlobalTranslator translator() {
+        return INSTANCE;
+    }
+
+    public static Component render(final Component component, final Locale locale) {
+        for (final Translator source : INSTANCE.sources) {
+            final Component translated = source.translate(component, locale);
+            if (translated != null) {
+                return translated;
+            }
+        }
+        return component;
+    }
+
+    public boolean addSource(final Translator source) {
+        return sources.add(source);
+    }
+
+    public boolean removeSource(final Translator source) {
+        return sources.remove(source);
+    }
+}
@@ -0,0 +1,12 @@
+package net.kyori.adventure.translation;
+
+import java.util.Locale;
+
+import net.kyori.adventure.text.Component;
+
+/**
+ * Minimal translator stub. Returns the translated component, or {@code null} when this source has no translation.
+ */
+public interface Translator {
+    Component translate(Component component, Locale locale);
+}
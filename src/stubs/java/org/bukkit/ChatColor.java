@@ -7,7 +7,8 @@ public enum ChatColor {
     RED("§c"),
     GREEN("§a"),
     YELLOW("§e"),
-    GOLD("§6");
+    GOLD("§6"),
+    GRAY("§7");
 
     private final String code;
 
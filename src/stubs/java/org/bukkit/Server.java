@@ -1,8 +1,12 @@
 package org.bukkit;
 
+import java.io.File;
+import java.util.Collection;
 import java.util.Iterator;
 import org.bukkit.advancement.Advancement;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.PluginManager;
+import org.bukkit.scheduler.BukkitScheduler;
 
 /**
  * Minimal server stub used for compilation.
@@ -11,4 +15,10 @@ public interface Server {
     PluginManager getPluginManager();
 
     Iterator<Advancement> advancementIterator();
+
+    BukkitScheduler getScheduler();
+
+    File getWorldContainer();
+
+    Collection<? extends Player> getOnlinePlayers();
 }
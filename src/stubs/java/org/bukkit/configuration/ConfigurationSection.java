@@ -12,6 +12,10 @@ public interface ConfigurationSection {
 
     Map<String, Object> getValues();
 
+    ConfigurationSection getConfigurationSection(String path);
+
+    long getLong(String path);
+
     /**
      * Minimal in-memory implementation used by tests.
      */
@@ -41,5 +45,21 @@ public interface ConfigurationSection {
         public Map<String, Object> getValues() {
             return Collections.unmodifiableMap(values);
         }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public ConfigurationSection getConfigurationSection(final String path) {
+            final Object value = values.get(path);
+            if (value instanceof ConfigurationSection) {
+                return (ConfigurationSection) value;
+            }
+            return value instanceof Map ? new MemoryConfigurationSection((Map<String, Object>) value) : null;
+        }
+
+        @Override
+        public long getLong(final String path) {
+            final Object value = values.get(path);
+            return value instanceof Number ? ((Number) value).longValue() : 0L;
+        }
     }
 }
@@ -7,6 +7,7 @@ import org.bukkit.configuration.ConfigurationSection;
 
 public class FileConfiguration {
     private final Map<String, ConfigurationSection> sections = new HashMap<>();
+    private final Map<String, Object> values = new HashMap<>();
 
     public ConfigurationSection getConfigurationSection(final String path) {
         return sections.get(path);
@@ -15,4 +16,35 @@ public class FileConfiguration {
     protected void setSection(final String path, final ConfigurationSection section) {
         sections.put(path, section);
     }
+
+    /**
+     * Stores a value under a dotted path. Unlike Bukkit, the stub keeps values flat and does not create sections.
+     */
+    public void set(final String path, final Object value) {
+        if (value == null) {
+            values.remove(path);
+        } else {
+            values.put(path, value);
+        }
+    }
+
+    public int getInt(final String path, final int def) {
+        final Object value = values.get(path);
+        return value instanceof Number ? ((Number) value).intValue() : def;
+    }
+
+    public long getLong(final String path, final long def) {
+        final Object value = values.get(path);
+        return value instanceof Number ? ((Number) value).longValue() : def;
+    }
+
+    public boolean getBoolean(final String path, final boolean def) {
+        final Object value = values.get(path);
+        return value instanceof Boolean ? (Boolean) value : def;
+    }
+
+    public String getString(final String path, final String def) {
+        final Object value = values.get(path);
+        return value != null ? value.toString() : def;
+    }
 }
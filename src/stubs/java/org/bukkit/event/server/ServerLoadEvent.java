@@ -0,0 +1,27 @@
+package org.bukkit.event.server;
+
+import org.bukkit.event.Event;
+
+/**
+ * Minimal server load event stub. Called once the server has finished loading on startup and after every
+ * {@code /reload}.
+ */
+public class ServerLoadEvent extends Event {
+    private final LoadType type;
+
+    public ServerLoadEvent(final LoadType type) {
+        this.type = type;
+    }
+
+    public LoadType getType() {
+        return type;
+    }
+
+    /**
+     * Reason the server finished loading.
+     */
+    public enum LoadType {
+        STARTUP,
+        RELOAD
+    }
+}
@@ -1,23 +1,32 @@
 package org.bukkit.plugin.java;
 
 import java.io.File;
-import java.util.Collections;
-import java.util.Iterator;
 import java.util.logging.Logger;
 
 import org.bukkit.Server;
-import org.bukkit.advancement.Advancement;
 import org.bukkit.command.PluginCommand;
-import org.bukkit.event.Listener;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.plugin.Plugin;
-import org.bukkit.plugin.PluginManager;
 
 /**
  * Minimal JavaPlugin stub providing only the methods required for compilation.
  */
 public class JavaPlugin implements Plugin {
     private final Logger logger = Logger.getLogger(getClass().getName());
-    private final Server server = new MockServer();
+    private final Server server;
+    private final FileConfiguration config = new YamlConfiguration();
+
+    public JavaPlugin() {
+        this(new MockServer());
+    }
+
+    /**
+     * Creates a plugin running on the given server, for example a {@link SimulatedServer}.
+     */
+    protected JavaPlugin(final Server server) {
+        this.server = server;
+    }
 
     public void onEnable() {
         // no-op
@@ -43,24 +52,15 @@ public class JavaPlugin implements Plugin {
         return server;
     }
 
-    private static final class MockServer implements Server {
-        private final PluginManager pluginManager = new MockPluginManager();
-
-        @Override
-        public PluginManager getPluginManager() {
-            return pluginManager;
-        }
-
-        @Override
-        public Iterator<Advancement> advancementIterator() {
-            return Collections.emptyIterator();
-        }
+    /**
+     * Returns the plugin configuration. The stub never reads {@code config.yml}, so every getter returns its
+     * default unless a value was set explicitly.
+     */
+    public FileConfiguration getConfig() {
+        return config;
+    }
 
-        private static final class MockPluginManager implements PluginManager {
-            @Override
-            public void registerEvents(final Listener listener, final Plugin plugin) {
-                // no-op for tests
-            }
-        }
+    public void saveDefaultConfig() {
+        // no-op for stubs
     }
 }
@@ -0,0 +1,117 @@
+package org.bukkit.plugin.java;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+
+import org.bukkit.Server;
+import org.bukkit.advancement.Advancement;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Server stub behind every {@link JavaPlugin}: it has no advancements and no players, and its scheduler accepts
+ * tasks without running them.
+ */
+class MockServer implements Server {
+    private final PluginManager pluginManager = new MockPluginManager();
+    private final BukkitScheduler scheduler = new MockScheduler();
+
+    @Override
+    public PluginManager getPluginManager() {
+        return pluginManager;
+    }
+
+    @Override
+    public Iterator<Advancement> advancementIterator() {
+        return Collections.emptyIterator();
+    }
+
+    @Override
+    public BukkitScheduler getScheduler() {
+        return scheduler;
+    }
+
+    @Override
+    public File getWorldContainer() {
+        return new File(".");
+    }
+
+    @Override
+    public Collection<? extends Player> getOnlinePlayers() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Scheduler that accepts every task but never runs it.
+     */
+    private static final class MockScheduler implements BukkitScheduler {
+        @Override
+        public BukkitTask runTask(final Plugin plugin, final Runnable task) {
+            return new MockTask(true);
+        }
+
+        @Override
+        public BukkitTask runTaskAsynchronously(final Plugin plugin, final Runnable task) {
+            return new MockTask(false);
+        }
+
+        @Override
+        public BukkitTask runTaskLater(final Plugin plugin, final Runnable task, final long delay) {
+            return new MockTask(true);
+        }
+
+        @Override
+        public BukkitTask runTaskTimer(final Plugin plugin, final Runnable task, final long delay,
+                final long period) {
+            return new MockTask(true);
+        }
+
+        @Override
+        public BukkitTask runTaskTimerAsynchronously(final Plugin plugin, final Runnable task, final long delay,
+                final long period) {
+            return new MockTask(false);
+        }
+    }
+
+    private static final class MockTask implements BukkitTask {
+        private final boolean sync;
+        private boolean cancelled;
+
+        private MockTask(final boolean sync) {
+            this.sync = sync;
+        }
+
+        @Override
+        public int getTaskId() {
+            return -1;
+        }
+
+        @Override
+        public boolean isSync() {
+            return sync;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+    private static final class MockPluginManager implements PluginManager {
+        @Override
+        public void registerEvents(final Listener listener, final Plugin plugin) {
+            // no-op for tests
+        }
+    }
+}
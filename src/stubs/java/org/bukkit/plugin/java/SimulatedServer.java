@@ -0,0 +1,415 @@
+package org.bukkit.plugin.java;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.NamespacedKey;
+import org.bukkit.advancement.Advancement;
+import org.bukkit.advancement.AdvancementDisplay;
+import org.bukkit.advancement.AdvancementFrameType;
+import org.bukkit.advancement.AdvancementProgress;
+import org.bukkit.entity.Player;
+
+/**
+ * Server stub that simulates a large modpack for load tests and benchmarks. It generates advancement trees of
+ * configurable size, depth and branching, titled with vanilla-style translatable or datapack-style literal
+ * components, and online players whose progress is kept in memory. Everything is derived from the seed, so equal
+ * settings always produce the same advancements in the same iteration order.
+ *
+ * <p>Calls that reach into the live server on a real one (iterating advancements, reading parents, displays and
+ * criteria, reading and awarding progress, listing players) are counted and can each be made to burn a fixed amount
+ * of CPU time. The latency is spent busy-waiting, like the server thread would, rather than sleeping.</p>
+ */
+public class SimulatedServer extends MockServer {
+    private static final AdvancementFrameType[] FRAMES = AdvancementFrameType.values();
+
+    private final Settings settings;
+    private final long latencyNanos;
+    private final List<Advancement> advancements;
+    private final List<Player> players;
+    private final LongAdder calls = new LongAdder();
+
+    public SimulatedServer(final Settings settings) {
+        this.settings = settings;
+        this.latencyNanos = settings.callLatency.toNanos();
+        this.advancements = Collections.unmodifiableList(generateAdvancements(settings));
+        final List<Player> generatedPlayers = new ArrayList<>(settings.players);
+        for (int i = 0; i < settings.players; i++) {
+            generatedPlayers.add(new SimulatedPlayer("SimPlayer" + i));
+        }
+        this.players = Collections.unmodifiableList(generatedPlayers);
+    }
+
+    public Settings settings() {
+        return settings;
+    }
+
+    /**
+     * Returns all advancements in iteration order without counting a call.
+     */
+    public List<Advancement> advancements() {
+        return advancements;
+    }
+
+    /**
+     * Returns how many simulated API calls were made so far.
+     */
+    public long calls() {
+        return calls.sum();
+    }
+
+    @Override
+    public Iterator<Advancement> advancementIterator() {
+        simulateCall();
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < advancements.size();
+            }
+
+            @Override
+            public Advancement next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                simulateCall();
+                return advancements.get(next++);
+            }
+        };
+    }
+
+    @Override
+    public Collection<? extends Player> getOnlinePlayers() {
+        simulateCall();
+        return players;
+    }
+
+    private void simulateCall() {
+        calls.increment();
+        if (latencyNanos > 0) {
+            final long deadline = System.nanoTime() + latencyNanos;
+            while (System.nanoTime() - deadline < 0) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * Grows trees breadth-first, each node getting between one and {@code branching} children, until the requested
+     * number of advancements exists, then shuffles them the way a server's hash-ordered registry would.
+     */
+    private List<Advancement> generateAdvancements(final Settings settings) {
+        final Random random = new Random(settings.seed);
+        final List<Advancement> generated = new ArrayList<>(settings.advancements);
+        final ArrayDeque<SimulatedAdvancement> open = new ArrayDeque<>();
+        int tree = -1;
+        while (generated.size() < settings.advancements) {
+            if (open.isEmpty()) {
+                tree++;
+                final SimulatedAdvancement root = create(random, tree, "root", null);
+                generated.add(root);
+                open.add(root);
+                continue;
+            }
+            final SimulatedAdvancement parent = open.poll();
+            if (parent.depth >= settings.depth) {
+                continue;
+            }
+            final int children = 1 + random.nextInt(settings.branching);
+            for (int i = 0; i < children && generated.size() < settings.advancements; i++) {
+                final SimulatedAdvancement child = create(random, tree, "node_" + generated.size(), parent);
+                generated.add(child);
+                open.add(child);
+            }
+        }
+        Collections.shuffle(generated, random);
+        return generated;
+    }
+
+    private SimulatedAdvancement create(final Random random, final int tree, final String name,
+            final SimulatedAdvancement parent) {
+        final String namespace = "modpack" + tree % settings.namespaces;
+        final String path = "tree" + tree + "/" + name;
+        final String translationKey = "advancements." + namespace + "." + path.replace('/', '.');
+        final boolean translatable = random.nextBoolean();
+        final String titleText = "Tree " + tree + " " + name.replace('_', ' ');
+        final Component title = translatable ? Component.translatable(translationKey + ".title", titleText)
+                : Component.text(titleText);
+        final Component description;
+        if (random.nextInt(10) == 0) {
+            description = null;
+        } else {
+            final String descriptionText = "Complete " + name.replace('_', ' ') + " of tree " + tree + ".";
+            description = translatable ? Component.translatable(translationKey + ".description", descriptionText)
+                    : Component.text(descriptionText);
+        }
+        final List<String> criteria = new ArrayList<>();
+        final int criteriaCount = 1 + random.nextInt(settings.criteria);
+        for (int i = 0; i < criteriaCount; i++) {
+            criteria.add("criterion_" + i);
+        }
+        return new SimulatedAdvancement(new NamespacedKey(namespace, path), parent,
+                new SimulatedDisplay(title, description, FRAMES[random.nextInt(FRAMES.length)],
+                        random.nextInt(20) == 0, parent == null ? new NamespacedKey("minecraft", "block/stone")
+                                : null),
+                Collections.unmodifiableList(criteria), parent == null ? 1 : parent.depth + 1);
+    }
+
+    /**
+     * Immutable settings of a simulated server.
+     */
+    public static final class Settings {
+        private static final Settings DEFAULTS = new Settings(1000, 6, 4, 8, 3, 0, Duration.ZERO, 1L);
+
+        private final int advancements;
+        private final int depth;
+        private final int branching;
+        private final int namespaces;
+        private final int criteria;
+        private final int players;
+        private final Duration callLatency;
+        private final long seed;
+
+        private Settings(final int advancements, final int depth, final int branching, final int namespaces,
+                final int criteria, final int players, final Duration callLatency, final long seed) {
+            this.advancements = atLeast("advancements", advancements, 0);
+            this.depth = atLeast("depth", depth, 1);
+            this.branching = atLeast("branching", branching, 1);
+            this.namespaces = atLeast("namespaces", namespaces, 1);
+            this.criteria = atLeast("criteria", criteria, 1);
+            this.players = atLeast("players", players, 0);
+            if (callLatency.isNegative()) {
+                throw new IllegalArgumentException("Call latency must not be negative, was " + callLatency + ".");
+            }
+            this.callLatency = callLatency;
+            this.seed = seed;
+        }
+
+        /**
+         * Returns 1000 advancements at most 6 deep with up to 4 children each, spread over 8 namespaces, with up to
+         * 3 criteria each, no players and no latency.
+         */
+        public static Settings defaults() {
+            return DEFAULTS;
+        }
+
+        public Settings withAdvancements(final int advancements) {
+            return new Settings(advancements, depth, branching, namespaces, criteria, players, callLatency, seed);
+        }
+
+        /**
+         * Returns a copy whose trees are at most {@code depth} levels deep, counting the root.
+         */
+        public Settings withDepth(final int depth) {
+            return new Settings(advancements, depth, branching, namespaces, criteria, players, callLatency, seed);
+        }
+
+        /**
+         * Returns a copy where every advancement has between one and {@code branching} children.
+         */
+        public Settings withBranching(final int branching) {
+            return new Settings(advancements, depth, branching, namespaces, criteria, players, callLatency, seed);
+        }
+
+        public Settings withNamespaces(final int namespaces) {
+            return new Settings(advancements, depth, branching, namespaces, criteria, players, callLatency, seed);
+        }
+
+        /**
+         * Returns a copy where every advancement has between one and {@code criteria} criteria.
+         */
+        public Settings withCriteria(final int criteria) {
+            return new Settings(advancements, depth, branching, namespaces, criteria, players, callLatency, seed);
+        }
+
+        public Settings withPlayers(final int players) {
+            return new Settings(advancements, depth, branching, namespaces, criteria, players, callLatency, seed);
+        }
+
+        /**
+         * Returns a copy where every simulated API call takes at least the given time.
+         */
+        public Settings withCallLatency(final Duration callLatency) {
+            return new Settings(advancements, depth, branching, namespaces, criteria, players, callLatency, seed);
+        }
+
+        public Settings withSeed(final long seed) {
+            return new Settings(advancements, depth, branching, namespaces, criteria, players, callLatency, seed);
+        }
+
+        private static int atLeast(final String name, final int value, final int minimum) {
+            if (value < minimum) {
+                throw new IllegalArgumentException(
+                        "Simulated " + name + " must be at least " + minimum + ", was " + value + ".");
+            }
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return "Settings{advancements=" + advancements + ", depth=" + depth + ", branching=" + branching
+                    + ", namespaces=" + namespaces + ", criteria=" + criteria + ", players=" + players
+                    + ", callLatency=" + callLatency + ", seed=" + seed + "}";
+        }
+    }
+
+    private final class SimulatedAdvancement implements Advancement {
+        private final NamespacedKey key;
+        private final Advancement parent;
+        private final AdvancementDisplay display;
+        private final List<String> criteria;
+        private final int depth;
+
+        private SimulatedAdvancement(final NamespacedKey key, final Advancement parent,
+                final AdvancementDisplay display, final List<String> criteria, final int depth) {
+            this.key = key;
+            this.parent = parent;
+            this.display = display;
+            this.criteria = criteria;
+            this.depth = depth;
+        }
+
+        @Override
+        public NamespacedKey getKey() {
+            return key;
+        }
+
+        @Override
+        public Advancement getParent() {
+            simulateCall();
+            return parent;
+        }
+
+        @Override
+        public AdvancementDisplay getDisplay() {
+            simulateCall();
+            return display;
+        }
+
+        @Override
+        public Collection<String> getCriteria() {
+            simulateCall();
+            return criteria;
+        }
+    }
+
+    private static final class SimulatedDisplay implements AdvancementDisplay {
+        private final Component title;
+        private final Component description;
+        private final AdvancementFrameType frame;
+        private final boolean hidden;
+        private final NamespacedKey background;
+
+        private SimulatedDisplay(final Component title, final Component description, final AdvancementFrameType frame,
+                final boolean hidden, final NamespacedKey background) {
+            this.title = title;
+            this.description = description;
+            this.frame = frame;
+            this.hidden = hidden;
+            this.background = background;
+        }
+
+        @Override
+        public Component title() {
+            return title;
+        }
+
+        @Override
+        public Component description() {
+            return description;
+        }
+
+        @Override
+        public AdvancementFrameType frame() {
+            return frame;
+        }
+
+        @Override
+        public boolean isHidden() {
+            return hidden;
+        }
+
+        @Override
+        public NamespacedKey background() {
+            return background;
+        }
+    }
+
+    private final class SimulatedPlayer implements Player {
+        private final UUID uuid;
+        private final String name;
+        private final Map<NamespacedKey, SimulatedProgress> progress = new ConcurrentHashMap<>();
+
+        private SimulatedPlayer(final String name) {
+            this.uuid = UUID.nameUUIDFromBytes(name.getBytes());
+            this.name = name;
+        }
+
+        @Override
+        public UUID getUniqueId() {
+            return uuid;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void sendMessage(final String message) {
+            // simulated players ignore messages
+        }
+
+        @Override
+        public AdvancementProgress getAdvancementProgress(final Advancement advancement) {
+            simulateCall();
+            return progress.computeIfAbsent(advancement.getKey(),
+                    key -> new SimulatedProgress(((SimulatedAdvancement) advancement).criteria));
+        }
+    }
+
+    private final class SimulatedProgress implements AdvancementProgress {
+        private final Set<String> remaining;
+        private final Set<String> awarded = new LinkedHashSet<>();
+
+        private SimulatedProgress(final Collection<String> criteria) {
+            this.remaining = new LinkedHashSet<>(criteria);
+        }
+
+        @Override
+        public synchronized boolean awardCriteria(final String criterion) {
+            simulateCall();
+            if (!remaining.remove(criterion)) {
+                return false;
+            }
+            awarded.add(criterion);
+            return true;
+        }
+
+        @Override
+        public synchronized Collection<String> getRemainingCriteria() {
+            return List.copyOf(remaining);
+        }
+
+        @Override
+        public synchronized Collection<String> getAwardedCriteria() {
+            return List.copyOf(awarded);
+        }
+    }
+}
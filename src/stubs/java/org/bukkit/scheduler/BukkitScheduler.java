@@ -0,0 +1,18 @@
+package org.bukkit.scheduler;
+
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Minimal scheduler stub mirroring the Bukkit interface. Delays and periods are measured in server ticks.
+ */
+public interface BukkitScheduler {
+    BukkitTask runTask(Plugin plugin, Runnable task);
+
+    BukkitTask runTaskAsynchronously(Plugin plugin, Runnable task);
+
+    BukkitTask runTaskLater(Plugin plugin, Runnable task, long delay);
+
+    BukkitTask runTaskTimer(Plugin plugin, Runnable task, long delay, long period);
+
+    BukkitTask runTaskTimerAsynchronously(Plugin plugin, Runnable task, long delay, long period);
+}
@@ -0,0 +1,14 @@
+package org.bukkit.scheduler;
+
+/**
+ * Minimal scheduled task stub mirroring the Bukkit interface.
+ */
+public interface BukkitTask {
+    int getTaskId();
+
+    boolean isSync();
+
+    boolean isCancelled();
+
+    void cancel();
+}
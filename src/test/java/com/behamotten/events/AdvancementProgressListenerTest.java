@@ -0,0 +1,178 @@
+package com.behamotten.events;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.UUID;
+
+import org.bukkit.advancement.Advancement;
+import org.bukkit.advancement.AdvancementDisplay;
+import org.bukkit.advancement.AdvancementFrameType;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerAdvancementDoneEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+
+final class AdvancementProgressListenerTest {
+
+    void run() {
+        onlyParticipantsAreCounted();
+        changesAreFlushedPeriodicallyNotPerEvent();
+        unregisteredParticipantsLeaveTheLeaderboard();
+    }
+
+    private void onlyParticipantsAreCounted() {
+        final JavaPlugin plugin = new TempFolderJavaPlugin();
+        plugin.getConfig().set("advancement-progress.points.challenge", 10);
+        final EventParticipationData participants = EventParticipationData.load(plugin);
+        final EventProgressData progress = EventProgressData.load(plugin);
+        final AdvancementProgressListener listener = new AdvancementProgressListener(participants, progress,
+                plugin.getConfig());
+        final Player participant = new TestPlayer("Participant");
+        final Player bystander = new TestPlayer("Bystander");
+        participants.addParticipant(participant);
+
+        listener.onAdvancementDone(new PlayerAdvancementDoneEvent(participant, advancement(AdvancementFrameType.TASK)));
+        listener.onAdvancementDone(new PlayerAdvancementDoneEvent(participant,
+                advancement(AdvancementFrameType.CHALLENGE)));
+        listener.onAdvancementDone(new PlayerAdvancementDoneEvent(participant, new Advancement() {
+        }));
+        listener.onAdvancementDone(new PlayerAdvancementDoneEvent(bystander, advancement(AdvancementFrameType.GOAL)));
+
+        final EventProgressData.ParticipantProgress counted = progress.getProgress(participant.getUniqueId())
+                .orElseThrow(() -> new AssertionError("Participant should have counters"));
+        if (counted.getCompletions() != 2 || counted.getPoints() != 11
+                || counted.getCompletions(AdvancementFrameType.CHALLENGE) != 1) {
+            throw new AssertionError("Unexpected counters " + counted);
+        }
+        if (progress.getProgress(bystander.getUniqueId()).isPresent() || progress.getTrackedCount() != 1) {
+            throw new AssertionError("Non-participants must not be tracked");
+        }
+        if (progress.getLeaderboard().find(participant.getUniqueId()).map(EventLeaderboard.Entry::getScore)
+                .orElse(0L) != 11) {
+            throw new AssertionError("Leaderboard should follow the participant's points");
+        }
+    }
+
+    private void changesAreFlushedPeriodicallyNotPerEvent() {
+        final JavaPlugin plugin = new TempFolderJavaPlugin();
+        final EventProgressData progress = EventProgressData.load(plugin);
+        final TestScheduler scheduler = new TestScheduler();
+        scheduler.runTaskTimer(plugin, () -> progress.flush(task -> scheduler.runTaskAsynchronously(plugin, task)),
+                20L, 20L);
+        final UUID uuid = UUID.randomUUID();
+
+        for (int i = 0; i < 50; i++) {
+            progress.record(uuid, "Runner", AdvancementFrameType.TASK, 1);
+        }
+        if (scheduler.pendingAsyncTasks() != 0 || !progress.isDirty()) {
+            throw new AssertionError("Recording must not write immediately");
+        }
+        scheduler.tick(20L);
+        if (scheduler.pendingAsyncTasks() != 1 || progress.isDirty()) {
+            throw new AssertionError("One flush should be scheduled for all pending changes");
+        }
+        progress.record(uuid, "Runner", AdvancementFrameType.GOAL, 3);
+        scheduler.tick(20L);
+        if (scheduler.pendingAsyncTasks() != 1) {
+            throw new AssertionError("A new flush must wait until the previous write finished");
+        }
+        scheduler.runAsyncTasks();
+        scheduler.tick(20L);
+        if (scheduler.runAsyncTasks() != 1 || progress.isDirty()) {
+            throw new AssertionError("Changes made during a write should be flushed next period");
+        }
+        scheduler.tick(100L);
+        if (scheduler.pendingAsyncTasks() != 0) {
+            throw new AssertionError("Nothing should be written without changes");
+        }
+    }
+
+    private void unregisteredParticipantsLeaveTheLeaderboard() {
+        final JavaPlugin plugin = new TempFolderJavaPlugin();
+        final EventParticipationData participants = EventParticipationData.load(plugin);
+        final EventProgressData progress = EventProgressData.load(plugin);
+        participants.onRemoved(progress::remove);
+        final AdvancementProgressListener listener = new AdvancementProgressListener(participants, progress,
+                plugin.getConfig());
+        final Player leaving = new TestPlayer("Leaving");
+        final Player staying = new TestPlayer("Staying");
+        participants.addParticipant(leaving);
+        participants.addParticipant(staying);
+        listener.onAdvancementDone(new PlayerAdvancementDoneEvent(leaving, advancement(AdvancementFrameType.GOAL)));
+        listener.onAdvancementDone(new PlayerAdvancementDoneEvent(staying, advancement(AdvancementFrameType.TASK)));
+        progress.save();
+
+        participants.removeParticipant(leaving.getUniqueId());
+        if (progress.getLeaderboard().find(leaving.getUniqueId()).isPresent()
+                || progress.getLeaderboard().size() != 1 || progress.getProgress(leaving.getUniqueId()).isPresent()) {
+            throw new AssertionError("Unregistered participants should leave the leaderboard");
+        }
+        if (!progress.isDirty() || progress.getLeaderboard().find(staying.getUniqueId())
+                .map(EventLeaderboard.Entry::getRank).orElse(0) != 1) {
+            throw new AssertionError("The remaining participant should move up and the removal be saved");
+        }
+
+        // Counters of a player who left while the plugin was not running, as loaded from the progress file.
+        progress.record(leaving.getUniqueId(), leaving.getName(), AdvancementFrameType.GOAL, 5);
+        if (progress.retain(participants::isParticipant) != 1 || progress.getLeaderboard().size() != 1) {
+            throw new AssertionError("Counters of former participants should be dropped on load");
+        }
+    }
+
+    private static Advancement advancement(final AdvancementFrameType frame) {
+        final AdvancementDisplay display = new AdvancementDisplay() {
+            @Override
+            public AdvancementFrameType frame() {
+                return frame;
+            }
+        };
+        return new Advancement() {
+            @Override
+            public AdvancementDisplay getDisplay() {
+                return display;
+            }
+        };
+    }
+
+    private static final class TempFolderJavaPlugin extends JavaPlugin {
+        private final File dataFolder;
+
+        private TempFolderJavaPlugin() {
+            try {
+                this.dataFolder = Files.createTempDirectory("behamotten-progress-test").toFile();
+            } catch (final IOException exception) {
+                throw new AssertionError("Failed to create temporary plugin directory", exception);
+            }
+        }
+
+        @Override
+        public File getDataFolder() {
+            return dataFolder;
+        }
+    }
+
+    private static final class TestPlayer implements Player {
+        private final UUID uuid;
+        private final String name;
+
+        private TestPlayer(final String name) {
+            this.uuid = UUID.randomUUID();
+            this.name = name;
+        }
+
+        @Override
+        public UUID getUniqueId() {
+            return uuid;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void sendMessage(final String message) {
+            // no-op for tests
+        }
+    }
+}
@@ -1,5 +1,24 @@
 package com.behamotten.events;
 
+import com.behamotten.events.advancements.AdvancementExporterTest;
+import com.behamotten.events.advancements.AdvancementGraphTest;
+import com.behamotten.events.advancements.AdvancementIndexTest;
+import com.behamotten.events.advancements.AdvancementSearchTest;
+import com.behamotten.events.advancements.ExportCoordinatorTest;
+import com.behamotten.events.advancements.ExportFormatTest;
+import com.behamotten.events.advancements.JsonReaderTest;
+import com.behamotten.events.advancements.JsonWriterTest;
+import com.behamotten.events.advancements.LocalizedExportTest;
+import com.behamotten.events.advancements.MethodBindingsTest;
+import com.behamotten.events.advancements.OfflineAdvancementScanTest;
+import com.behamotten.events.advancements.RenderedTextCacheTest;
+import com.behamotten.events.advancements.ScheduledExportTest;
+import com.behamotten.events.advancements.ShardedExportTest;
+import com.behamotten.events.advancements.SimulatedServerTest;
+import com.behamotten.events.http.HttpEndpointTest;
+import com.behamotten.events.metrics.AdaptiveThrottleTest;
+import com.behamotten.events.metrics.PrometheusFormatTest;
+
 /**
  * Simple test runner that executes our manual unit tests without relying on external frameworks.
  */
@@ -11,6 +30,26 @@ public final class AllTests {
     public static void main(final String[] args) {
         new EventParticipationDataTest().run();
         new EventCommandRegistrarTest().run();
+        new AdvancementProgressListenerTest().run();
+        new EventLeaderboardTest().run();
+        new AdvancementExporterTest().run();
+        new ExportFormatTest().run();
+        new ShardedExportTest().run();
+        new AdvancementGraphTest().run();
+        new AdvancementIndexTest().run();
+        new AdvancementSearchTest().run();
+        new OfflineAdvancementScanTest().run();
+        new JsonReaderTest().run();
+        new JsonWriterTest().run();
+        new ExportCoordinatorTest().run();
+        new ScheduledExportTest().run();
+        new RenderedTextCacheTest().run();
+        new LocalizedExportTest().run();
+        new AdaptiveThrottleTest().run();
+        new HttpEndpointTest().run();
+        new PrometheusFormatTest().run();
+        new SimulatedServerTest().run();
+        new MethodBindingsTest().run();
         System.out.println("All tests passed.");
     }
 }
@@ -0,0 +1,150 @@
+package com.behamotten.events;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+
+final class EventLeaderboardTest {
+
+    void run() {
+        randomUpdatesMatchSortedReference();
+        equalScoresShareARank();
+        asyncReadersSeeConsistentRankings();
+        commandsListTopAndRank();
+    }
+
+    private void randomUpdatesMatchSortedReference() {
+        final EventLeaderboard leaderboard = new EventLeaderboard();
+        final Map<UUID, Long> reference = new HashMap<>();
+        final List<UUID> players = new ArrayList<>();
+        final Random random = new Random(42);
+        for (int i = 0; i < 300; i++) {
+            players.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        for (int step = 0; step < 5000; step++) {
+            final UUID uuid = players.get(random.nextInt(players.size()));
+            if (random.nextInt(20) == 0) {
+                leaderboard.remove(uuid);
+                reference.remove(uuid);
+            } else {
+                final long score = reference.getOrDefault(uuid, 0L) + random.nextInt(5);
+                leaderboard.update(uuid, "player-" + uuid, score);
+                reference.put(uuid, score);
+            }
+        }
+
+        final List<Map.Entry<UUID, Long>> expected = new ArrayList<>(reference.entrySet());
+        expected.sort(Comparator.<Map.Entry<UUID, Long>>comparingLong(Map.Entry::getValue).reversed()
+                .thenComparing(Map.Entry::getKey));
+        final List<EventLeaderboard.Entry> actual = leaderboard.top(Integer.MAX_VALUE);
+        if (actual.size() != expected.size() || leaderboard.size() != expected.size()) {
+            throw new AssertionError("Expected " + expected.size() + " entries but got " + actual.size());
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            if (!actual.get(i).getUuid().equals(expected.get(i).getKey())) {
+                throw new AssertionError("Unexpected order at position " + i);
+            }
+            final long score = expected.get(i).getValue();
+            final long higher = reference.values().stream().filter(value -> value > score).count();
+            final EventLeaderboard.Entry found = leaderboard.find(expected.get(i).getKey()).orElseThrow();
+            if (found.getRank() != higher + 1 || actual.get(i).getRank() != higher + 1) {
+                throw new AssertionError("Unexpected rank for score " + score + ": " + found);
+            }
+        }
+    }
+
+    private void equalScoresShareARank() {
+        final EventLeaderboard leaderboard = new EventLeaderboard();
+        leaderboard.update(UUID.randomUUID(), "Alex", 12);
+        leaderboard.update(UUID.randomUUID(), "Steve", 12);
+        leaderboard.update(UUID.randomUUID(), "Sunny", 7);
+        final List<EventLeaderboard.Entry> top = leaderboard.top(3);
+        if (top.get(0).getRank() != 1 || top.get(1).getRank() != 1 || top.get(2).getRank() != 3) {
+            throw new AssertionError("Equal scores should share a rank: " + top);
+        }
+        if (leaderboard.findByName("sunny").orElseThrow().getRank() != 3) {
+            throw new AssertionError("Name lookup should ignore case");
+        }
+        if (leaderboard.top(2).size() != 2) {
+            throw new AssertionError("Top should respect the limit");
+        }
+    }
+
+    private void asyncReadersSeeConsistentRankings() {
+        final EventLeaderboard leaderboard = new EventLeaderboard();
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Thread reader = new Thread(() -> {
+            try {
+                while (running.get()) {
+                    final List<EventLeaderboard.Entry> top = leaderboard.top(20);
+                    for (int i = 1; i < top.size(); i++) {
+                        if (top.get(i - 1).getScore() < top.get(i).getScore()) {
+                            throw new AssertionError("Top list out of order: " + top);
+                        }
+                    }
+                }
+            } catch (final Throwable throwable) {
+                failure.set(throwable);
+            }
+        }, "leaderboard-reader");
+        reader.start();
+        final Random random = new Random(7);
+        final List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            players.add(UUID.randomUUID());
+        }
+        for (int step = 0; step < 20000; step++) {
+            leaderboard.update(players.get(random.nextInt(players.size())), "p", random.nextInt(1000));
+        }
+        running.set(false);
+        try {
+            reader.join();
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError("Interrupted while waiting for the reader", exception);
+        }
+        if (failure.get() != null) {
+            throw new AssertionError("Concurrent reads failed", failure.get());
+        }
+    }
+
+    private void commandsListTopAndRank() {
+        final EventLeaderboard leaderboard = new EventLeaderboard();
+        final EventLeaderboardCommand command = new EventLeaderboardCommand(leaderboard);
+        final List<String> messages = new ArrayList<>();
+        final CommandSender console = messages::add;
+
+        command.onCommand(console, new Command("eventtop"), "eventtop", new String[0]);
+        if (messages.size() != 1 || !messages.get(0).contains("noch keine")) {
+            throw new AssertionError("Empty leaderboard should be reported: " + messages);
+        }
+
+        leaderboard.update(UUID.randomUUID(), "Alex", 5);
+        leaderboard.update(UUID.randomUUID(), "Steve", 9);
+        messages.clear();
+        command.onCommand(console, new Command("eventtop"), "eventtop", new String[] {"1"});
+        if (messages.size() != 2 || !messages.get(1).contains("#1 Steve")) {
+            throw new AssertionError("Top 1 should list Steve: " + messages);
+        }
+        messages.clear();
+        command.onCommand(console, new Command("eventrank"), "eventrank", new String[] {"alex"});
+        if (messages.size() != 1 || !messages.get(0).contains("Platz 2 von 2")) {
+            throw new AssertionError("Alex should be second: " + messages);
+        }
+        messages.clear();
+        command.onCommand(console, new Command("eventtop"), "eventtop", new String[] {"0"});
+        if (messages.size() != 1 || !messages.get(0).contains("zwischen 1 und")) {
+            throw new AssertionError("Invalid limits should be rejected: " + messages);
+        }
+    }
+}
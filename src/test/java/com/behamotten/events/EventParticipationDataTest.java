@@ -1,15 +1,29 @@
 package com.behamotten.events;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
 import java.util.UUID;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import com.behamotten.events.metrics.PluginMetrics;
+
 final class EventParticipationDataTest {
 
     void run() {
         addParticipantDoesNotFailWhenDataFolderLacksParentDirectory();
+        changesPublishVersionedSnapshots();
+        changesAndSavesAreCounted();
+        loadsAndSavesAreRecordedAsFlightEvents();
     }
 
     private void addParticipantDoesNotFailWhenDataFolderLacksParentDirectory() {
@@ -34,6 +48,87 @@ final class EventParticipationDataTest {
         }
     }
 
+    private void changesPublishVersionedSnapshots() {
+        final EventParticipationData data = EventParticipationData.load(new RootFolderJavaPlugin());
+        final long initial = data.snapshot().getVersion();
+        final Player player = new TestPlayer(UUID.randomUUID(), "SnapshotTester");
+
+        data.addParticipant(player);
+        final EventParticipationData.Snapshot added = data.snapshot();
+        if (added.getVersion() != initial + 1 || !"SnapshotTester".equals(added.getParticipants().get(
+                player.getUniqueId()))) {
+            throw new AssertionError("Adding a participant should publish a new snapshot");
+        }
+        data.addParticipant(player);
+        if (data.snapshot() != added) {
+            throw new AssertionError("Unchanged participants should keep the snapshot");
+        }
+        data.removeParticipant(player.getUniqueId());
+        if (data.snapshot().getVersion() != initial + 2 || added.getParticipants().isEmpty()
+                || data.snapshot().getParticipants().containsKey(player.getUniqueId())) {
+            throw new AssertionError("Removing should publish a new snapshot and leave older ones untouched");
+        }
+    }
+
+    private void changesAndSavesAreCounted() {
+        final PluginMetrics metrics = new PluginMetrics();
+        final EventParticipationData data = EventParticipationData.load(new RootFolderJavaPlugin(), metrics);
+        final Player player = new TestPlayer(UUID.randomUUID(), "MetricsTester");
+        final long participants = metric(metrics, "event_participants");
+
+        data.addParticipant(player);
+        data.addParticipant(player);
+        if (metric(metrics, "event_participant_mutations_total") != 1
+                || metric(metrics, "event_participant_saves_total") != 1
+                || metric(metrics, "event_participants") != participants + 1) {
+            throw new AssertionError("Only the actual change should be counted and saved");
+        }
+        data.removeParticipant(player.getUniqueId());
+        if (metric(metrics, "event_participant_mutations_total") != 2
+                || metric(metrics, "event_participant_save_failures_total") != 0
+                || metric(metrics, "event_participant_unpersisted_updates_total") != 0) {
+            throw new AssertionError("Successful saves should not count as failures");
+        }
+    }
+
+    private void loadsAndSavesAreRecordedAsFlightEvents() {
+        final List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("com.behamotten.ParticipantFile").withThreshold(Duration.ZERO);
+            recording.start();
+            final EventParticipationData data = EventParticipationData.load(new RootFolderJavaPlugin());
+            data.addParticipant(new TestPlayer(UUID.randomUUID(), "RecordedTester"));
+            recording.stop();
+            final Path dump = Files.createTempFile("behamotten-participants", ".jfr");
+            try {
+                recording.dump(dump);
+                events = RecordingFile.readAllEvents(dump);
+            } finally {
+                Files.deleteIfExists(dump);
+            }
+        } catch (final IOException exception) {
+            throw new AssertionError(exception);
+        }
+
+        if (events.size() != 2 || !"load".equals(events.get(0).getString("operation"))) {
+            throw new AssertionError("Expected one load and one save event, got " + events);
+        }
+        final RecordedEvent save = events.get(1);
+        if (!"save".equals(save.getString("operation")) || !save.getBoolean("succeeded")
+                || save.getInt("participants") < 1) {
+            throw new AssertionError("The save event should describe the saved participants, got " + save);
+        }
+    }
+
+    private long metric(final PluginMetrics metrics, final String name) {
+        for (final PluginMetrics.Sample sample : metrics.samples()) {
+            if (sample.getName().equals(name)) {
+                return sample.getValue();
+            }
+        }
+        throw new AssertionError("Metric " + name + " is not registered");
+    }
+
     private static final class RootFolderJavaPlugin extends JavaPlugin {
         @Override
         public File getDataFolder() {
@@ -0,0 +1,128 @@
+package com.behamotten.events;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Deterministic scheduler for tests. Synchronous tasks run when the test advances the clock with {@link #tick(long)};
+ * asynchronous one-shot tasks are queued until {@link #runAsyncTasks()} so tests can observe work in flight.
+ */
+public final class TestScheduler implements BukkitScheduler {
+    private final List<Task> tasks = new ArrayList<>();
+    private final List<Runnable> asyncTasks = new ArrayList<>();
+    private long currentTick;
+    private int nextId = 1;
+
+    /**
+     * Advances the clock tick by tick and runs every task that becomes due.
+     */
+    public void tick(final long ticks) {
+        for (long i = 0; i < ticks; i++) {
+            currentTick++;
+            for (final Task task : new ArrayList<>(tasks)) {
+                if (!task.cancelled && task.nextRun <= currentTick) {
+                    task.runnable.run();
+                    if (task.period > 0) {
+                        task.nextRun = currentTick + task.period;
+                    } else {
+                        task.cancelled = true;
+                    }
+                }
+            }
+            tasks.removeIf(task -> task.cancelled);
+        }
+    }
+
+    /**
+     * Runs all queued asynchronous tasks on the calling thread and returns how many ran.
+     */
+    public int runAsyncTasks() {
+        final List<Runnable> pending = new ArrayList<>(asyncTasks);
+        asyncTasks.clear();
+        pending.forEach(Runnable::run);
+        return pending.size();
+    }
+
+    public int pendingAsyncTasks() {
+        return asyncTasks.size();
+    }
+
+    public long currentTick() {
+        return currentTick;
+    }
+
+    @Override
+    public BukkitTask runTask(final Plugin plugin, final Runnable task) {
+        return runTaskLater(plugin, task, 0L);
+    }
+
+    @Override
+    public BukkitTask runTaskAsynchronously(final Plugin plugin, final Runnable task) {
+        asyncTasks.add(task);
+        return new Task(nextId++, task, 0L, 0L, false);
+    }
+
+    @Override
+    public BukkitTask runTaskLater(final Plugin plugin, final Runnable task, final long delay) {
+        return schedule(task, delay, 0L, true);
+    }
+
+    @Override
+    public BukkitTask runTaskTimer(final Plugin plugin, final Runnable task, final long delay, final long period) {
+        return schedule(task, delay, period, true);
+    }
+
+    @Override
+    public BukkitTask runTaskTimerAsynchronously(final Plugin plugin, final Runnable task, final long delay,
+            final long period) {
+        return schedule(task, delay, period, false);
+    }
+
+    private Task schedule(final Runnable runnable, final long delay, final long period, final boolean sync) {
+        final Task task = new Task(nextId++, runnable, currentTick + Math.max(1L, delay), period, sync);
+        tasks.add(task);
+        return task;
+    }
+
+    private static final class Task implements BukkitTask {
+        private final int id;
+        private final Runnable runnable;
+        private final long period;
+        private final boolean sync;
+        private long nextRun;
+        private boolean cancelled;
+
+        private Task(final int id, final Runnable runnable, final long nextRun, final long period,
+                final boolean sync) {
+            this.id = id;
+            this.runnable = runnable;
+            this.nextRun = nextRun;
+            this.period = period;
+            this.sync = sync;
+        }
+
+        @Override
+        public int getTaskId() {
+            return id;
+        }
+
+        @Override
+        public boolean isSync() {
+            return sync;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.behamotten.events.advancements;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.bukkit.ChatColor;
+import org.bukkit.advancement.Advancement;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.bukkit.event.player.PlayerAdvancementDoneEvent;
+
+import com.behamotten.events.AdvancementProgressListener;
+import com.behamotten.events.EventParticipationData;
+import com.behamotten.events.EventProgressData;
+import com.behamotten.events.advancements.AdvancementFixtures.TestAdvancement;
+import com.behamotten.events.advancements.AdvancementFixtures.TestDisplay;
+import com.behamotten.events.advancements.AdvancementFixtures.TestPlayer;
+import com.behamotten.events.advancements.AdvancementFixtures.TestPlugin;
+import com.behamotten.events.advancements.AdvancementFixtures.TestServer;
+
+public final class AdvancementExporterTest {
+
+    public void run() {
+        exportMatchesUnmemoizedReference();
+        rootTitlesAreRenderedOncePerGroup();
+        parallelRenderingMatchesSerialRun();
+        unchangedAdvancementsSkipExport();
+        changedAdvancementsAreExportedAgain();
+        readOnlyExportDoesNotAwardCriteria();
+        awardedCriteriaDoNotCountAsEventProgress();
+        consoleCommandExportsReadOnly();
+    }
+
+    private void exportMatchesUnmemoizedReference() {
+        final List<TestAdvancement> advancements = buildForest();
+        final TestPlugin plugin = AdvancementFixtures.createPlugin(advancements);
+
+        final AdvancementExporter.ExportResult result = export(plugin);
+
+        final String expected = AdvancementFixtures.readWithoutTimestamp(result.outputFile());
+        final String reference = JsonWriter.stringify(buildReferenceDocument(advancements)) + System.lineSeparator();
+        if (!reference.equals(expected)) {
+            throw new AssertionError("Memoized export differs from reference output.\nExpected:\n" + reference
+                    + "\nActual:\n" + expected);
+        }
+        if (result.advancementCount() != advancements.size()) {
+            throw new AssertionError("Expected " + advancements.size() + " advancements but got "
+                    + result.advancementCount());
+        }
+        if (result.groupCount() != 3) {
+            throw new AssertionError("Expected 3 groups but got " + result.groupCount());
+        }
+    }
+
+    private void rootTitlesAreRenderedOncePerGroup() {
+        final List<TestAdvancement> advancements = buildForest();
+        export(AdvancementFixtures.createPlugin(advancements));
+
+        final TestDisplay rootDisplay = advancements.get(0).display();
+        if (rootDisplay.titleCalls.get() != 1) {
+            throw new AssertionError("Root title should be resolved once for itself and its group but was "
+                    + rootDisplay.titleCalls.get());
+        }
+        int parentCalls = 0;
+        for (final TestAdvancement advancement : advancements) {
+            parentCalls += advancement.parentCalls.get();
+        }
+        // Parents are resolved through the graph, so every advancement is asked exactly once.
+        if (parentCalls != advancements.size()) {
+            throw new AssertionError("Parent chains should never be walked but getParent was called " + parentCalls
+                    + " times for " + advancements.size() + " advancements");
+        }
+    }
+
+    private void parallelRenderingMatchesSerialRun() {
+        final List<TestAdvancement> advancements = buildWideForest(6, 300);
+        final TestPlugin serialPlugin = AdvancementFixtures.createPlugin(advancements);
+        final TestPlugin parallelPlugin = AdvancementFixtures.createPlugin(advancements);
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final AdvancementExporter.ExportResult serial =
+                    new AdvancementExporter(serialPlugin, new TestPlayer("Exporter"), (ForkJoinPool) null).export();
+            final AdvancementExporter.ExportResult parallel =
+                    new AdvancementExporter(parallelPlugin, new TestPlayer("Exporter"), pool).export();
+            if (!AdvancementFixtures.readWithoutTimestamp(serial.outputFile())
+                    .equals(AdvancementFixtures.readWithoutTimestamp(parallel.outputFile()))) {
+                throw new AssertionError("Parallel rendering should produce the same output as a serial run");
+            }
+            if (parallel.groupCount() != 6) {
+                throw new AssertionError("Expected 6 groups but got " + parallel.groupCount());
+            }
+        } catch (final AdvancementExportException exception) {
+            throw new AssertionError("Export should succeed", exception);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void unchangedAdvancementsSkipExport() {
+        final List<TestAdvancement> advancements = buildForest();
+        final TestPlugin plugin = AdvancementFixtures.createPlugin(advancements);
+        final AdvancementExporter.ExportResult first = export(plugin);
+        if (first.wasUpToDate()) {
+            throw new AssertionError("First export must not be reported as up to date");
+        }
+        final FileTime firstWrite = lastModified(first.outputFile());
+        setLastModified(first.outputFile(), FileTime.fromMillis(firstWrite.toMillis() - 60_000L));
+        final FileTime backdated = lastModified(first.outputFile());
+
+        final TestPlayer player = new TestPlayer("Exporter");
+        final AdvancementExporter.ExportResult second = export(plugin, player, ExportOptions.defaults());
+        if (!second.wasUpToDate()) {
+            throw new AssertionError("Unchanged advancements should skip the export");
+        }
+        if (player.progressCalls.get() != 0) {
+            throw new AssertionError("Skipped export must not award criteria");
+        }
+        if (!backdated.equals(lastModified(second.outputFile()))) {
+            throw new AssertionError("Skipped export must not rewrite the output file");
+        }
+        if (second.advancementCount() != first.advancementCount() || second.groupCount() != first.groupCount()) {
+            throw new AssertionError("Skipped export should report the existing counts");
+        }
+
+        final AdvancementExporter.ExportResult forced = export(plugin, player, ExportOptions.defaults()
+                .withForce(true));
+        if (forced.wasUpToDate() || player.progressCalls.get() != advancements.size()) {
+            throw new AssertionError("Forced export should award and rewrite everything");
+        }
+    }
+
+    private void changedAdvancementsAreExportedAgain() {
+        final List<TestAdvancement> advancements = buildForest();
+        final TestPlugin plugin = AdvancementFixtures.createPlugin(advancements);
+        export(plugin);
+
+        advancements.add(new TestAdvancement("minecraft", "story/late_addition", advancements.get(0),
+                new TestDisplay("Late", null)));
+        final AdvancementExporter.ExportResult changed = export(plugin);
+        if (changed.wasUpToDate()) {
+            throw new AssertionError("Added advancement should invalidate the stored fingerprint");
+        }
+        if (changed.advancementCount() != advancements.size()) {
+            throw new AssertionError("Re-export should contain the added advancement");
+        }
+    }
+
+    private void readOnlyExportDoesNotAwardCriteria() {
+        final List<TestAdvancement> advancements = buildForest();
+        final TestPlugin readOnlyPlugin = AdvancementFixtures.createPlugin(advancements);
+        final TestPlayer player = new TestPlayer("Exporter");
+        final AdvancementExporter.ExportResult readOnly = export(readOnlyPlugin, player,
+                ExportOptions.defaults().withReadOnly(true));
+        if (player.progressCalls.get() != 0) {
+            throw new AssertionError("Read-only export must not touch player progress");
+        }
+
+        final AdvancementExporter.ExportResult awarded = export(AdvancementFixtures.createPlugin(advancements));
+        if (!AdvancementFixtures.readWithoutTimestamp(readOnly.outputFile())
+                .equals(AdvancementFixtures.readWithoutTimestamp(awarded.outputFile()))) {
+            throw new AssertionError("Read-only export should contain the same data as an awarding export");
+        }
+    }
+
+    private void awardedCriteriaDoNotCountAsEventProgress() {
+        final TestPlugin plugin = AdvancementFixtures.createPlugin(buildForest());
+        final EventParticipationData participants = EventParticipationData.load(plugin);
+        final EventProgressData progress = EventProgressData.load(plugin);
+        final AdvancementProgressListener listener = new AdvancementProgressListener(participants, progress,
+                plugin.getConfig());
+        final TestPlayer player = new TestPlayer("Exporter");
+        participants.addParticipant(player);
+        final List<Advancement> completed = new ArrayList<>();
+        player.onAward = advancement -> {
+            completed.add(advancement);
+            listener.onAdvancementDone(new PlayerAdvancementDoneEvent(player, advancement));
+        };
+
+        export(plugin, player, ExportOptions.defaults());
+        if (completed.isEmpty() || progress.getProgress(player.getUniqueId()).isPresent()
+                || progress.getLeaderboard().size() != 0) {
+            throw new AssertionError("Advancements granted by an export must not count as event progress");
+        }
+        if (AdvancementExporter.isAwarding(player.getUniqueId())) {
+            throw new AssertionError("The player should no longer be reported once the export awarded everything");
+        }
+        listener.onAdvancementDone(new PlayerAdvancementDoneEvent(player, completed.get(0)));
+        if (progress.getProgress(player.getUniqueId()).isEmpty()) {
+            throw new AssertionError("Advancements completed after the export should count again");
+        }
+    }
+
+    private void consoleCommandExportsReadOnly() {
+        final List<TestAdvancement> advancements = buildForest();
+        final TestPlugin plugin = AdvancementFixtures.createPlugin(advancements);
+        final List<String> messages = new ArrayList<>();
+        final CommandSender console = messages::add;
+
+        new AdvancementExportCommand(plugin).onCommand(console, new Command("exportadvancements"),
+                "exportadvancements", new String[0]);
+        final TestServer server = (TestServer) plugin.getServer();
+        if (!messages.isEmpty() || server.scheduler.runAsyncTasks() != 1) {
+            throw new AssertionError("Export files should be written on an async task");
+        }
+        server.scheduler.tick(1);
+
+        if (messages.size() != 1 || !messages.get(0).startsWith(ChatColor.GREEN + "Exported " + advancements.size())) {
+            throw new AssertionError("Console export should succeed but got " + messages);
+        }
+    }
+
+    private FileTime lastModified(final Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (final IOException exception) {
+            throw new AssertionError("Could not read modification time of " + file, exception);
+        }
+    }
+
+    private void setLastModified(final Path file, final FileTime time) {
+        try {
+            Files.setLastModifiedTime(file, time);
+        } catch (final IOException exception) {
+            throw new AssertionError("Could not update modification time of " + file, exception);
+        }
+    }
+
+    private AdvancementExporter.ExportResult export(final TestPlugin plugin, final TestPlayer player,
+            final ExportOptions options) {
+        try {
+            return new AdvancementExporter(plugin, player).export(options);
+        } catch (final AdvancementExportException exception) {
+            throw new AssertionError("Export should succeed", exception);
+        }
+    }
+
+    private AdvancementExporter.ExportResult export(final TestPlugin plugin) {
+        try {
+            return new AdvancementExporter(plugin, new TestPlayer("Exporter")).export();
+        } catch (final AdvancementExportException exception) {
+            throw new AssertionError("Export should succeed", exception);
+        }
+    }
+
+    private List<TestAdvancement> buildForest() {
+        final List<TestAdvancement> advancements = new ArrayList<>();
+        final TestAdvancement story = new TestAdvancement("minecraft", "story/root", null,
+                new TestDisplay("Minecraft", "The heart and story of the game"));
+        advancements.add(story);
+        TestAdvancement previous = story;
+        for (int i = 0; i < 40; i++) {
+            final TestAdvancement next = new TestAdvancement("minecraft", "story/step_" + i, previous,
+                    new TestDisplay("Step " + i, i % 3 == 0 ? null : "Reach step " + i));
+            advancements.add(next);
+            previous = next;
+        }
+        advancements.add(new TestAdvancement("minecraft", "story/branch", story, new TestDisplay("Branch", null)));
+
+        final TestAdvancement untitledRoot = new TestAdvancement("modpack", "quests/root", null,
+                new TestDisplay(null, null));
+        advancements.add(new TestAdvancement("modpack", "quests/first", untitledRoot,
+                new TestDisplay("First Quest", "Start questing")));
+        advancements.add(untitledRoot);
+        advancements.add(new TestAdvancement("modpack", "quests/second", untitledRoot, null));
+
+        advancements.add(new TestAdvancement("Other", "Standalone", null, null));
+        return advancements;
+    }
+
+    private List<TestAdvancement> buildWideForest(final int rootCount, final int childrenPerRoot) {
+        final List<TestAdvancement> advancements = new ArrayList<>();
+        for (int r = 0; r < rootCount; r++) {
+            final TestAdvancement root = new TestAdvancement("pack" + r, "root", null,
+                    new TestDisplay(r % 2 == 0 ? "Pack " + r : null, "Root of pack " + r));
+            advancements.add(root);
+            final List<TestAdvancement> level = new ArrayList<>();
+            level.add(root);
+            for (int i = 0; i < childrenPerRoot; i++) {
+                final TestAdvancement parent = level.get(i / 3);
+                final TestAdvancement child = new TestAdvancement("pack" + r, "node_" + i, parent,
+                        new TestDisplay("Node " + r + "/" + i, i % 4 == 0 ? null : "Description " + i));
+                level.add(child);
+                advancements.add(child);
+            }
+        }
+        return advancements;
+    }
+
+    private Map<String, Object> buildReferenceDocument(final List<TestAdvancement> advancements) {
+        final List<Map<String, Object>> entries = new ArrayList<>();
+        final Map<String, String> groups = new LinkedHashMap<>();
+        for (final TestAdvancement advancement : advancements) {
+            final String id = advancement.getKey().toString();
+            final String title = text(advancement, true, id);
+            final String description = text(advancement, false, "");
+            Advancement root = advancement;
+            while (root.getParent() != null) {
+                root = root.getParent();
+            }
+            final String rootTitle = text((TestAdvancement) root, true, title);
+            final String groupId = root.getKey().toString();
+            final String existing = groups.get(groupId);
+            if (existing == null || existing.isBlank() && !rootTitle.isBlank()) {
+                groups.put(groupId, rootTitle);
+            }
+
+            final Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("advancaments_id", id);
+            entry.put("advancaments_title", title);
+            if (!description.isBlank()) {
+                entry.put("advancaments_description", description);
+            }
+            entry.put("source_file", "data/" + advancement.getKey().getNamespace().toLowerCase(Locale.ROOT)
+                    + "/advancements/" + advancement.getKey().getKey().toLowerCase(Locale.ROOT) + ".json");
+            final List<String> dependencies = new ArrayList<>();
+            if (advancement.getParent() != null) {
+                dependencies.add(advancement.getParent().getKey().toString());
+            }
+            entry.put("dependencies", dependencies);
+            entry.put("group_id", groupId);
+            entries.add(entry);
+        }
+
+        final List<Map<String, Object>> groupArray = new ArrayList<>();
+        for (final Map.Entry<String, String> group : groups.entrySet()) {
+            final Map<String, Object> groupEntry = new LinkedHashMap<>();
+            groupEntry.put("id", group.getKey());
+            groupEntry.put("title", group.getValue().isBlank() ? group.getKey() : group.getValue());
+            groupArray.add(groupEntry);
+        }
+
+        final Map<String, Object> meta = new LinkedHashMap<>();
+        meta.put("generated_at", "");
+        meta.put("advancaments_found", advancements.size());
+        meta.put("group_titles_found", groups.size());
+        final Map<String, Object> document = new LinkedHashMap<>();
+        document.put("meta", meta);
+        document.put("groups", groupArray);
+        document.put("advancaments", entries);
+        return document;
+    }
+
+    private String text(final TestAdvancement advancement, final boolean title, final String fallback) {
+        final TestDisplay display = advancement.display();
+        if (display == null) {
+            return fallback;
+        }
+        final Object component = title ? display.title() : display.description();
+        if (component == null || component.toString().isBlank()) {
+            return fallback;
+        }
+        return component.toString().trim();
+    }
+}
@@ -0,0 +1,232 @@
+package com.behamotten.events.advancements;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Server;
+import org.bukkit.advancement.Advancement;
+import org.bukkit.advancement.AdvancementDisplay;
+import org.bukkit.advancement.AdvancementProgress;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitScheduler;
+
+import com.behamotten.events.TestScheduler;
+
+/**
+ * Shared fakes for the advancement export tests.
+ */
+final class AdvancementFixtures {
+
+    private AdvancementFixtures() {
+    }
+
+    static TestPlugin createPlugin(final List<? extends Advancement> advancements) {
+        return createPlugin(new TestServer(advancements));
+    }
+
+    static TestPlugin createPlugin(final Server server) {
+        try {
+            final File directory = Files.createTempDirectory("behamotten-advancement-test").toFile();
+            return new TestPlugin(directory, server);
+        } catch (final IOException exception) {
+            throw new AssertionError("Failed to create temporary plugin directory", exception);
+        }
+    }
+
+    static String readWithoutTimestamp(final java.nio.file.Path file) {
+        try {
+            return Files.readString(file).replaceAll("\"generated_at\": \"[^\"]*\"", "\"generated_at\": \"\"");
+        } catch (final IOException exception) {
+            throw new AssertionError("Could not read export file " + file, exception);
+        }
+    }
+
+    static final class TestPlugin extends JavaPlugin {
+        private final File dataFolder;
+        private final Server server;
+
+        TestPlugin(final File dataFolder, final Server server) {
+            this.dataFolder = dataFolder;
+            this.server = server;
+        }
+
+        @Override
+        public File getDataFolder() {
+            return dataFolder;
+        }
+
+        @Override
+        public Server getServer() {
+            return server;
+        }
+    }
+
+    static final class TestServer implements Server {
+        private final List<? extends Advancement> advancements;
+        final TestScheduler scheduler = new TestScheduler();
+        File worldContainer = new File(".");
+        final List<Player> onlinePlayers = new ArrayList<>();
+
+        TestServer(final List<? extends Advancement> advancements) {
+            this.advancements = advancements;
+        }
+
+        @Override
+        public PluginManager getPluginManager() {
+            return (listener, plugin) -> {
+            };
+        }
+
+        @Override
+        public Iterator<Advancement> advancementIterator() {
+            return new ArrayList<Advancement>(advancements).iterator();
+        }
+
+        @Override
+        public BukkitScheduler getScheduler() {
+            return scheduler;
+        }
+
+        @Override
+        public File getWorldContainer() {
+            return worldContainer;
+        }
+
+        @Override
+        public Collection<? extends Player> getOnlinePlayers() {
+            return onlinePlayers;
+        }
+    }
+
+    static final class TestPlayer implements Player {
+        private final UUID uuid;
+        private final String name;
+        final List<String> messages = new ArrayList<>();
+        final AtomicInteger progressCalls = new AtomicInteger();
+        /** Called for every awarded criterion, like the server completing the advancement; {@code null} if unused. */
+        Consumer<Advancement> onAward;
+
+        TestPlayer(final String name) {
+            this.uuid = UUID.nameUUIDFromBytes(name.toLowerCase(Locale.ROOT).getBytes());
+            this.name = name;
+        }
+
+        @Override
+        public UUID getUniqueId() {
+            return uuid;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void sendMessage(final String message) {
+            messages.add(message);
+        }
+
+        @Override
+        public AdvancementProgress getAdvancementProgress(final Advancement advancement) {
+            progressCalls.incrementAndGet();
+            if (onAward == null) {
+                return new AdvancementProgress() {
+                };
+            }
+            return new AdvancementProgress() {
+                @Override
+                public boolean awardCriteria(final String criterion) {
+                    onAward.accept(advancement);
+                    return true;
+                }
+
+                @Override
+                public Collection<String> getRemainingCriteria() {
+                    return List.of("done");
+                }
+            };
+        }
+    }
+
+    static final class TestComponent implements Component {
+        private final String text;
+
+        TestComponent(final String text) {
+            this.text = text;
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    static final class TestDisplay implements AdvancementDisplay {
+        private final Component title;
+        private final Component description;
+        final AtomicInteger titleCalls = new AtomicInteger();
+
+        TestDisplay(final String title, final String description) {
+            this.title = title != null ? new TestComponent(title) : null;
+            this.description = description != null ? new TestComponent(description) : null;
+        }
+
+        @Override
+        public Component title() {
+            titleCalls.incrementAndGet();
+            return title;
+        }
+
+        @Override
+        public Component description() {
+            return description;
+        }
+    }
+
+    static final class TestAdvancement implements Advancement {
+        private final NamespacedKey key;
+        private final TestAdvancement parent;
+        private final TestDisplay display;
+        final AtomicInteger parentCalls = new AtomicInteger();
+
+        TestAdvancement(final String namespace, final String path, final TestAdvancement parent,
+                final TestDisplay display) {
+            this.key = new NamespacedKey(namespace, path);
+            this.parent = parent;
+            this.display = display;
+        }
+
+        @Override
+        public NamespacedKey getKey() {
+            return key;
+        }
+
+        @Override
+        public Advancement getParent() {
+            parentCalls.incrementAndGet();
+            return parent;
+        }
+
+        @Override
+        public AdvancementDisplay getDisplay() {
+            return display;
+        }
+
+        TestDisplay display() {
+            return display;
+        }
+    }
+}
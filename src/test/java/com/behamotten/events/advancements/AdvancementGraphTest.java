@@ -0,0 +1,114 @@
+package com.behamotten.events.advancements;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import com.behamotten.events.advancements.AdvancementFixtures.TestAdvancement;
+import com.behamotten.events.advancements.AdvancementFixtures.TestDisplay;
+import com.behamotten.events.advancements.AdvancementFixtures.TestPlugin;
+
+public final class AdvancementGraphTest {
+
+    public void run() {
+        forestAnalyticsAreComputed();
+        parentCyclesAreBroken();
+        graphExportAddsAnalyticsAndDisplayFields();
+    }
+
+    private void forestAnalyticsAreComputed() {
+        // 0 -> {2, 3}, 3 -> {1, 4}, 5 -> {6}; node 1 is listed before its parent.
+        final AdvancementGraph graph = AdvancementGraph.build(new int[] {-1, 3, 0, 0, 3, -1, 5});
+
+        assertEquals(2, graph.childCount(0), "children of node 0");
+        assertEquals(1, graph.child(3, 0), "first child of node 3");
+        assertEquals(4, graph.child(3, 1), "second child of node 3");
+        assertEquals(2, graph.depth(1), "depth of node 1");
+        assertEquals(2, graph.maxDepth(), "max depth");
+        assertEquals(0, graph.root(4), "root of node 4");
+        assertEquals(5, graph.root(6), "root of node 6");
+        assertEquals(5, graph.subtreeSize(0), "subtree of node 0");
+        assertEquals(3, graph.subtreeSize(3), "subtree of node 3");
+        assertEquals(1, graph.subtreeSize(4), "subtree of leaf 4");
+        assertEquals(0, graph.brokenCycles(), "broken cycles");
+        assertParentsPrecedeChildren(graph);
+    }
+
+    private void parentCyclesAreBroken() {
+        // 0 -> 1 -> 2 -> 0 forms a cycle, 3 hangs off node 2 and 4 is a regular root.
+        final AdvancementGraph graph = AdvancementGraph.build(new int[] {2, 0, 1, 2, -1});
+
+        assertEquals(1, graph.brokenCycles(), "broken cycles");
+        final int seed = graph.root(3);
+        if (graph.root(0) != seed || graph.root(1) != seed || graph.root(2) != seed) {
+            throw new AssertionError("All cycle members should share one root");
+        }
+        assertEquals(0, graph.depth(seed), "depth of the cycle root");
+        assertEquals(4, graph.subtreeSize(seed), "subtree of the cycle root");
+        assertEquals(4, graph.root(4), "root of the regular tree");
+        for (int position = 0; position < graph.size(); position++) {
+            assertEquals(position, graph.topologicalPosition(graph.topologicalNode(position)), "topological order");
+        }
+    }
+
+    private void graphExportAddsAnalyticsAndDisplayFields() {
+        final TestAdvancement root = new TestAdvancement("minecraft", "story/root", null,
+                new TestDisplay("Minecraft", "The heart of the game"));
+        final TestAdvancement child = new TestAdvancement("minecraft", "story/mine_stone", root,
+                new TestDisplay("Stone Age", "Mine stone"));
+        final TestAdvancement leaf = new TestAdvancement("minecraft", "story/upgrade_tools", child,
+                new TestDisplay("Getting an Upgrade", null));
+        final TestPlugin plugin = AdvancementFixtures.createPlugin(List.of(leaf, child, root));
+
+        final AdvancementExporter.ExportResult result;
+        try {
+            result = new AdvancementExporter(plugin).export(ExportOptions.defaults().withGraph(true)
+                    .withFormat(ExportFormat.COMPACT));
+        } catch (final AdvancementExportException exception) {
+            throw new AssertionError("Graph export should succeed", exception);
+        }
+        final String document;
+        try {
+            document = Files.readString(result.outputFile());
+        } catch (final IOException exception) {
+            throw new AssertionError("Could not read graph export", exception);
+        }
+        assertContains(document, "\"max_depth\":2");
+        assertContains(document, "\"advancaments_id\":\"minecraft:story/mine_stone\"");
+        assertContains(document, "\"children\":[\"minecraft:story/upgrade_tools\"],\"depth\":1,\"subtree_size\":2,"
+                + "\"topological_index\":1,\"criteria\":[],\"frame\":\"task\",\"hidden\":false,"
+                + "\"shows_toast\":true,\"announces_to_chat\":true}");
+        assertContains(document, "\"children\":[],\"depth\":2,\"subtree_size\":1,\"topological_index\":2");
+
+        final AdvancementExporter.ExportResult plain;
+        try {
+            plain = new AdvancementExporter(plugin).export(ExportOptions.defaults().withFormat(ExportFormat.COMPACT));
+        } catch (final AdvancementExportException exception) {
+            throw new AssertionError("Plain export should succeed", exception);
+        }
+        if (plain.wasUpToDate()) {
+            throw new AssertionError("Dropping --graph must not reuse the previous graph export");
+        }
+    }
+
+    private void assertParentsPrecedeChildren(final AdvancementGraph graph) {
+        for (int node = 0; node < graph.size(); node++) {
+            final int parent = graph.parent(node);
+            if (parent >= 0 && graph.topologicalPosition(parent) >= graph.topologicalPosition(node)) {
+                throw new AssertionError("Parent " + parent + " must precede child " + node);
+            }
+        }
+    }
+
+    private void assertContains(final String document, final String expected) {
+        if (!document.contains(expected)) {
+            throw new AssertionError("Expected export to contain " + expected + " but was:\n" + document);
+        }
+    }
+
+    private void assertEquals(final int expected, final int actual, final String description) {
+        if (expected != actual) {
+            throw new AssertionError("Unexpected " + description + ": expected " + expected + " but was " + actual);
+        }
+    }
+}
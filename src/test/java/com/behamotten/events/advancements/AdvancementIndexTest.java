@@ -0,0 +1,185 @@
+package com.behamotten.events.advancements;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import net.kyori.adventure.translation.GlobalTranslator;
+import net.kyori.adventure.translation.Translator;
+import org.bukkit.NamespacedKey;
+import org.bukkit.event.server.ServerLoadEvent;
+
+import com.behamotten.events.advancements.AdvancementFixtures.TestAdvancement;
+import com.behamotten.events.advancements.AdvancementFixtures.TestComponent;
+import com.behamotten.events.advancements.AdvancementFixtures.TestDisplay;
+import com.behamotten.events.advancements.AdvancementFixtures.TestPlugin;
+
+public final class AdvancementIndexTest {
+
+    public void run() {
+        lookupsByKeyNamespaceAndGroup();
+        unchangedAdvancementsReuseRenderedIndex();
+        serverReloadRebuildsChangedIndex();
+        serverReloadRendersNewTranslations();
+        exportsRescanButReuseRenderedText();
+    }
+
+    private void lookupsByKeyNamespaceAndGroup() {
+        final AdvancementIndex index = acquire(new AdvancementIndexService(
+                AdvancementFixtures.createPlugin(buildAdvancements()), null));
+
+        final int mineStone = index.indexOf(new NamespacedKey("minecraft", "story/mine_stone"));
+        if (mineStone < 0 || !index.title(mineStone).equals("Stone Age")) {
+            throw new AssertionError("Lookup by key should find Stone Age");
+        }
+        if (index.indexOf("minecraft:missing") != -1) {
+            throw new AssertionError("Unknown ids should not be found");
+        }
+        if (!index.id(index.parent(mineStone)).equals("minecraft:story/root")) {
+            throw new AssertionError("Parent link should point to the story root");
+        }
+        if (index.childCount(index.parent(mineStone)) != 1 || index.child(index.parent(mineStone), 0) != mineStone) {
+            throw new AssertionError("Child links should mirror parent links");
+        }
+        if (!index.namespaces().equals(new LinkedHashSet<>(List.of("minecraft", "custom")))) {
+            throw new AssertionError("Unexpected namespaces " + index.namespaces());
+        }
+        if (index.entriesInNamespace("custom").length != 2 || index.entriesInNamespace("none").length != 0) {
+            throw new AssertionError("Namespace lookup returned wrong entries");
+        }
+        if (index.groupCount() != 2 || !index.groupTitle(index.group(mineStone)).equals("Minecraft")) {
+            throw new AssertionError("Group lookup should resolve the story group");
+        }
+        // The custom root has no display, so the group is named after its first entry.
+        final int customGroup = index.group(index.indexOf("custom:quests/root"));
+        if (!index.groupTitle(customGroup).equals("custom:quests/root")
+                || !Arrays.equals(index.groupEntries(customGroup), index.entriesInNamespace("custom"))) {
+            throw new AssertionError("Custom group should contain both custom entries");
+        }
+    }
+
+    private void unchangedAdvancementsReuseRenderedIndex() {
+        final AdvancementIndexService service = new AdvancementIndexService(
+                AdvancementFixtures.createPlugin(buildAdvancements()), null);
+        final AdvancementIndex first = acquire(service);
+        if (acquire(service) != first) {
+            throw new AssertionError("Acquiring twice should return the same index without rescanning");
+        }
+        final AdvancementIndex refreshed;
+        try {
+            refreshed = service.refresh();
+        } catch (final AdvancementExportException exception) {
+            throw new AssertionError("Refresh should succeed", exception);
+        }
+        if (refreshed == first || refreshed.fingerprint() != first.fingerprint()
+                || !refreshed.title(0).equals(first.title(0))) {
+            throw new AssertionError("Unchanged advancements should keep the rendered text of the previous index");
+        }
+        if (service.current() != refreshed) {
+            throw new AssertionError("Refreshed index should become current");
+        }
+    }
+
+    private void serverReloadRebuildsChangedIndex() {
+        final List<TestAdvancement> advancements = buildAdvancements();
+        final AdvancementIndexService service = new AdvancementIndexService(
+                AdvancementFixtures.createPlugin(advancements), null);
+        final AdvancementIndex before = acquire(service);
+
+        advancements.add(new TestAdvancement("minecraft", "story/smelt_iron", advancements.get(1),
+                new TestDisplay("Acquire Hardware", "Smelt an Iron Ingot")));
+        if (acquire(service) != before) {
+            throw new AssertionError("Without a reload the index should stay as built");
+        }
+        service.onServerLoad(new ServerLoadEvent(ServerLoadEvent.LoadType.RELOAD));
+        final AdvancementIndex after = acquire(service);
+        if (after.size() != before.size() + 1 || after.indexOf("minecraft:story/smelt_iron") < 0) {
+            throw new AssertionError("Reload should rebuild the index with the added advancement");
+        }
+    }
+
+    private void serverReloadRendersNewTranslations() {
+        final AdvancementIndexService service = new AdvancementIndexService(
+                AdvancementFixtures.createPlugin(buildAdvancements()), null, new RenderedTextCache(64));
+        final AdvancementIndex before = acquire(service);
+        final Translator renamed = (component, locale) -> "Stone Age".equals(component.toString())
+                ? new TestComponent("Steinzeit") : null;
+        GlobalTranslator.translator().addSource(renamed);
+        try {
+            service.onServerLoad(new ServerLoadEvent(ServerLoadEvent.LoadType.RELOAD));
+            final AdvancementIndex after = acquire(service);
+            final int mineStone = after.indexOf("minecraft:story/mine_stone");
+            if (!after.fingerprint().equals(before.fingerprint()) || !"Steinzeit".equals(after.title(mineStone))) {
+                throw new AssertionError("Reload should render the unchanged advancements with new translations");
+            }
+            if (after.search("Steinzeit").length != 1) {
+                throw new AssertionError("Search should find the newly translated title");
+            }
+        } finally {
+            GlobalTranslator.translator().removeSource(renamed);
+        }
+    }
+
+    private void exportsRescanButReuseRenderedText() {
+        final List<TestAdvancement> advancements = buildAdvancements();
+        final TestPlugin plugin = AdvancementFixtures.createPlugin(advancements);
+        final AdvancementIndexService service = new AdvancementIndexService(plugin, null);
+        final AdvancementIndex initial = acquire(service);
+        final int parentCalls = parentCalls(advancements);
+
+        export(plugin, service, ExportOptions.defaults());
+        if (parentCalls(advancements) != parentCalls * 2) {
+            throw new AssertionError("Every export should rescan the server exactly once");
+        }
+        if (service.current() == initial || service.current().fingerprint() != initial.fingerprint()) {
+            throw new AssertionError("Unchanged advancements should keep the rendered text of the shared index");
+        }
+
+        // A datapack reload changes the advancements without a ServerLoadEvent.
+        advancements.add(new TestAdvancement("minecraft", "story/smelt_iron", advancements.get(1),
+                new TestDisplay("Acquire Hardware", "Smelt an Iron Ingot")));
+        final AdvancementExporter.ExportResult result = export(plugin, service, ExportOptions.defaults());
+        if (result.wasUpToDate() || result.advancementCount() != advancements.size()) {
+            throw new AssertionError("Exports should detect changes made without a server reload");
+        }
+    }
+
+    private AdvancementExporter.ExportResult export(final TestPlugin plugin, final AdvancementIndexService service,
+            final ExportOptions options) {
+        try {
+            return new AdvancementExporter(plugin, null, service).export(options);
+        } catch (final AdvancementExportException exception) {
+            throw new AssertionError("Export should succeed", exception);
+        }
+    }
+
+    private int parentCalls(final List<TestAdvancement> advancements) {
+        int calls = 0;
+        for (final TestAdvancement advancement : advancements) {
+            calls += advancement.parentCalls.get();
+        }
+        return calls;
+    }
+
+    private List<TestAdvancement> buildAdvancements() {
+        final List<TestAdvancement> advancements = new ArrayList<>();
+        final TestAdvancement story = new TestAdvancement("minecraft", "story/root", null,
+                new TestDisplay("Minecraft", "The heart and story of the game"));
+        advancements.add(story);
+        advancements.add(new TestAdvancement("minecraft", "story/mine_stone", story,
+                new TestDisplay("Stone Age", "Mine Stone with your new Pickaxe")));
+        final TestAdvancement quests = new TestAdvancement("custom", "quests/root", null, null);
+        advancements.add(quests);
+        advancements.add(new TestAdvancement("custom", "quests/first", quests, new TestDisplay("First Quest", null)));
+        return advancements;
+    }
+
+    private AdvancementIndex acquire(final AdvancementIndexService service) {
+        try {
+            return service.acquire();
+        } catch (final AdvancementExportException exception) {
+            throw new AssertionError("Index should build", exception);
+        }
+    }
+}
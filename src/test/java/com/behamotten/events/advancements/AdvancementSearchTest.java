@@ -0,0 +1,126 @@
+package com.behamotten.events.advancements;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bukkit.command.Command;
+
+import com.behamotten.events.advancements.AdvancementFixtures.TestAdvancement;
+import com.behamotten.events.advancements.AdvancementFixtures.TestDisplay;
+import com.behamotten.events.advancements.AdvancementFixtures.TestPlayer;
+
+public final class AdvancementSearchTest {
+
+    public void run() {
+        titleMatchesRankAboveDescriptionMatches();
+        allTermsMustMatchAsWordsOrPrefixes();
+        commandPaginatesResults();
+        searchStaysFastForThousandsOfEntries();
+    }
+
+    private void titleMatchesRankAboveDescriptionMatches() {
+        final AdvancementIndex index = buildIndex(List.of(
+                new TestAdvancement("minecraft", "story/root", null, new TestDisplay("Minecraft", "Craft a diamond")),
+                new TestAdvancement("minecraft", "story/mine_diamond", null,
+                        new TestDisplay("Diamonds!", "Acquire diamonds")),
+                new TestAdvancement("minecraft", "story/shiny_gear", null,
+                        new TestDisplay("Cover Me with Diamonds", "Diamond armor saves lives"))));
+
+        final int[] results = index.search("Diamond");
+        if (results.length != 3) {
+            throw new AssertionError("Expected three matches but got " + results.length);
+        }
+        if (!index.id(results[0]).equals("minecraft:story/mine_diamond")
+                || !index.id(results[2]).equals("minecraft:story/root")) {
+            throw new AssertionError("Title and id matches should rank above description-only matches");
+        }
+    }
+
+    private void allTermsMustMatchAsWordsOrPrefixes() {
+        final AdvancementIndex index = buildIndex(List.of(
+                new TestAdvancement("minecraft", "story/upgrade_tools", null,
+                        new TestDisplay("Getting an Upgrade", "Construct a better Pickaxe")),
+                new TestAdvancement("minecraft", "story/iron_tools", null,
+                        new TestDisplay("Isn't It Iron Pick", "Upgrade your Pickaxe"))));
+
+        if (index.search("pick upgrade").length != 2) {
+            throw new AssertionError("Prefix terms should match both pickaxe advancements");
+        }
+        final int[] iron = index.search("IRON pickaxe");
+        if (iron.length != 1 || !index.id(iron[0]).equals("minecraft:story/iron_tools")) {
+            throw new AssertionError("Every term has to match");
+        }
+        final int[] byId = index.search("upgrade_tools");
+        if (byId.length != 2 || !index.id(byId[0]).equals("minecraft:story/upgrade_tools")) {
+            throw new AssertionError("Ids should be searchable by their path segments");
+        }
+        if (index.search("ron").length != 0 || index.search("  ").length != 0) {
+            throw new AssertionError("Terms only match from the start of a word");
+        }
+    }
+
+    private void commandPaginatesResults() {
+        final List<TestAdvancement> advancements = new ArrayList<>();
+        for (int i = 0; i < AdvancementSearchCommand.PAGE_SIZE + 2; i++) {
+            advancements.add(new TestAdvancement("custom", "quest_" + i, null,
+                    new TestDisplay("Quest " + i, "Find the hidden relic")));
+        }
+        final AdvancementSearchCommand command = new AdvancementSearchCommand(null,
+                new AdvancementIndexService(AdvancementFixtures.createPlugin(advancements), null));
+        final Command advancementsCommand = new Command("advancements");
+
+        final TestPlayer player = new TestPlayer("Staff");
+        command.onCommand(player, advancementsCommand, "advancements", new String[] {"search", "relic"});
+        if (player.messages.size() != AdvancementSearchCommand.PAGE_SIZE + 2
+                || !player.messages.get(0).contains("10 results, page 1/2")
+                || !player.messages.get(player.messages.size() - 1).contains("--page=2")) {
+            throw new AssertionError("First page should list eight results and a hint: " + player.messages);
+        }
+
+        player.messages.clear();
+        command.onCommand(player, advancementsCommand, "advancements", new String[] {"search", "hidden", "relic",
+                "--page=2"});
+        if (player.messages.size() != 3 || !player.messages.get(0).contains("page 2/2")) {
+            throw new AssertionError("Second page should list the remaining two results: " + player.messages);
+        }
+
+        player.messages.clear();
+        command.onCommand(player, advancementsCommand, "advancements", new String[] {"search", "dragon"});
+        if (player.messages.size() != 1 || !player.messages.get(0).contains("No advancements match")) {
+            throw new AssertionError("Unmatched searches should say so: " + player.messages);
+        }
+    }
+
+    private void searchStaysFastForThousandsOfEntries() {
+        final String[] words = {"stone", "iron", "diamond", "nether", "ender", "dragon", "pickaxe", "armor", "bow",
+            "trident", "bee", "honey", "redstone", "village", "trade", "raid"};
+        final List<TestAdvancement> advancements = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            advancements.add(new TestAdvancement("pack" + i % 7, "path/" + words[i % words.length] + "_" + i, null,
+                    new TestDisplay(words[i % 13] + " " + words[i % 11] + " " + i,
+                            "Use " + words[i % 5] + " and " + words[i % 3])));
+        }
+        final AdvancementIndex index = buildIndex(advancements);
+        for (int i = 0; i < 200; i++) {
+            index.search(words[i % words.length] + " " + words[(i + 3) % words.length].substring(0, 2));
+        }
+        final int searches = 1000;
+        final long start = System.nanoTime();
+        for (int i = 0; i < searches; i++) {
+            index.search(words[i % words.length] + " " + words[(i + 3) % words.length].substring(0, 2));
+        }
+        final double averageMillis = (System.nanoTime() - start) / 1_000_000.0 / searches;
+        // Generous bound so slow CI machines pass; typical runs take a small fraction of a millisecond.
+        if (averageMillis > 5.0) {
+            throw new AssertionError("Search over 5000 entries took " + averageMillis + " ms on average");
+        }
+    }
+
+    private AdvancementIndex buildIndex(final List<TestAdvancement> advancements) {
+        try {
+            return new AdvancementIndexService(AdvancementFixtures.createPlugin(advancements), null).acquire();
+        } catch (final AdvancementExportException exception) {
+            throw new AssertionError("Index should build", exception);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.behamotten.events.advancements;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.behamotten.events.advancements.AdvancementFixtures.TestAdvancement;
+import com.behamotten.events.advancements.AdvancementFixtures.TestDisplay;
+import com.behamotten.events.advancements.AdvancementFixtures.TestPlayer;
+import com.behamotten.events.advancements.AdvancementFixtures.TestPlugin;
+import com.behamotten.events.metrics.AdaptiveThrottle;
+import com.behamotten.events.metrics.PluginMetrics;
+
+public final class ExportCoordinatorTest {
+    private static final long FRESHNESS = TimeUnit.SECONDS.toNanos(5);
+
+    private final List<Runnable> writes = new ArrayList<>();
+    private final List<Runnable> serverTasks = new ArrayList<>();
+    private long now;
+    private PluginMetrics metrics;
+
+    public void run() {
+        concurrentRequestsShareOneExport();
+        freshResultsAreReusedUntilTheWindowCloses();
+        upToDateChecksWaitForQueuedWrites();
+        playersShareOneExportAndAreAwardedAfterIt();
+    }
+
+    private void concurrentRequestsShareOneExport() {
+        final ExportCoordinator coordinator = newCoordinator(AdvancementFixtures.createPlugin(buildAdvancements()));
+        final ExportOptions options = ExportOptions.defaults().withReadOnly(true);
+
+        final CompletableFuture<AdvancementExporter.ExportResult> first = coordinator.submit(null, options);
+        final CompletableFuture<AdvancementExporter.ExportResult> second = coordinator.submit(null, options);
+        final CompletableFuture<AdvancementExporter.ExportResult> forced = coordinator.submit(null,
+                options.withForce(true));
+        if (second != first || forced != first || writes.size() != 1) {
+            throw new AssertionError("Requests arriving during an export should attach to it");
+        }
+        runWrites();
+        if (!first.isDone() || first.join().wasUpToDate() || first.join().advancementCount() != 2) {
+            throw new AssertionError("Shared export should complete with the written result");
+        }
+        if (metric("export_runs_total") != 1 || metric("export_advancements_written_total") != 2
+                || metric("export_failures_total") != 0) {
+            throw new AssertionError("The shared export should be recorded once");
+        }
+    }
+
+    private void freshResultsAreReusedUntilTheWindowCloses() {
+        final ExportCoordinator coordinator = newCoordinator(AdvancementFixtures.createPlugin(buildAdvancements()));
+        final ExportOptions options = ExportOptions.defaults().withReadOnly(true).withFormat(ExportFormat.CSV);
+        final CompletableFuture<AdvancementExporter.ExportResult> first = coordinator.submit(null, options);
+        runWrites();
+
+        now += FRESHNESS;
+        if (coordinator.submit(null, options).join() != first.join() || !writes.isEmpty()) {
+            throw new AssertionError("Requests inside the freshness window should get the cached result");
+        }
+        final CompletableFuture<AdvancementExporter.ExportResult> forced = coordinator.submit(null,
+                options.withForce(true));
+        if (forced == first || writes.size() != 1) {
+            throw new AssertionError("Forced requests should bypass the cached result");
+        }
+        runWrites();
+
+        now += FRESHNESS + 1;
+        final CompletableFuture<AdvancementExporter.ExportResult> later = coordinator.submit(null, options);
+        runWrites();
+        if (later.join() == forced.join() || !later.join().wasUpToDate() || metric("export_runs_total") != 2) {
+            throw new AssertionError("After the window the export should run again and find nothing changed");
+        }
+    }
+
+    private void upToDateChecksWaitForQueuedWrites() {
+        final TestPlugin plugin = AdvancementFixtures.createPlugin(buildAdvancements());
+        final ExportCoordinator coordinator = newCoordinator(plugin);
+        final ExportOptions options = ExportOptions.defaults().withReadOnly(true);
+        coordinator.submit(null, options);
+        runWrites();
+
+        now += FRESHNESS + 1;
+        // Both write the same file; the graph export is queued but not written yet.
+        final CompletableFuture<AdvancementExporter.ExportResult> graph = coordinator.submit(null,
+                options.withGraph(true));
+        final CompletableFuture<AdvancementExporter.ExportResult> plain = coordinator.submit(null, options);
+        if (plain.isDone() || graph.isDone()) {
+            throw new AssertionError("The up-to-date check should be queued behind the pending write");
+        }
+        runWrites();
+        if (graph.join().wasUpToDate() || plain.join().wasUpToDate()) {
+            throw new AssertionError("The plain export should be rewritten after the graph export replaced it");
+        }
+        if (AdvancementFixtures.readWithoutTimestamp(plain.join().outputFile()).contains("max_depth")) {
+            throw new AssertionError("The file should hold the export written last");
+        }
+    }
+
+    private void playersShareOneExportAndAreAwardedAfterIt() {
+        final TestPlugin plugin = AdvancementFixtures.createPlugin(buildAdvancements());
+        final ExportCoordinator coordinator = newCoordinator(plugin);
+        final TestPlayer alice = new TestPlayer("Alice");
+        final TestPlayer bob = new TestPlayer("Bob");
+        final ExportOptions options = ExportOptions.defaults().withForce(true);
+
+        final CompletableFuture<AdvancementExporter.ExportResult> forAlice = coordinator.submit(alice, options);
+        final CompletableFuture<AdvancementExporter.ExportResult> forBob = coordinator.submit(bob, options);
+        final CompletableFuture<AdvancementExporter.ExportResult> forConsole = coordinator.submit(null, options);
+        if (writes.size() != 1) {
+            throw new AssertionError("Players requesting the same export should share one write");
+        }
+        if (alice.progressCalls.get() != 0 || bob.progressCalls.get() != 0) {
+            throw new AssertionError("Nobody should be awarded before the shared export completed");
+        }
+        runWrites();
+        if (!forConsole.isDone() || forAlice.isDone() || forBob.isDone() || serverTasks.size() != 2) {
+            throw new AssertionError("Awarding should be scheduled on the server thread after the write");
+        }
+        runServerTasks();
+        if (alice.progressCalls.get() == 0 || bob.progressCalls.get() == 0) {
+            throw new AssertionError("Each player should have been awarded on the server thread");
+        }
+        if (forAlice.join() != forConsole.join() || forBob.join() != forConsole.join()
+                || metric("export_runs_total") != 1) {
+            throw new AssertionError("Every requester should receive the result of the single export");
+        }
+
+        final int awardedBefore = alice.progressCalls.get();
+        now += FRESHNESS + 1;
+        final CompletableFuture<AdvancementExporter.ExportResult> again = coordinator.submit(alice,
+                options.withForce(false));
+        runWrites();
+        runServerTasks();
+        if (!again.join().wasUpToDate() || alice.progressCalls.get() != awardedBefore) {
+            throw new AssertionError("An export that found nothing changed should award nothing");
+        }
+    }
+
+    private ExportCoordinator newCoordinator(final TestPlugin plugin) {
+        writes.clear();
+        serverTasks.clear();
+        metrics = new PluginMetrics();
+        return new ExportCoordinator(plugin, new AdvancementIndexService(plugin, null), writes::add,
+                serverTasks::add, AdaptiveThrottle.unlimited(), FRESHNESS, () -> now, metrics);
+    }
+
+    private long metric(final String name) {
+        for (final PluginMetrics.Sample sample : metrics.samples()) {
+            if (sample.getName().equals(name)) {
+                return sample.getValue();
+            }
+        }
+        throw new AssertionError("Metric " + name + " is not registered");
+    }
+
+    private void runWrites() {
+        while (!writes.isEmpty()) {
+            writes.remove(0).run();
+        }
+    }
+
+    private void runServerTasks() {
+        while (!serverTasks.isEmpty()) {
+            serverTasks.remove(0).run();
+        }
+    }
+
+    private List<TestAdvancement> buildAdvancements() {
+        final List<TestAdvancement> advancements = new ArrayList<>();
+        final TestAdvancement root = new TestAdvancement("minecraft", "story/root", null,
+                new TestDisplay("Minecraft", "The heart and story of the game"));
+        advancements.add(root);
+        advancements.add(new TestAdvancement("minecraft", "story/mine_stone", root,
+                new TestDisplay("Stone Age", "Mine Stone with your new Pickaxe")));
+        return advancements;
+    }
+}
@@ -0,0 +1,126 @@
+package com.behamotten.events.advancements;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import com.behamotten.events.advancements.AdvancementFixtures.TestAdvancement;
+import com.behamotten.events.advancements.AdvancementFixtures.TestDisplay;
+import com.behamotten.events.advancements.AdvancementFixtures.TestPlugin;
+
+public final class ExportFormatTest {
+
+    public void run() {
+        compactJsonMatchesPrettyJsonWithoutWhitespace();
+        ndjsonWritesOneEntryPerLine();
+        csvQuotesFieldsAndJoinsLists();
+        gzipOutputDecompressesToPlainOutput();
+    }
+
+    private void compactJsonMatchesPrettyJsonWithoutWhitespace() {
+        final TestPlugin plugin = AdvancementFixtures.createPlugin(buildAdvancements());
+        final String pretty = AdvancementFixtures.readWithoutTimestamp(export(plugin, ExportFormat.JSON, false));
+        final String compact = read(export(plugin, ExportFormat.COMPACT, false))
+                .replaceAll("\"generated_at\":\"[^\"]*\"", "\"generated_at\":\"\"");
+
+        final String prettyWithoutLayout = pretty.replace("\n", "").replace(System.lineSeparator(), "")
+                .replaceAll("(?m)\\s{2,}", "").replace("\": ", "\":");
+        if (!compact.trim().equals(prettyWithoutLayout.trim())) {
+            throw new AssertionError("Compact JSON should equal pretty JSON without whitespace.\nCompact:\n"
+                    + compact + "\nPretty:\n" + prettyWithoutLayout);
+        }
+        if (compact.trim().contains("\n")) {
+            throw new AssertionError("Compact JSON must fit on a single line");
+        }
+    }
+
+    private void ndjsonWritesOneEntryPerLine() {
+        final List<TestAdvancement> advancements = buildAdvancements();
+        final String ndjson = read(export(AdvancementFixtures.createPlugin(advancements), ExportFormat.NDJSON,
+                false));
+        final String[] lines = ndjson.split("\n");
+        if (lines.length != advancements.size()) {
+            throw new AssertionError("Expected one line per advancement but got " + lines.length);
+        }
+        final String expectedFirst = "{\"advancaments_id\":\"minecraft:story/root\",\"advancaments_title\":"
+                + "\"Minecraft\",\"advancaments_description\":\"Line one\\nLine \\\"two\\\"\",\"source_file\":"
+                + "\"data/minecraft/advancements/story/root.json\",\"dependencies\":[],\"group_id\":"
+                + "\"minecraft:story/root\"}";
+        if (!expectedFirst.equals(lines[0])) {
+            throw new AssertionError("Unexpected first NDJSON line: " + lines[0]);
+        }
+        if (!lines[1].contains("\"dependencies\":[\"minecraft:story/root\"]")) {
+            throw new AssertionError("Child line should list its parent: " + lines[1]);
+        }
+    }
+
+    private void csvQuotesFieldsAndJoinsLists() {
+        final String csv = read(export(AdvancementFixtures.createPlugin(buildAdvancements()), ExportFormat.CSV,
+                false));
+        final String expected = "advancaments_id,advancaments_title,advancaments_description,source_file,"
+                + "dependencies,group_id\r\n"
+                + "minecraft:story/root,Minecraft,\"Line one\nLine \"\"two\"\"\","
+                + "data/minecraft/advancements/story/root.json,,minecraft:story/root\r\n"
+                + "minecraft:story/mine,\"Mine, then craft\",,data/minecraft/advancements/story/mine.json,"
+                + "minecraft:story/root,minecraft:story/root\r\n";
+        if (!expected.equals(csv)) {
+            throw new AssertionError("Unexpected CSV output:\n" + csv);
+        }
+    }
+
+    private void gzipOutputDecompressesToPlainOutput() {
+        final TestPlugin plugin = AdvancementFixtures.createPlugin(buildAdvancements());
+        for (final ExportFormat format : ExportFormat.values()) {
+            final Path plain = export(plugin, format, false);
+            final Path compressed = export(plugin, format, true);
+            if (!compressed.getFileName().toString().endsWith(format.fileExtension() + ".gz")) {
+                throw new AssertionError("Compressed output should end with .gz: " + compressed);
+            }
+            final String expected = read(plain).replaceAll("\"generated_at\": ?\"[^\"]*\"", "");
+            final String actual = gunzip(compressed).replaceAll("\"generated_at\": ?\"[^\"]*\"", "");
+            if (!expected.equals(actual)) {
+                throw new AssertionError("Gzip output for " + format + " differs from plain output");
+            }
+        }
+    }
+
+    private List<TestAdvancement> buildAdvancements() {
+        final List<TestAdvancement> advancements = new ArrayList<>();
+        final TestAdvancement root = new TestAdvancement("minecraft", "story/root", null,
+                new TestDisplay("Minecraft", "Line one\nLine \"two\""));
+        advancements.add(root);
+        advancements.add(new TestAdvancement("minecraft", "story/mine", root,
+                new TestDisplay("Mine, then craft", null)));
+        return advancements;
+    }
+
+    private Path export(final TestPlugin plugin, final ExportFormat format, final boolean gzip) {
+        try {
+            return new AdvancementExporter(plugin).export(ExportOptions.defaults().withFormat(format)
+                    .withGzip(gzip)).outputFile();
+        } catch (final AdvancementExportException exception) {
+            throw new AssertionError("Export should succeed", exception);
+        }
+    }
+
+    private String read(final Path file) {
+        try {
+            return Files.readString(file, StandardCharsets.UTF_8);
+        } catch (final IOException exception) {
+            throw new AssertionError("Could not read " + file, exception);
+        }
+    }
+
+    private String gunzip(final Path file) {
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (final IOException exception) {
+            throw new AssertionError("Could not decompress " + file, exception);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.behamotten.events.advancements;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.behamotten.events.advancements.AdvancementFixtures.TestAdvancement;
+import com.behamotten.events.advancements.AdvancementFixtures.TestDisplay;
+import com.behamotten.events.advancements.AdvancementFixtures.TestPlugin;
+
+public final class JsonReaderTest {
+
+    public void run() {
+        roundTripsJsonWriterOutput();
+        decodesCharactersSplitAcrossChannelReads();
+        rejectsMalformedUtf8();
+        readsExportFilesBack();
+    }
+
+    private void roundTripsJsonWriterOutput() {
+        final Map<String, Object> document = sampleDocument();
+        for (final boolean pretty : new boolean[] {true, false}) {
+            final byte[] json = JsonWriter.stringify(document, pretty).getBytes(StandardCharsets.UTF_8);
+            try (JsonReader reader = new JsonReader(Channels.newChannel(new ByteArrayInputStream(json)))) {
+                final Object read = reader.readValue();
+                if (!document.equals(read)) {
+                    throw new AssertionError("Round trip changed the document:\n" + document + "\n" + read);
+                }
+                if (reader.peek() != JsonReader.Token.END_DOCUMENT) {
+                    throw new AssertionError("Reader should be at the end of the document");
+                }
+            } catch (final IOException exception) {
+                throw new AssertionError("JsonWriter output should be readable", exception);
+            }
+        }
+    }
+
+    private void decodesCharactersSplitAcrossChannelReads() {
+        final List<Object> titles = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            titles.add("Größe " + i + " ☃ 😀");
+        }
+        final byte[] json = JsonWriter.stringify(titles, false).getBytes(StandardCharsets.UTF_8);
+        try (JsonReader reader = new JsonReader(new TricklingChannel(json, 3))) {
+            if (!titles.equals(reader.readValue())) {
+                throw new AssertionError("Multi-byte characters split across reads should decode intact");
+            }
+        } catch (final IOException exception) {
+            throw new AssertionError("Trickled input should be readable", exception);
+        }
+    }
+
+    private void rejectsMalformedUtf8() {
+        final byte[] json = {'[', '"', (byte) 0xC3, '"', ']'};
+        try (JsonReader reader = new JsonReader(Channels.newChannel(new ByteArrayInputStream(json)))) {
+            reader.readValue();
+            throw new AssertionError("Malformed UTF-8 should be rejected");
+        } catch (final IOException expected) {
+            // expected
+        }
+    }
+
+    private void readsExportFilesBack() {
+        final List<TestAdvancement> advancements = new ArrayList<>();
+        final TestAdvancement root = new TestAdvancement("minecraft", "story/root", null,
+                new TestDisplay("Minecraft", "The heart and story of the game"));
+        advancements.add(root);
+        advancements.add(new TestAdvancement("minecraft", "story/mine_stone", root,
+                new TestDisplay("Stone Age", "Mine \"Stone\" with your new Pickaxe")));
+        final TestPlugin plugin = AdvancementFixtures.createPlugin(advancements);
+        for (final boolean gzip : new boolean[] {false, true}) {
+            final AdvancementExporter.ExportResult result;
+            try {
+                result = new AdvancementExporter(plugin).export(ExportOptions.defaults().withGzip(gzip));
+            } catch (final AdvancementExportException exception) {
+                throw new AssertionError("Export should succeed", exception);
+            }
+            final List<String> ids = new ArrayList<>();
+            long found = -1;
+            try (JsonReader reader = JsonReader.open(result.outputFile())) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    final String name = reader.nextName();
+                    if ("meta".equals(name)) {
+                        found = (Long) ((Map<?, ?>) reader.readValue()).get("advancaments_found");
+                    } else if ("advancaments".equals(name)) {
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            ids.add((String) ((Map<?, ?>) reader.readValue()).get("advancaments_id"));
+                        }
+                        reader.endArray();
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            } catch (final IOException exception) {
+                throw new AssertionError("Export file should be readable", exception);
+            }
+            if (found != 2 || !ids.equals(Arrays.asList("minecraft:story/root", "minecraft:story/mine_stone"))) {
+                throw new AssertionError("Unexpected export content " + found + " " + ids);
+            }
+        }
+    }
+
+    private Map<String, Object> sampleDocument() {
+        final Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("empty_object", new LinkedHashMap<>());
+        nested.put("empty_list", new ArrayList<>());
+        nested.put("nothing", null);
+        final Map<String, Object> document = new LinkedHashMap<>();
+        document.put("text", "Quote \" backslash \\ tab \t newline \n control \u0001 umlaut ä emoji 🎉");
+        document.put("integer", 42L);
+        document.put("negative", -7L);
+        document.put("large", Long.MAX_VALUE);
+        document.put("fraction", 66.67);
+        document.put("exponent", 1.5E-9);
+        document.put("flags", Arrays.asList(true, false, null));
+        document.put("nested", nested);
+        document.put("rows", Arrays.asList(Arrays.asList(1L, 2L), new LinkedHashMap<>(Map.of("k", "v"))));
+        return document;
+    }
+
+    /**
+     * Channel that hands out at most a few bytes per read, so that multi-byte characters straddle reads.
+     */
+    private static final class TricklingChannel implements ReadableByteChannel {
+        private final byte[] data;
+        private final int chunk;
+        private int offset;
+
+        TricklingChannel(final byte[] data, final int chunk) {
+            this.data = data;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int read(final ByteBuffer target) {
+            if (offset == data.length) {
+                return -1;
+            }
+            final int count = Math.min(Math.min(chunk, target.remaining()), data.length - offset);
+            target.put(data, offset, count);
+            offset += count;
+            return count;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.behamotten.events.advancements;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+public final class JsonWriterTest {
+    private static final String ALPHABET = "abcXYZ019 _-:/\"\\\b\f\n\r\t\u0000\u0001\u001f\u007f"
+            + "äöüß€☃ 😀𐀀";
+
+    public void run() {
+        roundTripsThroughTheReader();
+        formatsLikeEarlierReleases();
+        matchesLegacyOutputCharacterForCharacter();
+        encodesUtf8LikeOutputStreamWriter();
+        exportFilesAreByteIdentical();
+    }
+
+    private void roundTripsThroughTheReader() {
+        final Random random = new Random(43);
+        for (int round = 0; round < 200; round++) {
+            final Object document = randomValue(random, 0);
+            for (final boolean pretty : new boolean[] {true, false}) {
+                final String json = JsonWriter.stringify(document, pretty);
+                final Object read;
+                try (JsonReader reader = new JsonReader(new StringReader(json))) {
+                    read = reader.readValue();
+                } catch (final IOException exception) {
+                    throw new AssertionError("Output could not be read back:\n" + json, exception);
+                }
+                if (!Objects.equals(read, asRead(document))) {
+                    throw new AssertionError("Output does not read back as the written document:\n" + json);
+                }
+                if (!pretty && json.indexOf('\n') >= 0) {
+                    throw new AssertionError("Compact output should not contain line breaks:\n" + json);
+                }
+            }
+        }
+    }
+
+    private void formatsLikeEarlierReleases() {
+        final Map<String, Object> document = new LinkedHashMap<>();
+        document.put("text", "\"\\\b\f\n\r\t\u0001\u001f\u007f ä€😀");
+        document.put(null, "skipped");
+        document.put("values", Arrays.asList(1, 2.5, true, null, Locale.ROOT, List.of(), Map.of()));
+        document.put("nested", Map.of("k", List.of("v")));
+        final String pretty = "{\n"
+                + "  \"text\": \"\\\"\\\\\\b\\f\\n\\r\\t\\u0001\\u001f\u007f ä€😀\",\n"
+                + "  \"values\": [\n    1,\n    2.5,\n    true,\n    null,\n    \"\",\n    [],\n    {}\n  ],\n"
+                + "  \"nested\": {\n    \"k\": [\n      \"v\"\n    ]\n  }\n"
+                + "}";
+        final String compact = "{\"text\":\"\\\"\\\\\\b\\f\\n\\r\\t\\u0001\\u001f\u007f ä€😀\","
+                + "\"values\":[1,2.5,true,null,\"\",[],{}],\"nested\":{\"k\":[\"v\"]}}";
+        if (!pretty.equals(JsonWriter.stringify(document, true))) {
+            throw new AssertionError("Pretty output changed:\n" + JsonWriter.stringify(document, true));
+        }
+        if (!compact.equals(JsonWriter.stringify(document, false))) {
+            throw new AssertionError("Compact output changed:\n" + JsonWriter.stringify(document, false));
+        }
+        // Deeper than the precomputed indentation.
+        Object nested = "leaf";
+        final StringBuilder opening = new StringBuilder();
+        final StringBuilder closing = new StringBuilder();
+        for (int depth = 0; depth < 40; depth++) {
+            nested = List.of(nested);
+            opening.append("  ".repeat(depth)).append("[\n");
+            closing.insert(0, "\n" + "  ".repeat(depth) + "]");
+        }
+        final String expected = opening + "  ".repeat(40) + "\"leaf\"" + closing;
+        if (!expected.equals(JsonWriter.stringify(nested, true))) {
+            throw new AssertionError("Deeply nested output is not indented by depth");
+        }
+    }
+
+    private void matchesLegacyOutputCharacterForCharacter() {
+        final Random random = new Random(17);
+        for (int round = 0; round < 500; round++) {
+            final Map<Object, Object> document = new LinkedHashMap<>();
+            document.put("value", randomValue(random, 0));
+            // Values the reader cannot round-trip: skipped null keys and objects written as their string form.
+            document.put(null, randomValue(random, 2));
+            document.put(randomString(random, 4), random.nextBoolean() ? Locale.GERMANY : random.nextLong());
+            for (final boolean pretty : new boolean[] {true, false}) {
+                final String legacy = legacyStringify(document, pretty);
+                final String current = JsonWriter.stringify(document, pretty);
+                if (!current.equals(legacy)) {
+                    throw new AssertionError("Output differs from the legacy writer:\n" + legacy + "\n" + current);
+                }
+            }
+        }
+        // Deeper than the precomputed indentation.
+        Object nested = "leaf";
+        for (int depth = 0; depth < 40; depth++) {
+            nested = depth % 2 == 0 ? List.of(nested) : Map.of("k", nested);
+        }
+        if (!JsonWriter.stringify(nested, true).equals(legacyStringify(nested, true))) {
+            throw new AssertionError("Deeply nested output differs from the legacy writer");
+        }
+    }
+
+    private void encodesUtf8LikeOutputStreamWriter() {
+        final Random random = new Random(7);
+        for (int round = 0; round < 500; round++) {
+            final String text = randomString(random, random.nextInt(200));
+            final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            // Small buffers and random split points exercise buffer boundaries and split surrogate pairs.
+            try (Writer reference = LegacyJsonWriter.newWriter(expected, 16);
+                    Writer current = new Utf8Writer(actual, 16)) {
+                int offset = 0;
+                while (offset < text.length()) {
+                    final int length = Math.min(text.length() - offset, 1 + random.nextInt(20));
+                    switch (random.nextInt(3)) {
+                        case 0:
+                            reference.write(text, offset, length);
+                            current.write(text, offset, length);
+                            break;
+                        case 1:
+                            reference.write(text.toCharArray(), offset, length);
+                            current.write(text.toCharArray(), offset, length);
+                            break;
+                        default:
+                            reference.append(new StringBuilder(text), offset, offset + length);
+                            current.append(new StringBuilder(text), offset, offset + length);
+                            break;
+                    }
+                    offset += length;
+                }
+            } catch (final IOException exception) {
+                throw new AssertionError(exception);
+            }
+            if (!Arrays.equals(expected.toByteArray(), actual.toByteArray())) {
+                throw new AssertionError("UTF-8 bytes differ for " + escapeForMessage(text));
+            }
+        }
+    }
+
+    private void exportFilesAreByteIdentical() {
+        final Random random = new Random(99);
+        final List<Object> entries = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            entries.add(randomValue(random, 1));
+        }
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        try (Writer reference = LegacyJsonWriter.newWriter(expected, 64 * 1024);
+                Writer current = new Utf8Writer(actual, 64 * 1024)) {
+            LegacyJsonWriter.writeValue(reference, entries, 0, true);
+            JsonWriter.writeValue(current, entries, 0, true);
+        } catch (final IOException exception) {
+            throw new AssertionError(exception);
+        }
+        if (!Arrays.equals(expected.toByteArray(), actual.toByteArray())) {
+            throw new AssertionError("Encoded documents differ from the legacy writer");
+        }
+    }
+
+    private String legacyStringify(final Object value, final boolean pretty) {
+        final StringBuilder legacy = new StringBuilder();
+        try {
+            LegacyJsonWriter.writeValue(legacy, value, 0, pretty);
+        } catch (final IOException exception) {
+            throw new AssertionError(exception);
+        }
+        return legacy.toString();
+    }
+
+    /**
+     * Returns the value as {@link JsonReader#readValue()} reads it back: integers become longs.
+     */
+    private Object asRead(final Object value) {
+        if (value instanceof Integer) {
+            return ((Integer) value).longValue();
+        }
+        if (value instanceof Map<?, ?>) {
+            final Map<Object, Object> map = new LinkedHashMap<>();
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                map.put(entry.getKey(), asRead(entry.getValue()));
+            }
+            return map;
+        }
+        if (value instanceof List<?>) {
+            final List<Object> list = new ArrayList<>();
+            for (final Object element : (List<?>) value) {
+                list.add(asRead(element));
+            }
+            return list;
+        }
+        return value;
+    }
+
+    private Object randomValue(final Random random, final int depth) {
+        switch (depth > 3 ? random.nextInt(5) : random.nextInt(7)) {
+            case 0:
+                return randomString(random, random.nextInt(30));
+            case 1:
+                return random.nextInt();
+            case 2:
+                return random.nextDouble() * 100;
+            case 3:
+                return random.nextBoolean();
+            case 4:
+                return null;
+            case 5: {
+                final Map<String, Object> map = new LinkedHashMap<>();
+                for (int i = random.nextInt(5); i > 0; i--) {
+                    map.put(randomString(random, 1 + random.nextInt(8)), randomValue(random, depth + 1));
+                }
+                return map;
+            }
+            default: {
+                final List<Object> list = new ArrayList<>();
+                for (int i = random.nextInt(5); i > 0; i--) {
+                    list.add(randomValue(random, depth + 1));
+                }
+                return list;
+            }
+        }
+    }
+
+    private String randomString(final Random random, final int length) {
+        final StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return text.toString();
+    }
+
+    private String escapeForMessage(final String text) {
+        final StringBuilder escaped = new StringBuilder();
+        for (final char ch : text.toCharArray()) {
+            escaped.append(ch < 0x20 || ch > 0x7e ? String.format("\\u%04x", (int) ch) : String.valueOf(ch));
+        }
+        return escaped.toString();
+    }
+}
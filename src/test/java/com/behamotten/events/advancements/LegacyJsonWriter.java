@@ -0,0 +1,125 @@
+package com.behamotten.events.advancements;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The JSON writer and UTF-8 encoding path as they were before the byte-level rewrite, kept as the reference that
+ * the current {@link JsonWriter} and {@link Utf8Writer} must match byte for byte.
+ */
+final class LegacyJsonWriter {
+    private static final String INDENT = "  ";
+
+    private LegacyJsonWriter() {
+    }
+
+    static Writer newWriter(final OutputStream out, final int bufferSize) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), bufferSize);
+    }
+
+    static void writeValue(final Appendable out, final Object value, final int depth, final boolean pretty)
+            throws IOException {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof String) {
+            out.append('"').append(escape((String) value)).append('"');
+        } else if (value instanceof Number || value instanceof Boolean) {
+            out.append(value.toString());
+        } else if (value instanceof Map<?, ?>) {
+            final Map<?, ?> map = (Map<?, ?>) value;
+            out.append('{');
+            if (!map.isEmpty()) {
+                boolean first = true;
+                for (final Map.Entry<?, ?> entry : map.entrySet()) {
+                    if (entry.getKey() == null) {
+                        continue;
+                    }
+                    if (!first) {
+                        out.append(',');
+                    }
+                    newLine(out, depth + 1, pretty);
+                    out.append('"').append(escape(entry.getKey().toString())).append('"').append(':');
+                    if (pretty) {
+                        out.append(' ');
+                    }
+                    writeValue(out, entry.getValue(), depth + 1, pretty);
+                    first = false;
+                }
+                newLine(out, depth, pretty);
+            }
+            out.append('}');
+        } else if (value instanceof List<?>) {
+            final List<?> list = (List<?>) value;
+            out.append('[');
+            if (!list.isEmpty()) {
+                boolean first = true;
+                for (final Object element : list) {
+                    if (!first) {
+                        out.append(',');
+                    }
+                    newLine(out, depth + 1, pretty);
+                    writeValue(out, element, depth + 1, pretty);
+                    first = false;
+                }
+                newLine(out, depth, pretty);
+            }
+            out.append(']');
+        } else {
+            out.append('"').append(escape(value.toString())).append('"');
+        }
+    }
+
+    private static void newLine(final Appendable out, final int depth, final boolean pretty) throws IOException {
+        if (!pretty) {
+            return;
+        }
+        out.append('\n');
+        for (int i = 0; i < depth; i++) {
+            out.append(INDENT);
+        }
+    }
+
+    private static String escape(final String value) {
+        final StringBuilder escaped = new StringBuilder(value.length() + 16);
+        for (int i = 0; i < value.length(); i++) {
+            final char ch = value.charAt(i);
+            switch (ch) {
+                case '"':
+                    escaped.append("\\\"");
+                    break;
+                case '\\':
+                    escaped.append("\\\\");
+                    break;
+                case '\b':
+                    escaped.append("\\b");
+                    break;
+                case '\f':
+                    escaped.append("\\f");
+                    break;
+                case '\n':
+                    escaped.append("\\n");
+                    break;
+                case '\r':
+                    escaped.append("\\r");
+                    break;
+                case '\t':
+                    escaped.append("\\t");
+                    break;
+                default:
+                    if (ch < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) ch));
+                    } else {
+                        escaped.append(ch);
+                    }
+                    break;
+            }
+        }
+        return escaped.toString();
+    }
+}
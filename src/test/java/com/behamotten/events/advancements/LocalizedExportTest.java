@@ -0,0 +1,190 @@
+package com.behamotten.events.advancements;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import net.kyori.adventure.translation.GlobalTranslator;
+import net.kyori.adventure.translation.Translator;
+
+import com.behamotten.events.advancements.AdvancementFixtures.TestAdvancement;
+import com.behamotten.events.advancements.AdvancementFixtures.TestComponent;
+import com.behamotten.events.advancements.AdvancementFixtures.TestDisplay;
+import com.behamotten.events.advancements.AdvancementFixtures.TestPlugin;
+
+public final class LocalizedExportTest {
+    private static final Map<String, String> ENGLISH = Map.of("story.root", "Minecraft", "story.root.desc",
+            "The heart of the game", "story.mine", "Stone Age", "story.mine.desc", "Mine Stone");
+    private static final Map<String, String> GERMAN = Map.of("story.root", "Minecraft", "story.root.desc",
+            "Das Herz des Spiels", "story.mine", "Steinzeit", "story.mine.desc", "Baue Stein ab");
+
+    public void run() {
+        parsesLocalesAndRawKeys();
+        exportsEveryLocaleInOnePass();
+        rawKeysSkipTheTranslator();
+        changedTranslationsRewriteTheExport();
+    }
+
+    private void parsesLocalesAndRawKeys() {
+        final ExportOptions options = AdvancementExportCommand.parseOptions(
+                new String[] {"--locales=de,en_US,de", "--format=csv"});
+        if (!options.locales().equals(List.of(Locale.GERMAN, Locale.US))) {
+            throw new AssertionError("Locales should be parsed in order without duplicates: " + options.locales());
+        }
+        if (!AdvancementExportCommand.parseOptions(new String[] {"--raw-keys"}).rawKeys()) {
+            throw new AssertionError("--raw-keys should enable raw translation keys");
+        }
+        expectRejected("--locales=de", "--raw-keys");
+        expectRejected("--locales=");
+        expectRejected("--locales=de,,en");
+    }
+
+    private void exportsEveryLocaleInOnePass() {
+        final AtomicInteger germanCalls = new AtomicInteger();
+        final Translator translator = translator(germanCalls);
+        GlobalTranslator.translator().addSource(translator);
+        try {
+            final TestPlugin plugin = AdvancementFixtures.createPlugin(buildAdvancements());
+            final String json = read(export(plugin, ExportOptions.defaults().withLocales(List.of(Locale.GERMAN))));
+            for (final String expected : List.of("\"advancaments_title\": \"Stone Age\"",
+                    "\"advancaments_title_de\": \"Steinzeit\"", "\"advancaments_description_de\": \"Baue Stein ab\"",
+                    "\"title_de\": \"Minecraft\"", "\"locales\": [\n      \"de\"\n    ]")) {
+                if (!json.contains(expected)) {
+                    throw new AssertionError("Localized export should contain " + expected + ":\n" + json);
+                }
+            }
+            if (germanCalls.get() != 4) {
+                throw new AssertionError("Every German text should be translated exactly once, got "
+                        + germanCalls.get() + " calls");
+            }
+
+            final String csv = read(export(plugin, ExportOptions.defaults().withFormat(ExportFormat.CSV)
+                    .withLocales(List.of(Locale.GERMAN, Locale.US))));
+            final String header = csv.substring(0, csv.indexOf("\r\n"));
+            if (!header.endsWith(",group_id,advancaments_title_de,advancaments_description_de,"
+                    + "advancaments_title_en_us,advancaments_description_en_us")) {
+                throw new AssertionError("CSV should append the localized columns: " + header);
+            }
+            if (!csv.contains(",Stone Age,Mine Stone,") || !csv.contains(",Steinzeit,Baue Stein ab,")) {
+                throw new AssertionError("CSV rows should carry every locale:\n" + csv);
+            }
+        } finally {
+            GlobalTranslator.translator().removeSource(translator);
+        }
+    }
+
+    private void rawKeysSkipTheTranslator() {
+        final AtomicInteger germanCalls = new AtomicInteger();
+        final Translator translator = translator(germanCalls);
+        GlobalTranslator.translator().addSource(translator);
+        try {
+            final TestPlugin plugin = AdvancementFixtures.createPlugin(buildAdvancements());
+            final String translated = read(export(plugin, ExportOptions.defaults()));
+            if (!translated.contains("\"advancaments_title\": \"Stone Age\"")) {
+                throw new AssertionError("Regular exports should be translated to English:\n" + translated);
+            }
+            final String raw = read(export(plugin, ExportOptions.defaults().withRawKeys(true)
+                    .withLocales(List.of(Locale.GERMAN))));
+            if (!raw.contains("\"advancaments_title\": \"story.mine\"")
+                    || !raw.contains("\"advancaments_description\": \"story.mine.desc\"")
+                    || !raw.contains("\"title\": \"story.root\"") || !raw.contains("\"raw_translation_keys\": true")) {
+                throw new AssertionError("Raw exports should keep the translation keys:\n" + raw);
+            }
+            if (raw.contains("advancaments_title_de") || germanCalls.get() != 0) {
+                throw new AssertionError("Raw exports should ignore locales");
+            }
+        } finally {
+            GlobalTranslator.translator().removeSource(translator);
+        }
+    }
+
+    private void changedTranslationsRewriteTheExport() {
+        final AtomicReference<String> stoneAge = new AtomicReference<>("Steinzeit");
+        final Translator translator = (component, locale) -> locale.getLanguage().equals("de")
+                && component.toString().equals("story.mine") ? new TestComponent(stoneAge.get()) : null;
+        GlobalTranslator.translator().addSource(translator);
+        try {
+            final TestPlugin plugin = AdvancementFixtures.createPlugin(buildAdvancements());
+            final ExportOptions options = ExportOptions.defaults().withLocales(List.of(Locale.GERMAN));
+            exportResult(plugin, options);
+            if (!exportResult(plugin, options).wasUpToDate()) {
+                throw new AssertionError("An unchanged export should be skipped");
+            }
+            // A resource pack update changes the translation but not the advancements.
+            stoneAge.set("Zeitalter des Steins");
+            RenderedTextCache.shared().invalidate();
+            final AdvancementExporter.ExportResult result = exportResult(plugin, options);
+            if (result.wasUpToDate() || !read(result.outputFile()).contains(
+                    "\"advancaments_title_de\": \"Zeitalter des Steins\"")) {
+                throw new AssertionError("Changed translations should rewrite the export:\n"
+                        + read(result.outputFile()));
+            }
+        } finally {
+            GlobalTranslator.translator().removeSource(translator);
+            RenderedTextCache.shared().invalidate();
+        }
+    }
+
+    /**
+     * Translates test components, whose text is the translation key, from the English and German tables.
+     */
+    private Translator translator(final AtomicInteger germanCalls) {
+        return (component, locale) -> {
+            final Map<String, String> table = locale.getLanguage().equals("de") ? GERMAN
+                    : locale.getLanguage().equals("en") ? ENGLISH : null;
+            if (table == null || !table.containsKey(component.toString())) {
+                return null;
+            }
+            if (table == GERMAN) {
+                germanCalls.incrementAndGet();
+            }
+            return new TestComponent(table.get(component.toString()));
+        };
+    }
+
+    private void expectRejected(final String... args) {
+        try {
+            AdvancementExportCommand.parseOptions(args);
+        } catch (final IllegalArgumentException expected) {
+            return;
+        }
+        throw new AssertionError("Options should be rejected: " + String.join(" ", args));
+    }
+
+    private List<TestAdvancement> buildAdvancements() {
+        final List<TestAdvancement> advancements = new ArrayList<>();
+        final TestAdvancement root = new TestAdvancement("minecraft", "story/root", null,
+                new TestDisplay("story.root", "story.root.desc"));
+        advancements.add(root);
+        advancements.add(new TestAdvancement("minecraft", "story/mine", root,
+                new TestDisplay("story.mine", "story.mine.desc")));
+        return advancements;
+    }
+
+    private Path export(final TestPlugin plugin, final ExportOptions options) {
+        return exportResult(plugin, options).outputFile();
+    }
+
+    private AdvancementExporter.ExportResult exportResult(final TestPlugin plugin, final ExportOptions options) {
+        try {
+            return new AdvancementExporter(plugin).export(options);
+        } catch (final AdvancementExportException exception) {
+            throw new AssertionError("Export should succeed", exception);
+        }
+    }
+
+    private String read(final Path file) {
+        try {
+            return Files.readString(file, StandardCharsets.UTF_8);
+        } catch (final IOException exception) {
+            throw new AssertionError("Could not read " + file, exception);
+        }
+    }
+}
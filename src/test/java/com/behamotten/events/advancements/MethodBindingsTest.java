@@ -0,0 +1,134 @@
+package com.behamotten.events.advancements;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.translation.GlobalTranslator;
+import net.kyori.adventure.translation.Translator;
+import org.bukkit.advancement.AdvancementDisplay;
+
+import com.behamotten.events.advancements.AdvancementFixtures.TestDisplay;
+
+public final class MethodBindingsTest {
+    private static final Logger LOGGER = Logger.getLogger(MethodBindingsTest.class.getName());
+    private static final String COMPONENT = "net.kyori.adventure.text.Component";
+    private static final String SERIALIZER = "net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer";
+    private static final String TRANSLATOR = "net.kyori.adventure.translation.GlobalTranslator";
+    private static final String MISSING = "net.kyori.adventure.Missing";
+
+    public void run() {
+        bindsThroughTheMetafactory();
+        fallsBackToMethodHandles();
+        rendersPlainTextWithoutAdventure();
+        skipsDisplayAccessorsWithUnexpectedTypes();
+    }
+
+    private void bindsThroughTheMetafactory() {
+        try {
+            final Function<Object, Object> length = MethodBindings.bindAccessor(String.class.getMethod("length"));
+            final Function<Object, Object> concat = MethodBindings.bindInstance("ab",
+                    String.class.getMethod("concat", String.class));
+            final BiFunction<Object, Object, Object> equals = MethodBindings.bindStatic(
+                    Objects.class.getMethod("equals", Object.class, Object.class));
+            if (!Integer.valueOf(3).equals(length.apply("abc")) || !"abcd".equals(concat.apply("cd"))
+                    || !Boolean.TRUE.equals(equals.apply("x", "x"))) {
+                throw new AssertionError("Bound methods should behave like direct calls");
+            }
+            final Function<Object, Object> title = MethodBindings.bindAccessor(
+                    AdvancementDisplay.class.getMethod("title"));
+            if (!"Stone Age".equals(String.valueOf(title.apply(new TestDisplay("Stone Age", null))))) {
+                throw new AssertionError("Display accessors should be bound to the interface method");
+            }
+        } catch (final ReflectiveOperationException exception) {
+            throw new AssertionError(exception);
+        }
+    }
+
+    private void fallsBackToMethodHandles() {
+        try {
+            // The metafactory cannot unbox Object to int, so these bindings go through method handles.
+            final BiFunction<Object, Object, Object> sum = MethodBindings.bindStatic(
+                    Integer.class.getMethod("sum", int.class, int.class));
+            final Function<Object, Object> substring = MethodBindings.bindInstance("abc",
+                    String.class.getMethod("substring", int.class));
+            if (!Integer.valueOf(5).equals(sum.apply(2, 3)) || !"bc".equals(substring.apply(1))) {
+                throw new AssertionError("Primitive parameters should be bound through method handles");
+            }
+            try {
+                substring.apply(7);
+                throw new AssertionError("Exceptions of the target should not be swallowed");
+            } catch (final StringIndexOutOfBoundsException expected) {
+                // The target's runtime exception propagates unwrapped.
+            }
+
+            final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            final Function<Object, Object> accessor = MethodBindings.handleAccessor(
+                    lookup.findVirtual(String.class, "length", MethodType.methodType(int.class)));
+            final Function<Object, Object> instance = MethodBindings.handleInstance("ab",
+                    lookup.findVirtual(String.class, "concat", MethodType.methodType(String.class, String.class)));
+            final BiFunction<Object, Object, Object> statics = MethodBindings.handleStatic(lookup.findStatic(
+                    Objects.class, "equals", MethodType.methodType(boolean.class, Object.class, Object.class)));
+            if (!Integer.valueOf(2).equals(accessor.apply("xy")) || !"abc".equals(instance.apply("c"))
+                    || !Boolean.FALSE.equals(statics.apply("x", "y"))) {
+                throw new AssertionError("Handle bindings should behave like direct calls");
+            }
+        } catch (final ReflectiveOperationException exception) {
+            throw new AssertionError(exception);
+        }
+    }
+
+    private void rendersPlainTextWithoutAdventure() {
+        final Translator german = (component, locale) -> component instanceof TranslatableComponent
+                && Locale.GERMAN.equals(locale) ? Component.text("Steinzeit") : null;
+        GlobalTranslator.translator().addSource(german);
+        try {
+            final Component component = Component.translatable("story.mine_stone.title", "Stone Age");
+            final ComponentTextRenderer full = ComponentTextRenderer.create(LOGGER, new RenderedTextCache(16));
+            if (!"Steinzeit".equals(full.render(component, Locale.GERMAN, "fallback"))) {
+                throw new AssertionError("The bound translator should translate the component");
+            }
+            final ComponentTextRenderer noTranslator = ComponentTextRenderer.create(LOGGER,
+                    new RenderedTextCache(16), COMPONENT, SERIALIZER, MISSING);
+            final ComponentTextRenderer noSerializer = ComponentTextRenderer.create(LOGGER,
+                    new RenderedTextCache(16), COMPONENT, "java.lang.Object", TRANSLATOR);
+            final ComponentTextRenderer noAdventure = ComponentTextRenderer.create(LOGGER,
+                    new RenderedTextCache(16), MISSING, MISSING, MISSING);
+            if (noAdventure.componentClass() != null) {
+                throw new AssertionError("A missing component class should be reported as absent");
+            }
+            for (final ComponentTextRenderer renderer : new ComponentTextRenderer[] {noTranslator, noAdventure}) {
+                if (!"Stone Age".equals(renderer.render(component, Locale.GERMAN, "fallback"))) {
+                    throw new AssertionError("Without a translator the plain text should be rendered");
+                }
+            }
+            if (!"Steinzeit".equals(noSerializer.render(component, Locale.GERMAN, "fallback"))) {
+                throw new AssertionError("Without a serializer the translated component's text should be used");
+            }
+            if (!"fallback".equals(noAdventure.render(Component.text(" \r\n"), Locale.GERMAN, "fallback"))) {
+                throw new AssertionError("Blank text should fall back without Adventure as well");
+            }
+        } finally {
+            GlobalTranslator.translator().removeSource(german);
+        }
+    }
+
+    private void skipsDisplayAccessorsWithUnexpectedTypes() {
+        final TestDisplay display = new TestDisplay("Stone Age", "Mine stone");
+        final AdvancementDisplayAdapter withoutAdventure = new AdvancementDisplayAdapter(LOGGER, null);
+        if (!"Stone Age".equals(String.valueOf(withoutAdventure.resolveTitle(display)))
+                || !"Mine stone".equals(String.valueOf(withoutAdventure.resolveDescription(display)))) {
+            throw new AssertionError("Without a component class any title accessor should be used");
+        }
+        final AdvancementDisplayAdapter mismatched = new AdvancementDisplayAdapter(LOGGER, Locale.class);
+        if (mismatched.resolveTitle(display) != null || mismatched.resolveDescription(display) != null) {
+            throw new AssertionError("Accessors returning other types should be treated as missing");
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.behamotten.events.advancements;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+
+import com.behamotten.events.advancements.AdvancementFixtures.TestAdvancement;
+import com.behamotten.events.advancements.AdvancementFixtures.TestDisplay;
+import com.behamotten.events.advancements.AdvancementFixtures.TestPlugin;
+import com.behamotten.events.advancements.AdvancementFixtures.TestServer;
+import com.behamotten.events.metrics.AdaptiveThrottle;
+
+public final class OfflineAdvancementScanTest {
+    private static final UUID ALICE = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final UUID BOB = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+    private static final UUID CAROL = UUID.fromString("00000000-0000-0000-0000-00000000000c");
+    private static final UUID BROKEN = UUID.fromString("00000000-0000-0000-0000-0000000000ff");
+
+    public void run() {
+        readerParsesNestedDocuments();
+        readerRejectsMalformedInput();
+        scanCountsCompletionsAndRecordsParticipants();
+        commandScansOffThreadAndMergesIntoExport();
+    }
+
+    private void readerParsesNestedDocuments() {
+        final String json = "{\"a\": [1, -2.5e3, true, null, \"x\\\"y\\u00e9\"], \"b\": {\"c\": {}}, \"d\": []}";
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            reader.beginObject();
+            expect(reader.nextName(), "a");
+            reader.beginArray();
+            expect(reader.nextLong(), 1L);
+            expect(reader.nextDouble(), -2500.0);
+            expect(reader.nextBoolean(), true);
+            reader.nextNull();
+            expect(reader.nextString(), "x\"yé");
+            if (reader.hasNext()) {
+                throw new AssertionError("Array should be exhausted");
+            }
+            reader.endArray();
+            expect(reader.nextName(), "b");
+            reader.skipValue();
+            expect(reader.nextName(), "d");
+            reader.skipValue();
+            reader.endObject();
+            expect(reader.peek(), JsonReader.Token.END_DOCUMENT);
+        } catch (final IOException exception) {
+            throw new AssertionError("Valid JSON should parse", exception);
+        }
+    }
+
+    private void readerRejectsMalformedInput() {
+        for (final String json : List.of("{\"a\" 1}", "[1,]", "{\"a\": tru}", "[1 2]", "{\"a\": \"open")) {
+            try (JsonReader reader = new JsonReader(new StringReader(json))) {
+                reader.skipValue();
+                throw new AssertionError("Malformed JSON should be rejected: " + json);
+            } catch (final IOException expected) {
+                // expected
+            }
+        }
+    }
+
+    private void scanCountsCompletionsAndRecordsParticipants() {
+        final TestPlugin plugin = AdvancementFixtures.createPlugin(buildAdvancements());
+        final AdvancementIndex index = acquire(new AdvancementIndexService(plugin, null));
+        final Path directory = writePlayerFiles(plugin.getDataFolder().toPath().resolve("world"));
+
+        final Map<UUID, String> participants = new LinkedHashMap<>();
+        participants.put(ALICE, "Alice");
+        participants.put(CAROL, "Carol");
+        final OfflineScanResult result;
+        try {
+            result = new OfflineAdvancementScanner(Logger.getLogger("test"), 2, AdaptiveThrottle.unlimited())
+                    .scan(directory, index, participants);
+        } catch (final IOException exception) {
+            throw new AssertionError("Scan should succeed", exception);
+        }
+
+        if (result.playersScanned() != 3 || result.filesFailed() != 1) {
+            throw new AssertionError("Expected 3 scanned players and 1 failed file, got "
+                    + result.playersScanned() + "/" + result.filesFailed());
+        }
+        final int root = index.indexOf("minecraft:story/root");
+        final int stone = index.indexOf("minecraft:story/mine_stone");
+        final int iron = index.indexOf("minecraft:story/smelt_iron");
+        if (result.completions(root) != 3 || result.completions(stone) != 2 || result.completions(iron) != 0) {
+            throw new AssertionError("Unexpected completion counts");
+        }
+        if (result.completionPercent(stone) != 66.67 || result.completionPercent(root) != 100.0) {
+            throw new AssertionError("Unexpected completion percentage " + result.completionPercent(stone));
+        }
+        if (result.participants().size() != 2 || !result.participants().get(0).uuid().equals(ALICE)
+                || !Arrays.equals(result.participants().get(0).completed(), new int[] {root, stone})
+                || result.participants().get(1).completedCount() != 1) {
+            throw new AssertionError("Participant snapshots should hold only participants, most completions first");
+        }
+    }
+
+    private void commandScansOffThreadAndMergesIntoExport() {
+        final TestPlugin plugin = AdvancementFixtures.createPlugin(buildAdvancements());
+        final TestServer server = (TestServer) plugin.getServer();
+        server.worldContainer = plugin.getDataFolder();
+        writePlayerFiles(plugin.getDataFolder().toPath().resolve("world"));
+        final AdvancementIndexService service = new AdvancementIndexService(plugin, null);
+        final List<String> messages = new ArrayList<>();
+        final CommandSender console = messages::add;
+        final AdvancementScanCommand command = new AdvancementScanCommand(plugin, service,
+                () -> Map.of(ALICE, "Alice"), AdaptiveThrottle.unlimited());
+
+        command.onCommand(console, new Command("scanadvancements"), "scanadvancements", new String[0]);
+        command.onCommand(console, new Command("scanadvancements"), "scanadvancements", new String[0]);
+        if (server.scheduler.pendingAsyncTasks() != 1 || !messages.get(messages.size() - 1).contains("already")) {
+            throw new AssertionError("Only one scan should be queued at a time: " + messages);
+        }
+        server.scheduler.runAsyncTasks();
+        server.scheduler.tick(1);
+        if (!messages.get(messages.size() - 2).contains("Scanned 3 players (1 event participants)")) {
+            throw new AssertionError("Scan result should be reported on the main thread: " + messages);
+        }
+        final String report = readString(plugin.getDataFolder().toPath().resolve("advancements_scan.json"));
+        if (!report.contains("\"players_scanned\": 3") || !report.contains("\"name\": \"Alice\"")
+                || report.indexOf("smelt_iron") > report.indexOf("mine_stone")) {
+            throw new AssertionError("Report should list rarest advancements first and the participants:\n" + report);
+        }
+
+        final AdvancementExporter.ExportResult result;
+        try {
+            result = new AdvancementExporter(plugin, null, service).export();
+        } catch (final AdvancementExportException exception) {
+            throw new AssertionError("Export should succeed", exception);
+        }
+        final String export = readString(result.outputFile());
+        if (!export.contains("\"players_scanned\": 3") || !export.contains("\"completion_percent\": 66.67")) {
+            throw new AssertionError("Export should include the scan statistics:\n" + export);
+        }
+    }
+
+    /**
+     * Writes three readable player files, one broken file and one file whose name is not a player UUID.
+     */
+    private Path writePlayerFiles(final Path world) {
+        final Path directory = world.resolve("advancements");
+        try {
+            Files.createDirectories(directory);
+            write(directory, ALICE + ".json", "{\n  \"minecraft:story/root\": {\"criteria\": {\"crafting_table\":"
+                    + " \"2024-01-01 10:00:00 +0000\"}, \"done\": true},\n  \"minecraft:story/mine_stone\":"
+                    + " {\"criteria\": {\"get_stone\": \"2024-01-01 10:05:00 +0000\"}, \"done\": true},\n"
+                    + "  \"minecraft:recipes/misc/removed\": {\"criteria\": {}, \"done\": true},\n"
+                    + "  \"DataVersion\": 3700\n}");
+            write(directory, BOB + ".json", "{\"minecraft:story/root\": {\"done\": true, \"criteria\": {}},"
+                    + " \"minecraft:story/mine_stone\": {\"criteria\": {}, \"done\": true},"
+                    + " \"minecraft:story/smelt_iron\": {\"criteria\": {}, \"done\": false}, \"DataVersion\": 3700}");
+            write(directory, CAROL + ".json", "{\"minecraft:story/root\": {\"criteria\": {}, \"done\": true}}");
+            write(directory, BROKEN + ".json", "{\"minecraft:story/root\": {\"done\": tru");
+            write(directory, "notes.json", "not json at all");
+        } catch (final IOException exception) {
+            throw new AssertionError("Could not write player files", exception);
+        }
+        return directory;
+    }
+
+    private void write(final Path directory, final String name, final String content) throws IOException {
+        Files.writeString(directory.resolve(name), content, StandardCharsets.UTF_8);
+    }
+
+    private List<TestAdvancement> buildAdvancements() {
+        final List<TestAdvancement> advancements = new ArrayList<>();
+        final TestAdvancement root = new TestAdvancement("minecraft", "story/root", null,
+                new TestDisplay("Minecraft", "The heart and story of the game"));
+        advancements.add(root);
+        final TestAdvancement stone = new TestAdvancement("minecraft", "story/mine_stone", root,
+                new TestDisplay("Stone Age", "Mine Stone with your new Pickaxe"));
+        advancements.add(stone);
+        advancements.add(new TestAdvancement("minecraft", "story/smelt_iron", stone,
+                new TestDisplay("Acquire Hardware", "Smelt an Iron Ingot")));
+        return advancements;
+    }
+
+    private AdvancementIndex acquire(final AdvancementIndexService service) {
+        try {
+            return service.acquire();
+        } catch (final AdvancementExportException exception) {
+            throw new AssertionError("Index should build", exception);
+        }
+    }
+
+    private String readString(final Path file) {
+        try {
+            return Files.readString(file);
+        } catch (final IOException exception) {
+            throw new AssertionError("Could not read " + file, exception);
+        }
+    }
+
+    private void expect(final Object actual, final Object expected) {
+        if (!expected.equals(actual)) {
+            throw new AssertionError("Expected " + expected + " but got " + actual);
+        }
+    }
+}
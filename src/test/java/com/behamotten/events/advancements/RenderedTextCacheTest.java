@@ -0,0 +1,153 @@
+package com.behamotten.events.advancements;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bukkit.event.server.ServerLoadEvent;
+
+import com.behamotten.events.advancements.AdvancementFixtures.TestAdvancement;
+import com.behamotten.events.advancements.AdvancementFixtures.TestDisplay;
+import com.behamotten.events.advancements.AdvancementFixtures.TestPlugin;
+import com.behamotten.events.metrics.PluginMetrics;
+
+public final class RenderedTextCacheTest {
+
+    public void run() {
+        evictsLeastRecentlyUsedText();
+        keysByComponentEqualityAndLocale();
+        indicesShareRenderedText();
+        reloadInvalidatesCachedText();
+        publishesHitRatio();
+    }
+
+    private void evictsLeastRecentlyUsedText() {
+        final RenderedTextCache cache = new RenderedTextCache(2);
+        final AtomicInteger renders = new AtomicInteger();
+        get(cache, "a", Locale.ENGLISH, renders);
+        get(cache, "b", Locale.ENGLISH, renders);
+        get(cache, "a", Locale.ENGLISH, renders);
+        get(cache, "c", Locale.ENGLISH, renders);
+        if (renders.get() != 3 || cache.size() != 2) {
+            throw new AssertionError("Expected three renders and two cached texts, got " + renders.get() + " and "
+                    + cache.size());
+        }
+        get(cache, "a", Locale.ENGLISH, renders);
+        if (renders.get() != 3) {
+            throw new AssertionError("Recently used text should survive eviction");
+        }
+        get(cache, "b", Locale.ENGLISH, renders);
+        if (renders.get() != 4) {
+            throw new AssertionError("Least recently used text should have been evicted");
+        }
+    }
+
+    private void keysByComponentEqualityAndLocale() {
+        final RenderedTextCache cache = new RenderedTextCache(16);
+        final AtomicInteger renders = new AtomicInteger();
+        get(cache, new String("title"), Locale.ENGLISH, renders);
+        final String text = get(cache, new String("title"), Locale.ENGLISH, renders);
+        if (renders.get() != 1 || !text.equals("title@en")) {
+            throw new AssertionError("Equal components should share cached text");
+        }
+        if (!get(cache, "title", Locale.GERMAN, renders).equals("title@de") || renders.get() != 2) {
+            throw new AssertionError("Each locale should be rendered separately");
+        }
+        if (cache.hits() != 1 || cache.misses() != 2) {
+            throw new AssertionError("Unexpected hit and miss counts " + cache.hits() + "/" + cache.misses());
+        }
+    }
+
+    private void indicesShareRenderedText() {
+        final RenderedTextCache cache = new RenderedTextCache(RenderedTextCache.DEFAULT_CAPACITY);
+        final TestPlugin plugin = AdvancementFixtures.createPlugin(buildAdvancements());
+        final AdvancementIndex first = acquire(new AdvancementIndexService(plugin, null, cache));
+        final long misses = cache.misses();
+        final long hits = cache.hits();
+        if (misses == 0) {
+            throw new AssertionError("The first index should render its text");
+        }
+        final AdvancementIndex second = acquire(new AdvancementIndexService(plugin, null, cache));
+        if (cache.misses() != misses || cache.hits() != hits * 2 + misses) {
+            throw new AssertionError("A second index should take all text from the cache");
+        }
+        if (!second.title(1).equals(first.title(1)) || !second.description(1).equals("Mine Stone with your new"
+                + " Pickaxe")) {
+            throw new AssertionError("Cached text should match the rendered text");
+        }
+    }
+
+    private void reloadInvalidatesCachedText() {
+        final RenderedTextCache cache = new RenderedTextCache(RenderedTextCache.DEFAULT_CAPACITY);
+        final AdvancementIndexService service = new AdvancementIndexService(
+                AdvancementFixtures.createPlugin(buildAdvancements()), null, cache);
+        acquire(service);
+        final long misses = cache.misses();
+        service.onServerLoad(new ServerLoadEvent(ServerLoadEvent.LoadType.STARTUP));
+        if (cache.size() == 0 || cache.misses() != misses) {
+            throw new AssertionError("Startup should keep cached text");
+        }
+        service.onServerLoad(new ServerLoadEvent(ServerLoadEvent.LoadType.RELOAD));
+        acquire(service);
+        if (cache.misses() != misses * 2) {
+            throw new AssertionError("Reload should drop cached text and render all of it again");
+        }
+    }
+
+    private void publishesHitRatio() {
+        final RenderedTextCache cache = new RenderedTextCache(4);
+        final PluginMetrics metrics = new PluginMetrics();
+        cache.registerMetrics(metrics);
+        final AtomicInteger renders = new AtomicInteger();
+        get(cache, "a", Locale.ENGLISH, renders);
+        get(cache, "a", Locale.ENGLISH, renders);
+        get(cache, "a", Locale.ENGLISH, renders);
+        get(cache, "b", Locale.ENGLISH, renders);
+        long ratio = -1;
+        int countersSeen = 0;
+        for (final PluginMetrics.Sample sample : metrics.samples()) {
+            if (sample.getName().equals("advancement_text_cache_hit_ratio_permille")) {
+                ratio = sample.getValue();
+            } else if (sample.getName().equals("advancement_text_cache_hits_total")
+                    || sample.getName().equals("advancement_text_cache_misses_total")) {
+                if (!sample.isCounter() || sample.getValue() != 2) {
+                    throw new AssertionError("Expected " + sample.getName() + " to be a counter of 2");
+                }
+                countersSeen++;
+            }
+        }
+        if (ratio != 500) {
+            throw new AssertionError("Expected a hit ratio of 500 per mille, got " + ratio);
+        }
+        if (countersSeen != 2) {
+            throw new AssertionError("Hit and miss counts should be published as counters");
+        }
+    }
+
+    private String get(final RenderedTextCache cache, final Object component, final Locale locale,
+            final AtomicInteger renders) {
+        return cache.get(component, locale, () -> {
+            renders.incrementAndGet();
+            return component + "@" + locale.getLanguage();
+        });
+    }
+
+    private List<TestAdvancement> buildAdvancements() {
+        final List<TestAdvancement> advancements = new ArrayList<>();
+        final TestAdvancement story = new TestAdvancement("minecraft", "story/root", null,
+                new TestDisplay("Minecraft", "The heart and story of the game"));
+        advancements.add(story);
+        advancements.add(new TestAdvancement("minecraft", "story/mine_stone", story,
+                new TestDisplay("Stone Age", "Mine Stone with your new Pickaxe")));
+        return advancements;
+    }
+
+    private AdvancementIndex acquire(final AdvancementIndexService service) {
+        try {
+            return service.acquire();
+        } catch (final AdvancementExportException exception) {
+            throw new AssertionError("Index should build", exception);
+        }
+    }
+}
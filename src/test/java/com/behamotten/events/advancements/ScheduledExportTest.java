@@ -0,0 +1,149 @@
+package com.behamotten.events.advancements;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import com.behamotten.events.advancements.AdvancementFixtures.TestAdvancement;
+import com.behamotten.events.advancements.AdvancementFixtures.TestDisplay;
+import com.behamotten.events.advancements.AdvancementFixtures.TestPlugin;
+import com.behamotten.events.metrics.AdaptiveThrottle;
+import com.behamotten.events.metrics.PluginMetrics;
+
+public final class ScheduledExportTest {
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+
+    public void run() {
+        cronFindsNextMatchingMinute();
+        cronRejectsMalformedExpressions();
+        dueExportIsDeferredWhileBusy();
+    }
+
+    private void cronFindsNextMatchingMinute() {
+        final ZonedDateTime start = ZonedDateTime.of(2024, 1, 31, 22, 59, 30, 0, ZONE);
+        expectNext("30 4 * * *", start, ZonedDateTime.of(2024, 2, 1, 4, 30, 0, 0, ZONE));
+        expectNext("*/15 * * * *", start, ZonedDateTime.of(2024, 1, 31, 23, 0, 0, 0, ZONE));
+        expectNext("0 9-17/4 * * 1-5", start, ZonedDateTime.of(2024, 2, 1, 9, 0, 0, 0, ZONE));
+        // 2024-02-03 is a Saturday, 7 and 0 both mean Sunday.
+        expectNext("0 0 * * 7", start, ZonedDateTime.of(2024, 2, 4, 0, 0, 0, 0, ZONE));
+        // Both day fields restricted: either may match.
+        expectNext("0 12 15 * 6", start, ZonedDateTime.of(2024, 2, 3, 12, 0, 0, 0, ZONE));
+        expectNext("0 0 29 2 *", start, ZonedDateTime.of(2024, 2, 29, 0, 0, 0, 0, ZONE));
+        if (CronSchedule.parse("0 0 30 2 *").next(start).isPresent()) {
+            throw new AssertionError("February 30th should never match");
+        }
+    }
+
+    private void cronRejectsMalformedExpressions() {
+        for (final String expression : List.of("", "* * * *", "60 * * * *", "* 24 * * *", "5-1 * * * *",
+                "* * 0 * *", "*/0 * * * *", "a * * * *")) {
+            try {
+                CronSchedule.parse(expression);
+                throw new AssertionError("Expression should be rejected: '" + expression + "'");
+            } catch (final IllegalArgumentException expected) {
+                // expected
+            }
+        }
+    }
+
+    private void dueExportIsDeferredWhileBusy() {
+        final TestPlugin plugin = createPlugin();
+        final List<Runnable> writes = new ArrayList<>();
+        final PluginMetrics metrics = new PluginMetrics();
+        final ExportCoordinator coordinator = new ExportCoordinator(plugin, new AdvancementIndexService(plugin, null),
+                writes::add, Runnable::run, AdaptiveThrottle.unlimited(), 0L, System::nanoTime, metrics);
+        final AtomicBoolean busy = new AtomicBoolean(true);
+        final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T03:59:00Z"));
+        final ScheduledExport export = new ScheduledExport(plugin, coordinator, metrics,
+                CronSchedule.parse("0 4 * * *"), ExportOptions.defaults().withReadOnly(true), busy::get,
+                Duration.ofMinutes(30), clock);
+        export.start();
+
+        export.check();
+        clock.advance(Duration.ofMinutes(1));
+        export.check();
+        export.check();
+        if (!writes.isEmpty() || value(metrics, "export_scheduled_deferrals_total") != 1) {
+            throw new AssertionError("Due export should be deferred once while the server is busy");
+        }
+
+        busy.set(false);
+        clock.advance(Duration.ofMinutes(5));
+        export.check();
+        if (writes.size() != 1 || value(metrics, "export_scheduled_runs_total") != 1) {
+            throw new AssertionError("Export should start once the server is no longer busy");
+        }
+        writes.remove(0).run();
+        if (value(metrics, "export_scheduled_last_advancements") != 2
+                || value(metrics, "export_scheduled_last_success_timestamp_seconds") != clock.millis() / 1000L
+                || !export.nextRun().equals(ZonedDateTime.of(2024, 1, 2, 4, 0, 0, 0, ZONE))) {
+            throw new AssertionError("Finished run should update the metrics and schedule the next run");
+        }
+
+        busy.set(true);
+        clock.advance(Duration.ofDays(1).plusMinutes(30));
+        export.check();
+        if (value(metrics, "export_scheduled_runs_total") != 2) {
+            throw new AssertionError("Export deferred for the maximum time should run even when busy");
+        }
+    }
+
+    private long value(final PluginMetrics metrics, final String name) {
+        final Map<String, Long> values = metrics.samples().stream()
+                .collect(Collectors.toMap(PluginMetrics.Sample::getName, PluginMetrics.Sample::getValue));
+        return values.getOrDefault(name, -1L);
+    }
+
+    private void expectNext(final String expression, final ZonedDateTime after, final ZonedDateTime expected) {
+        final ZonedDateTime next = CronSchedule.parse(expression).next(after).orElse(null);
+        if (!expected.equals(next)) {
+            throw new AssertionError("'" + expression + "' after " + after + " should fire at " + expected
+                    + " but fired at " + next);
+        }
+    }
+
+    private TestPlugin createPlugin() {
+        final List<TestAdvancement> advancements = new ArrayList<>();
+        final TestAdvancement root = new TestAdvancement("minecraft", "story/root", null,
+                new TestDisplay("Minecraft", "The heart and story of the game"));
+        advancements.add(root);
+        advancements.add(new TestAdvancement("minecraft", "story/mine_stone", root,
+                new TestDisplay("Stone Age", "Mine Stone with your new Pickaxe")));
+        return AdvancementFixtures.createPlugin(advancements);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(final Instant now) {
+            this.now = now;
+        }
+
+        void advance(final Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONE;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
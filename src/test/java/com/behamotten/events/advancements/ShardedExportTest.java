@@ -0,0 +1,155 @@
+package com.behamotten.events.advancements;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import com.behamotten.events.advancements.AdvancementFixtures.TestAdvancement;
+import com.behamotten.events.advancements.AdvancementFixtures.TestDisplay;
+import com.behamotten.events.advancements.AdvancementFixtures.TestPlugin;
+
+public final class ShardedExportTest {
+    private static final Pattern SHARD_PATTERN = Pattern.compile(
+            "\"file\": \"([^\"]+)\",\\s*\"advancaments\": (\\d+),\\s*\"sha256\": \"([0-9a-f]{64})\"");
+
+    public void run() {
+        namespaceShardsListCountsAndChecksums();
+        groupShardsSplitByRootAndRemoveStaleFiles();
+    }
+
+    private void namespaceShardsListCountsAndChecksums() {
+        final List<TestAdvancement> advancements = buildAdvancements(4, 30);
+        final TestPlugin plugin = AdvancementFixtures.createPlugin(advancements);
+        final AdvancementExporter.ExportResult result = export(plugin, ExportOptions.defaults()
+                .withSharding(ExportSharding.NAMESPACE).withFormat(ExportFormat.NDJSON));
+
+        if (result.shardCount() != 4) {
+            throw new AssertionError("Expected one shard per namespace but got " + result.shardCount());
+        }
+        final List<String[]> shards = readShards(result.outputFile());
+        int total = 0;
+        for (final String[] shard : shards) {
+            final Path file = result.outputFile().resolveSibling(shard[0]);
+            final long lines = lineCount(file);
+            if (lines != Long.parseLong(shard[1])) {
+                throw new AssertionError("Shard " + shard[0] + " lists " + shard[1] + " entries but has " + lines);
+            }
+            if (!sha256(file).equals(shard[2])) {
+                throw new AssertionError("Checksum mismatch for shard " + shard[0]);
+            }
+            total += Integer.parseInt(shard[1]);
+        }
+        if (total != advancements.size()) {
+            throw new AssertionError("Shards should contain every advancement exactly once");
+        }
+    }
+
+    private void groupShardsSplitByRootAndRemoveStaleFiles() {
+        final TestPlugin plugin = AdvancementFixtures.createPlugin(buildAdvancements(2, 10));
+        final ExportOptions byGroup = ExportOptions.defaults().withSharding(ExportSharding.GROUP);
+        final AdvancementExporter.ExportResult json = export(plugin, byGroup);
+        final List<String[]> jsonShards = readShards(json.outputFile());
+        if (jsonShards.size() != 4 || !jsonShards.get(0)[0].equals("pack0_root_a.json")) {
+            throw new AssertionError("Expected one JSON shard per root group but got " + jsonShards.size());
+        }
+
+        final Path directory = json.outputFile().getParent();
+        final List<Path> foreignFiles = List.of(directory.resolve("README.txt"),
+                directory.resolve("pack0_root_a.json.bak"), directory.resolve("Notes.json"));
+        try {
+            for (final Path file : foreignFiles) {
+                Files.writeString(file, "kept");
+            }
+        } catch (final IOException exception) {
+            throw new AssertionError("Could not create unrelated files", exception);
+        }
+
+        final AdvancementExporter.ExportResult csv = export(plugin, byGroup.withFormat(ExportFormat.CSV)
+                .withGzip(true));
+        if (csv.wasUpToDate()) {
+            throw new AssertionError("Changing the format must not reuse the previous sharded export");
+        }
+        try (Stream<Path> files = Files.list(csv.outputFile().getParent())) {
+            final long jsonFiles = files.filter(file -> file.getFileName().toString().endsWith(".json"))
+                    .filter(file -> !file.getFileName().toString().equals("index.json"))
+                    .filter(file -> !file.getFileName().toString().equals("Notes.json")).count();
+            if (jsonFiles != 0) {
+                throw new AssertionError("Stale JSON shards should be removed after re-export");
+            }
+        } catch (final IOException exception) {
+            throw new AssertionError("Could not list shard directory", exception);
+        }
+        for (final Path file : foreignFiles) {
+            if (!Files.isRegularFile(file)) {
+                throw new AssertionError("Files that are not shards must survive a re-export: " + file);
+            }
+        }
+        if (readShards(csv.outputFile()).size() != 4) {
+            throw new AssertionError("CSV export should list four shards");
+        }
+    }
+
+    private List<TestAdvancement> buildAdvancements(final int namespaces, final int perRoot) {
+        final List<TestAdvancement> advancements = new ArrayList<>();
+        for (int n = 0; n < namespaces; n++) {
+            for (final String rootName : new String[] {"root/a", "root/b"}) {
+                final TestAdvancement root = new TestAdvancement("pack" + n, rootName, null,
+                        new TestDisplay("Pack " + n + " " + rootName, null));
+                advancements.add(root);
+                TestAdvancement parent = root;
+                for (int i = 0; i < perRoot; i++) {
+                    final TestAdvancement child = new TestAdvancement("pack" + n, rootName + "/child_" + i, parent,
+                            new TestDisplay("Child " + i, "Description " + i));
+                    advancements.add(child);
+                    parent = i % 2 == 0 ? child : root;
+                }
+            }
+        }
+        return advancements;
+    }
+
+    private AdvancementExporter.ExportResult export(final TestPlugin plugin, final ExportOptions options) {
+        try {
+            return new AdvancementExporter(plugin).export(options);
+        } catch (final AdvancementExportException exception) {
+            throw new AssertionError("Export should succeed", exception);
+        }
+    }
+
+    private List<String[]> readShards(final Path indexFile) {
+        final List<String[]> shards = new ArrayList<>();
+        try {
+            final Matcher matcher = SHARD_PATTERN.matcher(Files.readString(indexFile));
+            while (matcher.find()) {
+                shards.add(new String[] {matcher.group(1), matcher.group(2), matcher.group(3)});
+            }
+        } catch (final IOException exception) {
+            throw new AssertionError("Could not read shard index " + indexFile, exception);
+        }
+        return shards;
+    }
+
+    private long lineCount(final Path file) {
+        try (Stream<String> lines = Files.lines(file)) {
+            return lines.count();
+        } catch (final IOException exception) {
+            throw new AssertionError("Could not read shard " + file, exception);
+        }
+    }
+
+    private String sha256(final Path file) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file)));
+        } catch (final IOException | NoSuchAlgorithmException exception) {
+            throw new AssertionError("Could not hash " + file, exception);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.behamotten.events.advancements;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.bukkit.advancement.Advancement;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.SimulatedServer;
+
+import com.behamotten.events.advancements.AdvancementFixtures.TestPlugin;
+
+public final class SimulatedServerTest {
+
+    public void run() {
+        generatesTheConfiguredTreesDeterministically();
+        exportsModpackSizedServersReproducibly();
+        awardsEveryCriterionToSimulatedPlayers();
+        callsTakeTheConfiguredLatency();
+    }
+
+    private void generatesTheConfiguredTreesDeterministically() {
+        final SimulatedServer.Settings settings = SimulatedServer.Settings.defaults().withAdvancements(3000)
+                .withDepth(5).withBranching(3).withSeed(7L);
+        final SimulatedServer server = new SimulatedServer(settings);
+        final List<Advancement> advancements = server.advancements();
+        if (advancements.size() != 3000) {
+            throw new AssertionError("Expected 3000 advancements, got " + advancements.size());
+        }
+        int deepest = 0;
+        for (final Advancement advancement : advancements) {
+            int depth = 0;
+            for (Advancement current = advancement; current != null; current = current.getParent()) {
+                depth++;
+            }
+            deepest = Math.max(deepest, depth);
+        }
+        if (deepest != 5) {
+            throw new AssertionError("Trees should reach but not exceed the configured depth, got " + deepest);
+        }
+        final List<Advancement> again = new SimulatedServer(settings).advancements();
+        for (int i = 0; i < advancements.size(); i++) {
+            if (!advancements.get(i).getKey().equals(again.get(i).getKey())) {
+                throw new AssertionError("Equal settings should generate equal iteration orders");
+            }
+        }
+    }
+
+    private void exportsModpackSizedServersReproducibly() {
+        final SimulatedServer.Settings settings = SimulatedServer.Settings.defaults().withAdvancements(20_000)
+                .withDepth(10).withNamespaces(40);
+        final String first = exportWithoutTimestamp(new SimulatedServer(settings));
+        final String second = exportWithoutTimestamp(new SimulatedServer(settings));
+        if (!first.equals(second)) {
+            throw new AssertionError("Exports of equally configured servers should be identical");
+        }
+        if (first.equals(exportWithoutTimestamp(new SimulatedServer(settings.withSeed(2L))))) {
+            throw new AssertionError("A different seed should produce a different server");
+        }
+    }
+
+    private String exportWithoutTimestamp(final SimulatedServer server) {
+        final TestPlugin plugin = AdvancementFixtures.createPlugin(server);
+        try {
+            final AdvancementExporter.ExportResult result = new AdvancementExporter(plugin).export();
+            if (result.advancementCount() != server.advancements().size()) {
+                throw new AssertionError("Every simulated advancement should be exported, got "
+                        + result.advancementCount());
+            }
+            return AdvancementFixtures.readWithoutTimestamp(result.outputFile());
+        } catch (final AdvancementExportException exception) {
+            throw new AssertionError("Export of the simulated server failed", exception);
+        }
+    }
+
+    private void awardsEveryCriterionToSimulatedPlayers() {
+        final SimulatedServer server = new SimulatedServer(SimulatedServer.Settings.defaults().withAdvancements(500)
+                .withCriteria(4).withPlayers(3));
+        final Player player = server.getOnlinePlayers().iterator().next();
+        try {
+            new AdvancementExporter(AdvancementFixtures.createPlugin(server), player).export();
+        } catch (final AdvancementExportException exception) {
+            throw new AssertionError("Export for a simulated player failed", exception);
+        }
+        for (final Advancement advancement : server.advancements()) {
+            if (!player.getAdvancementProgress(advancement).getRemainingCriteria().isEmpty()) {
+                throw new AssertionError("All criteria of " + advancement.getKey() + " should be awarded");
+            }
+        }
+    }
+
+    private void callsTakeTheConfiguredLatency() {
+        final Duration latency = Duration.ofNanos(20_000);
+        final SimulatedServer server = new SimulatedServer(SimulatedServer.Settings.defaults().withAdvancements(200)
+                .withCallLatency(latency));
+        final long started = System.nanoTime();
+        try {
+            new AdvancementIndexService(AdvancementFixtures.createPlugin(server), null).acquire();
+        } catch (final AdvancementExportException exception) {
+            throw new AssertionError("Capturing the simulated server failed", exception);
+        }
+        final long elapsed = System.nanoTime() - started;
+        if (server.calls() < 200 || elapsed < server.calls() * latency.toNanos()) {
+            throw new AssertionError("Each of the " + server.calls() + " calls should take the configured latency,"
+                    + " took " + elapsed + " ns in total");
+        }
+    }
+}
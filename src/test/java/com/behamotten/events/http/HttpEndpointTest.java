@@ -0,0 +1,193 @@
+package com.behamotten.events.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public final class HttpEndpointTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    public void run() {
+        final Path directory;
+        final HttpEndpoint endpoint;
+        try {
+            directory = Files.createTempDirectory("behamotten-http-test");
+            endpoint = new HttpEndpoint(Logger.getLogger("HttpEndpointTest"), 0);
+        } catch (final IOException exception) {
+            throw new AssertionError("Endpoint should start", exception);
+        }
+        final AtomicReference<Map<String, Object>> snapshot = new AtomicReference<>(Map.of("version", 1L));
+        final AtomicInteger renders = new AtomicInteger();
+        endpoint.serveJson("/participants", snapshot::get, value -> (Long) value.get("version"), value -> {
+            renders.incrementAndGet();
+            return value;
+        });
+        final Path plain = directory.resolve("export.json");
+        final Path compressed = directory.resolve("export.json.gz");
+        endpoint.serveFile("/export", "application/json", List.of(plain, compressed));
+        final AtomicInteger scrapes = new AtomicInteger();
+        endpoint.serveText("/metrics", "text/plain", () -> "scrape " + scrapes.incrementAndGet() + "\n");
+        endpoint.start();
+        try {
+            servesVersionedJson(endpoint, snapshot, renders);
+            servesNewestFile(endpoint, plain, compressed);
+            servesTextPerRequest(endpoint);
+            rejectsOtherMethodsAndPaths(endpoint);
+        } finally {
+            endpoint.stop();
+        }
+    }
+
+    private void servesVersionedJson(final HttpEndpoint endpoint,
+            final AtomicReference<Map<String, Object>> snapshot, final AtomicInteger renders) {
+        final HttpResponse<byte[]> first = get(endpoint, "/participants", null, false);
+        final String etag = first.headers().firstValue("ETag").orElse("");
+        if (first.statusCode() != 200 || etag.length() != 34
+                || !new String(first.body(), StandardCharsets.UTF_8).contains("\"version\": 1")) {
+            throw new AssertionError("Expected version 1 with its entity tag, got " + first.statusCode() + " " + etag);
+        }
+        if (get(endpoint, "/participants", etag, false).statusCode() != 304) {
+            throw new AssertionError("A matching If-None-Match should answer 304");
+        }
+        final HttpResponse<byte[]> gzipped = get(endpoint, "/participants", null, true);
+        if (!gzipped.headers().firstValue("Content-Encoding").orElse("").equals("gzip")
+                || !gzipped.headers().firstValue("ETag").orElse("").equals(etag.substring(0, 33) + "-gzip\"")
+                || !gunzip(gzipped.body()).equals(new String(first.body(), StandardCharsets.UTF_8))) {
+            throw new AssertionError("Gzip responses should carry the compressed document under their own tag");
+        }
+        if (renders.get() != 1) {
+            throw new AssertionError("Each version should be rendered once, got " + renders.get() + " renders");
+        }
+        snapshot.set(Map.of("version", 2L));
+        final HttpResponse<byte[]> changed = get(endpoint, "/participants", etag, false);
+        if (changed.statusCode() != 200 || changed.headers().firstValue("ETag").orElse(etag).equals(etag)) {
+            throw new AssertionError("A new version should be served in full");
+        }
+        // After a restart the version counter starts over, but only the content decides the tag.
+        snapshot.set(Map.of("version", 1L, "restarted", true));
+        if (get(endpoint, "/participants", etag, false).statusCode() != 200) {
+            throw new AssertionError("Other content with a reused version should not answer 304");
+        }
+    }
+
+    private void servesNewestFile(final HttpEndpoint endpoint, final Path plain, final Path compressed) {
+        if (get(endpoint, "/export", null, false).statusCode() != 404) {
+            throw new AssertionError("Missing exports should answer 404");
+        }
+        final String content = "{\"advancaments\": []}";
+        try {
+            Files.writeString(plain, content, StandardCharsets.UTF_8);
+        } catch (final IOException exception) {
+            throw new AssertionError(exception);
+        }
+        final HttpResponse<byte[]> file = get(endpoint, "/export", null, false);
+        final String etag = file.headers().firstValue("ETag").orElse("");
+        if (file.statusCode() != 200 || !new String(file.body(), StandardCharsets.UTF_8).equals(content)
+                || etag.length() != 34) {
+            throw new AssertionError("The export should be served with a hash tag, got " + etag);
+        }
+        if (get(endpoint, "/export", etag, false).statusCode() != 304) {
+            throw new AssertionError("An unchanged export should answer 304");
+        }
+        if (!gunzip(get(endpoint, "/export", null, true).body()).equals(content)) {
+            throw new AssertionError("Plain exports should be compressed for gzip clients");
+        }
+
+        final String newer = "{\"advancaments\": [1]}";
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+            out.write(newer.getBytes(StandardCharsets.UTF_8));
+        } catch (final IOException exception) {
+            throw new AssertionError(exception);
+        }
+        try {
+            Files.setLastModifiedTime(compressed,
+                    FileTime.fromMillis(Files.getLastModifiedTime(plain).toMillis() + 1000));
+            final HttpResponse<byte[]> stored = get(endpoint, "/export", etag, true);
+            if (stored.statusCode() != 200 || !Arrays.equals(stored.body(), Files.readAllBytes(compressed))) {
+                throw new AssertionError("A newer compressed export should be sent unchanged to gzip clients");
+            }
+        } catch (final IOException exception) {
+            throw new AssertionError(exception);
+        }
+        final HttpResponse<byte[]> inflated = get(endpoint, "/export", null, false);
+        if (!new String(inflated.body(), StandardCharsets.UTF_8).equals(newer)
+                || inflated.headers().firstValue("Content-Encoding").isPresent()) {
+            throw new AssertionError("Compressed exports should be decompressed for other clients");
+        }
+    }
+
+    private void servesTextPerRequest(final HttpEndpoint endpoint) {
+        final HttpResponse<byte[]> first = get(endpoint, "/metrics", null, false);
+        if (!new String(first.body(), StandardCharsets.UTF_8).equals("scrape 1\n")
+                || first.headers().firstValue("ETag").isPresent()) {
+            throw new AssertionError("Text should be produced per request without an entity tag");
+        }
+        if (!gunzip(get(endpoint, "/metrics", null, true).body()).equals("scrape 2\n")) {
+            throw new AssertionError("Text should be compressed for gzip clients");
+        }
+    }
+
+    private void rejectsOtherMethodsAndPaths(final HttpEndpoint endpoint) {
+        final HttpRequest post = HttpRequest.newBuilder(uri(endpoint, "/participants"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build();
+        if (send(post).statusCode() != 405) {
+            throw new AssertionError("Only GET and HEAD should be allowed");
+        }
+        if (get(endpoint, "/participants/other", null, false).statusCode() != 404
+                || get(endpoint, "/missing", null, false).statusCode() != 404) {
+            throw new AssertionError("Unknown paths should answer 404");
+        }
+    }
+
+    private HttpResponse<byte[]> get(final HttpEndpoint endpoint, final String path, final String ifNoneMatch,
+            final boolean gzip) {
+        final HttpRequest.Builder request = HttpRequest.newBuilder(uri(endpoint, path)).GET();
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        if (gzip) {
+            request.header("Accept-Encoding", "gzip");
+        }
+        return send(request.build());
+    }
+
+    private HttpResponse<byte[]> send(final HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (final IOException exception) {
+            throw new AssertionError("Request failed", exception);
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError("Interrupted", exception);
+        }
+    }
+
+    private URI uri(final HttpEndpoint endpoint, final String path) {
+        return URI.create("http://127.0.0.1:" + endpoint.port() + path);
+    }
+
+    private String gunzip(final byte[] body) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (final IOException exception) {
+            throw new AssertionError("Body is not gzip", exception);
+        }
+    }
+}
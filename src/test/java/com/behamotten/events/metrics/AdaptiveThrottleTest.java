@@ -0,0 +1,113 @@
+package com.behamotten.events.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.plugin.java.JavaPlugin;
+
+public final class AdaptiveThrottleTest {
+
+    public void run() {
+        monitorSmoothsTickIntervals();
+        budgetShrinksUnderLoadAndRecoversWhenIdle();
+        acquirePacesWorkToTheBudget();
+        inconsistentBoundsAreRejected();
+    }
+
+    private void monitorSmoothsTickIntervals() {
+        final long[] now = {0L};
+        final PluginMetrics metrics = new PluginMetrics();
+        final LoadMonitor monitor = new LoadMonitor(new JavaPlugin(), metrics, () -> now[0]);
+        final int[] notifications = {0};
+        monitor.addListener(source -> notifications[0]++);
+        monitor.start();
+        for (int i = 0; i < 100; i++) {
+            now[0] += TimeUnit.MILLISECONDS.toNanos(80);
+            monitor.tick();
+        }
+        if (monitor.mspt() < 79.0 || monitor.mspt() > 80.0 || Math.abs(monitor.tps() - 12.5) > 0.2) {
+            throw new AssertionError("MSPT should converge to the tick interval, got " + monitor.mspt());
+        }
+        if (notifications[0] != 5) {
+            throw new AssertionError("Listeners should be notified once per 20 ticks, got " + notifications[0]);
+        }
+        final long gauge = metrics.samples().get(0).getValue();
+        if (gauge != Math.round(monitor.mspt() * 1000.0)) {
+            throw new AssertionError("Tick duration gauge should report microseconds, got " + gauge);
+        }
+        // Without a reported tick time, ticks on schedule say nothing about their duration and count as idle.
+        for (int i = 0; i < 100; i++) {
+            now[0] += TimeUnit.MILLISECONDS.toNanos(51);
+            monitor.tick();
+        }
+        if (monitor.mspt() > 1.0 || monitor.tps() != 20.0) {
+            throw new AssertionError("Ticks on schedule should decay the estimate, got " + monitor.mspt());
+        }
+    }
+
+    private void budgetShrinksUnderLoadAndRecoversWhenIdle() {
+        final AdaptiveThrottle throttle = new AdaptiveThrottle(4, 64, 30.0, 45.0, System::nanoTime);
+        if (throttle.budget() != 64 || throttle.isOverloaded()) {
+            throw new AssertionError("A fresh throttle should start with the full budget");
+        }
+        throttle.adjust(60.0);
+        throttle.adjust(60.0);
+        if (throttle.budget() != 16 || !throttle.isOverloaded()) {
+            throw new AssertionError("Budget should halve per busy second, got " + throttle.budget());
+        }
+        for (int i = 0; i < 10; i++) {
+            throttle.adjust(100.0);
+        }
+        if (throttle.budget() != 4) {
+            throw new AssertionError("Budget should not fall below the minimum, got " + throttle.budget());
+        }
+        throttle.adjust(40.0);
+        if (throttle.budget() != 4 || throttle.isOverloaded()) {
+            throw new AssertionError("Between the thresholds the budget should hold, got " + throttle.budget());
+        }
+        throttle.adjust(20.0);
+        if (throttle.budget() != 8) {
+            throw new AssertionError("Idle seconds should grow the budget by a sixteenth, got " + throttle.budget());
+        }
+        for (int i = 0; i < 30; i++) {
+            throttle.adjust(20.0);
+        }
+        if (throttle.budget() != 64) {
+            throw new AssertionError("Budget should not exceed the maximum, got " + throttle.budget());
+        }
+    }
+
+    private void acquirePacesWorkToTheBudget() {
+        // 10 units per 50 ms tick: 30 units take two more ticks after the initial burst.
+        final AdaptiveThrottle throttle = new AdaptiveThrottle(10, 10, 30.0, 45.0, System::nanoTime);
+        final long start = System.nanoTime();
+        try {
+            for (int i = 0; i < 30; i++) {
+                throttle.acquire(1);
+            }
+            AdaptiveThrottle.unlimited().acquire(Integer.MAX_VALUE);
+        } catch (final InterruptedException exception) {
+            throw new AssertionError("Acquire should not be interrupted", exception);
+        }
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (elapsedMillis < 80) {
+            throw new AssertionError("Work beyond the budget should be paced, took only " + elapsedMillis + " ms");
+        }
+    }
+
+    private void inconsistentBoundsAreRejected() {
+        for (final int[] bounds : new int[][] {{0, 10}, {10, 5}}) {
+            try {
+                new AdaptiveThrottle(bounds[0], bounds[1], 30.0, 45.0, System::nanoTime);
+                throw new AssertionError("Bounds should be rejected: " + bounds[0] + "-" + bounds[1]);
+            } catch (final IllegalArgumentException expected) {
+                // expected
+            }
+        }
+        try {
+            new AdaptiveThrottle(1, 10, 45.0, 30.0, System::nanoTime);
+            throw new AssertionError("Busy threshold below the idle threshold should be rejected");
+        } catch (final IllegalArgumentException expected) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.behamotten.events.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.bukkit.plugin.java.JavaPlugin;
+
+public final class PrometheusFormatTest {
+
+    public void run() {
+        rendersCountersAndGaugesWithHelpAndType();
+        textFileIsReplacedWithCurrentValues();
+    }
+
+    private void rendersCountersAndGaugesWithHelpAndType() {
+        final PluginMetrics metrics = new PluginMetrics();
+        metrics.counter("saves_total", "Files written\\nowhere\nelse.").add(3);
+        metrics.gauge("participants", "Registered participants.", () -> 42L);
+        final String expected = "# HELP behamotten_participants Registered participants.\n"
+                + "# TYPE behamotten_participants gauge\n"
+                + "behamotten_participants 42\n"
+                + "# HELP behamotten_saves_total Files written\\\\nowhere\\nelse.\n"
+                + "# TYPE behamotten_saves_total counter\n"
+                + "behamotten_saves_total 3\n";
+        final String actual = PrometheusFormat.format(metrics);
+        if (!expected.equals(actual)) {
+            throw new AssertionError("Unexpected exposition:\n" + actual);
+        }
+    }
+
+    private void textFileIsReplacedWithCurrentValues() {
+        final PluginMetrics metrics = new PluginMetrics();
+        final PluginMetrics.Counter counter = metrics.counter("runs_total", "Runs.");
+        final Path file;
+        try {
+            file = Files.createTempDirectory("behamotten-metrics-test").resolve("metrics.prom");
+        } catch (final IOException exception) {
+            throw new AssertionError(exception);
+        }
+        final PrometheusTextFile textFile = new PrometheusTextFile(new JavaPlugin(), metrics, file, 20L);
+        textFile.write();
+        counter.increment();
+        textFile.write();
+        try {
+            if (!Files.readString(file, StandardCharsets.UTF_8).contains("behamotten_runs_total 1\n")) {
+                throw new AssertionError("The text file should hold the latest values");
+            }
+            try (var files = Files.list(file.getParent())) {
+                if (files.count() != 1) {
+                    throw new AssertionError("Temporary files should not be left behind");
+                }
+            }
+        } catch (final IOException exception) {
+            throw new AssertionError(exception);
+        }
+    }
+}